@@ -1,19 +1,28 @@
 package com.atelierlocal;
 
+import java.util.Map;
 import java.util.TimeZone;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Point d'entrée principal de l'application Spring Boot.
  * 
  * Cette classe initialise le contexte Spring, configure JPA et définit
  * le fuseau horaire par défaut de l'application.
+ * Les tâches planifiées (@Scheduled) sont activées.
+ *
+ * Derrière un reverse proxy, l'adresse du client est lue dans les en-têtes X-Forwarded-*
+ * ("server.forward-headers-strategy=native" par défaut) : Tomcat ne les prend en compte que si la
+ * requête provient d'un proxy interne ("server.tomcat.remoteip.internal-proxies", réseaux privés
+ * par défaut), si bien qu'un client joignant directement le serveur ne peut pas usurper son adresse.
  */
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.atelierlocal.repository")
+@EnableScheduling
 public class BackendApplication {
 
     /**
@@ -21,6 +30,7 @@ public class BackendApplication {
      * 
      * - Définit le fuseau horaire par défaut sur UTC afin d'assurer 
      *   une cohérence dans la gestion des dates et heures entre le serveur et les clients.
+     * - Active par défaut la prise en compte des en-têtes de proxy (surchargeable par la configuration).
      * - Lance l'application Spring Boot à l'aide de {@link SpringApplication#run}.
      * 
      * @param args arguments de la ligne de commande (non utilisés ici)
@@ -30,6 +40,8 @@ public class BackendApplication {
         TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
         
         // Démarrage du contexte Spring Boot
-        SpringApplication.run(BackendApplication.class, args);
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        application.setDefaultProperties(Map.of("server.forward-headers-strategy", "native"));
+        application.run(args);
     }
 }
@@ -0,0 +1,105 @@
+package com.atelierlocal.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des chaînes de caractères.
+ *
+ * Répond "absent" de façon certaine, ou "peut-être présent" avec un taux de faux positifs
+ * fixé à la construction pour le nombre d'éléments attendu. Il occupe environ 10 bits par
+ * élément pour 1 % de faux positifs, quelle que soit la longueur des chaînes.
+ * Les éléments ne peuvent pas être retirés : le filtre est reconstruit quand il faut oublier des éléments.
+ *
+ * Les lectures et les ajouts peuvent être concurrents (tableau de bits atomique).
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Crée un filtre dimensionné pour "expectedInsertions" éléments.
+     *
+     * @param expectedInsertions nombre d'éléments attendus
+     * @param falsePositiveRate taux de faux positifs visé à ce nombre d'éléments (entre 0 et 1 exclus)
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Le nombre d'éléments attendus doit être strictement positif.");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Le taux de faux positifs doit être compris entre 0 et 1 exclus.");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (optimalBits + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Ajoute un élément.
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0
+                    && !bits.compareAndSet(word, current, current | mask)) {
+                // Un autre bit du même mot a été positionné entre-temps : nouvel essai
+            }
+        }
+    }
+
+    /**
+     * Indique si l'élément a peut-être été ajouté.
+     *
+     * @return false si l'élément n'a certainement jamais été ajouté
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    private long index(int combinedHash) {
+        // Double hachage (Kirsch-Mitzenmacher) : les k positions sont dérivées de deux valeurs
+        return (combinedHash & 0x7fffffffL) % bitCount;
+    }
+
+    /**
+     * Empreinte 64 bits FNV-1a des octets UTF-8, brassée pour répartir les bits de poids fort et faible.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,209 @@
+package com.atelierlocal.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Cache mémoire borné en taille, dont les entrées expirent après une durée fixe.
+ *
+ * Au-delà de la taille maximale, l'entrée la moins récemment lue est évincée.
+ * Une entrée peut recevoir une durée de vie plus courte que celle du cache (voir put avec durée).
+ * Les chargements simultanés d'une même clé sont regroupés : un seul appel au chargeur
+ * est effectué, les autres appelants attendent et reçoivent le même résultat.
+ * Les erreurs de chargement ne sont pas mises en cache.
+ *
+ * @param <K> type des clés
+ * @param <V> type des valeurs (non nulles)
+ */
+public class ExpiringCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Crée un cache utilisant l'horloge système.
+     *
+     * @param maxSize nombre maximal d'entrées
+     * @param ttl durée de vie d'une entrée
+     */
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * Crée un cache avec une horloge fournie (en nanosecondes), utile pour les tests.
+     *
+     * @throws IllegalArgumentException si la taille ou la durée de vie ne sont pas strictement positives
+     */
+    public ExpiringCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("La taille du cache doit être strictement positive.");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("La durée de vie des entrées doit être strictement positive.");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    // LECTURE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Renvoie la valeur en cache si elle existe et n'a pas expiré.
+     */
+    public Optional<V> getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (clock.getAsLong() - entry.expiresAt >= 0) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.value);
+        }
+    }
+
+    /**
+     * Renvoie la valeur en cache, ou la charge avec "loader" puis la met en cache.
+     *
+     * Si un chargement de la même clé est déjà en cours, attend son résultat plutôt
+     * que d'appeler le chargeur une seconde fois.
+     *
+     * @param key clé recherchée
+     * @param loader fonction de chargement, appelée au plus une fois à la fois par clé
+     * @return valeur en cache ou chargée
+     * @throws RuntimeException l'exception levée par le chargeur (également transmise aux appelants en attente)
+     */
+    public V get(K key, Function<K, V> loader) {
+        Optional<V> cached = getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, loading);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // Un chargement concurrent a pu se terminer entre la lecture et la réservation
+            V value = getIfPresent(key).orElseGet(() -> Objects.requireNonNull(loader.apply(key)));
+            put(key, value);
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ÉCRITURE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Ajoute ou remplace une valeur, avec la durée de vie du cache.
+     */
+    public void put(K key, V value) {
+        store(key, value, ttlNanos);
+    }
+
+    /**
+     * Ajoute ou remplace une valeur qui expire au plus tard après "ttl"
+     * (la durée de vie du cache reste un maximum). Une durée nulle ou négative n'ajoute rien.
+     */
+    public void put(K key, V value, Duration ttl) {
+        store(key, value, Math.min(ttl.toNanos(), ttlNanos));
+    }
+
+    /**
+     * Retire une valeur du cache.
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Retire toutes les valeurs qui vérifient le prédicat (parcours complet du cache).
+     */
+    public void invalidateIf(Predicate<? super V> predicate) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> predicate.test(entry.value));
+        }
+    }
+
+    /**
+     * Vide le cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Nombre d'entrées actuellement en cache (y compris celles expirées mais pas encore relues).
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    private void store(K key, V value, long entryTtlNanos) {
+        Objects.requireNonNull(value);
+        if (entryTtlNanos <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, clock.getAsLong() + entryTtlNanos));
+        }
+    }
+
+    private V await(CompletableFuture<V> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
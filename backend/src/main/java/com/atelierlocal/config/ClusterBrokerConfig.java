@@ -0,0 +1,66 @@
+package com.atelierlocal.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+
+import com.atelierlocal.messaging.ClusterBrokerRelay;
+import com.atelierlocal.messaging.ClusterTransport;
+import com.atelierlocal.messaging.InProcessClusterTransport;
+import com.atelierlocal.messaging.PostgresClusterTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Classe de configuration du mode cluster du broker WebSocket ("websocket.broker.mode" égal à "cluster").
+ *
+ * Chaque nœud garde son broker simple pour ses propres sessions ; le relais diffuse aux autres nœuds
+ * les messages destinés à un utilisateur ou à un topic, via le transport choisi par
+ * "websocket.cluster.transport" :
+ * - "postgres" (par défaut) : LISTEN / NOTIFY sur la base partagée ;
+ * - "in-process" : diffusion en mémoire entre nœuds d'une même JVM (tests).
+ */
+@Configuration
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "cluster")
+public class ClusterBrokerConfig {
+
+    /**
+     * Transport PostgreSQL entre les nœuds.
+     *
+     * @param channel nom du canal LISTEN / NOTIFY
+     * @param queueCapacity nombre maximal de messages en attente d'envoi
+     */
+    @Bean
+    @ConditionalOnProperty(name = "websocket.cluster.transport", havingValue = "postgres", matchIfMissing = true)
+    public ClusterTransport postgresClusterTransport(DataSource dataSource, ObjectMapper objectMapper,
+                @Value("${websocket.cluster.channel:atelierlocal_ws}") String channel,
+                @Value("${websocket.cluster.queue-capacity:10000}") int queueCapacity) {
+        return new PostgresClusterTransport(dataSource, objectMapper, channel, queueCapacity);
+    }
+
+    /**
+     * Transport en mémoire, pour faire tourner plusieurs nœuds dans une même JVM.
+     *
+     * @param channel nom du canal partagé par les nœuds
+     */
+    @Bean
+    @ConditionalOnProperty(name = "websocket.cluster.transport", havingValue = "in-process")
+    public ClusterTransport inProcessClusterTransport(@Value("${websocket.cluster.channel:atelierlocal_ws}") String channel) {
+        return new InProcessClusterTransport(channel);
+    }
+
+    /**
+     * Relais branché sur le canal du broker par WebSocketConfig.
+     * Le canal est résolu à la réception du premier message, une fois le contexte démarré.
+     */
+    @Bean
+    public ClusterBrokerRelay clusterBrokerRelay(ClusterTransport clusterTransport,
+                @Qualifier("brokerChannel") ObjectProvider<MessageChannel> brokerChannel) {
+        return new ClusterBrokerRelay(clusterTransport, brokerChannel::getObject, WebSocketConfig.USER_DESTINATION_PREFIX);
+    }
+}
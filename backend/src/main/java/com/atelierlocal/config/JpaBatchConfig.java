@@ -0,0 +1,36 @@
+package com.atelierlocal.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuration du regroupement des écritures JDBC par Hibernate.
+ *
+ * Les INSERT et UPDATE d'un même flush sont envoyés par lots ("hibernate.jdbc.batch_size")
+ * et triés par entité pour que les lots soient aussi grands que possible. Les identifiants
+ * des entités étant des UUID générés côté application (pas de colonne IDENTITY), le regroupement
+ * des insertions reste possible. Côté pilote PostgreSQL, "reWriteBatchedInserts=true" dans l'URL
+ * de connexion transforme en plus chaque lot en un seul INSERT multi-lignes.
+ *
+ * Les valeurs ne s'appliquent que si elles ne sont pas déjà définies dans "spring.jpa.properties".
+ */
+@Configuration
+public class JpaBatchConfig {
+
+    /**
+     * Réglages de regroupement des écritures.
+     *
+     * @param batchSize nombre maximal d'instructions par lot
+     * @return personnalisation des propriétés Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${persistence.jdbc.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.atelierlocal.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +16,7 @@ import software.amazon.awssdk.services.s3.S3Client;
  * Classe de configuration pour AWS S3.
  * Cette classe configure un client S3 (S3Client) pour interagir avec le service S3 d'AWS.
  * Les propriétés de connexion (clé, secret, région) sont injectées via la classe S3Properties.
+ * Le client n'est créé que si le stockage S3 est actif ("storage.backend" absent ou égal à "s3").
  */
 @Configuration
 @EnableConfigurationProperties(S3Properties.class) // Permet de lier la configuration S3Properties aux propriétés Spring
@@ -27,6 +29,7 @@ public class S3Config {
      * @return un S3Client prêt à être utilisé pour les opérations S3
      */
     @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
     public S3Client s3Client(S3Properties s3Properties) {
 
         // DEBUG : affichage des informations de configuration pour vérification
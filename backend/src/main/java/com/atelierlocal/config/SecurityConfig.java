@@ -8,7 +8,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -17,8 +17,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.atelierlocal.security.CustomUserDetailsService;
 import com.atelierlocal.security.JwtAuthenticationFilter;
-
-import jakarta.servlet.http.HttpServletResponse;
+import com.atelierlocal.service.PasswordService;
 
 /**
  * Classe de configuration de la sécurité de l'application.
@@ -27,7 +26,7 @@ import jakarta.servlet.http.HttpServletResponse;
  * - Gestion de l'authentification JWT
  * - CORS pour autoriser les requêtes depuis le frontend
  * - Autorisation des endpoints publics et protection des endpoints privés
- * - Gestion du logout
+ * - Déconnexion déléguée à LoginController (révocation du JWT)
  */
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true) // Active les annotations @PreAuthorize/@PostAuthorize
@@ -35,18 +34,30 @@ public class SecurityConfig {
 
     /**
      * Bean pour le chiffrement des mots de passe avec Argon2.
-     * Paramètres :
-     *  - saltLength: 16
-     *  - hashLength: 32
-     *  - parallelism: 1
-     *  - memory: 65536 KB
-     *  - iterations: 3
+     * Délègue à PasswordService : un seul jeu de paramètres Argon2 (calibré au démarrage)
+     * et les mêmes limites de hachages simultanés que pour l'inscription et la connexion.
      * 
-     * @return un encodeur Argon2PasswordEncoder
+     * @param passwordService service de hachage des mots de passe
+     * @return un encodeur de mot de passe Argon2
      */
     @Bean
-    public Argon2PasswordEncoder passwordEncoder() {
-        return new Argon2PasswordEncoder(16, 32, 1, 65536, 3);
+    public PasswordEncoder passwordEncoder(PasswordService passwordService) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return passwordService.hashPassword(rawPassword.toString());
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return passwordService.verifyPassword(encodedPassword, rawPassword.toString());
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return passwordService.needsRehash(encodedPassword);
+            }
+        };
     }
 
     /**
@@ -68,7 +79,7 @@ public class SecurityConfig {
      * - CORS avec la configuration définie dans corsConfigurationSource()
      * - Endpoints publics et sécurisés
      * - JWT filter avant UsernamePasswordAuthenticationFilter
-     * - Gestion du logout et suppression du cookie JWT
+     * - Logout Spring désactivé au profit de LoginController
      * 
      * @param http objet HttpSecurity
      * @param jwtFilter filtre JWT pour authentification des requêtes
@@ -81,7 +92,7 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http, 
                                            JwtAuthenticationFilter jwtFilter,
                                            CustomUserDetailsService userDetailsService,
-                                           Argon2PasswordEncoder passwordEncoder) throws Exception {
+                                           PasswordEncoder passwordEncoder) throws Exception {
         return http
             // Désactivation CSRF car API stateless
             .csrf(csrf -> csrf.disable())
@@ -99,7 +110,8 @@ public class SecurityConfig {
                     "/api/geocode/**",
                     "/api/avatar/**",
                     "/api/event-categories/**",
-                    "/api/askings/**"
+                    "/api/askings/**",
+                    "/api/files/**"
                 ).permitAll()
                 // Tout le reste nécessite une authentification
                 .anyRequest().authenticated()
@@ -108,15 +120,9 @@ public class SecurityConfig {
             .userDetailsService(userDetailsService)
             // Ajout du filtre JWT avant le filtre standard UsernamePasswordAuthenticationFilter
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
-            // Gestion du logout
-            .logout(logout -> logout
-                .logoutUrl("/api/users/logout")
-                .clearAuthentication(true)
-                .deleteCookies("jwt")
-                .logoutSuccessHandler((request, response, authentication) -> {
-                    response.setStatus(HttpServletResponse.SC_OK); // Retourne 200 OK
-                })
-            )
+            // Le logout de Spring est désactivé : son filtre répondrait avant LoginController.logout,
+            // qui révoque le token et supprime le cookie
+            .logout(logout -> logout.disable())
             .build();
     }
 
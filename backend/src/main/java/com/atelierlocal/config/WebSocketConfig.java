@@ -1,47 +1,177 @@
 package com.atelierlocal.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import com.atelierlocal.messaging.ClusterBrokerRelay;
 import com.atelierlocal.security.JwtHandshakeInterceptor;
+import com.atelierlocal.service.PresenceService;
 
 /**
  * Classe de configuration pour WebSocket avec STOMP.
  * Configure les endpoints, le broker de messages et l'intercepteur JWT pour sécuriser les connexions.
+ *
+ * Le broker simple en mémoire ne connaît que les sessions du nœud courant. En mode cluster
+ * ("websocket.broker.mode" égal à "cluster", voir ClusterBrokerConfig), un relais diffuse en plus
+ * aux autres nœuds les messages destinés à un utilisateur ou à un topic.
+ *
+ * Les canaux entrant, sortant et du broker disposent chacun de leur pool de threads, pour que la
+ * diffusion des messages ne s'exécute pas sur les threads de réception. Les tampons d'envoi par
+ * session sont bornés : une session trop lente est fermée plutôt que de retenir la mémoire.
+ *
+ * Le broker échange des heartbeats avec les clients ; le service de présence, placé sur le canal entrant,
+ * s'en sert pour détecter les sessions perdues.
  */
 @Configuration
 @EnableWebSocketMessageBroker // Active le support WebSocket avec message broker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    /**
+     * Préfixe des destinations utilisateur.
+     */
+    public static final String USER_DESTINATION_PREFIX = "/user";
+
     private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+    private final ClusterBrokerRelay clusterBrokerRelay;
+    private final PresenceService presenceService;
+    private final TaskScheduler heartbeatScheduler;
+    private final long heartbeatMs;
+    private final int inboundPoolSize;
+    private final int outboundPoolSize;
+    private final int brokerPoolSize;
+    private final int queueCapacity;
+    private final int sendBufferSizeLimitKb;
+    private final int sendTimeLimitMs;
+    private final int messageSizeLimitKb;
 
     /**
-     * Constructeur pour injecter l'intercepteur JWT.
+     * Constructeur pour injecter l'intercepteur JWT et les réglages des canaux.
      * L'intercepteur permet de vérifier le token JWT lors de la phase de handshake WebSocket.
+     * Une taille de pool à 0 correspond à deux threads par processeur.
      * 
      * @param jwtHandshakeInterceptor l'intercepteur de handshake pour JWT
+     * @param clusterBrokerRelay relais entre nœuds, présent uniquement en mode cluster
+     * @param presenceService service de présence, notant l'activité des sessions
+     * @param heartbeatScheduler planificateur des heartbeats du broker
+     * @param heartbeatMs intervalle des heartbeats échangés avec les clients (0 pour les désactiver)
+     * @param inboundPoolSize threads traitant les messages reçus des clients
+     * @param outboundPoolSize threads envoyant les messages aux clients
+     * @param brokerPoolSize threads diffusant les messages du broker
+     * @param queueCapacity nombre maximal de messages en attente par canal
+     * @param sendBufferSizeLimitKb volume maximal en attente d'envoi par session, en Ko
+     * @param sendTimeLimitMs durée maximale d'un envoi à une session, en millisecondes
+     * @param messageSizeLimitKb taille maximale d'un message reçu, en Ko
      */
-    public WebSocketConfig(JwtHandshakeInterceptor jwtHandshakeInterceptor) {
+    public WebSocketConfig(JwtHandshakeInterceptor jwtHandshakeInterceptor,
+                ObjectProvider<ClusterBrokerRelay> clusterBrokerRelay,
+                PresenceService presenceService,
+                @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler heartbeatScheduler,
+                @Value("${websocket.heartbeat-ms:10000}") long heartbeatMs,
+                @Value("${websocket.inbound.pool-size:0}") int inboundPoolSize,
+                @Value("${websocket.outbound.pool-size:0}") int outboundPoolSize,
+                @Value("${websocket.broker.pool-size:0}") int brokerPoolSize,
+                @Value("${websocket.channel.queue-capacity:10000}") int queueCapacity,
+                @Value("${websocket.send-buffer-size-limit-kb:512}") int sendBufferSizeLimitKb,
+                @Value("${websocket.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                @Value("${websocket.message-size-limit-kb:64}") int messageSizeLimitKb
+                ) {
         this.jwtHandshakeInterceptor = jwtHandshakeInterceptor;
+        this.clusterBrokerRelay = clusterBrokerRelay.getIfAvailable();
+        this.presenceService = presenceService;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.heartbeatMs = heartbeatMs;
+        this.inboundPoolSize = poolSize(inboundPoolSize);
+        this.outboundPoolSize = poolSize(outboundPoolSize);
+        this.brokerPoolSize = poolSize(brokerPoolSize);
+        this.queueCapacity = queueCapacity;
+        this.sendBufferSizeLimitKb = sendBufferSizeLimitKb;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.messageSizeLimitKb = messageSizeLimitKb;
     }
 
     /**
      * Configuration du broker de messages.
      * 
-     * - enableSimpleBroker : active un broker simple en mémoire pour les destinations "/queue" et "/topic"
+     * - enableSimpleBroker : active un broker simple en mémoire pour les destinations "/queue" et "/topic",
+     *   avec des heartbeats dans les deux sens
      * - setApplicationDestinationPrefixes : préfixe pour les messages envoyés par le client vers le serveur
      * - setUserDestinationPrefix : préfixe pour les messages destinés à un utilisateur spécifique
+     * - configureBrokerChannel : pool dédié à la diffusion, l'ordre de publication par session étant conservé
+     * - en mode cluster, le relais intercepte les messages du broker pour les diffuser aux autres nœuds
      * 
      * @param config objet MessageBrokerRegistry pour configurer le broker
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/queue", "/topic"); // Broker simple pour les topics et queues
+        // Broker simple pour les topics et queues
+        if (heartbeatMs > 0) {
+            config.enableSimpleBroker("/queue", "/topic")
+                    .setHeartbeatValue(new long[] {heartbeatMs, heartbeatMs})
+                    .setTaskScheduler(heartbeatScheduler);
+        } else {
+            config.enableSimpleBroker("/queue", "/topic");
+        }
         config.setApplicationDestinationPrefixes("/app"); // Messages envoyés au serveur
-        config.setUserDestinationPrefix("/user"); // Messages ciblés à un utilisateur
+        config.setUserDestinationPrefix(USER_DESTINATION_PREFIX); // Messages ciblés à un utilisateur
+        config.setPreservePublishOrder(true);
+        config.configureBrokerChannel().taskExecutor()
+                .corePoolSize(brokerPoolSize)
+                .maxPoolSize(brokerPoolSize)
+                .queueCapacity(queueCapacity);
+        if (clusterBrokerRelay != null) {
+            config.configureBrokerChannel().interceptors(clusterBrokerRelay);
+        }
+    }
+
+    /**
+     * Pool de threads du canal des messages reçus des clients.
+     * Le service de présence y note l'activité de chaque session.
+     * 
+     * @param registration objet ChannelRegistration du canal entrant
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundPoolSize)
+                .maxPoolSize(inboundPoolSize)
+                .queueCapacity(queueCapacity);
+        registration.interceptors(presenceService);
+    }
+
+    /**
+     * Pool de threads du canal des messages envoyés aux clients.
+     * 
+     * @param registration objet ChannelRegistration du canal sortant
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize)
+                .queueCapacity(queueCapacity);
+    }
+
+    /**
+     * Limites du transport WebSocket : au-delà du tampon d'envoi ou de la durée d'envoi,
+     * la session (client trop lent) est fermée.
+     * 
+     * @param registration objet WebSocketTransportRegistration
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimitKb * 1024)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setMessageSizeLimit(messageSizeLimitKb * 1024);
     }
 
     /**
@@ -51,6 +181,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      * - setAllowedOriginPatterns("*") : autorise toutes les origines (CORS)
      * - addInterceptors(jwtHandshakeInterceptor) : ajoute l'intercepteur JWT pour sécuriser la handshake
      * - withSockJS() : fallback SockJS si WebSocket natif indisponible
+     * - setPreserveReceiveOrder : les messages d'une même session sont traités dans l'ordre de réception
      * 
      * @param registry objet StompEndpointRegistry pour enregistrer les endpoints
      */
@@ -60,5 +191,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .addInterceptors(jwtHandshakeInterceptor)
                 .withSockJS();
+        registry.setPreserveReceiveOrder(true);
+    }
+
+    private static int poolSize(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors() * 2;
     }
 }
@@ -19,6 +19,8 @@ import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -28,6 +30,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 /**
  * Contrôleur REST pour la gestion des catégories d'artisans.
@@ -114,12 +117,14 @@ public class ArtisanCategoryController {
      * Récupère toutes les catégories d'artisans.
      * Route publique : accessible à tous.
      * 
-     * @return ResponseEntity avec la liste des catégories
+     * @param ifNoneMatch ETag des catégories déjà reçues (optionnel)
+     * @return ResponseEntity avec la liste des catégories, ou 304 si elles n'ont pas changé
      */
     @GetMapping("/")
-    public ResponseEntity<List<ArtisanCategoryResponseDTO>> getAllArtisanCategories() {
-        List<ArtisanCategoryResponseDTO> allArtisanCategories = artisanCategoryService.getAllArtisanCategory();
-        return ResponseEntity.ok(allArtisanCategories);
+    public ResponseEntity<List<ArtisanCategoryResponseDTO>> getAllArtisanCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withEtag(artisanCategoryService.getEtag(), ifNoneMatch, CacheControl.noCache(),
+            artisanCategoryService::getAllArtisanCategory);
     }
 
     /**
@@ -127,12 +132,15 @@ public class ArtisanCategoryController {
      * Route publique : accessible à tous.
      * 
      * @param id UUID de la catégorie
-     * @return ResponseEntity avec le DTO de la catégorie
+     * @param ifNoneMatch ETag de la catégorie déjà reçue (optionnel)
+     * @return ResponseEntity avec le DTO de la catégorie, ou 304 si les catégories n'ont pas changé
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ArtisanCategoryResponseDTO> getArtisanCategoryById(@PathVariable UUID id) {
-        ArtisanCategoryResponseDTO artisanCategory = artisanCategoryService.getArtisanCategoryById(id);
-        return ResponseEntity.ok(artisanCategory);
+    public ResponseEntity<ArtisanCategoryResponseDTO> getArtisanCategoryById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withEtag(artisanCategoryService.getEtag(), ifNoneMatch, CacheControl.noCache(),
+            () -> artisanCategoryService.getArtisanCategoryById(id));
     }
 
     /**
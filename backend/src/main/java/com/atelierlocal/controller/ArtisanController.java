@@ -2,7 +2,11 @@ package com.atelierlocal.controller;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -11,7 +15,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.atelierlocal.dto.*;
+import com.atelierlocal.geo.GeoBoundingBox;
 import com.atelierlocal.model.*;
+import com.atelierlocal.repository.ArtisanCatalogSort;
 import com.atelierlocal.service.*;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,14 +39,23 @@ public class ArtisanController {
     private final ArtisanService artisanService;
     private final RecommendationService recommendationService;
     private final PortfolioService portfolioService;
+    private final GeoSearchService geoSearchService;
+    private final ArtisanCatalogService artisanCatalogService;
+    private final TopArtisansFeedService topArtisansFeedService;
 
     /**
      * Constructeur du contrôleur avec injection des services nécessaires.
      */
-    public ArtisanController(ArtisanService artisanService, RecommendationService recommendationService, PortfolioService portfolioService) {
+    public ArtisanController(ArtisanService artisanService, RecommendationService recommendationService,
+                             PortfolioService portfolioService, GeoSearchService geoSearchService,
+                             ArtisanCatalogService artisanCatalogService,
+                             TopArtisansFeedService topArtisansFeedService) {
         this.artisanService = artisanService;
         this.recommendationService = recommendationService;
         this.portfolioService = portfolioService;
+        this.geoSearchService = geoSearchService;
+        this.artisanCatalogService = artisanCatalogService;
+        this.topArtisansFeedService = topArtisansFeedService;
     }
 
     // --------------------
@@ -115,6 +130,134 @@ public class ArtisanController {
         return ResponseEntity.ok(allArtisans);
     }
 
+    /**
+     * Récupère une page du catalogue des artisans : résumés filtrés et triés.
+     * Lecture publique ; les artisans désactivés (active=false) ne sont listés que pour un administrateur.
+     * Le détail d'un artisan s'obtient avec GET /api/artisans/{id}.
+     *
+     * @param sort tri : recommendations (par défaut), distance, recent ou name
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @param eventCategoryId catégorie d'événement (optionnelle)
+     * @param active artisans actifs (par défaut) ou désactivés
+     * @param lat latitude du point de recherche (requise pour le tri par distance)
+     * @param lng longitude du point de recherche (requise pour le tri par distance)
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page
+     * @param currentUser utilisateur connecté (optionnel)
+     * @return ResponseEntity avec la page de résumés, 400 si les paramètres sont invalides,
+     *         ou 403 si un non-administrateur demande les artisans désactivés
+     */
+    @GetMapping("/catalog")
+    @Operation(summary = "Catalogue des artisans", description = "Liste paginée des artisans, filtrée par catégorie et triée par recommandations, distance ou date d'inscription")
+    public ResponseEntity<PageDTO<ArtisanSummaryDTO>> getCatalog(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID eventCategoryId,
+            @RequestParam(defaultValue = "true") boolean active,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        // Les comptes désactivés (bannis) ne sont pas publics
+        if (!active && (currentUser == null || currentUser.getUserRole() != UserRole.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(artisanCatalogService.getCatalog(ArtisanCatalogSort.fromParam(sort),
+                categoryId, eventCategoryId, active, lat, lng, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // --------------------
+    // RECHERCHE GÉOGRAPHIQUE
+    // --------------------
+
+    /**
+     * Recherche les artisans dans un rayon autour d'un point, du plus proche au plus éloigné.
+     * Lecture publique.
+     *
+     * @param lat latitude du point de recherche
+     * @param lng longitude du point de recherche
+     * @param radiusKm rayon de recherche en kilomètres
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page
+     * @return ResponseEntity avec la page d'artisans et leur distance, ou 400 si les paramètres sont invalides
+     */
+    @GetMapping("/nearby")
+    @Operation(summary = "Artisans à proximité", description = "Recherche des artisans dans un rayon autour d'un point, triés par distance")
+    public ResponseEntity<PageDTO<NearbyArtisanDTO>> searchNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(geoSearchService.searchWithinRadius(lat, lng, radiusKm, categoryId, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Recherche les artisans situés dans un rectangle (zone affichée sur une carte).
+     * Lecture publique.
+     *
+     * @param minLat latitude du coin sud-ouest
+     * @param minLng longitude du coin sud-ouest
+     * @param maxLat latitude du coin nord-est
+     * @param maxLng longitude du coin nord-est
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page
+     * @return ResponseEntity avec la page d'artisans triés par distance au centre, ou 400 si les paramètres sont invalides
+     */
+    @GetMapping("/within")
+    @Operation(summary = "Artisans dans une zone", description = "Recherche des artisans dans un rectangle, triés par distance à son centre")
+    public ResponseEntity<PageDTO<NearbyArtisanDTO>> searchWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            GeoBoundingBox box = new GeoBoundingBox(minLat, minLng, maxLat, maxLng);
+            return ResponseEntity.ok(geoSearchService.searchWithinBox(box, categoryId, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Récupère les k artisans les plus proches d'un point.
+     * Lecture publique.
+     *
+     * @param lat latitude du point de recherche
+     * @param lng longitude du point de recherche
+     * @param k nombre d'artisans souhaités
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @return ResponseEntity avec les artisans et leur distance, ou 400 si les paramètres sont invalides
+     */
+    @GetMapping("/nearest")
+    @Operation(summary = "Artisans les plus proches", description = "Récupération des k artisans les plus proches d'un point")
+    public ResponseEntity<List<NearbyArtisanDTO>> findNearest(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") int k,
+            @RequestParam(required = false) UUID categoryId) {
+        try {
+            return ResponseEntity.ok(geoSearchService.findNearest(lat, lng, k, categoryId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // --------------------
     // MODIFICATION / SUPPRESSION
     // --------------------
@@ -181,16 +324,23 @@ public class ArtisanController {
     /**
      * Récupère 3 artisans aléatoires parmi les plus recommandés.
      * Route publique (ex : pour la home page).
+     * Les artisans sont tirés d'un instantané en mémoire, déjà sérialisé : aucun accès à la base.
+     * Tant que l'instantané ne change pas, un client présentant son ETag reçoit une réponse 304.
      *
-     * @return ResponseEntity avec la liste des DTO des artisans
+     * @param ifNoneMatch ETag de la sélection déjà reçue (optionnel)
+     * @return ResponseEntity avec le tableau JSON des artisans, ou 304 si l'instantané n'a pas changé
      */
-    @GetMapping("/random-top")
-    public ResponseEntity<List<ArtisanResponseDTO>> getRandomTopArtisans() {
-        List<Artisan> artisans = artisanService.getRandomTopArtisans(3);
-        List<ArtisanResponseDTO> dtoList = artisans.stream()
-            .map(ArtisanResponseDTO::new)
-            .toList();
-        return ResponseEntity.ok(dtoList);
+    @GetMapping(value = "/random-top", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getRandomTopArtisans(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CacheControl cacheControl = CacheControl.maxAge(topArtisansFeedService.getMaxAgeSeconds(), TimeUnit.SECONDS)
+            .cachePublic();
+        String etag = topArtisansFeedService.getEtag();
+        if (ConditionalResponses.matches(etag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        TopArtisansFeedService.Sample sample = topArtisansFeedService.sample(3);
+        return ResponseEntity.ok().eTag(sample.etag()).cacheControl(cacheControl).body(sample.json());
     }
 
     // --------------------
@@ -5,11 +5,15 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.atelierlocal.dto.AskingRequestDTO;
 import com.atelierlocal.dto.AskingResponseDTO;
+import com.atelierlocal.dto.CursorPageDTO;
+import com.atelierlocal.dto.OpportunityDTO;
+import com.atelierlocal.model.Artisan;
 import com.atelierlocal.model.Asking;
 import com.atelierlocal.model.AskingStatus;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.AskingRepo;
+import com.atelierlocal.service.AskingMatchingService;
 import com.atelierlocal.service.AskingService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -48,13 +52,15 @@ public class AskingController {
 
     private final AskingService askingService;
     private final AskingRepo askingRepo;
+    private final AskingMatchingService askingMatchingService;
 
     /**
-     * Constructeur avec injection du service et du repository des demandes.
+     * Constructeur avec injection des services et du repository des demandes.
      */
-    public AskingController(AskingService askingService, AskingRepo askingRepo) {
+    public AskingController(AskingService askingService, AskingRepo askingRepo, AskingMatchingService askingMatchingService) {
         this.askingService = askingService;
         this.askingRepo = askingRepo;
+        this.askingMatchingService = askingMatchingService;
     }
 
     // --------------------
@@ -110,6 +116,38 @@ public class AskingController {
         return ResponseEntity.ok(allAskings);
     }
 
+    /**
+     * Boîte de réception de l'artisan connecté : demandes en attente qui lui ont été proposées,
+     * de la plus récente à la plus ancienne, paginées par curseur.
+     * Les nouvelles opportunités sont aussi envoyées en temps réel sur "/user/queue/opportunities".
+     * Accessible uniquement aux ARTISANS.
+     *
+     * @param cursor curseur renvoyé par la page précédente (optionnel)
+     * @param size taille de page (optionnelle)
+     * @param currentArtisan artisan authentifié
+     * @return ResponseEntity avec la page d'opportunités, ou 400 si le curseur est invalide
+     */
+    @GetMapping("/opportunities")
+    @PreAuthorize("hasRole('ARTISAN')")
+    @Operation(summary = "Opportunités de l'artisan", description = "Demandes en attente proposées à l'artisan connecté, paginées par curseur")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page d'opportunités récupérée"),
+        @ApiResponse(responseCode = "400", description = "Curseur invalide"),
+        @ApiResponse(responseCode = "401", description = "Artisan non authentifié"),
+        @ApiResponse(responseCode = "403", description = "Droits insuffisants")
+    })
+    public ResponseEntity<CursorPageDTO<OpportunityDTO>> getOpportunities(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal Artisan currentArtisan
+    ) {
+        try {
+            return ResponseEntity.ok(askingMatchingService.getInbox(currentArtisan.getId(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Récupère une demande spécifique par son ID.
      * Lecture publique, aucune restriction de rôle.
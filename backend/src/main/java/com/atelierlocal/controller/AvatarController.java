@@ -15,6 +15,7 @@ import com.atelierlocal.model.Avatar;
 import com.atelierlocal.model.User;
 import com.atelierlocal.repository.UserRepo;
 import com.atelierlocal.service.AvatarService;
+import com.atelierlocal.storage.StoredImage;
 
 /**
  * Contrôleur REST pour la gestion des avatars des utilisateurs.
@@ -47,7 +48,7 @@ public class AvatarController {
      * 
      * @param file fichier image à uploader
      * @param userId UUID de l'utilisateur à qui associer l'avatar
-     * @return ResponseEntity contenant l'URL de l'avatar ou un message d'erreur
+     * @return ResponseEntity contenant les URL de l'avatar (url, cardUrl, thumbnailUrl) ou un message d'erreur
      */
     @PostMapping("/upload")
     public ResponseEntity<Map<String, String>> uploadAvatar(
@@ -56,7 +57,7 @@ public class AvatarController {
     ) {
         try {
             // Upload du fichier via le service Avatar
-            String url = avatarService.uploadAvatar(file, userId);
+            StoredImage image = avatarService.uploadAvatar(file, userId);
 
             // Récupération de l'utilisateur correspondant
             User user = userRepo.findById(userId)
@@ -69,13 +70,17 @@ public class AvatarController {
                 avatar.setUser(user);
                 user.setAvatar(avatar);
             }
-            avatar.setAvatarUrl(url);
+            avatarService.applyTo(avatar, image);
 
             // Sauvegarde de l'utilisateur avec le nouvel avatar
             userRepo.save(user);
 
-            // Retourne l'URL de l'avatar en réponse
-            return ResponseEntity.ok(Map.of("url", url));
+            // Retourne les URL de l'avatar et de ses déclinaisons en réponse
+            return ResponseEntity.ok(Map.of(
+                "url", image.getFullUrl(),
+                "cardUrl", image.getCardUrl(),
+                "thumbnailUrl", image.getThumbnailUrl()
+            ));
 
         } catch (IllegalArgumentException e) {
             // Gestion des erreurs liées à l'utilisateur ou au fichier
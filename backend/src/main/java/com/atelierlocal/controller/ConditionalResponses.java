@@ -0,0 +1,54 @@
+package com.atelierlocal.controller;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Réponses conditionnelles (ETag / If-None-Match) des endpoints de lecture dont le contenu
+ * est versionné en mémoire : si le client présente l'ETag courant, une réponse 304 sans corps
+ * est renvoyée et le corps n'est pas construit.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * @param etag ETag courant du contenu (guillemets compris)
+     * @param ifNoneMatch valeur de l'en-tête If-None-Match de la requête (peut être null)
+     * @param cacheControl politique de mise en cache à annoncer
+     * @param body construction du corps, appelée uniquement si le client n'a pas la version courante
+     * @return réponse 304, ou 200 avec le corps, l'ETag et l'en-tête Cache-Control
+     */
+    static <T> ResponseEntity<T> withEtag(String etag, String ifNoneMatch, CacheControl cacheControl, Supplier<T> body) {
+        if (matches(etag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+
+    /**
+     * Indique si l'en-tête If-None-Match désigne l'ETag donné (liste d'ETags, "*" et ETags faibles acceptés).
+     */
+    static boolean matches(String etag, String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        // Comparaison faible : le préfixe "W/" est ignoré des deux côtés
+        String current = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = opaque(candidate.trim());
+            if (value.equals("*") || value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -3,6 +3,8 @@ package com.atelierlocal.controller;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -79,7 +82,8 @@ public class EventCategoryController {
      * Récupère toutes les catégories d'évènements.
      * Accessible uniquement aux administrateurs.
      * 
-     * @return liste de toutes les catégories
+     * @param ifNoneMatch ETag des catégories déjà reçues (optionnel)
+     * @return liste de toutes les catégories, ou 304 si elles n'ont pas changé
      */
     @GetMapping("/")
     @Operation(summary = "Lister toutes les catégories d'évènements", description = "Accessible uniquement aux administrateurs")
@@ -88,9 +92,10 @@ public class EventCategoryController {
         @ApiResponse(responseCode = "401", description = "Admin non authentifié"),
         @ApiResponse(responseCode = "403", description = "Droits insuffisants")
     })
-    public ResponseEntity<List<EventCategoryResponseDTO>> getAllEventCategories() {
-        List<EventCategoryResponseDTO> allEventCategories = eventCategoryService.getAllEventCategories();
-        return ResponseEntity.ok(allEventCategories);
+    public ResponseEntity<List<EventCategoryResponseDTO>> getAllEventCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withEtag(eventCategoryService.getEtag(), ifNoneMatch, CacheControl.noCache(),
+            eventCategoryService::getAllEventCategories);
     }
 
     /**
@@ -98,7 +103,8 @@ public class EventCategoryController {
      * Accessible uniquement aux administrateurs.
      * 
      * @param id identifiant de la catégorie
-     * @return catégorie correspondant à l'ID
+     * @param ifNoneMatch ETag de la catégorie déjà reçue (optionnel)
+     * @return catégorie correspondant à l'ID, ou 304 si les catégories n'ont pas changé
      */
     @GetMapping("/{id}")
     @Operation(summary = "Récupérer une catégorie par ID", description = "Accessible uniquement aux administrateurs")
@@ -106,9 +112,11 @@ public class EventCategoryController {
         @ApiResponse(responseCode = "200", description = "Catégorie récupérée"),
         @ApiResponse(responseCode = "404", description = "Catégorie non trouvée")
     })
-    public ResponseEntity<EventCategoryResponseDTO> getEventCategoryById(@PathVariable UUID id) {
-        EventCategoryResponseDTO eventCategory = eventCategoryService.getEventCategoryById(id);
-        return ResponseEntity.ok(eventCategory);
+    public ResponseEntity<EventCategoryResponseDTO> getEventCategoryById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withEtag(eventCategoryService.getEtag(), ifNoneMatch, CacheControl.noCache(),
+            () -> eventCategoryService.getEventCategoryById(id));
     }
 
     /**
@@ -116,7 +124,8 @@ public class EventCategoryController {
      * Accessible uniquement aux administrateurs.
      * 
      * @param id identifiant de l'évènement
-     * @return liste des catégories d'artisans liées à l'évènement
+     * @param ifNoneMatch ETag de la liste déjà reçue (optionnel)
+     * @return liste des catégories d'artisans liées à l'évènement, ou 304 si les catégories n'ont pas changé
      */
     @GetMapping("/{id}/artisan-categories")
     @Operation(summary = "Lister les catégories d'artisans associées à un évènement", description = "Accessible uniquement aux administrateurs")
@@ -124,9 +133,11 @@ public class EventCategoryController {
         @ApiResponse(responseCode = "200", description = "Liste des catégories d'artisans récupérée"),
         @ApiResponse(responseCode = "404", description = "Evènement non trouvé")
     })
-    public ResponseEntity<List<ArtisanCategoryResponseDTO>> getArtisanCategoriesByEvent(@PathVariable UUID id) {
-        List<ArtisanCategoryResponseDTO> artisanCategoriesByEvent = eventCategoryService.getArtisanCategoriesByEvent(id);
-        return ResponseEntity.ok(artisanCategoriesByEvent);
+    public ResponseEntity<List<ArtisanCategoryResponseDTO>> getArtisanCategoriesByEvent(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.withEtag(eventCategoryService.getEtag(), ifNoneMatch, CacheControl.noCache(),
+            () -> eventCategoryService.getArtisanCategoriesByEvent(id));
     }
 
     // --------------------
@@ -0,0 +1,72 @@
+package com.atelierlocal.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.atelierlocal.storage.ObjectStorage;
+import com.atelierlocal.storage.ObjectStorageException;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Contrôleur REST servant les fichiers du stockage local (avatars, portfolio, pièces jointes).
+ * Actif uniquement lorsque "storage.backend" vaut "local" : avec S3, les fichiers sont servis par le bucket.
+ */
+@RestController
+@RequestMapping("/api/files")
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class FileController {
+
+    private static final String PREFIX = "/api/files/";
+
+    private final ObjectStorage objectStorage;
+
+    /**
+     * Constructeur avec injection du stockage de fichiers.
+     *
+     * @param objectStorage stockage local
+     */
+    public FileController(ObjectStorage objectStorage) {
+        this.objectStorage = objectStorage;
+    }
+
+    // --------------------
+    // TÉLÉCHARGEMENT D'UN FICHIER
+    // --------------------
+
+    /**
+     * Renvoie le contenu d'un fichier à partir de sa clé (partie de l'URL suivant "/api/files/",
+     * décodée comme l'a encodée LocalObjectStorage.resolveUrl).
+     *
+     * @param request requête HTTP (pour extraire la clé)
+     * @return contenu du fichier, 404 s'il est introuvable ou 400 si la clé est invalide
+     */
+    @GetMapping("/**")
+    public ResponseEntity<InputStreamResource> getFile(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(PREFIX)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            String key = ObjectStorage.decodeKey(path.substring(PREFIX.length()));
+            if (!objectStorage.exists(key)) {
+                return ResponseEntity.notFound().build();
+            }
+            MediaType mediaType = MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(new InputStreamResource(objectStorage.get(key)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ObjectStorageException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -2,30 +2,38 @@ package com.atelierlocal.controller;
 
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.atelierlocal.dto.LoginRequest;
 import com.atelierlocal.security.CustomUserDetailsService;
 import com.atelierlocal.security.JwtService;
+import com.atelierlocal.security.LoginThrottle;
+import com.atelierlocal.security.TokenRevocationService;
 import com.atelierlocal.service.LoginService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * Contrôleur REST pour la gestion de l'authentification des utilisateurs.
  * Permet la connexion et la déconnexion via JWT.
+ * Les tentatives de connexion sont limitées par adresse IP et par compte avant toute vérification du mot de passe.
  */
 @RestController
 @RequestMapping("/api/users")
@@ -34,11 +42,16 @@ public class LoginController {
     private final LoginService loginService;
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
 
-    public LoginController(LoginService loginService, JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    public LoginController(LoginService loginService, JwtService jwtService, CustomUserDetailsService userDetailsService,
+                           TokenRevocationService tokenRevocationService, LoginThrottle loginThrottle) {
         this.loginService = loginService;
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginThrottle = loginThrottle;
     }
 
     // --------------------
@@ -50,6 +63,7 @@ public class LoginController {
      * En cas de succès, génère un JWT et le renvoie dans un cookie httpOnly.
      *
      * @param request objet contenant l'email et le mot de passe
+     * @param httpRequest requête HTTP (adresse IP du client, transmise par le proxy le cas échéant)
      * @return ResponseEntity avec message et cookie ou message d'erreur
      */
     @PostMapping("/login")
@@ -57,14 +71,25 @@ public class LoginController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Connexion réussie, retourne le token"),
         @ApiResponse(responseCode = "401", description = "Email ou mot de passe incorrect"),
-        @ApiResponse(responseCode = "400", description = "Requête invalide")
+        @ApiResponse(responseCode = "400", description = "Requête invalide"),
+        @ApiResponse(responseCode = "429", description = "Trop de tentatives, réessayer plus tard")
     })
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Limitation des tentatives, avant tout calcul de hash
+        LoginThrottle.Decision decision = loginThrottle.tryAcquire(httpRequest.getRemoteAddr(), request.getEmail());
+        if (!decision.isAllowed()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()))
+                    .body(Map.of("error", "Trop de tentatives de connexion, veuillez réessayer plus tard"));
+        }
+
         boolean success = loginService.login(request.getEmail(), request.getPassword());
         if (!success) {
+            loginThrottle.recordFailure(httpRequest.getRemoteAddr(), request.getEmail());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Email ou mot de passe incorrect"));
         }
+        loginThrottle.recordSuccess(httpRequest.getRemoteAddr(), request.getEmail());
 
         // Récupère les détails de l'utilisateur et génère un token JWT
         UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
@@ -84,29 +109,58 @@ public class LoginController {
                 .body(Map.of("message", "Connexion réussie"));
     }
 
+    /**
+     * Compteurs de la limitation des tentatives de connexion (acceptées, refusées, échecs).
+     *
+     * @return compteurs depuis le démarrage
+     */
+    @GetMapping("/login/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Statistiques des tentatives de connexion", description = "Réservé aux administrateurs")
+    public ResponseEntity<Map<String, Long>> loginMetrics() {
+        return ResponseEntity.ok(loginThrottle.getMetrics());
+    }
+
     // --------------------
     // DÉCONNEXION
     // --------------------
 
     /**
      * Déconnexion de l'utilisateur.
-     * Blackliste le JWT et nettoie le contexte de sécurité.
+     * Révoque le JWT (cookie ou en-tête Authorization) jusqu'à son expiration,
+     * supprime le cookie et nettoie le contexte de sécurité.
      *
      * @param token JWT récupéré depuis le cookie
-     * @return ResponseEntity vide (200 OK)
+     * @param authorization en-tête Authorization ("Bearer <token>"), utilisé si le cookie est absent
+     * @return ResponseEntity vide (200 OK) avec le cookie expiré
      */
     @PostMapping("/logout")
-    @Operation(summary = "Déconnexion de l'utilisateur", description = "Blackliste le JWT")
+    @Operation(summary = "Déconnexion de l'utilisateur", description = "Révoque le JWT")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Déconnexion réussie"),
         @ApiResponse(responseCode = "400", description = "Token manquant ou malformé")
     })
-    public ResponseEntity<Void> logout(@CookieValue(name = "jwt", required = false) String token) {
+    public ResponseEntity<Void> logout(@CookieValue(name = "jwt", required = false) String token,
+                                       @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (token == null && authorization != null && authorization.startsWith("Bearer ")) {
+            token = authorization.substring(7);
+        }
         if (token != null) {
-            jwtService.blacklistToken(token);
+            tokenRevocationService.revoke(token);
         }
         // Efface le contexte de sécurité Spring
         SecurityContextHolder.clearContext();
-        return ResponseEntity.ok().build();
+
+        // Cookie vide expirant immédiatement
+        ResponseCookie cookie = ResponseCookie.from("jwt", "")
+                .httpOnly(true)
+                .secure(false)
+                .path("/")
+                .sameSite("Lax")
+                .maxAge(0)
+                .build();
+        return ResponseEntity.ok()
+                .header("Set-Cookie", cookie.toString())
+                .build();
     }
 }
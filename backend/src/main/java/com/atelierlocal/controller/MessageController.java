@@ -1,12 +1,15 @@
 package com.atelierlocal.controller;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.atelierlocal.dto.ConversationSummaryDTO;
+import com.atelierlocal.dto.CursorPageDTO;
 import com.atelierlocal.dto.MessageRequestDTO;
 import com.atelierlocal.dto.MessageResponseDTO;
 import com.atelierlocal.model.Message;
@@ -28,6 +32,8 @@ import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.ArtisanRepo;
 import com.atelierlocal.repository.ClientRepo;
 import com.atelierlocal.service.MessageService;
+import com.atelierlocal.service.MessageWriteBehindService;
+import com.atelierlocal.service.UserDirectory;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -60,16 +66,21 @@ public class MessageController {
     private final MessageService messageService;           // Service métier pour la gestion des messages
     private final ArtisanRepo artisanRepo;                // Répertoire pour accéder aux artisans
     private final ClientRepo clientRepo;                  // Répertoire pour accéder aux clients
+    private final UserDirectory userDirectory;            // Annuaire en mémoire des utilisateurs (envoi et routage)
+    private final MessageWriteBehindService messageWriteBehindService; // Enregistrement différé des messages texte
 
     /**
      * Constructeur du contrôleur avec injection des dépendances.
      */
     public MessageController(SimpMessagingTemplate messagingTemplate, MessageService messageService, 
-                             ArtisanRepo artisanRepo, ClientRepo clientRepo) {
+                             ArtisanRepo artisanRepo, ClientRepo clientRepo, UserDirectory userDirectory,
+                             MessageWriteBehindService messageWriteBehindService) {
         this.messagingTemplate = messagingTemplate;
         this.messageService = messageService;
         this.artisanRepo = artisanRepo;
         this.clientRepo = clientRepo;
+        this.userDirectory = userDirectory;
+        this.messageWriteBehindService = messageWriteBehindService;
     }
 
     /**
@@ -83,9 +94,9 @@ public class MessageController {
      * @param receiver L'utilisateur destinataire
      * @throws IllegalArgumentException si l'envoi n'est pas autorisé
      */
-    private void checkMessageAuthorization(User sender, User receiver) {
-        UserRole senderRole = sender.getUserRole();
-        UserRole receiverRole = receiver.getUserRole();
+    private void checkMessageAuthorization(UserDirectory.Entry sender, UserDirectory.Entry receiver) {
+        UserRole senderRole = sender.role();
+        UserRole receiverRole = receiver.role();
 
         if (senderRole == UserRole.ARTISAN) {
             if (!(receiverRole == UserRole.ADMIN || receiverRole == UserRole.CLIENT)) {
@@ -101,6 +112,7 @@ public class MessageController {
 
     /**
      * Récupère l'utilisateur authentifié depuis le Principal fourni par Spring Security.
+     * Réservé aux opérations qui ont besoin de l'entité ; les autres utilisent l'annuaire.
      * 
      * @param principal Objet représentant l'utilisateur authentifié
      * @return L'objet User correspondant
@@ -115,6 +127,31 @@ public class MessageController {
                 .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé: " + email)));
     }
 
+    /**
+     * Récupère l'utilisateur authentifié depuis l'annuaire (sans requête s'il y est déjà).
+     * 
+     * @param principal Objet représentant l'utilisateur authentifié
+     * @return Instantané de l'utilisateur
+     * @throws IllegalArgumentException si l'utilisateur n'existe pas
+     */
+    private UserDirectory.Entry findAuthenticated(Principal principal) {
+        String email = principal.getName();
+        return userDirectory.findByEmail(email)
+            .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé: " + email));
+    }
+
+    /**
+     * Récupère le destinataire d'un message depuis l'annuaire.
+     * 
+     * @param receiverId UUID du destinataire
+     * @return Instantané du destinataire
+     * @throws IllegalArgumentException si le destinataire n'existe pas
+     */
+    private UserDirectory.Entry findReceiver(UUID receiverId) {
+        return userDirectory.findById(receiverId)
+            .orElseThrow(() -> new IllegalArgumentException("Destinataire non trouvé: " + receiverId));
+    }
+
     // -------------------------------------------------------------------------
     // ENVOI DE MESSAGES AVEC FICHIERS (REST)
     // -------------------------------------------------------------------------
@@ -125,6 +162,8 @@ public class MessageController {
      * @param receiverId UUID du destinataire
      * @param content Contenu textuel du message (optionnel)
      * @param file Fichier joint (optionnel)
+     * @param tempId Identifiant temporaire côté client (optionnel) : un renvoi avec le même tempId
+     *               renvoie le message d'origine sans le dupliquer ni le diffuser à nouveau
      * @param principal Utilisateur authentifié
      * @return MessageResponseDTO contenant les informations du message envoyé
      */
@@ -140,43 +179,45 @@ public class MessageController {
             @RequestParam("receiverId") UUID receiverId,
             @RequestParam(value = "content", required = false, defaultValue = "") String content,
             @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "tempId", required = false) String tempId,
             Principal principal
     ) {
         try {
             // Récupération de l'utilisateur authentifié
-            User authenticatedUser = getAuthenticatedUser(principal);
+            UserDirectory.Entry authenticatedUser = findAuthenticated(principal);
 
             // Récupération du destinataire
-            User receiverUser = artisanRepo.findById(receiverId)
-                .map(User.class::cast)
-                .orElseGet(() -> clientRepo.findById(receiverId)
-                    .map(User.class::cast)
-                    .orElseThrow(() -> new IllegalArgumentException("Destinataire non trouvé: " + receiverId)));
+            UserDirectory.Entry receiverUser = findReceiver(receiverId);
 
             // Vérification des autorisations d'envoi
             checkMessageAuthorization(authenticatedUser, receiverUser);
 
             // Création du DTO pour le service
             MessageRequestDTO dto = new MessageRequestDTO();
-            dto.setSenderId(authenticatedUser.getId());
+            dto.setSenderId(authenticatedUser.id());
             dto.setReceiverId(receiverId);
             dto.setContent(content);
             dto.setFile(file);
+            dto.setTempId(tempId);
 
             logger.info("Envoi message REST de {} à {} avec fichier: {}", 
-                authenticatedUser.getId(), receiverId, file != null ? file.getOriginalFilename() : "aucun");
+                authenticatedUser.id(), receiverId, file != null ? file.getOriginalFilename() : "aucun");
 
             // Envoi du message via le service
             MessageResponseDTO response = messageService.sendMessage(dto);
+            if (response.isReplayed()) {
+                // Renvoi d'un message déjà enregistré et diffusé
+                return ResponseEntity.ok(response);
+            }
 
             // Diffusion du message via WebSocket aux deux parties
             messagingTemplate.convertAndSendToUser(
-                receiverUser.getEmail(),
+                receiverUser.email(),
                 "/queue/messages",
                 response
             );
             messagingTemplate.convertAndSendToUser(
-                authenticatedUser.getEmail(),
+                authenticatedUser.email(),
                 "/queue/messages",
                 response
             );
@@ -205,7 +246,9 @@ public class MessageController {
      * Traitement des messages texte reçus via WebSocket.
      * 
      * Ce endpoint ne gère pas les fichiers (uniquement le texte).
-     * Les messages sont envoyés aux deux utilisateurs via WebSocket.
+     * Les messages sont envoyés aux deux utilisateurs via WebSocket, sauf s'il s'agit
+     * du renvoi d'un message déjà enregistré (même tempId).
+     * En mode write-behind, le message est diffusé dès son acquittement et enregistré par lot.
      * 
      * @param message DTO contenant le message à envoyer
      * @param principal Utilisateur authentifié
@@ -216,15 +259,11 @@ public class MessageController {
             logger.info("Message reçu via WebSocket de: {}", principal.getName());
             
             // Récupération de l'utilisateur authentifié
-            User authenticatedUser = getAuthenticatedUser(principal);
-            UUID authenticatedId = authenticatedUser.getId();
+            UserDirectory.Entry authenticatedUser = findAuthenticated(principal);
+            UUID authenticatedId = authenticatedUser.id();
             
             // Récupération du destinataire
-            User receiverUser = artisanRepo.findById(message.getReceiverId())
-                .map(User.class::cast)
-                .orElseGet(() -> clientRepo.findById(message.getReceiverId())
-                    .map(User.class::cast)
-                    .orElseThrow(() -> new IllegalArgumentException("Destinataire non trouvé: " + message.getReceiverId())));
+            UserDirectory.Entry receiverUser = findReceiver(message.getReceiverId());
 
             // Vérification des autorisations
             checkMessageAuthorization(authenticatedUser, receiverUser);
@@ -235,22 +274,29 @@ public class MessageController {
 
             logger.info("Traitement message de {} à {}", message.getSenderId(), message.getReceiverId());
             
-            // Envoi du message via le service
-            MessageResponseDTO response = messageService.sendMessage(message);
+            // Envoi du message via le service (enregistrement différé par lots si activé)
+            MessageResponseDTO response = messageWriteBehindService.isEnabled()
+                ? messageWriteBehindService.send(message)
+                : messageService.sendMessage(message);
+            if (response.isReplayed()) {
+                // Renvoi après reconnexion : le message a déjà été diffusé
+                logger.info("Message {} déjà envoyé, non rediffusé", response.getTempId());
+                return;
+            }
 
             // Diffusion WebSocket aux deux utilisateurs
             messagingTemplate.convertAndSendToUser(
-                receiverUser.getEmail(),
+                receiverUser.email(),
                 "/queue/messages",
                 response
             );
             messagingTemplate.convertAndSendToUser(
-                authenticatedUser.getEmail(),
+                authenticatedUser.email(),
                 "/queue/messages",
                 response
             );
             
-            logger.info("Message envoyé à {} et {}", receiverUser.getEmail(), authenticatedUser.getEmail());
+            logger.info("Message envoyé à {} et {}", receiverUser.email(), authenticatedUser.email());
 
         } catch (IllegalArgumentException e) {
             logger.error("Erreur lors du traitement du message : {}", e.getMessage());
@@ -306,8 +352,7 @@ public class MessageController {
         @RequestParam UUID user2Id,
         Principal principal
     ) {
-        User authenticatedUser = getAuthenticatedUser(principal);
-        UUID authId = authenticatedUser.getId();
+        UUID authId = findAuthenticated(principal).id();
 
         // Vérification que l'utilisateur authentifié est impliqué dans la conversation
         if (!(authId.equals(user1Id) || authId.equals(user2Id))) {
@@ -325,14 +370,54 @@ public class MessageController {
         }
     }
 
+    /**
+     * Récupère une page de l'historique de conversation avec un interlocuteur.
+     *
+     * La pagination se fait par curseur : la première page contient les messages les plus récents,
+     * le curseur renvoyé permet de charger les messages plus anciens.
+     *
+     * @param peerId UUID de l'interlocuteur
+     * @param cursor Curseur de la page précédente (optionnel)
+     * @param size Nombre de messages souhaité (optionnel, borné côté service)
+     * @param principal Utilisateur authentifié
+     * @return Page de messages triée par date croissante
+     */
+    @GetMapping("/history/{peerId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT', 'ARTISAN')")
+    @Operation(summary = "Récupère une page de l'historique de conversation avec un interlocuteur")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page d'historique récupérée avec succès"),
+        @ApiResponse(responseCode = "403", description = "Accès refusé"),
+        @ApiResponse(responseCode = "400", description = "Paramètres ou curseur invalides")
+    })
+    public ResponseEntity<CursorPageDTO<MessageResponseDTO>> getHistoryPage(
+        @PathVariable UUID peerId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size,
+        Principal principal
+    ) {
+        UUID authId = findAuthenticated(principal).id();
+
+        try {
+            CursorPageDTO<MessageResponseDTO> page =
+                messageService.getConversationPage(authId, peerId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.error("Erreur lors de la récupération de l'historique paginé: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // -------------------------------------------------------------------------
     // LISTE DES CONVERSATIONS D'UN UTILISATEUR
     // -------------------------------------------------------------------------
     
     /**
-     * Récupère la liste des conversations d'un utilisateur.
+     * Récupère la liste paginée des conversations d'un utilisateur.
      * 
      * @param userId UUID de l'utilisateur
+     * @param page Numéro de page (à partir de 0)
+     * @param size Nombre de conversations par page (optionnel)
      * @param principal Utilisateur authentifié
      * @return Liste résumée des conversations
      */
@@ -346,12 +431,14 @@ public class MessageController {
     })
     public ResponseEntity<List<ConversationSummaryDTO>> getConversations(
         @PathVariable UUID userId,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(required = false) Integer size,
         Principal principal
     ) {
         logger.info("Principal reçu: {}", principal != null ? principal.getName() : "null");
-        User authenticatedUser = getAuthenticatedUser(principal);
-        UUID authId = authenticatedUser.getId();
-        logger.info("Utilisateur authentifié: id={}, email={}", authId, authenticatedUser.getEmail());
+        UserDirectory.Entry authenticatedUser = findAuthenticated(principal);
+        UUID authId = authenticatedUser.id();
+        logger.info("Utilisateur authentifié: id={}, email={}", authId, authenticatedUser.email());
 
         // Vérification que l'utilisateur demande ses propres conversations
         if (!authId.equals(userId)) {
@@ -360,7 +447,7 @@ public class MessageController {
         }
 
         try {
-            List<ConversationSummaryDTO> conversations = messageService.getConversationSummaries(userId);
+            List<ConversationSummaryDTO> conversations = messageService.getConversationSummaries(userId, page, size);
             logger.info("Conversations récupérées: {}", conversations.size());
             return ResponseEntity.ok(conversations);
         } catch (IllegalArgumentException e) {
@@ -372,6 +459,41 @@ public class MessageController {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // MARQUAGE D'UNE CONVERSATION COMME LUE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Marque comme lus tous les messages reçus d'un interlocuteur jusqu'à une date donnée.
+     * 
+     * @param peerId UUID de l'interlocuteur
+     * @param upTo Date limite de lecture (optionnelle, maintenant par défaut)
+     * @param principal Utilisateur authentifié
+     * @return Nombre de messages marqués comme lus
+     */
+    @PostMapping("/conversations/{peerId}/read")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT', 'ARTISAN')")
+    @Operation(summary = "Marque une conversation comme lue jusqu'à une date donnée")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conversation marquée comme lue avec succès"),
+        @ApiResponse(responseCode = "400", description = "Paramètres invalides"),
+        @ApiResponse(responseCode = "403", description = "Accès refusé")
+    })
+    public ResponseEntity<Map<String, Integer>> markConversationRead(
+        @PathVariable UUID peerId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime upTo,
+        Principal principal
+    ) {
+        try {
+            User authenticatedUser = getAuthenticatedUser(principal);
+            int updated = messageService.markConversationRead(authenticatedUser, peerId, upTo);
+            return ResponseEntity.ok(Map.of("updated", updated));
+        } catch (IllegalArgumentException e) {
+            logger.error("Erreur lors du marquage de la conversation comme lue: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // -------------------------------------------------------------------------
     // MESSAGES NON LUS
     // -------------------------------------------------------------------------
@@ -407,6 +529,29 @@ public class MessageController {
         }
     }
 
+    /**
+     * Récupère le nombre de messages non lus de l'utilisateur authentifié.
+     * 
+     * @param principal Utilisateur authentifié
+     * @return Nombre de messages non lus
+     */
+    @GetMapping("/unread/count")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT', 'ARTISAN')")
+    @Operation(summary = "Récupère le nombre de messages non lus de l'utilisateur authentifié")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Compteur récupéré avec succès"),
+        @ApiResponse(responseCode = "403", description = "Accès refusé")
+    })
+    public ResponseEntity<Long> getUnreadCount(Principal principal) {
+        try {
+            User authenticatedUser = getAuthenticatedUser(principal);
+            return ResponseEntity.ok(messageService.getUnreadCount(authenticatedUser));
+        } catch (IllegalArgumentException e) {
+            logger.error("Erreur lors de la récupération du compteur de non lus : {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // -------------------------------------------------------------------------
     // MARQUAGE D'UN MESSAGE COMME LU
     // -------------------------------------------------------------------------
@@ -428,15 +573,8 @@ public class MessageController {
     public ResponseEntity<Void> markMessageAsRead(@PathVariable UUID messageId, Principal principal) {
         try {
             User authenticatedUser = getAuthenticatedUser(principal);
+            // Le service notifie lui-même le nouveau compteur de messages non lus via WebSocket
             messageService.markMessageAsRead(messageId, authenticatedUser);
-
-            // Envoi du compteur de messages non lus via WebSocket
-            int unreadCount = messageService.getUnreadMessages(authenticatedUser).size();
-            messagingTemplate.convertAndSendToUser(
-                authenticatedUser.getEmail(),
-                "/queue/unread",
-                unreadCount
-            );
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             logger.error("Erreur lors du marquage du message comme lu: {}", e.getMessage());
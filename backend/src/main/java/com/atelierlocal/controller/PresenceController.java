@@ -0,0 +1,57 @@
+package com.atelierlocal.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+import com.atelierlocal.dto.PresenceDTO;
+import com.atelierlocal.dto.TypingIndicatorDTO;
+import com.atelierlocal.service.PresenceService;
+
+import jakarta.validation.Valid;
+
+/**
+ * Contrôleur WebSocket de la présence et des indicateurs de saisie.
+ *
+ * Ces signaux ne passent pas par la messagerie ("/app/chat") : ils ne sont jamais enregistrés
+ * et l'expéditeur est identifié par sa session, sans accès à la base.
+ */
+@Controller
+public class PresenceController {
+
+    private final PresenceService presenceService;
+
+    public PresenceController(PresenceService presenceService) {
+        this.presenceService = presenceService;
+    }
+
+    /**
+     * Indicateur de saisie, transmis au destinataire sur "/queue/typing" s'il est en ligne.
+     *
+     * @param indicator destinataire et état de la saisie (l'expéditeur indiqué par le client est ignoré)
+     * @param headers en-têtes du message, portant l'ID de session
+     */
+    @MessageMapping("/typing")
+    public void typing(@Valid @Payload TypingIndicatorDTO indicator, SimpMessageHeaderAccessor headers) {
+        presenceService.typing(headers.getSessionId(), indicator.getReceiverId(), indicator.isTyping());
+    }
+
+    /**
+     * Présence des utilisateurs demandés, renvoyée sur "/queue/presence" ;
+     * leurs changements d'état y sont ensuite envoyés.
+     *
+     * @param userIds utilisateurs à observer (remplace la liste précédente)
+     * @param headers en-têtes du message, portant l'ID de session
+     * @return présence actuelle des utilisateurs
+     */
+    @MessageMapping("/presence")
+    @SendToUser(destinations = "/queue/presence", broadcast = false)
+    public List<PresenceDTO> watch(@Payload List<UUID> userIds, SimpMessageHeaderAccessor headers) {
+        return presenceService.watch(headers.getSessionId(), userIds);
+    }
+}
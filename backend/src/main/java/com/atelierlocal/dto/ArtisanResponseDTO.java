@@ -6,6 +6,7 @@ import java.util.UUID;
 
 import com.atelierlocal.model.Artisan;
 import com.atelierlocal.model.UserRole;
+import com.atelierlocal.repository.ArtisanListingView;
 
 /**
  * DTO (Data Transfer Object) utilisé pour renvoyer les informations détaillées
@@ -121,13 +122,42 @@ public class ArtisanResponseDTO {
         this.categoryId = artisan.getCategory() != null ? artisan.getCategory().getId() : null;
         this.categoryName = artisan.getCategory() != null ? artisan.getCategory().getName() : null;
         this.activityStartDate = artisan.getActivityStartDate();
-        this.recommendationsCount = artisan.getRecommendations() != null ? artisan.getRecommendations().size() : 0;
+        this.recommendationsCount = (int) artisan.getRecommendationCount();
         this.photoGallery = artisan.getPhotoGallery().stream()
             .map(UploadedPhotoResponseDTO::new)
             .toList();
         this.role = artisan.getUserRole();
     }
 
+    /**
+     * Constructeur à partir d'une projection de liste.
+     * 
+     * Utilisé pour les listes d'artisans : toutes les données proviennent de deux requêtes
+     * (projections des artisans et de leurs premières photos), quel que soit le nombre d'artisans.
+     * 
+     * @param view projection de l'artisan
+     * @param photoGallery premières photos de la galerie de l'artisan
+     */
+    public ArtisanResponseDTO(ArtisanListingView view, List<UploadedPhotoResponseDTO> photoGallery) {
+        this.id = view.getId();
+        this.name = view.getName();
+        this.email = view.getEmail();
+        this.bio = view.getBio();
+        this.phoneNumber = view.getPhoneNumber();
+        this.siret = view.getSiret();
+        this.avatar = view.getAvatarUrl() != null
+            ? new AvatarDTO(view.getAvatarUrl(), view.getAvatarCardUrl(), view.getAvatarThumbnailUrl(), view.getAvatarExtension())
+            : null;
+        this.latitude = view.getLatitude();
+        this.longitude = view.getLongitude();
+        this.categoryId = view.getCategoryId();
+        this.categoryName = view.getCategoryName();
+        this.activityStartDate = view.getActivityStartDate();
+        this.recommendationsCount = view.getRecommendationCount() != null ? view.getRecommendationCount().intValue() : 0;
+        this.photoGallery = photoGallery;
+        this.role = view.getRole();
+    }
+
     // -------------------------------------------------------------------------
     // GETTERS ET SETTERS
     // -------------------------------------------------------------------------
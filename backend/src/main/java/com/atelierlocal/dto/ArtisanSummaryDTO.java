@@ -0,0 +1,82 @@
+package com.atelierlocal.dto;
+
+import java.util.UUID;
+
+import com.atelierlocal.repository.ArtisanListingView;
+
+/**
+ * DTO résumé d'un artisan pour les pages du catalogue.
+ *
+ * Ce DTO contient uniquement ce qu'affiche une carte du catalogue :
+ * - id, name : identité de l'artisan
+ * - categoryId, categoryName : catégorie d'artisan
+ * - thumbnailUrl : miniature de l'avatar (peut être null)
+ * - recommendationCount : nombre de recommandations
+ * - latitude, longitude : position de l'artisan
+ * - distanceKm : distance au point de recherche (null sans point de recherche)
+ *
+ * Le détail complet (bio, contact, galerie) est renvoyé par GET /api/artisans/{id}.
+ */
+public class ArtisanSummaryDTO {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    private UUID id;
+    private String name;
+    private UUID categoryId;
+    private String categoryName;
+    private String thumbnailUrl;
+    private long recommendationCount;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEUR
+    // -------------------------------------------------------------------------
+
+    public ArtisanSummaryDTO(ArtisanListingView view, Double distanceKm) {
+        this.id = view.getId();
+        this.name = view.getName();
+        this.categoryId = view.getCategoryId();
+        this.categoryName = view.getCategoryName();
+        this.thumbnailUrl = view.getAvatarThumbnailUrl() != null ? view.getAvatarThumbnailUrl() : view.getAvatarUrl();
+        this.recommendationCount = view.getRecommendationCount() != null ? view.getRecommendationCount() : 0;
+        this.latitude = view.getLatitude();
+        this.longitude = view.getLongitude();
+        this.distanceKm = distanceKm;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public UUID getCategoryId() { return categoryId; }
+    public void setCategoryId(UUID categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public long getRecommendationCount() { return recommendationCount; }
+    public void setRecommendationCount(long recommendationCount) { this.recommendationCount = recommendationCount; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+}
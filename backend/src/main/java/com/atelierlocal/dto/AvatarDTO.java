@@ -16,6 +16,16 @@ public class AvatarDTO {
      */
     private String url;
 
+    /**
+     * URL de la vignette (cartes de listing), ou URL de l'avatar si elle n'existe pas
+     */
+    private String cardUrl;
+
+    /**
+     * URL de la miniature (listes, messagerie), ou URL de l'avatar si elle n'existe pas
+     */
+    private String thumbnailUrl;
+
     /**
      * Extension du fichier de l'avatar (ex : jpg, png)
      */
@@ -24,16 +34,29 @@ public class AvatarDTO {
     /**
      * Constructeur à partir de l'entité Avatar.
      * 
-     * Initialise le DTO avec l'URL et l'extension du fichier
+     * Initialise le DTO avec les URL et l'extension du fichier
      * de l'avatar existant.
      * 
      * @param avatar l'entité Avatar à transformer en DTO
      */
     public AvatarDTO(Avatar avatar) {
         this.url = avatar.getAvatarUrl();
+        this.cardUrl = avatar.getCardUrl() != null ? avatar.getCardUrl() : avatar.getAvatarUrl();
+        this.thumbnailUrl = avatar.getThumbnailUrl() != null ? avatar.getThumbnailUrl() : avatar.getAvatarUrl();
         this.extension = avatar.getExtension();
     }
 
+    /**
+     * Construit un DTO à partir des colonnes de l'avatar (projections de liste).
+     * Les variantes manquantes sont remplacées par l'image d'origine, comme pour l'entité.
+     */
+    public AvatarDTO(String url, String cardUrl, String thumbnailUrl, String extension) {
+        this.url = url;
+        this.cardUrl = cardUrl != null ? cardUrl : url;
+        this.thumbnailUrl = thumbnailUrl != null ? thumbnailUrl : url;
+        this.extension = extension;
+    }
+
     // -------------------------------------------------------------------------
     // GETTERS ET SETTERS
     // -------------------------------------------------------------------------
@@ -41,6 +64,12 @@ public class AvatarDTO {
     public String getUrl() { return url; }
     public void setUrl(String url) { this.url = url; }
 
+    public String getCardUrl() { return cardUrl; }
+    public void setCardUrl(String cardUrl) { this.cardUrl = cardUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
     public String getExtension() { return extension; }
     public void setExtension(String extension) { this.extension = extension; }
 }
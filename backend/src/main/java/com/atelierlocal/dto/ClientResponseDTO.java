@@ -91,7 +91,7 @@ public class ClientResponseDTO {
         this.longitude = client.getLongitude();
         this.avatar = client.getAvatar() != null ? new AvatarDTO(client.getAvatar()) : null;
         this.phoneNumber = client.getPhoneNumber();
-        this.recommendationsCount = client.getRecommendations() != null ? client.getRecommendations().size() : 0;
+        this.recommendationsCount = (int) client.getRecommendationCount();
         this.role = client.getUserRole();
         this.isActive = client.getActive();
     }
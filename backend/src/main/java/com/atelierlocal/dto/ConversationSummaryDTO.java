@@ -55,6 +55,11 @@ public class ConversationSummaryDTO {
      */
     private long unreadCount;
 
+    /**
+     * Date jusqu'à laquelle l'utilisateur courant a lu la conversation (filigrane de lecture)
+     */
+    private LocalDateTime lastReadAt;
+
     // -------------------------------------------------------------------------
     // CONSTRUCTEUR
     // -------------------------------------------------------------------------
@@ -102,4 +107,7 @@ public class ConversationSummaryDTO {
 
     public long getUnreadCount() { return unreadCount; }
     public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+
+    public LocalDateTime getLastReadAt() { return lastReadAt; }
+    public void setLastReadAt(LocalDateTime lastReadAt) { this.lastReadAt = lastReadAt; }
 }
@@ -0,0 +1,47 @@
+package com.atelierlocal.dto;
+
+import java.util.List;
+
+/**
+ * DTO générique représentant une page de résultats paginée par curseur.
+ *
+ * Ce DTO contient :
+ * - items : les éléments de la page courante
+ * - nextCursor : le curseur à renvoyer pour obtenir la page suivante (null s'il n'y en a plus)
+ * - hasMore : indique s'il reste des éléments à charger
+ *
+ * @param <T> type des éléments de la page
+ */
+public class CursorPageDTO<T> {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEUR
+    // -------------------------------------------------------------------------
+
+    public CursorPageDTO(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,81 @@
+package com.atelierlocal.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Curseur de pagination par clé (keyset) basé sur le couple (createdAt, id).
+ *
+ * Le curseur désigne le dernier élément déjà renvoyé au client : la page suivante
+ * contient les éléments strictement "avant" ce couple dans l'ordre (createdAt DESC, id DESC).
+ * L'identifiant sert à départager les éléments créés au même instant.
+ *
+ * Il est échangé avec le client sous forme d'une chaîne opaque encodée en Base64 URL-safe.
+ */
+public class KeysetCursor {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    /** Date de création du dernier élément renvoyé */
+    private final LocalDateTime createdAt;
+
+    /** Identifiant du dernier élément renvoyé */
+    private final UUID id;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEUR
+    // -------------------------------------------------------------------------
+
+    public KeysetCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    // -------------------------------------------------------------------------
+    // ENCODAGE / DÉCODAGE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Encode le curseur en chaîne opaque.
+     *
+     * @return curseur encodé
+     */
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client.
+     *
+     * @param encoded curseur encodé (peut être null ou vide pour la première page)
+     * @return curseur décodé ou null si aucun curseur n'est fourni
+     * @throws IllegalArgumentException si le curseur est malformé
+     */
+    public static KeysetCursor decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new KeysetCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS
+    // -------------------------------------------------------------------------
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public UUID getId() { return id; }
+}
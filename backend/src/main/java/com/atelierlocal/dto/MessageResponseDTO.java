@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 import com.atelierlocal.model.Attachment;
 import com.atelierlocal.model.Message;
 import com.atelierlocal.model.MessageStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -24,6 +25,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * - L'identifiant temporaire utilisé côté client (tempId)
  * 
  * Il fournit également un constructeur spécifique pour les messages d'erreur.
+ *
+ * L'indicateur "replayed" (non sérialisé) signale la réponse à un renvoi d'un message
+ * déjà enregistré : elle ne doit pas être diffusée une seconde fois.
  */
 public class MessageResponseDTO {
     
@@ -43,6 +47,8 @@ public class MessageResponseDTO {
     @JsonProperty("isRead")
     private Boolean isRead;
     private String tempId;
+    @JsonIgnore
+    private boolean replayed;
 
     // -------------------------------------------------------------------------
     // CONSTRUCTEURS
@@ -78,6 +84,24 @@ public class MessageResponseDTO {
         this.messageStatus = MessageStatus.FAILED;
     }
 
+    /**
+     * Copie d'une réponse déjà envoyée, marquée comme renvoi.
+     */
+    public MessageResponseDTO asReplay() {
+        MessageResponseDTO copy = new MessageResponseDTO(messageError);
+        copy.id = id;
+        copy.senderId = senderId;
+        copy.receiverId = receiverId;
+        copy.content = content;
+        copy.messageStatus = messageStatus;
+        copy.attachments = attachments;
+        copy.createdAt = createdAt;
+        copy.isRead = isRead;
+        copy.tempId = tempId;
+        copy.replayed = true;
+        return copy;
+    }
+
     // -------------------------------------------------------------------------
     // CLASSE INTERNE POUR LES PIECES JOINTES
     // -------------------------------------------------------------------------
@@ -89,11 +113,13 @@ public class MessageResponseDTO {
         private UUID id;
         private String fileUrl;
         private String fileType;
+        private String fileName;
 
         public AttachmentDTO(Attachment attachment) {
             this.id = attachment.getId();
             this.fileUrl = attachment.getFileUrl();
             this.fileType = attachment.getFileType();
+            this.fileName = attachment.getFileName();
         }
 
         // Getters et setters
@@ -105,6 +131,9 @@ public class MessageResponseDTO {
 
         public String getFileType() { return fileType; }
         public void setFileType(String fileType) { this.fileType = fileType; }
+
+        public String getFileName() { return fileName; }
+        public void setFileName(String fileName) { this.fileName = fileName; }
     }
 
     // -------------------------------------------------------------------------
@@ -141,4 +170,7 @@ public class MessageResponseDTO {
 
     public String getTempId() { return tempId; }
     public void setTempId(String tempId) { this.tempId = tempId; }
+
+    @JsonIgnore
+    public boolean isReplayed() { return replayed; }
 }
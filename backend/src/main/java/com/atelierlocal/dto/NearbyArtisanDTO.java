@@ -0,0 +1,37 @@
+package com.atelierlocal.dto;
+
+/**
+ * DTO représentant un artisan renvoyé par la recherche géographique.
+ *
+ * Ce DTO contient :
+ * - artisan : les informations publiques de l'artisan
+ * - distanceKm : la distance entre l'artisan et le point de recherche, en kilomètres
+ */
+public class NearbyArtisanDTO {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    private ArtisanResponseDTO artisan;
+    private double distanceKm;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEUR
+    // -------------------------------------------------------------------------
+
+    public NearbyArtisanDTO(ArtisanResponseDTO artisan, double distanceKm) {
+        this.artisan = artisan;
+        this.distanceKm = distanceKm;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public ArtisanResponseDTO getArtisan() { return artisan; }
+    public void setArtisan(ArtisanResponseDTO artisan) { this.artisan = artisan; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+}
@@ -0,0 +1,47 @@
+package com.atelierlocal.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO représentant une opportunité : une demande proposée à un artisan.
+ *
+ * Ce DTO contient :
+ * - asking : la demande
+ * - distanceKm : la distance entre l'artisan et le lieu de l'événement, en kilomètres (null si inconnue)
+ * - matchedAt : la date de la mise en relation
+ *
+ * Il est renvoyé par la boîte de réception des artisans et envoyé en temps réel sur "/queue/opportunities".
+ */
+public class OpportunityDTO {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    private AskingResponseDTO asking;
+    private Double distanceKm;
+    private LocalDateTime matchedAt;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEUR
+    // -------------------------------------------------------------------------
+
+    public OpportunityDTO(AskingResponseDTO asking, Double distanceKm, LocalDateTime matchedAt) {
+        this.asking = asking;
+        this.distanceKm = distanceKm;
+        this.matchedAt = matchedAt;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public AskingResponseDTO getAsking() { return asking; }
+    public void setAsking(AskingResponseDTO asking) { this.asking = asking; }
+
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+
+    public LocalDateTime getMatchedAt() { return matchedAt; }
+    public void setMatchedAt(LocalDateTime matchedAt) { this.matchedAt = matchedAt; }
+}
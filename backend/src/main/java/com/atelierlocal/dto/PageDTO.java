@@ -0,0 +1,59 @@
+package com.atelierlocal.dto;
+
+import java.util.List;
+
+/**
+ * DTO générique représentant une page de résultats paginée par numéro de page.
+ *
+ * Ce DTO contient :
+ * - items : les éléments de la page courante
+ * - page : le numéro de la page (à partir de 0)
+ * - size : la taille de page demandée
+ * - totalElements : le nombre total d'éléments correspondant à la recherche
+ * - hasMore : indique s'il reste des éléments après cette page
+ *
+ * @param <T> type des éléments de la page
+ */
+public class PageDTO<T> {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    private List<T> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private boolean hasMore;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEUR
+    // -------------------------------------------------------------------------
+
+    public PageDTO(List<T> items, int page, int size, long totalElements) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.hasMore = (long) (page + 1) * size < totalElements;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
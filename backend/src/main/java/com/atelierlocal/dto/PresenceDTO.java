@@ -0,0 +1,48 @@
+package com.atelierlocal.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO représentant la présence d'un utilisateur sur la messagerie.
+ *
+ * Ce DTO contient :
+ * - userId : l'utilisateur concerné
+ * - online : true si au moins une session WebSocket de l'utilisateur est active
+ * - lastSeenAt : dernière activité connue (null si l'utilisateur n'a pas été vu depuis le démarrage)
+ *
+ * Il est envoyé sur "/queue/presence", en réponse à "/app/presence" puis à chaque changement d'état.
+ */
+public class PresenceDTO {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    private UUID userId;
+    private boolean online;
+    private Instant lastSeenAt;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEUR
+    // -------------------------------------------------------------------------
+
+    public PresenceDTO(UUID userId, boolean online, Instant lastSeenAt) {
+        this.userId = userId;
+        this.online = online;
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public boolean isOnline() { return online; }
+    public void setOnline(boolean online) { this.online = online; }
+
+    public Instant getLastSeenAt() { return lastSeenAt; }
+    public void setLastSeenAt(Instant lastSeenAt) { this.lastSeenAt = lastSeenAt; }
+}
@@ -0,0 +1,54 @@
+package com.atelierlocal.dto;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO représentant un indicateur de saisie ("est en train d'écrire").
+ *
+ * Ce DTO contient :
+ * - senderId : l'utilisateur qui écrit (renseigné par le serveur, ignoré en entrée)
+ * - receiverId : l'interlocuteur à prévenir
+ * - typing : true quand la saisie commence ou continue, false quand elle s'arrête
+ *
+ * Il est reçu sur "/app/typing" et envoyé en temps réel sur "/queue/typing". Il n'est jamais enregistré.
+ */
+public class TypingIndicatorDTO {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    private UUID senderId;
+
+    @NotNull(message = "Le destinataire est obligatoire")
+    private UUID receiverId;
+
+    private boolean typing;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEURS
+    // -------------------------------------------------------------------------
+
+    public TypingIndicatorDTO() {}
+
+    public TypingIndicatorDTO(UUID senderId, UUID receiverId, boolean typing) {
+        this.senderId = senderId;
+        this.receiverId = receiverId;
+        this.typing = typing;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public UUID getSenderId() { return senderId; }
+    public void setSenderId(UUID senderId) { this.senderId = senderId; }
+
+    public UUID getReceiverId() { return receiverId; }
+    public void setReceiverId(UUID receiverId) { this.receiverId = receiverId; }
+
+    public boolean isTyping() { return typing; }
+    public void setTyping(boolean typing) { this.typing = typing; }
+}
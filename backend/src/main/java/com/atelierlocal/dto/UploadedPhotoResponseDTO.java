@@ -3,6 +3,7 @@ package com.atelierlocal.dto;
 import java.util.UUID;
 
 import com.atelierlocal.model.UploadedPhoto;
+import com.atelierlocal.repository.ArtisanPhotoView;
 
 /**
  * DTO de réponse pour une photo uploadée.
@@ -12,6 +13,8 @@ import com.atelierlocal.model.UploadedPhoto;
  * - l'identifiant de la photo (id)
  * - l'identifiant du propriétaire de la photo (ownerId)
  * - l'URL d'accès à la photo (fileUrl)
+ * - les URL de la vignette (cardUrl) et de la miniature (thumbnailUrl),
+ *   à privilégier dans les listings ; égales à fileUrl pour les anciennes photos
  * - l'extension du fichier (fileExtension)
  */
 public class UploadedPhotoResponseDTO {
@@ -23,6 +26,8 @@ public class UploadedPhotoResponseDTO {
     private UUID id;
     private UUID ownerId;
     private String fileUrl;
+    private String cardUrl;
+    private String thumbnailUrl;
     private String fileExtension;
 
     // -------------------------------------------------------------------------
@@ -38,6 +43,22 @@ public class UploadedPhotoResponseDTO {
         this.id = photo.getId();
         this.ownerId = photo.getArtisan().getId();
         this.fileUrl = photo.getUploadedPhotoUrl();
+        this.cardUrl = photo.getCardUrl() != null ? photo.getCardUrl() : photo.getUploadedPhotoUrl();
+        this.thumbnailUrl = photo.getThumbnailUrl() != null ? photo.getThumbnailUrl() : photo.getUploadedPhotoUrl();
+        this.fileExtension = photo.getExtension();
+    }
+
+    /**
+     * Construit un DTO à partir d'une projection de photo (listes d'artisans).
+     * 
+     * @param photo projection de la photo
+     */
+    public UploadedPhotoResponseDTO(ArtisanPhotoView photo) {
+        this.id = photo.getId();
+        this.ownerId = photo.getArtisanId();
+        this.fileUrl = photo.getUploadedPhotoUrl();
+        this.cardUrl = photo.getCardUrl() != null ? photo.getCardUrl() : photo.getUploadedPhotoUrl();
+        this.thumbnailUrl = photo.getThumbnailUrl() != null ? photo.getThumbnailUrl() : photo.getUploadedPhotoUrl();
         this.fileExtension = photo.getExtension();
     }
 
@@ -54,6 +75,12 @@ public class UploadedPhotoResponseDTO {
     public String getFileUrl() { return fileUrl; }
     public void setFileUrl(String fileUrl) { this.fileUrl = fileUrl; }
 
+    public String getCardUrl() { return cardUrl; }
+    public void setCardUrl(String cardUrl) { this.cardUrl = cardUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
     public String getFileExtension() { return fileExtension; }
     public void setFileExtension(String fileExtension) { this.fileExtension = fileExtension; }
 }
@@ -0,0 +1,24 @@
+package com.atelierlocal.geo;
+
+/**
+ * Adresse lisible renvoyée par le géocodage inverse de coordonnées GPS.
+ */
+public final class GeoAddress {
+
+    private final String formattedAddress;
+    private final String city;
+    private final String postcode;
+    private final String country;
+
+    public GeoAddress(String formattedAddress, String city, String postcode, String country) {
+        this.formattedAddress = formattedAddress;
+        this.city = city;
+        this.postcode = postcode;
+        this.country = country;
+    }
+
+    public String getFormattedAddress() { return formattedAddress; }
+    public String getCity() { return city; }
+    public String getPostcode() { return postcode; }
+    public String getCountry() { return country; }
+}
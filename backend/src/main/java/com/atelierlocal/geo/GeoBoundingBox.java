@@ -0,0 +1,73 @@
+package com.atelierlocal.geo;
+
+/**
+ * Rectangle géographique délimité par deux latitudes et deux longitudes (en degrés).
+ *
+ * Les boîtes qui franchiraient l'antiméridien sont élargies à toutes les longitudes :
+ * la recherche reste exacte (le filtre sur la distance est appliqué ensuite), elle est
+ * seulement moins sélective dans ce cas marginal.
+ */
+public final class GeoBoundingBox {
+
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double maxLatitude;
+    private final double maxLongitude;
+
+    /**
+     * Construit une boîte à partir de ses coins sud-ouest et nord-est.
+     *
+     * @throws IllegalArgumentException si les coordonnées sont invalides ou inversées
+     */
+    public GeoBoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        GeoHash.checkCoordinates(minLatitude, minLongitude);
+        GeoHash.checkCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("Le coin sud-ouest doit précéder le coin nord-est.");
+        }
+        this.minLatitude = minLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLatitude = maxLatitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+    /**
+     * Plus petite boîte contenant le cercle de rayon "radiusKm" centré sur le point donné.
+     */
+    public static GeoBoundingBox around(double latitude, double longitude, double radiusKm) {
+        GeoHash.checkCoordinates(latitude, longitude);
+        double deltaLatitude = Math.toDegrees(radiusKm / GeoHash.EARTH_RADIUS_KM);
+        double minLatitude = latitude - deltaLatitude;
+        double maxLatitude = latitude + deltaLatitude;
+
+        // Près des pôles, le cercle couvre toutes les longitudes
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            return new GeoBoundingBox(Math.max(minLatitude, -90), -180, Math.min(maxLatitude, 90), 180);
+        }
+
+        double deltaLongitude = Math.toDegrees(radiusKm / (GeoHash.EARTH_RADIUS_KM * Math.cos(Math.toRadians(latitude))));
+        double minLongitude = longitude - deltaLongitude;
+        double maxLongitude = longitude + deltaLongitude;
+        if (minLongitude < -180 || maxLongitude > 180) {
+            minLongitude = -180;
+            maxLongitude = 180;
+        }
+        return new GeoBoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+    }
+
+    /**
+     * Indique si le point se trouve dans la boîte (bords inclus).
+     */
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+            && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+
+    public double getMinLatitude() { return minLatitude; }
+    public double getMinLongitude() { return minLongitude; }
+    public double getMaxLatitude() { return maxLatitude; }
+    public double getMaxLongitude() { return maxLongitude; }
+
+    public double getCenterLatitude() { return (minLatitude + maxLatitude) / 2; }
+    public double getCenterLongitude() { return (minLongitude + maxLongitude) / 2; }
+}
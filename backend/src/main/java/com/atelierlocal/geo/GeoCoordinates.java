@@ -0,0 +1,18 @@
+package com.atelierlocal.geo;
+
+/**
+ * Coordonnées GPS renvoyées par le géocodage d'une adresse.
+ */
+public final class GeoCoordinates {
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoCoordinates(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+}
@@ -0,0 +1,206 @@
+package com.atelierlocal.geo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Encodage geohash et calculs de distance utilisés par la recherche géographique.
+ *
+ * Un geohash découpe la Terre en cellules imbriquées : deux points proches partagent
+ * le plus souvent un préfixe commun, et toutes les positions d'une cellule forment un
+ * intervalle continu dans l'ordre des chaînes. Une colonne geohash indexée par un B-tree
+ * permet donc de retrouver une zone par quelques parcours d'intervalle.
+ */
+public final class GeoHash {
+
+    /**
+     * Précision enregistrée en base : 9 caractères, soit des cellules d'environ 5 m de côté.
+     */
+    public static final int PRECISION = 9;
+
+    /**
+     * Rayon moyen de la Terre, en kilomètres.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoHash() {
+    }
+
+    // -------------------------------------------------------------------------
+    // ENCODAGE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Encode une position avec la précision donnée (nombre de caractères).
+     *
+     * @throws IllegalArgumentException si les coordonnées ou la précision sont invalides
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        checkCoordinates(latitude, longitude);
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("La précision doit être comprise entre 1 et 12.");
+        }
+
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int value = 0;
+
+        // Les bits alternent longitude / latitude, regroupés par 5 pour former un caractère
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLng = mid;
+                } else {
+                    value = value << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLat = mid;
+                } else {
+                    value = value << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(value));
+                bit = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Encode une position avec la précision enregistrée en base.
+     */
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, PRECISION);
+    }
+
+    // -------------------------------------------------------------------------
+    // COUVERTURE D'UNE ZONE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Calcule les cellules (préfixes geohash) qui recouvrent entièrement la boîte.
+     *
+     * La précision retenue est la plus fine pour laquelle au plus "maxCells" cellules
+     * suffisent : plus les cellules sont petites, moins de lignes hors de la zone sont lues.
+     *
+     * @param box zone à couvrir
+     * @param maxCells nombre maximal de cellules (et donc de parcours d'index)
+     * @return préfixes geohash, sans doublon
+     */
+    public static List<String> coveringCells(GeoBoundingBox box, int maxCells) {
+        for (int precision = PRECISION; precision > 1; precision--) {
+            double height = cellHeight(precision);
+            double width = cellWidth(precision);
+            long rows = cellIndex(box.getMaxLatitude() + 90, height, 180) - cellIndex(box.getMinLatitude() + 90, height, 180) + 1;
+            long columns = cellIndex(box.getMaxLongitude() + 180, width, 360) - cellIndex(box.getMinLongitude() + 180, width, 360) + 1;
+            if (rows * columns <= maxCells) {
+                return enumerateCells(box, precision, height, width);
+            }
+        }
+        return enumerateCells(box, 1, cellHeight(1), cellWidth(1));
+    }
+
+    /**
+     * Premier préfixe qui suit tous les geohash commençant par "prefix" dans l'ordre des chaînes,
+     * ou null si aucun (préfixe composé uniquement de "z").
+     */
+    public static String upperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            int index = BASE32.indexOf(prefix.charAt(i));
+            if (index < BASE32.length() - 1) {
+                return prefix.substring(0, i) + BASE32.charAt(index + 1);
+            }
+        }
+        return null;
+    }
+
+    // -------------------------------------------------------------------------
+    // DISTANCES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Distance orthodromique entre deux points (formule de haversine), en kilomètres.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLat = Math.toRadians(latitude2 - latitude1);
+        double deltaLng = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2)
+                 + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                 * Math.sin(deltaLng / 2) * Math.sin(deltaLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Vérifie qu'une latitude et une longitude sont dans les bornes terrestres.
+     *
+     * @throws IllegalArgumentException sinon
+     */
+    public static void checkCoordinates(double latitude, double longitude) {
+        if (Double.isNaN(latitude) || latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("La latitude doit être comprise entre -90 et 90.");
+        }
+        if (Double.isNaN(longitude) || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("La longitude doit être comprise entre -180 et 180.");
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Hauteur (en degrés de latitude) d'une cellule : 5 bits par caractère, dont la moitié
+     * (arrondie à l'inférieur) pour la latitude.
+     */
+    static double cellHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    /**
+     * Largeur (en degrés de longitude) d'une cellule : la longitude reçoit le bit restant.
+     */
+    static double cellWidth(int precision) {
+        return 360.0 / (1L << ((5 * precision + 1) / 2));
+    }
+
+    private static long cellIndex(double offset, double cellSize, double span) {
+        // Le bord supérieur (90° ou 180°) appartient à la dernière cellule
+        return (long) Math.floor(Math.min(offset, span - cellSize / 2) / cellSize);
+    }
+
+    private static List<String> enumerateCells(GeoBoundingBox box, int precision, double height, double width) {
+        long firstRow = cellIndex(box.getMinLatitude() + 90, height, 180);
+        long lastRow = cellIndex(box.getMaxLatitude() + 90, height, 180);
+        long firstColumn = cellIndex(box.getMinLongitude() + 180, width, 360);
+        long lastColumn = cellIndex(box.getMaxLongitude() + 180, width, 360);
+
+        // Le centre de chaque cellule suffit à retrouver son geohash
+        Set<String> cells = new LinkedHashSet<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            double latitude = -90 + (row + 0.5) * height;
+            for (long column = firstColumn; column <= lastColumn; column++) {
+                double longitude = -180 + (column + 0.5) * width;
+                cells.add(encode(latitude, longitude, precision));
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+}
@@ -0,0 +1,15 @@
+package com.atelierlocal.geo;
+
+/**
+ * Exception levée lorsque le fournisseur de géocodage est injoignable ou répond en erreur.
+ */
+public class GeocodingException extends RuntimeException {
+
+    public GeocodingException(String message) {
+        super(message);
+    }
+
+    public GeocodingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
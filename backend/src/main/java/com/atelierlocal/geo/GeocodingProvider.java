@@ -0,0 +1,31 @@
+package com.atelierlocal.geo;
+
+import java.util.Optional;
+
+/**
+ * Abstraction du fournisseur de géocodage (adresse vers coordonnées et inversement).
+ *
+ * L'implémentation par défaut, LocationIqGeocodingProvider, interroge l'API LocationIQ.
+ * Les appels ne sont pas mis en cache ici : c'est le rôle de GeocodingService.
+ */
+public interface GeocodingProvider {
+
+    /**
+     * Recherche les coordonnées d'une adresse.
+     *
+     * @param address adresse à géocoder
+     * @return coordonnées du meilleur résultat, ou vide si l'adresse est inconnue
+     * @throws GeocodingException si le fournisseur est injoignable ou répond en erreur
+     */
+    Optional<GeoCoordinates> geocode(String address);
+
+    /**
+     * Recherche l'adresse correspondant à des coordonnées.
+     *
+     * @param latitude latitude GPS
+     * @param longitude longitude GPS
+     * @return adresse trouvée, ou vide si aucune ne correspond
+     * @throws GeocodingException si le fournisseur est injoignable ou répond en erreur
+     */
+    Optional<GeoAddress> reverse(double latitude, double longitude);
+}
@@ -0,0 +1,159 @@
+package com.atelierlocal.geo;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Fournisseur de géocodage s'appuyant sur l'API LocationIQ.
+ *
+ * Un seul client HTTP est partagé par toutes les requêtes : ses connexions sont réutilisées
+ * et les délais de connexion et de lecture sont bornés, pour qu'un fournisseur lent
+ * n'immobilise pas les threads de l'application.
+ */
+@Component
+public class LocationIqGeocodingProvider implements GeocodingProvider {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final String apiKey;
+
+    /**
+     * Constructeur du fournisseur.
+     *
+     * @param apiKey clé API LocationIQ
+     * @param baseUrl URL de base de l'API
+     * @param connectTimeoutMs délai maximal d'établissement de la connexion, en millisecondes
+     * @param readTimeoutMs délai maximal d'attente de la réponse, en millisecondes
+     */
+    public LocationIqGeocodingProvider(
+                @Value("${locationiq.key}") String apiKey,
+                @Value("${locationiq.base-url:https://us1.locationiq.com/v1}") String baseUrl,
+                @Value("${locationiq.connect-timeout-ms:2000}") long connectTimeoutMs,
+                @Value("${locationiq.read-timeout-ms:5000}") long readTimeoutMs
+                ) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+    }
+
+    // -------------------------------------------------------------------------
+    // ADRESSE → COORDONNÉES
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Optional<GeoCoordinates> geocode(String address) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl + "/search.php")
+            .queryParam("key", "{key}")
+            .queryParam("q", "{q}")
+            .queryParam("format", "json")
+            .encode()
+            .buildAndExpand(apiKey, address)
+            .toUri();
+
+        try {
+            Object[] results = restTemplate.getForObject(uri, Object[].class);
+            if (results == null || results.length == 0) {
+                return Optional.empty();
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> firstResult = (Map<String, Object>) results[0];
+            return Optional.of(new GeoCoordinates(
+                Double.parseDouble((String) firstResult.get("lat")),
+                Double.parseDouble((String) firstResult.get("lon"))
+            ));
+        } catch (HttpClientErrorException.NotFound e) {
+            // LocationIQ répond 404 lorsqu'aucune adresse ne correspond
+            return Optional.empty();
+        } catch (RestClientException | ClassCastException | NumberFormatException e) {
+            throw new GeocodingException("Erreur LocationIQ: " + e.getMessage(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // COORDONNÉES → ADRESSE
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Optional<GeoAddress> reverse(double latitude, double longitude) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl + "/reverse.php")
+            .queryParam("key", "{key}")
+            .queryParam("lat", latitude)
+            .queryParam("lon", longitude)
+            .queryParam("format", "json")
+            .encode()
+            .buildAndExpand(apiKey)
+            .toUri();
+
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = restTemplate.getForObject(uri, Map.class);
+            if (result == null || !(result.get("address") instanceof Map<?, ?>)) {
+                return Optional.empty();
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> address = (Map<String, Object>) result.get("address");
+
+            String city = String.valueOf(address.getOrDefault("city",
+                                         address.getOrDefault("town",
+                                         address.getOrDefault("village", ""))));
+            return Optional.of(new GeoAddress(
+                buildAddress(address, city),
+                city,
+                String.valueOf(address.getOrDefault("postcode", "")),
+                String.valueOf(address.getOrDefault("country", ""))
+            ));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        } catch (RestClientException | ClassCastException e) {
+            throw new GeocodingException("Erreur géocodage inverse: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Construit une adresse lisible à partir des champs retournés par LocationIQ.
+     *
+     * @param address map contenant les éléments d'adresse
+     * @param city ville (ou commune) déjà extraite
+     * @return adresse complète sous forme de chaîne
+     */
+    private String buildAddress(Map<String, Object> address, String city) {
+        StringBuilder sb = new StringBuilder();
+
+        // Numéro + rue
+        if (address.containsKey("house_number")) {
+            sb.append(address.get("house_number")).append(" ");
+        }
+        if (address.containsKey("road")) {
+            sb.append(address.get("road")).append(", ");
+        }
+
+        // Ville
+        if (!city.isEmpty()) {
+            sb.append(city);
+        }
+
+        // Code postal
+        if (address.containsKey("postcode")) {
+            sb.append(" ").append(address.get("postcode"));
+        }
+
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,135 @@
+package com.atelierlocal.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+/**
+ * Relais entre les brokers simples des différents nœuds du cluster.
+ *
+ * Placé en intercepteur du canal du broker, il publie sur le transport les messages émis par l'application
+ * vers une destination utilisateur ("/user/{nom}/...") ou un topic ("/topic/..."). Chaque autre nœud
+ * réinjecte le message dans son propre canal du broker : les destinations utilisateur y sont résolues
+ * vers les sessions connectées localement, les topics remis à ses abonnés.
+ *
+ * Les destinations déjà résolues vers une session ("/queue/...-user{session}") ne sont jamais relayées :
+ * elles ne concernent que le nœud qui porte la session. Un message réinjecté est marqué pour ne pas
+ * être relayé à nouveau.
+ */
+public class ClusterBrokerRelay implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterBrokerRelay.class);
+
+    /**
+     * En-tête marquant un message reçu d'un autre nœud.
+     */
+    static final String RELAYED_HEADER = "clusterRelayed";
+
+    private final ClusterTransport transport;
+    private final Supplier<MessageChannel> brokerChannel;
+    private final String userDestinationPrefix;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean started;
+
+    /**
+     * @param transport transport partagé par les nœuds
+     * @param brokerChannel canal du broker local, où sont réinjectés les messages reçus
+     * @param userDestinationPrefix préfixe des destinations utilisateur (ex : "/user/")
+     */
+    public ClusterBrokerRelay(ClusterTransport transport, Supplier<MessageChannel> brokerChannel, String userDestinationPrefix) {
+        this.transport = transport;
+        this.brokerChannel = brokerChannel;
+        this.userDestinationPrefix = userDestinationPrefix.endsWith("/") ? userDestinationPrefix : userDestinationPrefix + "/";
+    }
+
+    /**
+     * Abonne le nœud au transport, une fois le contexte prêt (le canal du broker doit exister).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!started) {
+            transport.subscribe(this::receive);
+            started = true;
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // -------------------------------------------------------------------------
+    // ÉMISSION
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        if (!SimpMessageType.MESSAGE.equals(accessor.getMessageType())
+                || accessor.getSessionId() != null
+                || destination == null
+                || !isRelayed(destination)
+                || message.getHeaders().containsKey(RELAYED_HEADER)) {
+            return message;
+        }
+
+        byte[] payload;
+        if (message.getPayload() instanceof byte[] bytes) {
+            payload = bytes;
+        } else if (message.getPayload() instanceof String text) {
+            payload = text.getBytes(StandardCharsets.UTF_8);
+        } else {
+            logger.warn("Message vers {} non relayé : corps de type {} non sérialisé", destination,
+                message.getPayload().getClass().getSimpleName());
+            return message;
+        }
+
+        MimeType contentType = accessor.getContentType();
+        try {
+            transport.publish(new ClusterEnvelope(nodeId, destination,
+                contentType != null ? contentType.toString() : null, payload));
+        } catch (Exception e) {
+            // La remise locale ne doit pas échouer à cause du transport
+            logger.error("Erreur lors du relais d'un message vers {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    // -------------------------------------------------------------------------
+    // RÉCEPTION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Réinjecte dans le canal du broker local un message publié par un autre nœud.
+     */
+    void receive(ClusterEnvelope envelope) {
+        if (nodeId.equals(envelope.originNode())) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+        }
+        accessor.setHeader(RELAYED_HEADER, envelope.originNode());
+        accessor.setLeaveMutable(true);
+        brokerChannel.get().send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+    }
+
+    private boolean isRelayed(String destination) {
+        return destination.startsWith(userDestinationPrefix) || destination.startsWith("/topic/");
+    }
+}
@@ -0,0 +1,13 @@
+package com.atelierlocal.messaging;
+
+/**
+ * Message STOMP échangé entre les nœuds du cluster.
+ *
+ * @param originNode identifiant du nœud émetteur (un nœud ignore ses propres messages)
+ * @param destination destination du message ("/topic/..." ou destination utilisateur "/user/{nom}/queue/...")
+ * @param contentType type de contenu du corps (null s'il n'est pas renseigné)
+ * @param payload corps du message, déjà sérialisé
+ */
+public record ClusterEnvelope(String originNode, String destination, String contentType,
+                              byte[] payload) {
+}
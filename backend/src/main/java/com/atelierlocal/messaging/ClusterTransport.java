@@ -0,0 +1,30 @@
+package com.atelierlocal.messaging;
+
+import java.util.function.Consumer;
+
+/**
+ * Abstraction du transport des messages STOMP entre les nœuds du cluster.
+ *
+ * Deux implémentations sont fournies :
+ * - PostgresClusterTransport : LISTEN / NOTIFY sur la base PostgreSQL partagée par les nœuds ;
+ * - InProcessClusterTransport : diffusion en mémoire entre plusieurs nœuds d'une même JVM (tests).
+ *
+ * Un message publié est remis à tous les abonnés, y compris ceux du nœud émetteur.
+ * La remise n'est pas garantie : un message peut être perdu si le transport est saturé ou interrompu.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Publie un message à destination de tous les nœuds.
+     *
+     * @param envelope message à diffuser
+     */
+    void publish(ClusterEnvelope envelope);
+
+    /**
+     * Enregistre un abonné, appelé pour chaque message reçu.
+     *
+     * @param listener abonné
+     */
+    void subscribe(Consumer<ClusterEnvelope> listener);
+}
@@ -0,0 +1,53 @@
+package com.atelierlocal.messaging;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transport en mémoire : les nœuds d'une même JVM partageant le même canal reçoivent les messages
+ * des autres, de façon synchrone. Permet de faire fonctionner plusieurs nœuds dans les tests.
+ */
+public class InProcessClusterTransport implements ClusterTransport {
+
+    private static final Map<String, List<Consumer<ClusterEnvelope>>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private final List<Consumer<ClusterEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param channel nom du canal partagé par les nœuds du cluster
+     */
+    public InProcessClusterTransport(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(ClusterEnvelope envelope) {
+        for (Consumer<ClusterEnvelope> listener : CHANNELS.getOrDefault(channel, List.of())) {
+            listener.accept(envelope);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEnvelope> listener) {
+        listeners.add(listener);
+        CHANNELS.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Retire les abonnés de ce nœud du canal.
+     */
+    @PreDestroy
+    public void close() {
+        List<Consumer<ClusterEnvelope>> subscribers = CHANNELS.get(channel);
+        if (subscribers != null) {
+            subscribers.removeAll(listeners);
+        }
+        listeners.clear();
+    }
+}
@@ -0,0 +1,203 @@
+package com.atelierlocal.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transport entre nœuds par LISTEN / NOTIFY PostgreSQL : aucun composant supplémentaire,
+ * les nœuds partagent déjà la base.
+ *
+ * Deux connexions du pool sont réservées : l'une écoute le canal, l'autre envoie les notifications.
+ * Les publications passent par une file bornée vidée par un thread dédié, pour que l'envoi
+ * d'un message ne bloque pas le thread appelant sur la base.
+ *
+ * PostgreSQL limite le contenu d'une notification à 8000 octets : un message plus volumineux
+ * n'est pas diffusé. En cas de coupure, les connexions sont rétablies ; les notifications
+ * émises pendant la coupure sont perdues.
+ */
+public class PostgresClusterTransport implements ClusterTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresClusterTransport.class);
+
+    /**
+     * Taille maximale d'une notification PostgreSQL, en octets (marge comprise).
+     */
+    static final int MAX_NOTIFICATION_BYTES = 7900;
+
+    private static final long RECONNECT_DELAY_MS = 1000;
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final BlockingQueue<String> outbox;
+    private final List<Consumer<ClusterEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+    private Thread senderThread;
+
+    /**
+     * @param dataSource source des connexions d'écoute et d'envoi
+     * @param objectMapper sérialisation des messages
+     * @param channel nom du canal PostgreSQL (lettres minuscules, chiffres et "_")
+     * @param queueCapacity nombre maximal de messages en attente d'envoi
+     * @throws IllegalArgumentException si le nom du canal est invalide
+     */
+    public PostgresClusterTransport(DataSource dataSource, ObjectMapper objectMapper, String channel, int queueCapacity) {
+        if (channel == null || !channel.matches("[a-z_][a-z0-9_]{0,62}")) {
+            throw new IllegalArgumentException("Nom de canal invalide : " + channel);
+        }
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.outbox = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofVirtual().name("cluster-broker-listener").start(this::listen);
+        senderThread = Thread.ofVirtual().name("cluster-broker-sender").start(this::send);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        if (senderThread != null) {
+            senderThread.interrupt();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // PUBLICATION
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void publish(ClusterEnvelope envelope) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            logger.warn("Message vers {} non sérialisable, non diffusé: {}", envelope.destination(), e.getMessage());
+            return;
+        }
+        if (json.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFICATION_BYTES) {
+            logger.warn("Message vers {} trop volumineux pour être diffusé ({} caractères)", envelope.destination(), json.length());
+            return;
+        }
+        if (!outbox.offer(json)) {
+            logger.warn("File de diffusion saturée, message vers {} non diffusé", envelope.destination());
+        }
+    }
+
+    /**
+     * Envoie les messages en attente, en réutilisant la même connexion tant qu'elle est valide.
+     */
+    private void send() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                notify.setString(1, channel);
+                while (running) {
+                    String json = outbox.take();
+                    notify.setString(2, json);
+                    notify.execute();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (SQLException e) {
+                logger.error("Erreur lors de la diffusion d'un message sur le canal {}: {}", channel, e.getMessage());
+                pause();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ÉCOUTE
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void subscribe(Consumer<ClusterEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Écoute le canal et remet chaque notification reçue aux abonnés.
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.error("Écoute du canal {} interrompue: {}", channel, e.getMessage());
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void dispatch(String json) {
+        ClusterEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(json, ClusterEnvelope.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Message illisible reçu sur le canal {}: {}", channel, e.getMessage());
+            return;
+        }
+        for (Consumer<ClusterEnvelope> listener : listeners) {
+            try {
+                listener.accept(envelope);
+            } catch (Exception e) {
+                logger.error("Erreur lors du traitement d'un message vers {}: {}", envelope.destination(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -7,9 +7,12 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -29,7 +32,13 @@ import jakarta.validation.constraints.Size;
  * - recommandations reçues
  */
 @Entity
-@Table(name = "artisans")
+@Table(
+    name = "artisans",
+    indexes = {
+        @Index(name = "idx_artisans_category", columnList = "artisan_category_name"),
+        @Index(name = "idx_artisans_recommendation_count", columnList = "recommendation_count DESC, id")
+    }
+)
 public class Artisan extends User {
     
     // -------------------------------------------------------------------------
@@ -88,6 +97,15 @@ public class Artisan extends User {
     @JsonIgnore
     private List<Recommendation> recommendations = new ArrayList<>();
 
+    /**
+     * Nombre de recommandations reçues, maintenu par incrément atomique en base lors de la création
+     * et de la suppression d'une recommandation, et réconcilié périodiquement.
+     * Jamais écrit depuis l'entité : une entité chargée avant un incrément n'écrase pas le compteur.
+     */
+    @ColumnDefault("0")
+    @Column(name = "recommendation_count", nullable = false, insertable = false, updatable = false)
+    private long recommendationCount;
+
     // -------------------------------------------------------------------------
     // GETTERS ET SETTERS
     // -------------------------------------------------------------------------
@@ -112,4 +130,7 @@ public class Artisan extends User {
 
     public List<Recommendation> getRecommendations() { return recommendations; }
     public void setRecommendations(List<Recommendation> recommendations) { this.recommendations = recommendations; }
+
+    public long getRecommendationCount() { return recommendationCount; }
+    public void setRecommendationCount(long recommendationCount) { this.recommendationCount = recommendationCount; }
 }
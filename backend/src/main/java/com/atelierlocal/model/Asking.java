@@ -13,6 +13,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -26,7 +27,7 @@ import jakarta.validation.constraints.Size;
  * la date de l'événement, et l'état de la demande.
  */
 @Entity
-@Table(name = "askings")
+@Table(name = "askings", indexes = @Index(name = "idx_askings_status_matched", columnList = "status, matched_at"))
 public class Asking {
 
     // -------------------------------------------------------------------------
@@ -108,6 +109,12 @@ public class Asking {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Date à laquelle la demande a été proposée aux artisans concernés (null tant que la mise en relation n'a pas eu lieu).
+     */
+    @Column(name = "matched_at")
+    private LocalDateTime matchedAt;
+
     // -------------------------------------------------------------------------
     // GETTERS ET SETTERS
     // -------------------------------------------------------------------------
@@ -143,4 +150,7 @@ public class Asking {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getMatchedAt() { return matchedAt; }
+    public void setMatchedAt(LocalDateTime matchedAt) { this.matchedAt = matchedAt; }
 }
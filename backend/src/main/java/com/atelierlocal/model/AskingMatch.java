@@ -0,0 +1,108 @@
+package com.atelierlocal.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Entité représentant une opportunité : une demande (Asking) proposée à un artisan
+ * par le moteur de mise en relation.
+ *
+ * L'ensemble des opportunités d'un artisan forme sa boîte de réception, parcourue
+ * du plus récent au plus ancien (index sur artisan, date de création et identifiant).
+ * Une demande n'est proposée qu'une fois à un même artisan (contrainte d'unicité).
+ */
+@Entity
+@Table(
+    name = "asking_matches",
+    uniqueConstraints = @UniqueConstraint(name = "uk_asking_matches_asking_artisan", columnNames = {"asking_id", "artisan_id"}),
+    indexes = @Index(name = "idx_asking_matches_artisan_created", columnList = "artisan_id, created_at DESC, id DESC")
+)
+public class AskingMatch {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Identifiant unique de l'opportunité.
+     */
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    /**
+     * Demande proposée.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "asking_id", nullable = false)
+    @JsonIgnore
+    private Asking asking;
+
+    /**
+     * Artisan à qui la demande est proposée.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "artisan_id", nullable = false)
+    @JsonIgnore
+    private Artisan artisan;
+
+    /**
+     * Distance entre l'artisan et le lieu de l'événement, en kilomètres (null si le lieu n'a pas pu être localisé).
+     */
+    @Column(name = "distance_km")
+    private Double distanceKm;
+
+    /**
+     * Date de la mise en relation. Remplie automatiquement à la création.
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEURS
+    // -------------------------------------------------------------------------
+
+    public AskingMatch() {
+    }
+
+    public AskingMatch(Asking asking, Artisan artisan, Double distanceKm) {
+        this.asking = asking;
+        this.artisan = artisan;
+        this.distanceKm = distanceKm;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Asking getAsking() { return asking; }
+    public void setAsking(Asking asking) { this.asking = asking; }
+
+    public Artisan getArtisan() { return artisan; }
+    public void setArtisan(Artisan artisan) { this.artisan = artisan; }
+
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -59,6 +59,12 @@ public class Attachment {
     @Column(nullable = false)
     private String fileType;
 
+    /**
+     * Nom d'origine du fichier (l'URL ne le contient plus : les fichiers sont adressés par contenu).
+     */
+    @Column
+    private String fileName;
+
     /**
      * Date et heure de création de la pièce jointe.
      * Remplie automatiquement lors de l'insertion.
@@ -89,6 +95,9 @@ public class Attachment {
     public String getFileType() { return fileType; }
     public void setFileType(String fileType) { this.fileType = fileType; }
 
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
@@ -16,7 +16,7 @@ import org.hibernate.annotations.UpdateTimestamp;
  * - identifiant unique
  * - extension du fichier image
  * - utilisateur associé
- * - URL du fichier
+ * - URL du fichier et de ses déclinaisons (miniature, vignette)
  * - dates de création et de mise à jour automatiques
  */
 @Entity
@@ -58,6 +58,20 @@ public class Avatar {
     @Column
     private String avatarUrl;
 
+    /**
+     * URL de la vignette (déclinaison CARD) de l'avatar.
+     * Nulle pour les avatars enregistrés avant la génération des déclinaisons.
+     */
+    @Column
+    private String cardUrl;
+
+    /**
+     * URL de la miniature (déclinaison THUMBNAIL) de l'avatar.
+     * Nulle pour les avatars enregistrés avant la génération des déclinaisons.
+     */
+    @Column
+    private String thumbnailUrl;
+
     /**
      * Date et heure de création de l'avatar.
      * Remplie automatiquement lors de l'insertion.
@@ -88,6 +102,12 @@ public class Avatar {
     public String getAvatarUrl() { return avatarUrl; }
     public void setAvatarUrl(String avatarUrl) { this.avatarUrl = avatarUrl; }
 
+    public String getCardUrl() { return cardUrl; }
+    public void setCardUrl(String cardUrl) { this.cardUrl = cardUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
@@ -3,6 +3,8 @@ package com.atelierlocal.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.CascadeType;
@@ -60,6 +62,15 @@ public class Client extends User {
     @JsonIgnore
     private List<Recommendation> recommendations = new ArrayList<>();
 
+    /**
+     * Nombre de recommandations laissées, maintenu par incrément atomique en base lors de la création
+     * et de la suppression d'une recommandation, et réconcilié périodiquement.
+     * Jamais écrit depuis l'entité : une entité chargée avant un incrément n'écrase pas le compteur.
+     */
+    @ColumnDefault("0")
+    @Column(name = "recommendation_count", nullable = false, insertable = false, updatable = false)
+    private long recommendationCount;
+
     // -------------------------------------------------------------------------
     // GETTERS ET SETTERS
     // -------------------------------------------------------------------------
@@ -75,4 +86,7 @@ public class Client extends User {
 
     public List<Recommendation> getRecommendations() { return recommendations; }
     public void setRecommendations(List<Recommendation> recommendations) { this.recommendations = recommendations; }
+
+    public long getRecommendationCount() { return recommendationCount; }
+    public void setRecommendationCount(long recommendationCount) { this.recommendationCount = recommendationCount; }
 }
@@ -0,0 +1,132 @@
+package com.atelierlocal.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Entité représentant le résumé matérialisé d'une conversation, du point de vue d'un utilisateur.
+ *
+ * Chaque conversation entre deux utilisateurs est représentée par deux lignes
+ * (une par participant), maintenues à chaque envoi et lecture de message :
+ * - propriétaire de la boîte de réception et interlocuteur
+ * - aperçu et date du dernier message échangé
+ * - nombre de messages non lus par le propriétaire
+ * - filigrane de lecture : date jusqu'à laquelle le propriétaire a lu la conversation
+ *
+ * La boîte de réception est ainsi lue via l'index (owner_id, last_message_at)
+ * sans parcourir l'historique des messages.
+ */
+@Entity
+@Table(
+    name = "conversation_summaries",
+    uniqueConstraints = @UniqueConstraint(name = "uk_conversation_summary_owner_peer", columnNames = {"owner_id", "peer_id"}),
+    indexes = @Index(name = "idx_conversation_summary_inbox", columnList = "owner_id, last_message_at")
+)
+public class ConversationSummary {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    /** Taille maximale de l'aperçu du dernier message */
+    public static final int PREVIEW_MAX_LENGTH = 255;
+
+    /**
+     * Identifiant unique du résumé.
+     * Généré automatiquement.
+     */
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    /**
+     * Utilisateur propriétaire de la boîte de réception.
+     * Relation ManyToOne vers User, chargement paresseux.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "owner_id", nullable = false)
+    @JsonIgnore
+    private User owner;
+
+    /**
+     * Interlocuteur du propriétaire dans la conversation.
+     * Relation ManyToOne vers User, chargement paresseux.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "peer_id", nullable = false)
+    @JsonIgnore
+    private User peer;
+
+    /**
+     * Aperçu (tronqué) du dernier message échangé.
+     */
+    @Column(name = "last_message_preview", length = PREVIEW_MAX_LENGTH)
+    private String lastMessagePreview;
+
+    /**
+     * Date et heure du dernier message échangé.
+     */
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    /**
+     * Nombre de messages reçus de l'interlocuteur et non lus par le propriétaire.
+     */
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    /**
+     * Filigrane de lecture : tous les messages reçus jusqu'à cette date sont considérés comme lus.
+     */
+    @Column(name = "last_read_at")
+    private LocalDateTime lastReadAt;
+
+    /**
+     * Date et heure de la dernière mise à jour du résumé.
+     */
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public User getOwner() { return owner; }
+    public void setOwner(User owner) { this.owner = owner; }
+
+    public User getPeer() { return peer; }
+    public void setPeer(User peer) { this.peer = peer; }
+
+    public String getLastMessagePreview() { return lastMessagePreview; }
+    public void setLastMessagePreview(String lastMessagePreview) { this.lastMessagePreview = lastMessagePreview; }
+
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+
+    public LocalDateTime getLastReadAt() { return lastReadAt; }
+    public void setLastReadAt(LocalDateTime lastReadAt) { this.lastReadAt = lastReadAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -13,6 +13,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -61,7 +62,8 @@ public class EventCategory {
     @JoinTable(
         name = "event_artisan_category",
         joinColumns = @JoinColumn(name = "event_category_id"),
-        inverseJoinColumns = @JoinColumn(name = "artisan_category_id")
+        inverseJoinColumns = @JoinColumn(name = "artisan_category_id"),
+        indexes = @Index(name = "idx_event_artisan_category_artisan", columnList = "artisan_category_id")
     )
     private List<ArtisanCategory> artisanCategoryList = new ArrayList<>();
 
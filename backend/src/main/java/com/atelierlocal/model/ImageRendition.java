@@ -0,0 +1,25 @@
+package com.atelierlocal.model;
+
+/**
+ * Enumération des déclinaisons générées pour chaque image uploadée (avatar, photo de portfolio).
+ *
+ * Les déclinaisons possibles sont :
+ * - THUMBNAIL : miniature (listes, messagerie), 160 px de côté maximum
+ * - CARD : vignette des cartes de listing, 480 px de côté maximum
+ * - FULL : image affichée en grand, 1600 px de côté maximum
+ *
+ * Les images ne sont jamais agrandies : une image plus petite que la taille maximale est conservée telle quelle.
+ */
+public enum ImageRendition {
+    THUMBNAIL(160),
+    CARD(480),
+    FULL(1600);
+
+    private final int maxSize;
+
+    ImageRendition(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() { return maxSize; }
+}
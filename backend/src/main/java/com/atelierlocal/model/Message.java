@@ -15,9 +15,12 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 /**
  * Entité représentant un message échangé entre utilisateurs.
@@ -31,10 +34,27 @@ import jakarta.persistence.OneToMany;
  * - statut du message
  * - dates de création et mise à jour automatiques
  * - identifiant temporaire (pour gestion front-end)
+ *
+ * L'index composite (sender_id, receiver_id, created_at) sert la pagination par clé
+ * de l'historique d'une conversation.
+ *
+ * La contrainte d'unicité (sender_id, temp_id) garantit qu'un renvoi du même message
+ * (reconnexion, nouvelle tentative HTTP) ne crée pas de doublon.
  */
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_message_conversation", columnList = "sender_id, receiver_id, created_at"),
+    @Index(name = "idx_message_status_created", columnList = "message_status, created_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Message.TEMP_ID_CONSTRAINT, columnNames = {"sender_id", "temp_id"})
+})
 public class Message {
 
+    /**
+     * Nom de la contrainte d'unicité (sender_id, temp_id), reconnue lors d'un envoi concurrent du même message.
+     */
+    public static final String TEMP_ID_CONSTRAINT = "uk_message_sender_temp_id";
+
     // -------------------------------------------------------------------------
     // ATTRIBUTS
     // -------------------------------------------------------------------------
@@ -112,6 +132,7 @@ public class Message {
 
     /**
      * Identifiant temporaire pour la gestion front-end ou synchronisation.
+     * Unique par expéditeur : sert de clé d'idempotence à l'envoi.
      */
     private String tempId;
 
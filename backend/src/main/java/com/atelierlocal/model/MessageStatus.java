@@ -4,6 +4,7 @@ package com.atelierlocal.model;
  * Enumération représentant le statut d'un message.
  * 
  * Les statuts possibles sont :
+ * - PENDING_UPLOAD : le message est enregistré, sa pièce jointe est en cours d'envoi
  * - SENT : le message a été envoyé
  * - DELIVERED : le message a été remis au destinataire
  * - FAILED : l'envoi du message a échoué
@@ -11,6 +12,7 @@ package com.atelierlocal.model;
  * Utilisé dans l'entité Message pour indiquer l'état actuel du message.
  */
 public enum MessageStatus {
+    PENDING_UPLOAD,
     SENT,
     DELIVERED,
     FAILED
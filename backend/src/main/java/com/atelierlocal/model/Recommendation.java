@@ -11,8 +11,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 /**
  * Entité représentant une recommandation laissée par un client à un artisan.
@@ -23,6 +25,7 @@ import jakarta.persistence.ManyToOne;
  * - date de création de la recommandation
  */
 @Entity
+@Table(indexes = @Index(name = "idx_recommendation_artisan", columnList = "artisan_id"))
 public class Recommendation {
 
     // -------------------------------------------------------------------------
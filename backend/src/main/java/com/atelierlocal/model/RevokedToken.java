@@ -0,0 +1,66 @@
+package com.atelierlocal.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Entité représentant un JWT révoqué (déconnexion) avant sa date d'expiration.
+ *
+ * Seul l'identifiant du token (réclamation "jti") est conservé, pas le token lui-même.
+ * L'entrée devient inutile dès que le token aurait de toute façon expiré : elle est alors purgée.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+public class RevokedToken {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Identifiant du token ("jti"), ou empreinte SHA-256 pour les tokens émis sans identifiant.
+     */
+    @Id
+    @Column(name = "token_id", length = 64, nullable = false, updatable = false)
+    private String tokenId;
+
+    /**
+     * Date d'expiration du token : l'entrée peut être supprimée après cette date.
+     */
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    /**
+     * Date de révocation, utilisée par les autres instances pour récupérer les nouvelles révocations.
+     */
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private Instant revokedAt;
+
+    // -------------------------------------------------------------------------
+    // CONSTRUCTEURS
+    // -------------------------------------------------------------------------
+
+    public RevokedToken() {}
+
+    public RevokedToken(String tokenId, Instant expiresAt, Instant revokedAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    // -------------------------------------------------------------------------
+    // GETTERS
+    // -------------------------------------------------------------------------
+
+    public String getTokenId() { return tokenId; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public Instant getRevokedAt() { return revokedAt; }
+}
@@ -0,0 +1,95 @@
+package com.atelierlocal.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entité représentant un fichier du stockage adressé par son contenu.
+ *
+ * Chaque contenu distinct (identifié par son empreinte SHA-256) n'est stocké qu'une fois,
+ * sous la clé "objects/{2 premiers caractères}/{empreinte}.{extension}".
+ * Le compteur de références indique combien d'entités (avatars, photos, pièces jointes)
+ * pointent vers ce fichier : il est supprimé du stockage lorsque ce compteur retombe à zéro.
+ */
+@Entity
+@Table(name = "stored_objects")
+public class StoredObject {
+
+    // -------------------------------------------------------------------------
+    // ATTRIBUTS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Empreinte SHA-256 du contenu, en hexadécimal.
+     */
+    @Id
+    @Column(name = "hash", length = 64, nullable = false, updatable = false)
+    private String hash;
+
+    /**
+     * Clé du fichier dans le stockage.
+     */
+    @Column(nullable = false, unique = true, updatable = false)
+    private String storageKey;
+
+    /**
+     * Type MIME du contenu.
+     */
+    @Column
+    private String contentType;
+
+    /**
+     * Taille du contenu en octets.
+     */
+    @Column(nullable = false)
+    private long size;
+
+    /**
+     * Nombre de références vers ce fichier.
+     */
+    @Column(nullable = false)
+    private long refCount;
+
+    /**
+     * Date et heure du premier enregistrement du contenu.
+     */
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Date et heure de la dernière modification du compteur.
+     */
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // -------------------------------------------------------------------------
+    // GETTERS ET SETTERS
+    // -------------------------------------------------------------------------
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public long getRefCount() { return refCount; }
+    public void setRefCount(long refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -19,12 +20,15 @@ import jakarta.persistence.Table;
  * 
  * Cette classe permet de stocker les informations suivantes :
  * - extension du fichier
- * - URL de la photo
+ * - URL de la photo et de ses déclinaisons (miniature, vignette)
  * - artisan propriétaire de la photo
  * - dates de création et mise à jour automatiques
  */
 @Entity
-@Table(name = "uploaded_photos")
+@Table(
+    name = "uploaded_photos",
+    indexes = @Index(name = "idx_uploaded_photos_artisan", columnList = "artisan_id")
+)
 public class UploadedPhoto {
 
     // -------------------------------------------------------------------------
@@ -52,6 +56,20 @@ public class UploadedPhoto {
     @Column
     private String uploadedPhotoUrl;
 
+    /**
+     * URL de la vignette (déclinaison CARD) de la photo.
+     * Nulle pour les photos enregistrées avant la génération des déclinaisons.
+     */
+    @Column
+    private String cardUrl;
+
+    /**
+     * URL de la miniature (déclinaison THUMBNAIL) de la photo.
+     * Nulle pour les photos enregistrées avant la génération des déclinaisons.
+     */
+    @Column
+    private String thumbnailUrl;
+
     /**
      * Artisan propriétaire de la photo.
      * Relation ManyToOne vers Artisan.
@@ -88,6 +106,12 @@ public class UploadedPhoto {
     public String getUploadedPhotoUrl() { return uploadedPhotoUrl; }
     public void setUploadedPhotoUrl(String uploadedPhotoUrl) { this.uploadedPhotoUrl = uploadedPhotoUrl; }
 
+    public String getCardUrl() { return cardUrl; }
+    public void setCardUrl(String cardUrl) { this.cardUrl = cardUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
     public Artisan getArtisan() { return artisan; }
     public void setArtisan(Artisan artisan) { this.artisan = artisan; }
 
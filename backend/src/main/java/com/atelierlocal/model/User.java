@@ -10,6 +10,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.atelierlocal.geo.GeoHash;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.CascadeType;
@@ -19,6 +20,7 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.OneToOne;
@@ -38,14 +40,20 @@ import jakarta.validation.constraints.Size;
  * - activation du compte
  * - rôle utilisateur
  * - avatar
- * - coordonnées géographiques
+ * - coordonnées géographiques (et leur geohash, indexé pour la recherche de proximité)
  * - numéro de téléphone
  * - dates de création et mise à jour automatiques
  * 
  * Implémente UserDetails pour l'intégration avec Spring Security.
  */
 @Entity
-@Table(name = "users")
+@Table(
+    name = "users",
+    indexes = {
+        @Index(name = "idx_users_geohash", columnList = "geohash"),
+        @Index(name = "idx_users_created_at", columnList = "created_at")
+    }
+)
 @Inheritance(strategy = InheritanceType.JOINED)
 public abstract class User implements UserDetails {
 
@@ -112,6 +120,13 @@ public abstract class User implements UserDetails {
     @DecimalMax(value = "180.0", message = "La longitude doit être inférieure ou égale à 180.")
     private Double longitude;
 
+    /**
+     * Geohash de la position, recalculé à chaque changement de coordonnées.
+     * Sert de clé d'index pour la recherche géographique.
+     */
+    @Column(length = GeoHash.PRECISION)
+    private String geohash;
+
     /**
      * Numéro de téléphone de l'utilisateur (format français attendu).
      */
@@ -158,10 +173,28 @@ public abstract class User implements UserDetails {
     public void setAvatar(Avatar avatar) { this.avatar = avatar; }
 
     public Double getLatitude() { return latitude; }
-    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+        refreshGeohash();
+    }
 
     public Double getLongitude() { return longitude; }
-    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+        refreshGeohash();
+    }
+
+    public String getGeohash() { return geohash; }
+
+    /**
+     * Recalcule le geohash à partir des coordonnées (null si l'une d'elles manque ou est hors bornes,
+     * la validation des coordonnées restant assurée par les contraintes ci-dessus).
+     */
+    public void refreshGeohash() {
+        boolean valid = latitude != null && longitude != null
+            && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180;
+        this.geohash = valid ? GeoHash.encode(latitude, longitude) : null;
+    }
 
     public String getPhoneNumber() { return phoneNumber; }
     public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
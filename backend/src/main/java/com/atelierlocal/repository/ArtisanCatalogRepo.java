@@ -0,0 +1,41 @@
+package com.atelierlocal.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.atelierlocal.model.Artisan;
+
+/**
+ * Fragment de repository pour la pagination du catalogue et la recherche géographique des artisans,
+ * implémenté par {@link ArtisanCatalogRepoImpl} et exposé par {@link ArtisanRepo}.
+ *
+ * Seuls les identifiants (et positions) des artisans sont sélectionnés : les informations affichées
+ * sont ensuite lues en une requête par projection pour la seule page retenue,
+ * sans charger les entités ni leurs associations.
+ */
+public interface ArtisanCatalogRepo {
+
+    /**
+     * Identifiants des artisans correspondant aux critères, dans l'ordre demandé.
+     *
+     * @param spec critères de recherche
+     * @param sort ordre de tri
+     * @param latitude latitude du point de référence (tri par distance uniquement)
+     * @param longitude longitude du point de référence (tri par distance uniquement)
+     * @param offset index du premier résultat
+     * @param limit nombre maximal de résultats
+     * @return identifiants de la page, triés
+     */
+    List<UUID> findCatalogIds(Specification<Artisan> spec, ArtisanCatalogSort sort,
+                              Double latitude, Double longitude, int offset, int limit);
+
+    /**
+     * Positions des artisans correspondant aux critères.
+     *
+     * @param spec critères de recherche
+     * @return identifiant, latitude et longitude de chaque artisan
+     */
+    List<ArtisanLocation> findLocations(Specification<Artisan> spec);
+}
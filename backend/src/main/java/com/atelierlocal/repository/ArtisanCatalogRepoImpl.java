@@ -0,0 +1,86 @@
+package com.atelierlocal.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.atelierlocal.model.Artisan;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Implémentation de {@link ArtisanCatalogRepo} avec l'API Criteria.
+ */
+public class ArtisanCatalogRepoImpl implements ArtisanCatalogRepo {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UUID> findCatalogIds(Specification<Artisan> spec, ArtisanCatalogSort sort,
+                                     Double latitude, Double longitude, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Artisan> root = query.from(Artisan.class);
+
+        query.select(root.get("id"));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(orders(sort, root, cb, latitude, longitude));
+
+        return entityManager.createQuery(query)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public List<ArtisanLocation> findLocations(Specification<Artisan> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ArtisanLocation> query = cb.createQuery(ArtisanLocation.class);
+        Root<Artisan> root = query.from(Artisan.class);
+
+        query.select(cb.construct(ArtisanLocation.class, root.get("id"), root.get("latitude"), root.get("longitude")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Clés de tri, complétées par l'identifiant pour un ordre stable d'une page à l'autre.
+     */
+    private List<Order> orders(ArtisanCatalogSort sort, Root<Artisan> root, CriteriaBuilder cb,
+                               Double latitude, Double longitude) {
+        List<Order> orders = new ArrayList<>();
+        switch (sort) {
+            case RECOMMENDATIONS -> {
+                orders.add(cb.desc(root.get("recommendationCount")));
+                orders.add(cb.asc(root.get("name")));
+            }
+            case DISTANCE -> {
+                // Distance équirectangulaire au carré : même ordre que la distance réelle à l'échelle d'une région
+                double cosLatitude = Math.cos(Math.toRadians(latitude));
+                Expression<Double> dLat = cb.diff(root.<Double>get("latitude"), latitude);
+                Expression<Double> dLng = cb.prod(cb.diff(root.<Double>get("longitude"), longitude), cosLatitude);
+                orders.add(cb.asc(cb.sum(cb.prod(dLat, dLat), cb.prod(dLng, dLng))));
+            }
+            case RECENT -> orders.add(cb.desc(root.get("createdAt")));
+            case NAME -> orders.add(cb.asc(root.get("name")));
+        }
+        orders.add(cb.asc(root.get("id")));
+        return orders;
+    }
+}
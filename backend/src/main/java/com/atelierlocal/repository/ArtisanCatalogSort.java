@@ -0,0 +1,36 @@
+package com.atelierlocal.repository;
+
+import java.util.Locale;
+
+/**
+ * Ordres de tri disponibles pour le catalogue des artisans.
+ *
+ * - RECOMMENDATIONS : les plus recommandés d'abord
+ * - DISTANCE : les plus proches d'un point d'abord (coordonnées requises)
+ * - RECENT : les derniers inscrits d'abord
+ * - NAME : ordre alphabétique
+ */
+public enum ArtisanCatalogSort {
+    RECOMMENDATIONS,
+    DISTANCE,
+    RECENT,
+    NAME;
+
+    /**
+     * Convertit le paramètre de requête ("recommendations", "distance", "recent", "name").
+     *
+     * @param value valeur du paramètre
+     * @return ordre de tri correspondant
+     * @throws IllegalArgumentException si la valeur est inconnue
+     */
+    public static ArtisanCatalogSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return RECOMMENDATIONS;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tri inconnu : " + value);
+        }
+    }
+}
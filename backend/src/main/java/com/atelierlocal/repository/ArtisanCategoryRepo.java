@@ -4,12 +4,9 @@ import com.atelierlocal.model.ArtisanCategory;
 import com.atelierlocal.model.EventCategory;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -24,18 +21,14 @@ import java.util.UUID;
  *   - count(): compter le nombre total d'enregistrements
  * 
  * Méthodes personnalisées définies dans ce repository :
- *   - findByNameIgnoreCase(String name) : récupère une catégorie par son nom, insensible à la casse et aux espaces superflus
  *   - findByEventCategories(EventCategory eventCategory) : récupère toutes les catégories d'artisans associées à une catégorie d'événement donnée
  * 
  * Bonnes pratiques :
- *   - Utiliser findByNameIgnoreCase pour éviter les doublons lors de l'ajout de nouvelles catégories
+ *   - Pour retrouver une catégorie par son nom, passer par CategoryCache (recherche en mémoire sur le nom normalisé)
  *   - findByEventCategories permet de filtrer les catégories liées à un type d'événement spécifique
  */
 
 @Repository
 public interface ArtisanCategoryRepo extends JpaRepository<ArtisanCategory, UUID> {
-    @Query("SELECT c FROM ArtisanCategory c WHERE LOWER(TRIM(c.name)) = LOWER(TRIM(:name))")
-    Optional<ArtisanCategory> findByNameIgnoreCase(@Param("name") String name);
-
     List<ArtisanCategory> findByEventCategories(EventCategory eventCategory);
 }
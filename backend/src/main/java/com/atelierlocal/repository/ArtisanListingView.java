@@ -0,0 +1,33 @@
+package com.atelierlocal.repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.atelierlocal.model.UserRole;
+
+/**
+ * Projection d'un artisan pour les listes d'artisans.
+ *
+ * Contient uniquement les colonnes affichées, la catégorie et l'avatar (jointures)
+ * et le compteur de recommandations (colonne maintenue) : une seule requête suffit
+ * pour toute la liste, sans charger les entités ni leurs associations.
+ */
+public interface ArtisanListingView {
+    UUID getId();
+    String getName();
+    String getEmail();
+    String getBio();
+    String getPhoneNumber();
+    String getSiret();
+    Double getLatitude();
+    Double getLongitude();
+    UUID getCategoryId();
+    String getCategoryName();
+    LocalDate getActivityStartDate();
+    UserRole getRole();
+    String getAvatarUrl();
+    String getAvatarCardUrl();
+    String getAvatarThumbnailUrl();
+    String getAvatarExtension();
+    Long getRecommendationCount();
+}
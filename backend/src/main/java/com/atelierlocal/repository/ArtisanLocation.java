@@ -0,0 +1,14 @@
+package com.atelierlocal.repository;
+
+import java.util.UUID;
+
+/**
+ * Position d'un artisan : seules colonnes lues pour calculer et trier les distances
+ * d'une recherche géographique, avant de charger les artisans retenus.
+ *
+ * @param id identifiant de l'artisan
+ * @param latitude latitude
+ * @param longitude longitude
+ */
+public record ArtisanLocation(UUID id, Double latitude, Double longitude) {
+}
@@ -0,0 +1,15 @@
+package com.atelierlocal.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection d'une photo de portfolio pour les listes d'artisans (aperçu des premières photos).
+ */
+public interface ArtisanPhotoView {
+    UUID getId();
+    UUID getArtisanId();
+    String getUploadedPhotoUrl();
+    String getCardUrl();
+    String getThumbnailUrl();
+    String getExtension();
+}
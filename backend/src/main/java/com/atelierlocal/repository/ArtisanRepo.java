@@ -3,10 +3,15 @@ package com.atelierlocal.repository;
 import com.atelierlocal.model.Artisan;
 import com.atelierlocal.model.ArtisanCategory;
 
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,19 +30,61 @@ import java.util.UUID;
  * Méthodes personnalisées définies dans ce repository :
  *   - findByEmail(String email) : récupère un artisan par son email unique
  *   - findAllByCategory(ArtisanCategory artisanCategory) : récupère tous les artisans appartenant à une catégorie donnée
- *   - findTop10ByOrderByRecommendationsDesc() : récupère les 10 artisans les mieux recommandés, 
- *     avec un EntityGraph pour charger simultanément l'avatar et la catégorie afin d'optimiser les performances
+ *   - findTopListing(Pageable pageable) : projections des artisans actifs les mieux recommandés
+ *     (index idx_artisans_recommendation_count), pour la sélection de la page d'accueil
+ *   - addToRecommendationCount(UUID id, int delta) : incrément atomique du compteur de recommandations
+ *   - reconcileRecommendationCounts() : recalcule les compteurs qui ne correspondent plus aux recommandations
+ *   - findAll(Specification) (JpaSpecificationExecutor) : recherches à critères dynamiques, notamment la
+ *     recherche géographique qui combine un nombre variable d'intervalles sur la colonne geohash
+ *   - findListing() / findListingByCategory(UUID categoryId) : projections {@link ArtisanListingView} pour
+ *     les listes d'artisans, en une seule requête (catégorie et avatar joints, compteur de recommandations)
+ *   - findListingByIds(Collection<UUID> ids) : mêmes projections pour une page du catalogue
+ *   - findCatalogIds(...) ({@link ArtisanCatalogRepo}) : identifiants d'une page du catalogue, filtrée
+ *     par critères ({@link ArtisanSpecifications}) et triée par la base
  * 
  * Bonnes pratiques :
  *   - Utiliser findByEmail pour authentification ou vérification d'existence
  *   - Utiliser findAllByCategory pour filtrer les artisans selon leur spécialité
- *   - findTop10ByOrderByRecommendationsDesc permet de récupérer rapidement les artisans les plus populaires sans requêtes supplémentaires pour leurs relations
+ *   - findTopListing permet de récupérer rapidement les artisans les plus populaires sans requêtes supplémentaires pour leurs relations
+ *   - Pour afficher une liste, préférer les projections findListing* : construire un ArtisanResponseDTO
+ *     depuis l'entité déclenche plusieurs requêtes par artisan (catégorie, avatar, recommandations, photos)
  */
 
 @Repository
-public interface ArtisanRepo extends JpaRepository<Artisan, UUID> {
+public interface ArtisanRepo extends JpaRepository<Artisan, UUID>, JpaSpecificationExecutor<Artisan>, ArtisanCatalogRepo {
     Optional<Artisan> findByEmail(String email);
     List<Artisan> findAllByCategory(ArtisanCategory artisanCategory);
-    @EntityGraph(attributePaths = {"avatar", "category"})
-    List<Artisan> findTop10ByOrderByRecommendationsDesc();
+    @Modifying
+    @Query(value = "UPDATE artisans SET recommendation_count = GREATEST(recommendation_count + :delta, 0) WHERE id = :id",
+           nativeQuery = true)
+    int addToRecommendationCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE artisans a SET recommendation_count = counted.total FROM (" +
+                   "SELECT ar.id, COUNT(r.id) AS total FROM artisans ar " +
+                   "LEFT JOIN recommendation r ON r.artisan_id = ar.id GROUP BY ar.id) counted " +
+                   "WHERE a.id = counted.id AND a.recommendation_count <> counted.total",
+           nativeQuery = true)
+    int reconcileRecommendationCounts();
+
+    String LISTING_SELECT =
+        "SELECT a.id AS id, a.name AS name, a.email AS email, a.bio AS bio, a.phoneNumber AS phoneNumber, " +
+        "a.siret AS siret, a.latitude AS latitude, a.longitude AS longitude, " +
+        "c.id AS categoryId, c.name AS categoryName, a.activityStartDate AS activityStartDate, a.userRole AS role, " +
+        "av.avatarUrl AS avatarUrl, av.cardUrl AS avatarCardUrl, av.thumbnailUrl AS avatarThumbnailUrl, " +
+        "av.extension AS avatarExtension, " +
+        "a.recommendationCount AS recommendationCount " +
+        "FROM Artisan a LEFT JOIN a.category c LEFT JOIN a.avatar av ";
+
+    @Query(LISTING_SELECT)
+    List<ArtisanListingView> findListing();
+
+    @Query(LISTING_SELECT + "WHERE c.id = :categoryId")
+    List<ArtisanListingView> findListingByCategory(@Param("categoryId") UUID categoryId);
+
+    @Query(LISTING_SELECT + "WHERE a.isActive = true ORDER BY a.recommendationCount DESC, a.id")
+    List<ArtisanListingView> findTopListing(Pageable pageable);
+
+    @Query(LISTING_SELECT + "WHERE a.id IN :ids")
+    List<ArtisanListingView> findListingByIds(@Param("ids") Collection<UUID> ids);
 }
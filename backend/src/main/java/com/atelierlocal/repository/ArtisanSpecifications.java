@@ -0,0 +1,85 @@
+package com.atelierlocal.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.atelierlocal.geo.GeoHash;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.ArtisanCategory;
+import com.atelierlocal.model.EventCategory;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Critères de recherche réutilisables sur les artisans, à combiner avec
+ * {@link Specification#and(Specification)} et à passer à {@link ArtisanRepo}.
+ *
+ * Chaque critère porte sur une colonne indexée : catégorie (idx_artisans_category),
+ * geohash (idx_users_geohash), table de jointure des catégories d'événement
+ * (idx_event_artisan_category_artisan).
+ */
+public final class ArtisanSpecifications {
+
+    private ArtisanSpecifications() {
+    }
+
+    /**
+     * Artisans actifs (active = true) ou désactivés (active = false).
+     */
+    public static Specification<Artisan> isActive(boolean active) {
+        return (root, query, cb) -> active
+            ? cb.isTrue(root.get("isActive"))
+            : cb.or(cb.isFalse(root.get("isActive")), cb.isNull(root.get("isActive")));
+    }
+
+    /**
+     * Artisans d'une catégorie.
+     */
+    public static Specification<Artisan> hasCategory(UUID categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    /**
+     * Artisans dont la catégorie est associée à une catégorie d'événement (sous-requête EXISTS).
+     */
+    public static Specification<Artisan> inEventCategory(UUID eventCategoryId) {
+        return (root, query, cb) -> {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<EventCategory> event = subquery.from(EventCategory.class);
+            Join<EventCategory, ArtisanCategory> categories = event.join("artisanCategoryList");
+            subquery.select(cb.literal(1))
+                .where(cb.equal(event.get("id"), eventCategoryId),
+                       cb.equal(categories, root.get("category")));
+            return cb.exists(subquery);
+        };
+    }
+
+    /**
+     * Artisans localisés.
+     */
+    public static Specification<Artisan> hasCoordinates() {
+        return (root, query, cb) -> cb.and(cb.isNotNull(root.get("latitude")), cb.isNotNull(root.get("longitude")));
+    }
+
+    /**
+     * Artisans dont le geohash commence par l'une des cellules : un intervalle de la colonne indexée par cellule.
+     */
+    public static Specification<Artisan> inGeohashCells(List<String> cells) {
+        return (root, query, cb) -> {
+            List<Predicate> ranges = new ArrayList<>();
+            for (String cell : cells) {
+                String upperBound = GeoHash.upperBound(cell);
+                ranges.add(upperBound == null
+                    ? cb.greaterThanOrEqualTo(root.get("geohash"), cell)
+                    : cb.and(cb.greaterThanOrEqualTo(root.get("geohash"), cell), cb.lessThan(root.get("geohash"), upperBound)));
+            }
+            return cb.or(ranges.toArray(Predicate[]::new));
+        };
+    }
+}
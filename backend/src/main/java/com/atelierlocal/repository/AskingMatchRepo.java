@@ -0,0 +1,51 @@
+package com.atelierlocal.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.atelierlocal.model.AskingMatch;
+
+/**
+ * Repository pour l'entité AskingMatch (opportunités proposées aux artisans).
+ *
+ * Il hérite de JpaRepository, ce qui lui permet d'utiliser toutes les méthodes CRUD standards.
+ *
+ * Méthodes personnalisées :
+ *   - findLatestInboxPage(...) / findInboxPageBefore(...) :
+ *       Pagination par clé (createdAt, id) des opportunités ouvertes d'un artisan, de la plus récente à la plus ancienne.
+ *       Seules les demandes encore en attente sont renvoyées ; demande, client et catégories sont chargés dans la même requête.
+ *   - deleteByAskingId(UUID askingId) :
+ *       Retire, en une seule requête DELETE, une demande de toutes les boîtes de réception (demande close ou supprimée).
+ */
+@Repository
+public interface AskingMatchRepo extends JpaRepository<AskingMatch, UUID> {
+
+    @Query("SELECT m FROM AskingMatch m JOIN FETCH m.asking a JOIN FETCH a.client JOIN FETCH a.artisanCategory " +
+           "LEFT JOIN FETCH a.eventCategory " +
+           "WHERE m.artisan.id = :artisanId AND a.status = com.atelierlocal.model.AskingStatus.PENDING " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<AskingMatch> findLatestInboxPage(@Param("artisanId") UUID artisanId, Pageable pageable);
+
+    @Query("SELECT m FROM AskingMatch m JOIN FETCH m.asking a JOIN FETCH a.client JOIN FETCH a.artisanCategory " +
+           "LEFT JOIN FETCH a.eventCategory " +
+           "WHERE m.artisan.id = :artisanId AND a.status = com.atelierlocal.model.AskingStatus.PENDING " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<AskingMatch> findInboxPageBefore(
+        @Param("artisanId") UUID artisanId,
+        @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("DELETE FROM AskingMatch m WHERE m.asking.id = :askingId")
+    int deleteByAskingId(@Param("askingId") UUID askingId);
+}
@@ -5,9 +5,14 @@ import com.atelierlocal.model.Asking;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.EventCategory;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -28,6 +33,10 @@ import java.util.UUID;
  *   - findAllByArtisanCategoryIn(Collection<ArtisanCategory> categories) : récupère toutes les demandes associées à plusieurs catégories d'artisans
  *   - findAllByEventCategory(EventCategory eventCategory) : récupère toutes les demandes liées à une catégorie d'événement spécifique
  *   - findAllByClient(Client client) : récupère toutes les demandes effectuées par un client donné
+ *   - findUnmatchedPending(LocalDateTime createdBefore, Pageable pageable) : demandes en attente pas encore proposées
+ *     aux artisans (mise en relation interrompue), avec leur client et leurs catégories
+ *   - markMatched(UUID id, LocalDateTime matchedAt) : enregistre la date de mise en relation d'une demande encore
+ *     en attente et pas encore mise en relation (0 sinon : demande close, supprimée ou déjà traitée)
  * 
  * Bonnes pratiques :
  *   - Utiliser les méthodes avec filtrage par catégorie ou client pour éviter de charger toutes les demandes inutilement
@@ -40,4 +49,14 @@ public interface AskingRepo extends JpaRepository<Asking, UUID> {
     List<Asking> findAllByArtisanCategoryIn(Collection<ArtisanCategory> categories);
     List<Asking> findAllByEventCategory(EventCategory eventCategory);
     List<Asking> findAllByClient(Client client);
+
+    @Query("SELECT a FROM Asking a JOIN FETCH a.client JOIN FETCH a.artisanCategory LEFT JOIN FETCH a.eventCategory " +
+           "WHERE a.status = com.atelierlocal.model.AskingStatus.PENDING AND a.matchedAt IS NULL " +
+           "AND a.createdAt < :createdBefore ORDER BY a.createdAt")
+    List<Asking> findUnmatchedPending(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Asking a SET a.matchedAt = :matchedAt WHERE a.id = :id AND a.matchedAt IS NULL " +
+           "AND a.status = com.atelierlocal.model.AskingStatus.PENDING")
+    int markMatched(@Param("id") UUID id, @Param("matchedAt") LocalDateTime matchedAt);
 }
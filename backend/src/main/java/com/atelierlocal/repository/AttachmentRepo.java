@@ -1,5 +1,6 @@
 package com.atelierlocal.repository;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -21,7 +22,10 @@ import com.atelierlocal.model.Attachment;
  *   - delete(), deleteById(), deleteAll(): supprimer des entités
  *   - count(): compter le nombre total d'enregistrements
  * 
- * Ce repository ne définit pas de méthodes personnalisées pour l'instant.
+ * Méthodes personnalisées :
+ *   - findFileUrlsByUserId(UUID userId): URL des pièces jointes des messages d'un utilisateur
+ *     (pour libérer les fichiers stockés avant suppression)
+ *   - deleteByUserId(UUID userId): supprime les pièces jointes des messages d'un utilisateur
  * 
  * Bonnes pratiques :
  *   - Utiliser ce repository pour gérer les attachments liés aux messages afin de maintenir l'intégrité des relations
@@ -30,6 +34,10 @@ import com.atelierlocal.model.Attachment;
 
 @Repository
 public interface AttachmentRepo extends JpaRepository<Attachment, UUID> {
+    @Query("SELECT a.fileUrl FROM Attachment a WHERE a.message.id IN " +
+           "(SELECT m.id FROM Message m WHERE m.sender.id = :userId OR m.receiver.id = :userId)")
+    List<String> findFileUrlsByUserId(@Param("userId") UUID userId);
+
     @Modifying
     @Query("DELETE FROM Attachment a WHERE a.message.id IN " +
            "(SELECT m.id FROM Message m WHERE m.sender.id = :userId OR m.receiver.id = :userId)")
@@ -4,6 +4,9 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.atelierlocal.model.Client;
@@ -21,6 +24,8 @@ import com.atelierlocal.model.Client;
  * 
  * Méthodes personnalisées définies dans ce repository :
  *   - findByEmail(String email) : récupère un client par son email unique
+ *   - addToRecommendationCount(UUID id, int delta) : incrément atomique du compteur de recommandations
+ *   - reconcileRecommendationCounts() : recalcule les compteurs qui ne correspondent plus aux recommandations
  * 
  * Bonnes pratiques :
  *   - Utiliser findByEmail pour authentification ou vérification d'existence
@@ -29,4 +34,17 @@ import com.atelierlocal.model.Client;
 @Repository
 public interface ClientRepo extends JpaRepository<Client, UUID> {
     Optional<Client> findByEmail(String email);
+
+    @Modifying
+    @Query(value = "UPDATE clients SET recommendation_count = GREATEST(recommendation_count + :delta, 0) WHERE id = :id",
+           nativeQuery = true)
+    int addToRecommendationCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE clients c SET recommendation_count = counted.total FROM (" +
+                   "SELECT cl.id, COUNT(r.id) AS total FROM clients cl " +
+                   "LEFT JOIN recommendation r ON r.client_id = cl.id GROUP BY cl.id) counted " +
+                   "WHERE c.id = counted.id AND c.recommendation_count <> counted.total",
+           nativeQuery = true)
+    int reconcileRecommendationCounts();
 }
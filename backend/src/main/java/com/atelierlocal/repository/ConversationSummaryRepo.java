@@ -0,0 +1,100 @@
+package com.atelierlocal.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.atelierlocal.model.ConversationSummary;
+
+/**
+ * Repository pour l'entité ConversationSummary.
+ *
+ * Ce repository gère les résumés matérialisés de conversation (un par utilisateur et par interlocuteur).
+ * Il hérite de JpaRepository, offrant ainsi toutes les méthodes CRUD standard.
+ *
+ * Méthodes personnalisées :
+ *   - findInbox(UUID ownerId, Pageable pageable):
+ *       Récupère une page de la boîte de réception triée par date du dernier message décroissante,
+ *       avec l'interlocuteur et son avatar chargés dans la même requête.
+ *   - upsertActivity(...):
+ *       Crée le résumé ou met à jour de façon atomique son aperçu, sa date et son compteur de non lus
+ *       (INSERT ... ON CONFLICT, PostgreSQL) : deux premiers messages simultanés ne peuvent entrer en conflit
+ *       sur la contrainte unique (owner_id, peer_id). La date du dernier message ne recule jamais.
+ *   - decrementUnread(...):
+ *       Décrémente le compteur de non lus sans jamais descendre sous zéro.
+ *   - markReadUpTo(...):
+ *       Décrémente le compteur de non lus et avance le filigrane de lecture (sans jamais le reculer).
+ *   - deleteByUserId(UUID userId):
+ *       Supprime tous les résumés dans lesquels l'utilisateur apparaît.
+ *   - rebuildFromMessages():
+ *       Reconstruit en une seule requête SQL (PostgreSQL) les résumés manquants à partir de la table des messages.
+ *
+ * Bonnes pratiques :
+ *   - Toujours passer par ConversationSummaryService pour maintenir les résumés cohérents avec les messages.
+ */
+
+@Repository
+public interface ConversationSummaryRepo extends JpaRepository<ConversationSummary, UUID> {
+
+    @Query("SELECT s FROM ConversationSummary s JOIN FETCH s.peer p LEFT JOIN FETCH p.avatar " +
+           "WHERE s.owner.id = :ownerId ORDER BY s.lastMessageAt DESC")
+    List<ConversationSummary> findInbox(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries " +
+                   "(id, owner_id, peer_id, last_message_preview, last_message_at, unread_count, updated_at) " +
+                   "VALUES (gen_random_uuid(), :ownerId, :peerId, :preview, :lastMessageAt, :unreadIncrement, now()) " +
+                   "ON CONFLICT (owner_id, peer_id) DO UPDATE SET " +
+                   "last_message_preview = CASE WHEN EXCLUDED.last_message_at >= conversation_summaries.last_message_at " +
+                   "THEN EXCLUDED.last_message_preview ELSE conversation_summaries.last_message_preview END, " +
+                   "last_message_at = GREATEST(conversation_summaries.last_message_at, EXCLUDED.last_message_at), " +
+                   "unread_count = conversation_summaries.unread_count + EXCLUDED.unread_count, " +
+                   "updated_at = now()",
+           nativeQuery = true)
+    int upsertActivity(
+        @Param("ownerId") UUID ownerId, @Param("peerId") UUID peerId,
+        @Param("preview") String preview, @Param("lastMessageAt") LocalDateTime lastMessageAt,
+        @Param("unreadIncrement") long unreadIncrement
+    );
+
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = " +
+           "CASE WHEN s.unreadCount > :count THEN s.unreadCount - :count ELSE 0 END " +
+           "WHERE s.owner.id = :ownerId AND s.peer.id = :peerId")
+    int decrementUnread(@Param("ownerId") UUID ownerId, @Param("peerId") UUID peerId, @Param("count") long count);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = " +
+           "CASE WHEN s.unreadCount > :count THEN s.unreadCount - :count ELSE 0 END, " +
+           "s.lastReadAt = CASE WHEN s.lastReadAt IS NULL OR s.lastReadAt < :readAt THEN :readAt ELSE s.lastReadAt END " +
+           "WHERE s.owner.id = :ownerId AND s.peer.id = :peerId")
+    int markReadUpTo(
+        @Param("ownerId") UUID ownerId, @Param("peerId") UUID peerId,
+        @Param("count") long count, @Param("readAt") LocalDateTime readAt
+    );
+
+    @Modifying
+    @Query("DELETE FROM ConversationSummary s WHERE s.owner.id = :userId OR s.peer.id = :userId")
+    void deleteByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries " +
+                   "(id, owner_id, peer_id, last_message_preview, last_message_at, unread_count, updated_at) " +
+                   "SELECT gen_random_uuid(), x.owner_id, x.peer_id, LEFT(x.content, 255), x.created_at, " +
+                   "(SELECT COUNT(*) FROM message u WHERE u.receiver_id = x.owner_id " +
+                   "AND u.sender_id = x.peer_id AND u.is_read = false), now() " +
+                   "FROM (SELECT DISTINCT ON (t.owner_id, t.peer_id) t.owner_id, t.peer_id, t.content, t.created_at " +
+                   "FROM (SELECT sender_id AS owner_id, receiver_id AS peer_id, content, created_at FROM message " +
+                   "UNION ALL SELECT receiver_id, sender_id, content, created_at FROM message) t " +
+                   "ORDER BY t.owner_id, t.peer_id, t.created_at DESC) x " +
+                   "ON CONFLICT (owner_id, peer_id) DO NOTHING",
+           nativeQuery = true)
+    int rebuildFromMessages();
+}
@@ -2,7 +2,9 @@ package com.atelierlocal.repository;
 
 import com.atelierlocal.model.EventCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -16,7 +18,9 @@ import java.util.UUID;
  *   - delete(), deleteById(), deleteAll(): supprimer des entités
  *   - count(): compter le nombre total d'enregistrements
  * 
- * Ce repository ne définit pas de méthodes personnalisées pour l'instant.
+ * Méthodes personnalisées :
+ *   - findAllWithArtisanCategories() : toutes les catégories d'événements avec leurs catégories d'artisans
+ *     (jointure FETCH), en une seule requête, pour le chargement du cache des catégories
  * 
  * Bonnes pratiques :
  *   - Utiliser ce repository pour gérer les catégories d'événements afin d'assurer la cohérence des relations avec les demandes et les catégories d'artisans
@@ -24,4 +28,8 @@ import java.util.UUID;
  */
 
 @Repository
-public interface EventCategoryRepo extends JpaRepository<EventCategory, UUID> {}
+public interface EventCategoryRepo extends JpaRepository<EventCategory, UUID> {
+
+    @Query("SELECT DISTINCT e FROM EventCategory e LEFT JOIN FETCH e.artisanCategoryList")
+    List<EventCategory> findAllWithArtisanCategories();
+}
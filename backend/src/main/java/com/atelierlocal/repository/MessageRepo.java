@@ -1,8 +1,12 @@
 package com.atelierlocal.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +14,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.atelierlocal.model.Message;
+import com.atelierlocal.model.MessageStatus;
 import com.atelierlocal.model.User;
 
 /**
@@ -30,6 +35,19 @@ import com.atelierlocal.model.User;
  *       Récupère tous les messages non lus pour un utilisateur donné (boîte de réception).
  *   - findAllBySenderIdOrReceiverId(UUID senderId, UUID receiverId):
  *       Récupère tous les messages envoyés ou reçus par un utilisateur donné.
+ *   - findLatestConversationPage(...) / findConversationPageBefore(...):
+ *       Pagination par clé (createdAt, id) d'une conversation, du plus récent au plus ancien.
+ *       Expéditeur et destinataire sont chargés dans la même requête.
+ *   - countUnreadBySender(UUID receiverId):
+ *       Compte en une seule requête les messages non lus d'un utilisateur, groupés par expéditeur.
+ *   - markConversationRead(UUID readerId, UUID peerId, LocalDateTime upTo):
+ *       Marque comme lus, en une seule requête UPDATE, les messages reçus d'un interlocuteur jusqu'à une date.
+ *   - fetchAttachments(Collection<UUID> ids):
+ *       Charge en une seule requête les pièces jointes d'un lot de messages (évite le N+1).
+ *   - findBySenderIdAndTempId(UUID senderId, String tempId):
+ *       Retrouve un message déjà envoyé à partir de son identifiant temporaire (envoi idempotent).
+ *   - findIdsByStatusCreatedBefore(MessageStatus status, LocalDateTime before, Pageable pageable):
+ *       Liste les messages restés dans un état donné depuis une date (pièces jointes jamais envoyées).
  * 
  * Bonnes pratiques :
  *   - Toujours trier les résultats par date lors de l'affichage d'une conversation pour garantir la cohérence de l'ordre.
@@ -46,6 +64,47 @@ public interface MessageRepo extends JpaRepository<Message, UUID> {
 
     List<Message> findAllBySenderIdOrReceiverId(UUID senderId, UUID receiverId);
 
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.receiver " +
+           "WHERE ((m.sender.id = :user1Id AND m.receiver.id = :user2Id) " +
+           "OR (m.sender.id = :user2Id AND m.receiver.id = :user1Id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestConversationPage(
+        @Param("user1Id") UUID user1Id, @Param("user2Id") UUID user2Id, Pageable pageable
+    );
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.receiver " +
+           "WHERE ((m.sender.id = :user1Id AND m.receiver.id = :user2Id) " +
+           "OR (m.sender.id = :user2Id AND m.receiver.id = :user1Id)) " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findConversationPageBefore(
+        @Param("user1Id") UUID user1Id, @Param("user2Id") UUID user2Id,
+        @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+        Pageable pageable
+    );
+
+    @Query("SELECT m.sender.id, COUNT(m) FROM Message m " +
+           "WHERE m.receiver.id = :receiverId AND m.isRead = false GROUP BY m.sender.id")
+    List<Object[]> countUnreadBySender(@Param("receiverId") UUID receiverId);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true, m.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE m.receiver.id = :readerId AND m.sender.id = :peerId " +
+           "AND m.isRead = false AND m.createdAt <= :upTo")
+    int markConversationRead(
+        @Param("readerId") UUID readerId, @Param("peerId") UUID peerId, @Param("upTo") LocalDateTime upTo
+    );
+
+    @Query("SELECT DISTINCT m FROM Message m LEFT JOIN FETCH m.attachments WHERE m.id IN :ids")
+    List<Message> fetchAttachments(@Param("ids") Collection<UUID> ids);
+
+    Optional<Message> findBySenderIdAndTempId(UUID senderId, String tempId);
+
+    @Query("SELECT m.id FROM Message m WHERE m.messageStatus = :status AND m.createdAt < :before ORDER BY m.createdAt")
+    List<UUID> findIdsByStatusCreatedBefore(
+        @Param("status") MessageStatus status, @Param("before") LocalDateTime before, Pageable pageable
+    );
+
     @Modifying
     @Query("DELETE FROM Message m WHERE m.sender.id = :userId OR m.receiver.id = :userId")
     void deleteByUserId(@Param("userId") UUID userId);
@@ -0,0 +1,39 @@
+package com.atelierlocal.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.atelierlocal.model.RevokedToken;
+
+/**
+ * Repository pour l'entité RevokedToken.
+ *
+ * Il hérite de JpaRepository, offrant ainsi toutes les méthodes CRUD standard.
+ *
+ * Méthodes personnalisées :
+ *   - findActiveTokenIds(Instant now):
+ *       Identifiants des tokens révoqués qui n'ont pas encore expiré (reconstruction du filtre).
+ *   - findTokenIdsRevokedSince(Instant since, Instant now):
+ *       Identifiants révoqués depuis une date, par n'importe quelle instance.
+ *   - deleteExpired(Instant now):
+ *       Supprime les révocations des tokens expirés, devenues inutiles.
+ */
+@Repository
+public interface RevokedTokenRepo extends JpaRepository<RevokedToken, String> {
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveTokenIds(@Param("now") Instant now);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<String> findTokenIdsRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,56 @@
+package com.atelierlocal.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.atelierlocal.model.StoredObject;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repository pour l'entité StoredObject.
+ *
+ * Ce repository gère les fichiers du stockage adressé par contenu et leur compteur de références.
+ * Il hérite de JpaRepository, offrant ainsi toutes les méthodes CRUD standard.
+ *
+ * Méthodes personnalisées :
+ *   - findForUpdate(String hash):
+ *       Récupère un fichier par son empreinte en verrouillant la ligne jusqu'à la fin de la transaction,
+ *       pour qu'un ajout de référence et une suppression ne puissent pas se croiser.
+ *   - findByStorageKeyForUpdate(String storageKey):
+ *       Même chose à partir de la clé de stockage.
+ *   - insertOrIncrement(...):
+ *       Enregistre un nouveau fichier avec une référence, ou ajoute une référence si un envoi
+ *       concurrent du même contenu l'a enregistré entre-temps (requête PostgreSQL).
+ *
+ * Bonnes pratiques :
+ *   - Toujours passer par StoredObjectService pour que le compteur reste cohérent avec le stockage.
+ */
+
+@Repository
+public interface StoredObjectRepo extends JpaRepository<StoredObject, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObject o WHERE o.hash = :hash")
+    Optional<StoredObject> findForUpdate(@Param("hash") String hash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObject o WHERE o.storageKey = :storageKey")
+    Optional<StoredObject> findByStorageKeyForUpdate(@Param("storageKey") String storageKey);
+
+    @Modifying
+    @Query(value = "INSERT INTO stored_objects (hash, storage_key, content_type, size, ref_count, created_at, updated_at) " +
+                   "VALUES (:hash, :storageKey, :contentType, :size, 1, now(), now()) " +
+                   "ON CONFLICT (hash) DO UPDATE SET ref_count = stored_objects.ref_count + 1, updated_at = now()",
+           nativeQuery = true)
+    int insertOrIncrement(
+        @Param("hash") String hash, @Param("storageKey") String storageKey,
+        @Param("contentType") String contentType, @Param("size") long size
+    );
+}
@@ -2,7 +2,11 @@ package com.atelierlocal.repository;
 
 import com.atelierlocal.model.UploadedPhoto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -17,6 +21,12 @@ import java.util.UUID;
  *   - delete(), deleteById(), deleteAll(): supprimer des photos
  *   - count(): compter le nombre total de photos enregistrées
  * 
+ * Méthodes personnalisées :
+ *   - findFirstPhotos(int limit) / findFirstPhotosByCategory(UUID categoryId, int limit) /
+ *     findFirstPhotosByArtisans(Collection<UUID> artisanIds, int limit) :
+ *       les "limit" premières photos de chaque artisan (tous, ceux d'une catégorie ou ceux donnés), en une seule
+ *       requête PostgreSQL (numérotation des photos par artisan avec ROW_NUMBER)
+ * 
  * Utilisation typique :
  *   - Enregistrer l’URL d’une photo stockée sur un service externe (ex. AWS S3)
  *   - Associer une photo à un artisan spécifique dans le cadre de son profil ou portfolio
@@ -27,4 +37,23 @@ import java.util.UUID;
  */
 
 @Repository
-public interface UploadedPhotoRepo extends JpaRepository<UploadedPhoto, UUID> {}
+public interface UploadedPhotoRepo extends JpaRepository<UploadedPhoto, UUID> {
+
+    String FIRST_PHOTOS_SELECT =
+        "SELECT ranked.id AS \"id\", ranked.artisan_id AS \"artisanId\", " +
+        "ranked.uploaded_photo_url AS \"uploadedPhotoUrl\", ranked.card_url AS \"cardUrl\", " +
+        "ranked.thumbnail_url AS \"thumbnailUrl\", ranked.extension AS \"extension\" " +
+        "FROM (SELECT p.*, ROW_NUMBER() OVER (PARTITION BY p.artisan_id ORDER BY p.created_at, p.id) AS photo_rank " +
+        "      FROM uploaded_photos p JOIN artisans a ON a.id = p.artisan_id ";
+
+    String FIRST_PHOTOS_RANK = ") ranked WHERE ranked.photo_rank <= :limit";
+
+    @Query(value = FIRST_PHOTOS_SELECT + FIRST_PHOTOS_RANK, nativeQuery = true)
+    List<ArtisanPhotoView> findFirstPhotos(@Param("limit") int limit);
+
+    @Query(value = FIRST_PHOTOS_SELECT + "WHERE a.artisan_category_name = :categoryId" + FIRST_PHOTOS_RANK, nativeQuery = true)
+    List<ArtisanPhotoView> findFirstPhotosByCategory(@Param("categoryId") UUID categoryId, @Param("limit") int limit);
+
+    @Query(value = FIRST_PHOTOS_SELECT + "WHERE a.id IN (:artisanIds)" + FIRST_PHOTOS_RANK, nativeQuery = true)
+    List<ArtisanPhotoView> findFirstPhotosByArtisans(@Param("artisanIds") Collection<UUID> artisanIds, @Param("limit") int limit);
+}
@@ -1,10 +1,15 @@
 package com.atelierlocal.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.atelierlocal.model.User;
 
@@ -23,6 +28,10 @@ import com.atelierlocal.model.User;
  * Méthodes personnalisées :
  *   - findByEmail(String email): recherche un utilisateur par son adresse e-mail,
  *     utilisée notamment lors de l’authentification et de la vérification d’unicité.
+ *   - findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull(): utilisateurs localisés dont le
+ *     geohash n'a pas encore été calculé (comptes créés avant l'index géographique).
+ *   - replaceHashedPassword(UUID id, String oldHash, String newHash): remplace le hash du mot de passe
+ *     uniquement s'il n'a pas changé entre-temps (recalcul du hash à la connexion).
  * 
  * Bonnes pratiques :
  *   - Toujours retourner un Optional<User> pour éviter les NullPointerException.
@@ -32,4 +41,10 @@ import com.atelierlocal.model.User;
 @Repository
 public interface UserRepo extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
+    List<User> findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.hashedPwd = :newHash WHERE u.id = :id AND u.hashedPwd = :oldHash")
+    int replaceHashedPassword(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
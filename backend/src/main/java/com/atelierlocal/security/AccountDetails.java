@@ -0,0 +1,35 @@
+package com.atelierlocal.security;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Détails Spring Security d'un compte, complétés de l'identifiant de l'utilisateur.
+ *
+ * L'identifiant est repris dans le JWT (claim "uid") : les sessions WebSocket connaissent ainsi
+ * l'ID de l'utilisateur sans requête en base.
+ */
+public class AccountDetails extends User {
+
+    private final UUID id;
+
+    /**
+     * @param id identifiant de l'utilisateur
+     * @param email email (nom d'utilisateur)
+     * @param hashedPassword mot de passe hashé
+     * @param active false si le compte est verrouillé
+     * @param authorities rôles de l'utilisateur
+     */
+    public AccountDetails(UUID id, String email, String hashedPassword, boolean active,
+                          Collection<? extends GrantedAuthority> authorities) {
+        super(email, hashedPassword, true, true, true, active, authorities);
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,64 @@
+package com.atelierlocal.security;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.User;
+import com.atelierlocal.model.UserRole;
+
+/**
+ * Instantané immuable d'un utilisateur authentifié, conservé par AuthenticationCache.
+ *
+ * Contrairement à l'entité JPA, il peut être partagé entre les requêtes : il ne porte ni
+ * association paresseuse ni état modifiable. Le principal de chaque requête est construit
+ * à partir de cet instantané (voir toPrincipal).
+ *
+ * @param id identifiant
+ * @param email email (nom d'utilisateur)
+ * @param role rôle
+ * @param active false si le compte est désactivé
+ * @param artisan true pour un artisan, false pour un client ou un administrateur
+ * @param authorities rôles Spring Security
+ */
+public record AuthenticatedUser(UUID id, String email, UserRole role, boolean active, boolean artisan,
+                                List<GrantedAuthority> authorities) {
+
+    public AuthenticatedUser {
+        authorities = List.copyOf(authorities);
+    }
+
+    /**
+     * Instantané d'un utilisateur chargé depuis la base.
+     *
+     * @param user utilisateur
+     * @return instantané de l'utilisateur
+     */
+    public static AuthenticatedUser of(User user) {
+        List<GrantedAuthority> authorities = user.getAuthorities().stream()
+            .<GrantedAuthority>map(authority -> new SimpleGrantedAuthority(authority.getAuthority()))
+            .toList();
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getUserRole(), user.isEnabled(),
+            user instanceof Artisan, authorities);
+    }
+
+    /**
+     * Principal d'une requête : une nouvelle instance, propre à la requête, ne portant que l'ID,
+     * l'email, le rôle et l'état du compte. Elle sert aux contrôles d'accès ; les services qui ont
+     * besoin de l'entité complète la chargent depuis le repository à partir de son ID.
+     *
+     * @return artisan ou client non attaché à un contexte de persistance
+     */
+    public User toPrincipal() {
+        User user = artisan ? new Artisan() : new Client();
+        user.setId(id);
+        user.setEmail(email);
+        user.setUserRole(role);
+        user.setActive(active);
+        return user;
+    }
+}
@@ -0,0 +1,161 @@
+package com.atelierlocal.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.atelierlocal.cache.ExpiringCache;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Cache des tokens JWT déjà vérifiés.
+ *
+ * Pour chaque token (identifié par son empreinte SHA-256, le token lui-même n'est pas conservé),
+ * le cache garde les réclamations décodées et un instantané immuable de l'utilisateur authentifié
+ * (AuthenticatedUser, jamais l'entité JPA). Les requêtes suivantes portant le même token évitent
+ * ainsi la vérification de signature et la lecture en base.
+ *
+ * Une entrée expire au plus tard à l'expiration du token, et au plus tard après la durée
+ * configurée, ce qui borne le délai de prise en compte des modifications non signalées.
+ * Les modifications sensibles (bannissement, mot de passe, rôle, email, suppression) doivent
+ * appeler invalidateUser, qui retire toutes les entrées de l'utilisateur après validation
+ * de la transaction en cours.
+ */
+@Component
+public class AuthenticationCache {
+
+    private final ExpiringCache<String, AuthenticatedToken> cache;
+
+    /**
+     * Nombre d'invalidations effectuées : un chargement commencé avant une invalidation
+     * n'est pas mis en cache, car il a pu lire l'utilisateur avant sa modification.
+     */
+    private long invalidations;
+    private final Object lock = new Object();
+
+    /**
+     * Constructeur du cache.
+     *
+     * @param maxSize nombre maximal de tokens en cache
+     * @param ttlSeconds durée maximale de conservation d'un token vérifié, en secondes
+     */
+    public AuthenticationCache(
+                @Value("${security.auth-cache.max-size:10000}") int maxSize,
+                @Value("${security.auth-cache.ttl-seconds:300}") long ttlSeconds
+                ) {
+        this.cache = new ExpiringCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Renvoie l'authentification associée au token, depuis le cache ou en la calculant.
+     *
+     * @param token JWT
+     * @param loader vérifie le token et charge l'utilisateur (vide si le token ne permet pas de s'authentifier)
+     * @return authentification du token, ou vide
+     */
+    public Optional<AuthenticatedToken> resolve(String token, Supplier<Optional<AuthenticatedToken>> loader) {
+        String key = hash(token);
+        Optional<AuthenticatedToken> cached = cache.getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        long invalidationsBefore;
+        synchronized (lock) {
+            invalidationsBefore = invalidations;
+        }
+
+        Optional<AuthenticatedToken> loaded = loader.get();
+        loaded.ifPresent(authenticated -> {
+            Duration remaining = Duration.between(Instant.now(), authenticated.getExpiresAt());
+            synchronized (lock) {
+                if (invalidations == invalidationsBefore) {
+                    cache.put(key, authenticated, remaining);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Retire un token du cache (déconnexion).
+     *
+     * @param token JWT
+     */
+    public void invalidateToken(String token) {
+        cache.invalidate(hash(token));
+    }
+
+    /**
+     * Retire tous les tokens d'un utilisateur, une fois la transaction en cours validée
+     * (immédiatement s'il n'y en a pas).
+     *
+     * @param userId ID de l'utilisateur modifié
+     */
+    public void invalidateUser(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictUser(userId);
+                }
+            });
+        } else {
+            evictUser(userId);
+        }
+    }
+
+    private void evictUser(UUID userId) {
+        synchronized (lock) {
+            invalidations++;
+            cache.invalidateIf(authenticated -> userId.equals(authenticated.getUser().id()));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ENTRÉE DU CACHE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Token vérifié : réclamations décodées et instantané de l'utilisateur authentifié,
+     * partagés sans risque par les requêtes portant le même token.
+     */
+    public static class AuthenticatedToken {
+
+        private final Claims claims;
+        private final AuthenticatedUser user;
+
+        public AuthenticatedToken(Claims claims, AuthenticatedUser user) {
+            this.claims = claims;
+            this.user = user;
+        }
+
+        public Claims getClaims() { return claims; }
+        public AuthenticatedUser getUser() { return user; }
+
+        public Instant getExpiresAt() {
+            return claims.getExpiration() != null ? claims.getExpiration().toInstant() : Instant.now();
+        }
+    }
+}
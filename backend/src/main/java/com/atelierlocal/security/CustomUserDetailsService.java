@@ -1,5 +1,7 @@
 package com.atelierlocal.security;
 
+import java.util.List;
+
 import com.atelierlocal.model.User;
 import com.atelierlocal.repository.UserRepo;
 
@@ -26,12 +28,19 @@ public class CustomUserDetailsService implements UserDetailsService, UserDetails
     private final UserRepo userRepo;
 
     /**
-     * Constructeur injectant le repository utilisateur.
+     * Cache des tokens vérifiés, vidé pour l'utilisateur dont le mot de passe change.
+     */
+    private final AuthenticationCache authenticationCache;
+
+    /**
+     * Constructeur injectant le repository utilisateur et le cache des tokens vérifiés.
      * 
      * @param userRepo repository pour les opérations CRUD sur les utilisateurs
+     * @param authenticationCache cache des tokens vérifiés
      */
-    public CustomUserDetailsService(UserRepo userRepo) {
+    public CustomUserDetailsService(UserRepo userRepo, AuthenticationCache authenticationCache) {
         this.userRepo = userRepo;
+        this.authenticationCache = authenticationCache;
     }
 
     /**
@@ -47,13 +56,13 @@ public class CustomUserDetailsService implements UserDetailsService, UserDetails
         User user = userRepo.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + email));
 
-        // Construction de l'objet UserDetails avec rôle et état du compte
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getHashedPassword()) // mot de passe hashé
-                .authorities(new SimpleGrantedAuthority("ROLE_" + user.getUserRole().name()))
-                .accountLocked(!user.getActive()) // compte verrouillé si l'utilisateur n'est pas actif
-                .build();
+        // Construction de l'objet UserDetails avec rôle, état du compte et identifiant (repris dans le JWT)
+        return new AccountDetails(
+                user.getId(),
+                user.getEmail(),
+                user.getHashedPassword(), // mot de passe hashé
+                Boolean.TRUE.equals(user.getActive()), // compte verrouillé si l'utilisateur n'est pas actif
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getUserRole().name())));
     }
 
     /**
@@ -73,6 +82,7 @@ public class CustomUserDetailsService implements UserDetailsService, UserDetails
         // Mise à jour du mot de passe hashé
         dbUser.setHashedPassword(newPassword);
         userRepo.save(dbUser);
+        authenticationCache.invalidateUser(dbUser.getId());
 
         // Reconstruction de l'objet UserDetails avec les informations mises à jour
         return org.springframework.security.core.userdetails.User
@@ -1,6 +1,7 @@
 package com.atelierlocal.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +14,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.atelierlocal.model.User;
 import com.atelierlocal.repository.UserRepo;
+import com.atelierlocal.security.AuthenticationCache.AuthenticatedToken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -24,9 +29,13 @@ import jakarta.servlet.http.HttpServletResponse;
  * 
  * Ce filtre intercepte chaque requête HTTP et :
  * - extrait le JWT depuis l'en-tête Authorization ou le cookie,
- * - vérifie sa validité et si le token est blacklisté,
+ * - vérifie sa validité et si le token a été révoqué,
  * - authentifie l'utilisateur dans le SecurityContext si le JWT est valide.
  * 
+ * Les tokens déjà vérifiés sont conservés dans {@link AuthenticationCache} : les requêtes
+ * suivantes n'ont ni signature à vérifier, ni utilisateur à relire en base. Le principal
+ * de la requête ne porte que l'ID, l'email, le rôle et l'état du compte (voir AuthenticatedUser).
+ * 
  * Hérite de {@link OncePerRequestFilter} pour s'assurer que le filtre
  * est exécuté une seule fois par requête.
  */
@@ -36,16 +45,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
     private final UserRepo userRepository;
+    private final AuthenticationCache authenticationCache;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
-     * Constructeur injectant le service JWT et le repository utilisateur.
+     * Constructeur injectant le service JWT, le repository utilisateur, le cache des tokens vérifiés
+     * et le service de révocation.
      * 
      * @param jwtService service pour la gestion et la validation des tokens JWT
      * @param userRepository repository pour accéder aux données des utilisateurs
+     * @param authenticationCache cache des tokens déjà vérifiés
+     * @param tokenRevocationService service de révocation des tokens
      */
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepo userRepository) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserRepo userRepository, AuthenticationCache authenticationCache,
+                                   TokenRevocationService tokenRevocationService) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.authenticationCache = authenticationCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -105,43 +122,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Vérifier si le JWT est blacklisté
-        if (jwtService.isTokenBlacklisted(jwt)) {
-            logger.warn("JWT blacklisté: {}", jwt);
+        // Vérification du token (depuis le cache si possible)
+        final String token = jwt;
+        Optional<AuthenticatedToken> authenticated = authenticationCache.resolve(token, () -> authenticate(token));
+
+        // Vérifier si le JWT a été révoqué (le filtre de Bloom évite la lecture en base dans le cas courant)
+        if (authenticated.isPresent() && tokenRevocationService.isRevoked(authenticated.get().getClaims(), token)) {
+            logger.warn("JWT révoqué pour {}", request.getRequestURI());
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\": \"Token invalide ou expiré\"}");
             return;
         }
 
-        // Extraction de l'utilisateur depuis le JWT
-        final String username = jwtService.extractUsername(jwt);
-        logger.info("Utilisateur extrait du JWT: {}", username);
-
         // Authentification dans le contexte de sécurité si nécessaire
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByEmail(username).orElse(null);
-            logger.info("Utilisateur trouvé dans la base: {}", user != null ? user.getEmail() : "null");
-
-            if (user != null && jwtService.isTokenValid(jwt, user)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                user,
-                                null,
-                                user.getAuthorities()
-                        );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                logger.info("Authentification définie pour: {}", username);
-            } else {
-                logger.warn("JWT invalide ou utilisateur non trouvé pour: {}", username);
-            }
+        if (authenticated.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Principal propre à la requête, construit à partir de l'instantané en cache
+            AuthenticatedUser user = authenticated.get().getUser();
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            user.toPrincipal(),
+                            null,
+                            user.authorities()
+                    );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            logger.debug("Authentification définie pour: {}", user.email());
         }
 
         // Continuer la chaîne de filtres
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Vérifie le token (signature et expiration, en un seul décodage) et charge l'utilisateur correspondant.
+     * 
+     * @param jwt token à vérifier
+     * @return token vérifié avec son utilisateur, ou vide si le token est invalide,
+     *         l'utilisateur introuvable ou son compte désactivé
+     */
+    private Optional<AuthenticatedToken> authenticate(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtService.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("JWT invalide ou expiré: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        String username = claims.getSubject();
+        User user = username != null ? userRepository.findByEmail(username).orElse(null) : null;
+        if (user == null || !user.isEnabled()) {
+            logger.warn("Utilisateur non trouvé ou désactivé pour: {}", username);
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedToken(claims, AuthenticatedUser.of(user)));
+    }
+
     /**
      * Détermine les routes pour lesquelles ce filtre ne doit pas s'exécuter.
      * 
@@ -1,6 +1,7 @@
 package com.atelierlocal.security;
 
 import java.util.Map;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -21,22 +23,30 @@ import jakarta.servlet.http.HttpServletRequest;
  * - intercepte le handshake WebSocket,
  * - extrait le token JWT depuis l'en-tête Authorization ou le cookie,
  * - valide le token et récupère l'utilisateur associé,
- * - stocke les informations d'utilisateur dans les attributs de session WebSocket.
+ * - stocke les informations d'utilisateur (email et, si le token le porte, ID) dans les attributs de session WebSocket.
  */
 @Component
 public class JwtHandshakeInterceptor implements HandshakeInterceptor {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtHandshakeInterceptor.class);
+
+    /**
+     * Attribut de session contenant l'ID de l'utilisateur (UUID), si le token le porte.
+     */
+    public static final String USER_ID_ATTRIBUTE = "userId";
     
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
     
     /**
-     * Constructeur injectant le service JWT.
+     * Constructeur injectant le service JWT et le service de révocation.
      * 
      * @param jwtService service pour la validation et extraction des JWT
+     * @param tokenRevocationService service de révocation des tokens
      */
-    public JwtHandshakeInterceptor(JwtService jwtService) {
+    public JwtHandshakeInterceptor(JwtService jwtService, TokenRevocationService tokenRevocationService) {
         this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
     }
     
     /**
@@ -85,14 +95,22 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
         // 3. Valider le token JWT
         if (token != null) {
             try {
-                String username = jwtService.extractUsername(token);
+                // Vérification de la signature et de l'expiration en un seul décodage
+                Claims claims = jwtService.parseToken(token);
+                String username = claims.getSubject();
                 
-                if (username != null && !jwtService.isTokenExpired(token)) {
+                if (tokenRevocationService.isRevoked(claims, token)) {
+                    logger.warn("Token révoqué");
+                } else if (username != null) {
                     logger.info("Token valide pour: {}", username);
                     
                     // Stocker les informations dans les attributs de session WebSocket
                     attributes.put("jwt", token);
                     attributes.put("username", username);
+                    String userId = claims.get(JwtService.USER_ID_CLAIM, String.class);
+                    if (userId != null) {
+                        attributes.put(USER_ID_ATTRIBUTE, UUID.fromString(userId));
+                    }
                     
                     return true;
                 } else {
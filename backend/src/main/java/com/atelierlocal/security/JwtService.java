@@ -4,8 +4,7 @@ import java.security.Key;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -14,9 +13,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 /**
  * Service pour la gestion des JSON Web Tokens (JWT).
@@ -24,16 +27,17 @@ import io.jsonwebtoken.security.Keys;
  * Fournit des méthodes pour :
  * - générer des tokens JWT pour un utilisateur,
  * - extraire des informations depuis un token,
- * - vérifier la validité et l'expiration d'un token,
- * - gérer une liste de tokens blacklistés.
+ * - vérifier la validité et l'expiration d'un token.
+ * 
+ * La révocation des tokens (déconnexion) est gérée par {@link TokenRevocationService}.
  */
 @Service
 public class JwtService {
 
     /**
-     * Ensemble thread-safe contenant les tokens blacklistés.
+     * Claim portant l'identifiant de l'utilisateur (absent des tokens émis sans {@link AccountDetails}).
      */
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+    public static final String USER_ID_CLAIM = "uid";
 
     /**
      * Clé secrète utilisée pour signer les JWT.
@@ -50,12 +54,32 @@ public class JwtService {
     private String expirationMs;
 
     /**
-     * Retourne la clé de signature HMAC à partir du secret.
+     * Clé de signature HMAC et parseur associé, construits une seule fois au démarrage.
+     */
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Construit la clé de signature HMAC à partir du secret, ainsi que le parseur de tokens.
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * Vérifie la signature et l'expiration d'un JWT, puis renvoie ses réclamations.
+     * Un seul décodage suffit pour obtenir l'utilisateur, le rôle et la date d'expiration.
      * 
-     * @return clé de signature
+     * @param token JWT
+     * @return objet Claims contenant les informations du token
+     * @throws JwtException si le token est mal formé, mal signé ou expiré
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
     }
 
     /**
@@ -88,11 +112,7 @@ public class JwtService {
      * @return objet Claims contenant les informations du token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -149,32 +169,18 @@ public class JwtService {
                                  .map(GrantedAuthority::getAuthority)
                                  .orElse("ROLE_USER");
 
-        // Construction du token JWT
-        return Jwts.builder()
+        // Construction du token JWT, avec un identifiant unique permettant sa révocation
+        JwtBuilder builder = Jwts.builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(userDetails.getUsername())
-            .claim("role", role)
+            .claim("role", role);
+        if (userDetails instanceof AccountDetails account && account.getId() != null) {
+            builder.claim(USER_ID_CLAIM, account.getId().toString());
+        }
+        return builder
             .setIssuedAt(Date.from(now))
             .setExpiration(Date.from(expiration))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
     }
-
-    /**
-     * Ajoute un token à la liste des tokens blacklistés.
-     * 
-     * @param token JWT à blacklister
-     */
-    public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
-    }
-
-    /**
-     * Vérifie si un token est blacklisté.
-     * 
-     * @param token JWT
-     * @return true si le token est dans la blacklist
-     */
-    public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
-    }
 }
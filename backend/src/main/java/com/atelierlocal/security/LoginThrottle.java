@@ -0,0 +1,334 @@
+package com.atelierlocal.security;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limitation des tentatives de connexion, appliquée avant toute vérification de mot de passe.
+ *
+ * Trois protections se cumulent :
+ * - une fenêtre glissante par adresse IP et par compte (email) : au-delà du nombre de tentatives
+ *   autorisé sur la fenêtre, les tentatives sont refusées ;
+ * - un délai exponentiel par couple (compte, adresse IP) après plusieurs échecs consécutifs
+ *   (1 s, 2 s, 4 s..., plafonné) : un attaquant ne bloque que ses propres tentatives, pas le compte ;
+ * - un délai plus souple à l'échelle du compte, à partir d'un plus grand nombre d'échecs et plafonné
+ *   plus bas, contre les essais répartis sur de nombreuses adresses.
+ * Une connexion réussie remet à zéro les échecs du couple et du compte.
+ *
+ * Les compteurs sont stockés dans des {@link ConcurrentHashMap} (segmentées en interne) et mis à jour
+ * sans verrou, par comparaison-échange sur un état immuable. Les entrées inactives sont purgées
+ * périodiquement. Des compteurs de tentatives acceptées et refusées sont exposés via getMetrics.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxAttemptsPerIp;
+    private final int maxAttemptsPerAccount;
+    private final long windowMs;
+    private final int backoffThreshold;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int accountBackoffThreshold;
+    private final long accountBackoffMaxMs;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, AtomicReference<Window>> ipWindows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicReference<Window>> accountWindows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicReference<Failures>> accountIpFailures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicReference<Failures>> accountFailures = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByAccount = new LongAdder();
+    private final LongAdder rejectedByBackoff = new LongAdder();
+    private final LongAdder rejectedByAccountBackoff = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Constructeur utilisant l'horloge système.
+     *
+     * @param maxAttemptsPerIp nombre maximal de tentatives par adresse IP sur la fenêtre
+     * @param maxAttemptsPerAccount nombre maximal de tentatives par compte sur la fenêtre
+     * @param windowSeconds durée de la fenêtre glissante, en secondes
+     * @param backoffThreshold nombre d'échecs consécutifs d'un couple (compte, IP) à partir duquel le délai s'applique
+     * @param backoffBaseMs premier délai imposé, en millisecondes (doublé à chaque nouvel échec)
+     * @param backoffMaxMs délai maximal pour un couple (compte, IP), en millisecondes
+     * @param accountBackoffThreshold nombre d'échecs consécutifs d'un compte, toutes IP confondues,
+     *        à partir duquel le délai s'applique au compte
+     * @param accountBackoffMaxMs délai maximal pour un compte, en millisecondes
+     */
+    @Autowired
+    public LoginThrottle(
+                @Value("${security.login.ip-max-attempts:30}") int maxAttemptsPerIp,
+                @Value("${security.login.account-max-attempts:10}") int maxAttemptsPerAccount,
+                @Value("${security.login.window-seconds:60}") long windowSeconds,
+                @Value("${security.login.backoff-threshold:3}") int backoffThreshold,
+                @Value("${security.login.backoff-base-ms:1000}") long backoffBaseMs,
+                @Value("${security.login.backoff-max-ms:900000}") long backoffMaxMs,
+                @Value("${security.login.account-backoff-threshold:10}") int accountBackoffThreshold,
+                @Value("${security.login.account-backoff-max-ms:60000}") long accountBackoffMaxMs
+                ) {
+        this(maxAttemptsPerIp, maxAttemptsPerAccount, windowSeconds, backoffThreshold, backoffBaseMs, backoffMaxMs,
+            accountBackoffThreshold, accountBackoffMaxMs, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructeur avec une horloge fournie (en millisecondes), utile pour les tests.
+     */
+    LoginThrottle(int maxAttemptsPerIp, int maxAttemptsPerAccount, long windowSeconds,
+                  int backoffThreshold, long backoffBaseMs, long backoffMaxMs,
+                  int accountBackoffThreshold, long accountBackoffMaxMs, LongSupplier clock) {
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.maxAttemptsPerAccount = maxAttemptsPerAccount;
+        this.windowMs = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.backoffThreshold = backoffThreshold;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.accountBackoffThreshold = accountBackoffThreshold;
+        this.accountBackoffMaxMs = accountBackoffMaxMs;
+        this.clock = clock;
+    }
+
+    // -------------------------------------------------------------------------
+    // TENTATIVES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Enregistre une tentative de connexion et indique si elle peut être traitée.
+     * Une tentative refusée n'est pas comptée dans les fenêtres.
+     *
+     * @param ip adresse IP du client
+     * @param email email saisi (peut être null)
+     * @return décision : acceptée, ou refusée avec le délai avant nouvelle tentative
+     */
+    public Decision tryAcquire(String ip, String email) {
+        long now = clock.getAsLong();
+        String account = normalize(email);
+
+        if (account != null) {
+            long blockedFor = blockedFor(accountIpFailures, accountIp(account, ip), now);
+            if (blockedFor > 0) {
+                rejectedByBackoff.increment();
+                return Decision.rejected(blockedFor);
+            }
+            long accountBlockedFor = blockedFor(accountFailures, account, now);
+            if (accountBlockedFor > 0) {
+                rejectedByAccountBackoff.increment();
+                return Decision.rejected(accountBlockedFor);
+            }
+        }
+
+        long ipWait = acquire(ipWindows, ip, maxAttemptsPerIp, now);
+        if (ipWait > 0) {
+            rejectedByIp.increment();
+            return Decision.rejected(ipWait);
+        }
+        if (account != null) {
+            long accountWait = acquire(accountWindows, account, maxAttemptsPerAccount, now);
+            if (accountWait > 0) {
+                rejectedByAccount.increment();
+                return Decision.rejected(accountWait);
+            }
+        }
+
+        allowed.increment();
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Enregistre un échec de connexion : au-delà du seuil, le couple (compte, IP) est bloqué
+     * pour un délai qui double à chaque nouvel échec ; au-delà du seuil du compte, le compte
+     * entier est bloqué pour un délai plus court.
+     *
+     * @param ip adresse IP du client
+     * @param email email saisi
+     */
+    public void recordFailure(String ip, String email) {
+        failures.increment();
+        String account = normalize(email);
+        if (account == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        recordFailure(accountIpFailures, accountIp(account, ip), backoffThreshold, backoffMaxMs, now);
+        recordFailure(accountFailures, account, accountBackoffThreshold, accountBackoffMaxMs, now);
+    }
+
+    /**
+     * Enregistre une connexion réussie : les échecs consécutifs du couple (compte, IP)
+     * et du compte sont oubliés.
+     *
+     * @param ip adresse IP du client
+     * @param email email du compte
+     */
+    public void recordSuccess(String ip, String email) {
+        String account = normalize(email);
+        if (account != null) {
+            accountIpFailures.remove(accountIp(account, ip));
+            accountFailures.remove(account);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTRIQUES ET PURGE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Compteurs cumulés depuis le démarrage, et nombre d'entrées suivies.
+     */
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rejectedByIp", rejectedByIp.sum());
+        metrics.put("rejectedByAccount", rejectedByAccount.sum());
+        metrics.put("rejectedByBackoff", rejectedByBackoff.sum());
+        metrics.put("rejectedByAccountBackoff", rejectedByAccountBackoff.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("trackedIps", (long) ipWindows.size());
+        metrics.put("trackedAccounts", (long) accountWindows.size());
+        metrics.put("blockedAccountIps", accountIpFailures.values().stream()
+            .filter(state -> state.get().blockedUntil() > clock.getAsLong()).count());
+        metrics.put("blockedAccounts", accountFailures.values().stream()
+            .filter(state -> state.get().blockedUntil() > clock.getAsLong()).count());
+        return metrics;
+    }
+
+    /**
+     * Supprime les fenêtres sans tentative récente et les échecs anciens (ni échec ni blocage
+     * depuis le délai maximal), pour que la mémoire utilisée reste bornée.
+     */
+    @Scheduled(fixedDelayString = "${security.login.cleanup-interval-ms:60000}")
+    public void purgeInactive() {
+        long now = clock.getAsLong();
+        long currentIndex = now / windowMs;
+        ipWindows.values().removeIf(window -> window.get().index() < currentIndex - 1);
+        accountWindows.values().removeIf(window -> window.get().index() < currentIndex - 1);
+        accountIpFailures.values().removeIf(state ->
+            Math.max(state.get().lastFailureAt(), state.get().blockedUntil()) + backoffMaxMs < now);
+        accountFailures.values().removeIf(state ->
+            Math.max(state.get().lastFailureAt(), state.get().blockedUntil()) + accountBackoffMaxMs < now);
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Compte une tentative dans la fenêtre de la clé si la limite n'est pas atteinte.
+     *
+     * La fenêtre glissante est estimée à partir de deux fenêtres fixes : les tentatives de la fenêtre
+     * précédente sont pondérées par la part de celle-ci encore couverte par la fenêtre glissante.
+     *
+     * @return 0 si la tentative est acceptée, sinon le délai avant la prochaine tentative possible (ms)
+     */
+    private long acquire(ConcurrentHashMap<String, AtomicReference<Window>> windows, String key, int limit, long now) {
+        if (key == null) {
+            return 0;
+        }
+        AtomicReference<Window> reference = windows.computeIfAbsent(key, k -> new AtomicReference<>(new Window(now / windowMs, 0, 0)));
+        long index = now / windowMs;
+        double elapsed = (double) (now % windowMs) / windowMs;
+        while (true) {
+            Window current = reference.get();
+            Window rolled = current.rollTo(index);
+            double estimate = rolled.previous() * (1 - elapsed) + rolled.current();
+            if (estimate + 1 > limit) {
+                return windowMs - now % windowMs;
+            }
+            if (reference.compareAndSet(current, new Window(index, rolled.current() + 1, rolled.previous()))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Incrémente les échecs consécutifs de la clé et, au-delà du seuil, la bloque
+     * pour un délai qui double à chaque nouvel échec (plafonné à maxMs).
+     */
+    private void recordFailure(ConcurrentHashMap<String, AtomicReference<Failures>> failuresByKey, String key,
+                               int threshold, long maxMs, long now) {
+        failuresByKey.computeIfAbsent(key, k -> new AtomicReference<>(new Failures(0, now, 0)))
+            .updateAndGet(current -> {
+                int count = current.count() + 1;
+                long blockedUntil = current.blockedUntil();
+                if (count >= threshold) {
+                    int exponent = Math.min(count - threshold, 30);
+                    blockedUntil = now + Math.min(maxMs, backoffBaseMs << exponent);
+                }
+                return new Failures(count, now, blockedUntil);
+            });
+    }
+
+    /**
+     * Durée de blocage restante de la clé (ms), 0 si elle n'est pas bloquée.
+     */
+    private static long blockedFor(ConcurrentHashMap<String, AtomicReference<Failures>> failuresByKey, String key, long now) {
+        AtomicReference<Failures> state = failuresByKey.get(key);
+        return state != null ? Math.max(0, state.get().blockedUntil() - now) : 0;
+    }
+
+    private static String accountIp(String account, String ip) {
+        return account + '|' + ip;
+    }
+
+    private static String normalize(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tentatives de la fenêtre fixe courante ("index") et de la précédente.
+     */
+    private record Window(long index, int current, int previous) {
+
+        Window rollTo(long newIndex) {
+            if (newIndex == index) {
+                return this;
+            }
+            return new Window(newIndex, 0, newIndex == index + 1 ? current : 0);
+        }
+    }
+
+    /**
+     * Échecs consécutifs d'un couple (compte, IP) ou d'un compte, date du dernier échec et fin du blocage en cours.
+     */
+    private record Failures(int count, long lastFailureAt, long blockedUntil) {
+    }
+
+    // -------------------------------------------------------------------------
+    // DÉCISION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Résultat d'une demande de tentative.
+     */
+    public static final class Decision {
+
+        static final Decision ALLOWED = new Decision(true, 0);
+
+        private final boolean allowed;
+        private final long retryAfterSeconds;
+
+        private Decision(boolean allowed, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        static Decision rejected(long waitMs) {
+            return new Decision(false, Math.max(1, (waitMs + 999) / 1000));
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+}
@@ -0,0 +1,24 @@
+package com.atelierlocal.security;
+
+/**
+ * Exception levée lorsque le hachage d'un mot de passe ne peut pas être traité à temps :
+ * trop de hachages sont déjà en cours ou en attente.
+ *
+ * Le client doit réessayer plus tard (réponse HTTP 503 avec l'en-tête Retry-After).
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Délai conseillé avant une nouvelle tentative, en secondes.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
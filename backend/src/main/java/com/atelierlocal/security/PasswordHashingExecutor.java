@@ -0,0 +1,138 @@
+package com.atelierlocal.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Exécuteur dédié aux hachages Argon2.
+ *
+ * Chaque hachage ou vérification réserve la mémoire configurée pour Argon2 (64 Mo par défaut) et
+ * occupe un cœur pendant plusieurs centaines de millisecondes : sans limite, un afflux de connexions
+ * épuise la mémoire et le processeur. Les hachages sont donc exécutés par un nombre fixe de threads,
+ * calculé d'après la mémoire disponible et le nombre de processeurs, qui joue le rôle de sémaphore.
+ *
+ * Au-delà, les demandes attendent dans une file bornée. Si la file est pleine ou si l'attente dépasse
+ * le délai configuré, une {@link PasswordHashingBusyException} est levée, transformée en réponse 503.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final int concurrency;
+    private final long waitTimeoutMs;
+
+    /**
+     * Constructeur de l'exécuteur.
+     *
+     * @param maxConcurrent nombre maximal de hachages simultanés (0 : calculé d'après la mémoire et les processeurs)
+     * @param memoryKb mémoire utilisée par un hachage Argon2, en Ko
+     * @param memoryShare part maximale de la mémoire de la JVM consacrée aux hachages
+     * @param queueCapacity nombre maximal de hachages en attente
+     * @param waitTimeoutMs délai maximal d'attente d'un hachage (file et exécution), en millisecondes
+     */
+    public PasswordHashingExecutor(
+                @Value("${security.password.max-concurrent:0}") int maxConcurrent,
+                @Value("${security.password.memory-kb:65536}") int memoryKb,
+                @Value("${security.password.memory-share:0.25}") double memoryShare,
+                @Value("${security.password.queue-capacity:64}") int queueCapacity,
+                @Value("${security.password.wait-timeout-ms:5000}") long waitTimeoutMs
+                ) {
+        this.concurrency = computeConcurrency(maxConcurrent, memoryKb, memoryShare,
+            Runtime.getRuntime().maxMemory(), Runtime.getRuntime().availableProcessors());
+        this.waitTimeoutMs = waitTimeoutMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Hachage des mots de passe : {} hachages simultanés au plus", concurrency);
+    }
+
+    /**
+     * Exécute un hachage (ou une vérification) et attend son résultat.
+     *
+     * @param task calcul à exécuter
+     * @return résultat du calcul
+     * @throws PasswordHashingBusyException si la file est pleine ou si le délai d'attente est dépassé
+     */
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Une demande encore en file ne sera pas exécutée inutilement
+            future.cancel(false);
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Erreur lors du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    /**
+     * Nombre maximal de hachages simultanés.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Nombre de hachages simultanés : autant que la part de mémoire allouée le permet,
+     * sans dépasser le nombre de processeurs ni le maximum configuré, et au moins un.
+     */
+    static int computeConcurrency(int maxConcurrent, int memoryKb, double memoryShare, long maxMemoryBytes, int processors) {
+        long byMemory = (long) (maxMemoryBytes * memoryShare) / (memoryKb * 1024L);
+        long concurrency = Math.min(byMemory, processors);
+        if (maxConcurrent > 0) {
+            concurrency = Math.min(concurrency, maxConcurrent);
+        }
+        return (int) Math.max(1, concurrency);
+    }
+
+    private PasswordHashingBusyException busy() {
+        return new PasswordHashingBusyException("Le service est momentanément surchargé, veuillez réessayer.",
+            Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitTimeoutMs)));
+    }
+}
@@ -0,0 +1,218 @@
+package com.atelierlocal.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.atelierlocal.cache.BloomFilter;
+import com.atelierlocal.model.RevokedToken;
+import com.atelierlocal.repository.RevokedTokenRepo;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.transaction.Transactional;
+
+/**
+ * Service de révocation des JWT (déconnexion).
+ *
+ * Les révocations sont enregistrées en base, identifiées par la réclamation "jti" du token
+ * (ou par son empreinte SHA-256 pour les tokens émis sans identifiant), avec la date d'expiration
+ * du token : elles survivent aux redémarrages, sont partagées entre instances et sont purgées
+ * dès que le token aurait de toute façon expiré.
+ *
+ * Chaque instance garde en mémoire un filtre de Bloom des tokens révoqués : un token qui n'y figure pas
+ * (cas de presque toutes les requêtes) est accepté sans lecture en base, seuls les tokens
+ * "peut-être révoqués" sont vérifiés en base. Le filtre intègre périodiquement les révocations
+ * faites par les autres instances, et il est reconstruit après chaque purge.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepo revokedTokenRepo;
+    private final JwtService jwtService;
+    private final AuthenticationCache authenticationCache;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final Duration syncInterval;
+
+    private volatile BloomFilter filter;
+
+    /**
+     * Date de révocation à partir de laquelle relire la base lors de la prochaine synchronisation.
+     */
+    private volatile Instant syncedUntil = Instant.now();
+
+    /**
+     * Protège le remplacement du filtre : une révocation ajoutée pendant une reconstruction n'est pas perdue.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires.
+     *
+     * @param expectedTokens nombre de tokens révoqués non expirés pour lequel le filtre est dimensionné
+     * @param falsePositiveRate taux de faux positifs visé du filtre (lectures en base inutiles)
+     * @param syncIntervalMs intervalle de synchronisation avec les révocations des autres instances
+     */
+    public TokenRevocationService(
+                RevokedTokenRepo revokedTokenRepo,
+                JwtService jwtService,
+                AuthenticationCache authenticationCache,
+                @Value("${security.revocation.expected-tokens:100000}") long expectedTokens,
+                @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                @Value("${security.revocation.sync-interval-ms:10000}") long syncIntervalMs
+                ) {
+        this.revokedTokenRepo = revokedTokenRepo;
+        this.jwtService = jwtService;
+        this.authenticationCache = authenticationCache;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncInterval = Duration.ofMillis(syncIntervalMs);
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    // -------------------------------------------------------------------------
+    // RÉVOCATION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Révoque un token jusqu'à sa date d'expiration.
+     * Un token invalide ou déjà expiré est de toute façon refusé : rien n'est enregistré.
+     *
+     * @param token JWT à révoquer
+     */
+    public void revoke(String token) {
+        authenticationCache.invalidateToken(token);
+
+        Claims claims;
+        try {
+            claims = jwtService.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        if (claims.getExpiration() == null) {
+            return;
+        }
+
+        String tokenId = tokenId(claims, token);
+        if (!revokedTokenRepo.existsById(tokenId)) {
+            revokedTokenRepo.save(new RevokedToken(tokenId, claims.getExpiration().toInstant(), Instant.now()));
+        }
+        synchronized (lock) {
+            filter.put(tokenId);
+        }
+    }
+
+    /**
+     * Indique si un token vérifié a été révoqué.
+     * La base n'est consultée que si le filtre signale une révocation possible.
+     *
+     * @param claims réclamations du token (déjà vérifié)
+     * @param token JWT
+     * @return true si le token a été révoqué
+     */
+    public boolean isRevoked(Claims claims, String token) {
+        String tokenId = tokenId(claims, token);
+        return filter.mightContain(tokenId) && revokedTokenRepo.existsById(tokenId);
+    }
+
+    // -------------------------------------------------------------------------
+    // SYNCHRONISATION ET PURGE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Ajoute au filtre les révocations enregistrées récemment, notamment par les autres instances.
+     * La fenêtre relue déborde d'un intervalle en arrière pour tolérer le décalage d'horloge entre instances.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:10000}")
+    public void syncRecentRevocations() {
+        try {
+            Instant now = Instant.now();
+            List<String> tokenIds = revokedTokenRepo.findTokenIdsRevokedSince(syncedUntil.minus(syncInterval), now);
+            synchronized (lock) {
+                tokenIds.forEach(filter::put);
+            }
+            syncedUntil = now;
+        } catch (Exception e) {
+            logger.error("Erreur lors de la synchronisation des révocations: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Supprime les révocations des tokens expirés, puis reconstruit le filtre sans elles.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        try {
+            int deleted = revokedTokenRepo.deleteExpired(Instant.now());
+            if (deleted > 0) {
+                logger.info("{} révocations de tokens expirés supprimées", deleted);
+            }
+            rebuildFilter();
+        } catch (Exception e) {
+            logger.error("Erreur lors de la purge des révocations: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Charge les révocations encore valides au démarrage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        try {
+            rebuildFilter();
+        } catch (Exception e) {
+            logger.error("Erreur lors du chargement des révocations: {}", e.getMessage(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Remplace le filtre par un filtre ne contenant que les révocations non expirées,
+     * agrandi si elles dépassent le nombre prévu.
+     */
+    private void rebuildFilter() {
+        synchronized (lock) {
+            Instant now = Instant.now();
+            List<String> tokenIds = revokedTokenRepo.findActiveTokenIds(now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, 2L * tokenIds.size()), falsePositiveRate);
+            tokenIds.forEach(rebuilt::put);
+            filter = rebuilt;
+            syncedUntil = now;
+        }
+    }
+
+    /**
+     * Identifiant de révocation d'un token : sa réclamation "jti",
+     * ou son empreinte SHA-256 s'il a été émis sans identifiant.
+     */
+    static String tokenId(Claims claims, String token) {
+        if (claims.getId() != null) {
+            return claims.getId();
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
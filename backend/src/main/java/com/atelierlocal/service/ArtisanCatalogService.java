@@ -0,0 +1,123 @@
+package com.atelierlocal.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.atelierlocal.dto.ArtisanSummaryDTO;
+import com.atelierlocal.dto.PageDTO;
+import com.atelierlocal.geo.GeoHash;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.repository.ArtisanCatalogSort;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanRepo;
+import com.atelierlocal.repository.ArtisanSpecifications;
+
+/**
+ * Service du catalogue des artisans : liste paginée, filtrée et triée.
+ *
+ * Une page coûte trois requêtes quel que soit le nombre d'artisans :
+ * - le nombre total de résultats,
+ * - les identifiants de la page, filtrés, triés et paginés par la base,
+ * - les résumés de ces artisans, lus par projection (catégorie, avatar, recommandations).
+ */
+@Service
+public class ArtisanCatalogService {
+
+    private final ArtisanRepo artisanRepo;
+    private final int maxPageSize;
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires.
+     *
+     * @param maxPageSize taille maximale d'une page du catalogue
+     */
+    public ArtisanCatalogService(
+                ArtisanRepo artisanRepo,
+                @Value("${catalog.max-page-size:50}") int maxPageSize
+                ) {
+        this.artisanRepo = artisanRepo;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Récupère une page du catalogue.
+     *
+     * @param sort ordre de tri
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @param eventCategoryId catégorie d'événement (optionnelle) : artisans des catégories associées
+     * @param active artisans actifs (true) ou désactivés (false)
+     * @param latitude latitude du point de recherche (requise pour le tri par distance)
+     * @param longitude longitude du point de recherche (requise pour le tri par distance)
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page
+     * @return page de résumés d'artisans, avec leur distance si un point est fourni
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    public PageDTO<ArtisanSummaryDTO> getCatalog(ArtisanCatalogSort sort, UUID categoryId, UUID eventCategoryId,
+                                                 boolean active, Double latitude, Double longitude,
+                                                 int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Le numéro de page ne peut être négatif.");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + maxPageSize + ".");
+        }
+        boolean located = latitude != null && longitude != null;
+        if (located) {
+            GeoHash.checkCoordinates(latitude, longitude);
+        } else if (sort == ArtisanCatalogSort.DISTANCE) {
+            throw new IllegalArgumentException("Le tri par distance nécessite une latitude et une longitude.");
+        }
+
+        Specification<Artisan> spec = ArtisanSpecifications.isActive(active);
+        if (categoryId != null) {
+            spec = spec.and(ArtisanSpecifications.hasCategory(categoryId));
+        }
+        if (eventCategoryId != null) {
+            spec = spec.and(ArtisanSpecifications.inEventCategory(eventCategoryId));
+        }
+        if (sort == ArtisanCatalogSort.DISTANCE) {
+            spec = spec.and(ArtisanSpecifications.hasCoordinates());
+        }
+
+        long total = artisanRepo.count(spec);
+        long offset = (long) page * size;
+        if (offset >= total) {
+            return new PageDTO<>(List.of(), page, size, total);
+        }
+
+        List<UUID> ids = artisanRepo.findCatalogIds(spec, sort, latitude, longitude, (int) offset, size);
+        Map<UUID, ArtisanListingView> views = artisanRepo.findListingByIds(ids).stream()
+            .collect(Collectors.toMap(ArtisanListingView::getId, Function.identity()));
+
+        // La projection ne conserve pas l'ordre : il est rétabli d'après la liste d'identifiants
+        List<ArtisanSummaryDTO> items = new ArrayList<>();
+        for (UUID id : ids) {
+            ArtisanListingView view = views.get(id);
+            if (view != null) {
+                items.add(new ArtisanSummaryDTO(view, located ? distanceKm(view, latitude, longitude) : null));
+            }
+        }
+        return new PageDTO<>(items, page, size, total);
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    private static Double distanceKm(ArtisanListingView view, double latitude, double longitude) {
+        if (view.getLatitude() == null || view.getLongitude() == null) {
+            return null;
+        }
+        double distance = GeoHash.distanceKm(latitude, longitude, view.getLatitude(), view.getLongitude());
+        return Math.round(distance * 100) / 100.0;
+    }
+}
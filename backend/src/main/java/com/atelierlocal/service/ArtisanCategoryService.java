@@ -10,7 +10,6 @@ import com.atelierlocal.dto.ArtisanCategoryResponseDTO;
 import com.atelierlocal.model.ArtisanCategory;
 import com.atelierlocal.model.EventCategory;
 import com.atelierlocal.repository.ArtisanCategoryRepo;
-import com.atelierlocal.repository.EventCategoryRepo;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -21,20 +20,24 @@ import jakarta.persistence.EntityNotFoundException;
  * - créer, mettre à jour et supprimer des catégories d'artisans,
  * - récupérer une ou plusieurs catégories d'artisans,
  * - filtrer les catégories par événement.
+ *
+ * Les lectures sont servies par {@link CategoryCache}, invalidé à chaque modification.
  */
 @Service
 public class ArtisanCategoryService {
 
     private final ArtisanCategoryRepo artisanCategoryRepo;
+    private final CategoryCache categoryCache;
 
     /**
      * Constructeur avec injection du repository de catégories d'artisans.
      * 
      * @param artisanCategoryRepo repository pour accéder aux données ArtisanCategory
-     * @param eventCategoryRepo repository pour accéder aux EventCategory (non utilisé ici)
+     * @param categoryCache cache des catégories, utilisé pour les lectures et invalidé à chaque modification
      */
-    public ArtisanCategoryService(ArtisanCategoryRepo artisanCategoryRepo, EventCategoryRepo eventCategoryRepo) {
+    public ArtisanCategoryService(ArtisanCategoryRepo artisanCategoryRepo, CategoryCache categoryCache) {
         this.artisanCategoryRepo = artisanCategoryRepo;
+        this.categoryCache = categoryCache;
     }
 
     /**
@@ -59,6 +62,7 @@ public class ArtisanCategoryService {
         artisanCategory.setDescription(dto.getDescription());
 
         ArtisanCategory savedCategory = artisanCategoryRepo.save(artisanCategory);
+        categoryCache.invalidate();
         return new ArtisanCategoryResponseDTO(
             savedCategory.getId(),
             savedCategory.getName(),
@@ -77,6 +81,7 @@ public class ArtisanCategoryService {
             .orElseThrow(() -> new EntityNotFoundException("Catégorie d'artisan non trouvée."));
         
         artisanCategoryRepo.delete(artisanCategory);
+        categoryCache.invalidate();
     }
 
     /**
@@ -94,6 +99,7 @@ public class ArtisanCategoryService {
         if (dto.getName() != null) { artisanCategory.setName(dto.getName()); }
         if (dto.getDescription() != null) { artisanCategory.setDescription(dto.getDescription()); }
         ArtisanCategory savedCategory = artisanCategoryRepo.save(artisanCategory);
+        categoryCache.invalidate();
 
         return new ArtisanCategoryResponseDTO(
             savedCategory.getId(),
@@ -109,17 +115,11 @@ public class ArtisanCategoryService {
      * @throws EntityNotFoundException si aucune catégorie n'est trouvée
      */
     public List<ArtisanCategoryResponseDTO> getAllArtisanCategory() {
-        List<ArtisanCategory> artisanCategoriesList = artisanCategoryRepo.findAll();
+        List<ArtisanCategoryResponseDTO> artisanCategoriesList = categoryCache.getArtisanCategories();
         if (artisanCategoriesList.isEmpty()) {
             throw new EntityNotFoundException("Aucune Catégorie d'artisan trouvée.");
         }
-        return artisanCategoriesList.stream()
-            .map(category -> new ArtisanCategoryResponseDTO(
-                                    category.getId(),
-                                    category.getName(),
-                                    category.getDescription()
-            ))
-            .toList();
+        return artisanCategoriesList;
     }
 
     /**
@@ -130,14 +130,8 @@ public class ArtisanCategoryService {
      * @throws EntityNotFoundException si la catégorie n'existe pas
      */
     public ArtisanCategoryResponseDTO getArtisanCategoryById(UUID artisanCategorieId) {
-        ArtisanCategory artisanCategory = artisanCategoryRepo.findById(artisanCategorieId)
+        return categoryCache.findArtisanCategory(artisanCategorieId)
             .orElseThrow(() -> new EntityNotFoundException("Catégorie d'artisan non trouvée."));
-
-        return new ArtisanCategoryResponseDTO(
-                    artisanCategory.getId(),
-                    artisanCategory.getName(),
-                    artisanCategory.getDescription()
-        );
     }
 
     /**
@@ -147,13 +141,13 @@ public class ArtisanCategoryService {
      * @return liste de DTO de réponse
      */
     public List<ArtisanCategoryResponseDTO> getArtisanCategoriesByEvent(EventCategory eventCategory) {
-        return artisanCategoryRepo.findByEventCategories(eventCategory)
-            .stream()
-            .map(category -> new ArtisanCategoryResponseDTO(
-                category.getId(),
-                category.getName(),
-                category.getDescription()
-            ))
-            .toList();
+        return categoryCache.findArtisanCategoriesByEvent(eventCategory.getId()).orElse(List.of());
+    }
+
+    /**
+     * ETag du contenu courant des catégories, pour les réponses conditionnelles.
+     */
+    public String getEtag() {
+        return categoryCache.getEtag();
     }
 }
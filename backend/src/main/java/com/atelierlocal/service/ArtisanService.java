@@ -1,14 +1,19 @@
 package com.atelierlocal.service;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.atelierlocal.dto.ArtisanRequestDTO;
 import com.atelierlocal.dto.ArtisanResponseDTO;
+import com.atelierlocal.dto.UploadedPhotoResponseDTO;
 import com.atelierlocal.model.Artisan;
 import com.atelierlocal.model.ArtisanCategory;
 import com.atelierlocal.model.Avatar;
@@ -16,11 +21,17 @@ import com.atelierlocal.model.Client;
 import com.atelierlocal.model.User;
 import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.ArtisanCategoryRepo;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanPhotoView;
 import com.atelierlocal.repository.ArtisanRepo;
 import com.atelierlocal.repository.AttachmentRepo;
 import com.atelierlocal.repository.AvatarRepo;
+import com.atelierlocal.repository.ConversationSummaryRepo;
 import com.atelierlocal.repository.MessageRepo;
+import com.atelierlocal.repository.UploadedPhotoRepo;
+import com.atelierlocal.security.AuthenticationCache;
 import com.atelierlocal.security.SecurityService;
+import com.atelierlocal.storage.StoredImage;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -34,18 +45,37 @@ import jakarta.transaction.Transactional;
  * - récupérer des artisans par ID, email ou catégorie,
  * - appliquer des contrôles d'accès via SecurityService,
  * - gérer le bannissement et récupérer des artisans aléatoires.
+ * 
+ * Les listes d'artisans sont construites à partir de projections (deux requêtes au total) :
+ * seules les premières photos de chaque galerie y figurent, le profil complet les contient toutes.
  */
 @Service
 public class ArtisanService {
 
+    /**
+     * Nombre de photos de la galerie incluses pour chaque artisan d'une liste.
+     */
+    static final int LISTING_PHOTO_LIMIT = 4;
+
     private final PasswordService passwordService;
     private final ArtisanRepo artisanRepo;
     private final MessageRepo messageRepo;
     private final AttachmentRepo attachmentRepo;
+    private final ConversationSummaryRepo conversationSummaryRepo;
+    private final StoredObjectService storedObjectService;
     private final AvatarService avatarService;
     private final AvatarRepo avatarRepo;
     private final ArtisanCategoryRepo artisanCategoryRepo;
     private final SecurityService securityService;
+    private final AuthenticationCache authenticationCache;
+    private final UserDirectory userDirectory;
+    private final UploadedPhotoRepo uploadedPhotoRepo;
+    private final CategoryCache categoryCache;
+
+    /**
+     * Sélection de la page d'accueil, construite à partir de ce service (d'où la résolution différée).
+     */
+    private final ObjectProvider<TopArtisansFeedService> topArtisansFeedService;
     
     /**
      * Constructeur avec injection des dépendances nécessaires.
@@ -55,19 +85,33 @@ public class ArtisanService {
                 ArtisanRepo artisanRepo,
                 MessageRepo messageRepo,
                 AttachmentRepo attachmentRepo,
+                ConversationSummaryRepo conversationSummaryRepo,
+                StoredObjectService storedObjectService,
                 AvatarService avatarService,
                 AvatarRepo avatarRepo,
                 ArtisanCategoryRepo artisanCategoryRepo,
-                SecurityService securityService
+                SecurityService securityService,
+                AuthenticationCache authenticationCache,
+                UserDirectory userDirectory,
+                UploadedPhotoRepo uploadedPhotoRepo,
+                CategoryCache categoryCache,
+                ObjectProvider<TopArtisansFeedService> topArtisansFeedService
                 ) {
         this.passwordService = passwordService;
         this.artisanRepo = artisanRepo;
         this.messageRepo = messageRepo;
         this.attachmentRepo = attachmentRepo;
+        this.conversationSummaryRepo = conversationSummaryRepo;
+        this.storedObjectService = storedObjectService;
         this.avatarService = avatarService;
         this.avatarRepo = avatarRepo;
         this.artisanCategoryRepo = artisanCategoryRepo;
         this.securityService = securityService;
+        this.authenticationCache = authenticationCache;
+        this.userDirectory = userDirectory;
+        this.uploadedPhotoRepo = uploadedPhotoRepo;
+        this.categoryCache = categoryCache;
+        this.topArtisansFeedService = topArtisansFeedService;
     }
 
     /**
@@ -97,8 +141,7 @@ public class ArtisanService {
             throw new IllegalArgumentException("La longitude ne peut être vide.");
         }
 
-        ArtisanCategory category = artisanCategoryRepo.findByNameIgnoreCase(dto.getCategoryName())
-            .orElseThrow(() -> new IllegalArgumentException("Catégorie invalide"));
+        ArtisanCategory category = findCategoryByName(dto.getCategoryName());
 
         Artisan artisan = new Artisan();
         artisan.setName(dto.getName());
@@ -112,10 +155,9 @@ public class ArtisanService {
         // Gestion de l'avatar
         Avatar avatar = null;
         if (dto.getAvatar() != null) {
-            String avatarUrl = avatarService.uploadAvatar(dto.getAvatar(), null);
+            StoredImage avatarImage = avatarService.uploadAvatar(dto.getAvatar(), null);
             avatar = new Avatar();
-            avatar.setAvatarUrl(avatarUrl);
-            avatar.setExtension(avatarService.getFileExtension(dto.getAvatar()));
+            avatarService.applyTo(avatar, avatarImage);
             avatar.setUser(artisan);
         }
         artisan.setAvatar(avatar);
@@ -143,11 +185,29 @@ public class ArtisanService {
         Artisan artisan = artisanRepo.findById(artisanId)
             .orElseThrow(() -> new EntityNotFoundException("Professionnel non trouvé."));
 
+        // Fichiers référencés par l'artisan (pièces jointes, avatar, portfolio), libérés après validation
+        List<String> storedUrls = new ArrayList<>(attachmentRepo.findFileUrlsByUserId(artisanId));
+        storedUrls.addAll(avatarService.getStoredUrls(artisan.getAvatar()));
+        artisan.getPhotoGallery().forEach(photo -> {
+            storedUrls.add(photo.getUploadedPhotoUrl());
+            storedUrls.add(photo.getCardUrl());
+            storedUrls.add(photo.getThumbnailUrl());
+        });
+
         attachmentRepo.deleteByUserId(artisanId);
 
         messageRepo.deleteByUserId(artisanId);
 
+        conversationSummaryRepo.deleteByUserId(artisanId);
+
         artisanRepo.delete(artisan);
+
+        authenticationCache.invalidateUser(artisanId);
+
+        userDirectory.invalidate(artisanId);
+        invalidateTopArtisans();
+
+        storedObjectService.releaseAfterCommit(storedUrls);
     }
 
     /**
@@ -159,6 +219,7 @@ public class ArtisanService {
      * @return DTO de réponse avec l'artisan mis à jour
      * @throws EntityNotFoundException si l'artisan n'existe pas
      */
+    @Transactional
     public ArtisanResponseDTO updateArtisan(UUID artisanId, ArtisanRequestDTO request, User currentUser) {
         securityService.checkUserOwnershipOrAdmin(currentUser, artisanId);
         Artisan artisan = artisanRepo.findById(artisanId)
@@ -168,8 +229,7 @@ public class ArtisanService {
         if (request.getLatitude() != null) { artisan.setLatitude(request.getLatitude()); }
         if (request.getLongitude() != null) { artisan.setLongitude(request.getLongitude()); }
         if (request.getCategoryName() != null) {
-            ArtisanCategory category = artisanCategoryRepo.findByNameIgnoreCase(request.getCategoryName())
-                .orElseThrow(() -> new IllegalArgumentException("Catégorie invalide"));
+            ArtisanCategory category = findCategoryByName(request.getCategoryName());
             artisan.setCategory(category);
         }
         if (request.getName() != null) { artisan.setName(request.getName()); }
@@ -184,19 +244,22 @@ public class ArtisanService {
 
         // Gestion de l'avatar
         if (request.getAvatar() != null) {
-            String avatarUrl = avatarService.uploadAvatar(request.getAvatar(), artisanId);
+            StoredImage avatarImage = avatarService.uploadAvatar(request.getAvatar(), artisanId);
             Avatar avatar = artisan.getAvatar();
             if (avatar == null) {
                 avatar = new Avatar();
                 avatar.setUser(artisan);
             }
-            avatar.setAvatarUrl(avatarUrl);
-            avatar.setExtension(avatarService.getFileExtension(request.getAvatar()));
+            avatarService.applyTo(avatar, avatarImage);
 
             avatarRepo.save(avatar);
         }
 
         Artisan updatedArtisan = artisanRepo.save(artisan);
+        // Les tokens en cache portent l'ancien état de l'artisan (email, mot de passe...)
+        authenticationCache.invalidateUser(artisanId);
+        userDirectory.invalidate(artisanId);
+        invalidateTopArtisans();
         return new ArtisanResponseDTO(updatedArtisan);
     }
 
@@ -226,9 +289,7 @@ public class ArtisanService {
         if (currentClient != null) {
             securityService.checkClientOrAdmin(currentClient);
         }
-        return artisanRepo.findAll().stream()
-                                .map(ArtisanResponseDTO::new)
-                                .collect(Collectors.toList());
+        return toListing(artisanRepo.findListing(), uploadedPhotoRepo.findFirstPhotos(LISTING_PHOTO_LIMIT));
     }
 
     /**
@@ -239,9 +300,44 @@ public class ArtisanService {
         ArtisanCategory category = artisanCategoryRepo.findById(categoryId)
             .orElseThrow(() -> new EntityNotFoundException("Categorie non trouvée."));
 
-        return artisanRepo.findAllByCategory(category).stream()
-                                                    .map(ArtisanResponseDTO::new)
-                                                    .collect(Collectors.toList());
+        return toListing(artisanRepo.findListingByCategory(category.getId()),
+                         uploadedPhotoRepo.findFirstPhotosByCategory(category.getId(), LISTING_PHOTO_LIMIT));
+    }
+
+    /**
+     * Catégorie d'artisan correspondant au nom saisi, trouvée dans le cache des catégories :
+     * seule une référence est renvoyée, la catégorie n'est pas relue en base.
+     *
+     * @throws IllegalArgumentException si aucune catégorie ne porte ce nom
+     */
+    private ArtisanCategory findCategoryByName(String name) {
+        return categoryCache.findArtisanCategoryIdByName(name)
+            .map(artisanCategoryRepo::getReferenceById)
+            .orElseThrow(() -> new IllegalArgumentException("Catégorie invalide"));
+    }
+
+    /**
+     * Signale à la sélection de la page d'accueil qu'un artisan a changé (profil, bannissement, suppression) :
+     * elle est rechargée après la validation de la transaction.
+     */
+    private void invalidateTopArtisans() {
+        TopArtisansFeedService feed = topArtisansFeedService.getIfAvailable();
+        if (feed != null) {
+            feed.invalidate();
+        }
+    }
+
+    /**
+     * Assemble les projections d'artisans et de leurs premières photos en DTOs.
+     */
+    private List<ArtisanResponseDTO> toListing(List<ArtisanListingView> artisans, List<ArtisanPhotoView> photos) {
+        Map<UUID, List<UploadedPhotoResponseDTO>> photosByArtisan = photos.stream()
+            .collect(Collectors.groupingBy(ArtisanPhotoView::getArtisanId,
+                     Collectors.mapping(UploadedPhotoResponseDTO::new, Collectors.toList())));
+
+        return artisans.stream()
+                       .map(view -> new ArtisanResponseDTO(view, photosByArtisan.getOrDefault(view.getId(), List.of())))
+                       .collect(Collectors.toList());
     }
 
     /**
@@ -252,15 +348,23 @@ public class ArtisanService {
             .orElseThrow(() -> new EntityNotFoundException("Utilisateur non trouvé."));
         artisan.setActive(false);
         artisanRepo.save(artisan);
+        authenticationCache.invalidateUser(artisanId);
+        userDirectory.invalidate(artisanId);
+        invalidateTopArtisans();
     }
 
     /**
-     * Récupère un nombre aléatoire d'artisans parmi les top recommandés.
+     * Récupère les artisans actifs les plus recommandés, avec leurs premières photos.
+     *
+     * @param limit nombre maximal d'artisans
+     * @return artisans triés par nombre de recommandations décroissant
      */
-    public List<Artisan> getRandomTopArtisans(int count) {
-        List<Artisan> top10 = artisanRepo.findTop10ByOrderByRecommendationsDesc();
-        if (top10.isEmpty()) return Collections.emptyList();
-        Collections.shuffle(top10);
-        return top10.subList(0, Math.min(count, top10.size()));
+    public List<ArtisanResponseDTO> getTopArtisans(int limit) {
+        List<ArtisanListingView> top = artisanRepo.findTopListing(PageRequest.of(0, limit));
+        if (top.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UUID> ids = top.stream().map(ArtisanListingView::getId).toList();
+        return toListing(top, uploadedPhotoRepo.findFirstPhotosByArtisans(ids, LISTING_PHOTO_LIMIT));
     }
 }
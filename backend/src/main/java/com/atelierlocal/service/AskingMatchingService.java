@@ -0,0 +1,384 @@
+package com.atelierlocal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.atelierlocal.dto.AskingResponseDTO;
+import com.atelierlocal.dto.CursorPageDTO;
+import com.atelierlocal.dto.KeysetCursor;
+import com.atelierlocal.dto.OpportunityDTO;
+import com.atelierlocal.geo.GeoBoundingBox;
+import com.atelierlocal.geo.GeoCoordinates;
+import com.atelierlocal.geo.GeoHash;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.Asking;
+import com.atelierlocal.model.AskingMatch;
+import com.atelierlocal.repository.ArtisanCatalogSort;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanRepo;
+import com.atelierlocal.repository.ArtisanSpecifications;
+import com.atelierlocal.repository.AskingMatchRepo;
+import com.atelierlocal.repository.AskingRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moteur de mise en relation des demandes avec les artisans.
+ *
+ * Lorsqu'une demande est créée, elle est proposée, après la validation de sa transaction et hors du
+ * fil de la requête, aux artisans actifs de la catégorie demandée (et de la catégorie d'événement,
+ * si elle est renseignée) situés à moins de "radiusKm" du lieu de l'événement. Si le lieu ne peut
+ * pas être localisé, la demande est proposée aux artisans de la catégorie les plus recommandés.
+ * Le nombre d'artisans concernés par une demande est borné.
+ *
+ * Chaque mise en relation est enregistrée dans la boîte de réception de l'artisan (AskingMatch),
+ * parcourue par curseur, et lui est notifiée en temps réel sur "/queue/opportunities".
+ * Une demande close ou supprimée est retirée des boîtes de réception.
+ *
+ * La date de mise en relation enregistrée sur la demande garantit qu'elle n'est traitée qu'une fois ;
+ * les demandes restées sans mise en relation (file saturée, redémarrage, géocodage indisponible)
+ * sont reprises périodiquement.
+ */
+@Service
+public class AskingMatchingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AskingMatchingService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Nombre maximal de demandes reprises à chaque passage.
+     */
+    private static final int SWEEP_BATCH_SIZE = 50;
+
+    private final AskingMatchRepo askingMatchRepo;
+    private final AskingRepo askingRepo;
+    private final ArtisanRepo artisanRepo;
+    private final GeocodingService geocodingService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double radiusKm;
+    private final int maxArtisans;
+    private final int maxCells;
+    private final Duration sweepDelay;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Demandes confiées à l'exécuteur et pas encore traitées : un passage ne les soumet pas une seconde fois.
+     */
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructeur du service.
+     *
+     * @param transactionManager gestionnaire de transactions pour l'enregistrement des mises en relation
+     * @param radiusKm distance maximale entre un artisan et le lieu de l'événement, en kilomètres
+     * @param maxArtisans nombre maximal d'artisans à qui une demande est proposée
+     * @param maxCells nombre maximal de cellules geohash (parcours d'index) par recherche
+     * @param poolSize nombre de mises en relation simultanées
+     * @param queueCapacity nombre de mises en relation en attente avant report au prochain passage
+     * @param sweepDelayMs ancienneté à partir de laquelle une demande sans mise en relation est reprise
+     */
+    public AskingMatchingService(
+                AskingMatchRepo askingMatchRepo,
+                AskingRepo askingRepo,
+                ArtisanRepo artisanRepo,
+                GeocodingService geocodingService,
+                SimpMessagingTemplate messagingTemplate,
+                PlatformTransactionManager transactionManager,
+                @Value("${askings.matching.radius-km:50}") double radiusKm,
+                @Value("${askings.matching.max-artisans:200}") int maxArtisans,
+                @Value("${geo.search.max-cells:16}") int maxCells,
+                @Value("${askings.matching.pool-size:2}") int poolSize,
+                @Value("${askings.matching.queue-capacity:500}") int queueCapacity,
+                @Value("${askings.matching.sweep-delay-ms:60000}") long sweepDelayMs
+                ) {
+        this.askingMatchRepo = askingMatchRepo;
+        this.askingRepo = askingRepo;
+        this.artisanRepo = artisanRepo;
+        this.geocodingService = geocodingService;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.radiusKm = radiusKm;
+        this.maxArtisans = maxArtisans;
+        this.maxCells = maxCells;
+        this.sweepDelay = Duration.ofMillis(sweepDelayMs);
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofVirtual().name("asking-matching-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    // -------------------------------------------------------------------------
+    // MISE EN RELATION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Planifie la mise en relation d'une demande après la validation de la transaction courante.
+     * Si la file est saturée, la demande sera reprise au prochain passage.
+     *
+     * @param asking demande enregistrée à l'état PENDING
+     */
+    public void submit(AskingResponseDTO asking) {
+        afterCommit(() -> enqueue(asking));
+    }
+
+    /**
+     * Retire une demande de toutes les boîtes de réception (demande close, supprimée ou modifiée).
+     *
+     * @param askingId ID de la demande
+     */
+    public void withdraw(UUID askingId) {
+        transactionTemplate.executeWithoutResult(status -> askingMatchRepo.deleteByAskingId(askingId));
+    }
+
+    /**
+     * Reprend les demandes en attente restées sans mise en relation.
+     * Les demandes sont confiées à l'exécuteur : le thread du planificateur, partagé par toutes
+     * les tâches planifiées, n'attend ni le géocodage ni les recherches.
+     */
+    @Scheduled(fixedDelayString = "${askings.matching.sweep-interval-ms:60000}")
+    public void matchPending() {
+        try {
+            List<Asking> askings = askingRepo.findUnmatchedPending(LocalDateTime.now().minus(sweepDelay),
+                PageRequest.of(0, SWEEP_BATCH_SIZE));
+            for (Asking asking : askings) {
+                if (!enqueue(new AskingResponseDTO(asking))) {
+                    // File saturée : les suivantes attendront le prochain passage
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Erreur lors de la reprise des mises en relation: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Confie une demande à l'exécuteur, sauf si elle y est déjà en attente ou en cours.
+     *
+     * @return false si la file est saturée (la demande sera reprise au prochain passage)
+     */
+    private boolean enqueue(AskingResponseDTO asking) {
+        if (!inFlight.add(asking.getId())) {
+            return true;
+        }
+        try {
+            executor.execute(() -> process(asking));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(asking.getId());
+            logger.warn("File de mise en relation saturée, demande {} reportée", asking.getId());
+            return false;
+        }
+    }
+
+    /**
+     * Met une demande en relation ; en cas d'erreur, elle sera reprise au prochain passage.
+     */
+    void process(AskingResponseDTO asking) {
+        try {
+            match(asking);
+        } catch (Exception e) {
+            logger.error("Erreur lors de la mise en relation de la demande {}: {}", asking.getId(), e.getMessage(), e);
+        } finally {
+            inFlight.remove(asking.getId());
+        }
+    }
+
+    /**
+     * Recherche les artisans concernés par une demande, enregistre les mises en relation et les notifie.
+     *
+     * @param asking demande à mettre en relation
+     * @return opportunités créées (vide si la demande est close, supprimée ou déjà mise en relation)
+     */
+    List<OpportunityDTO> match(AskingResponseDTO asking) {
+        Optional<GeoCoordinates> location = locate(asking.getEventLocalisation());
+        List<Candidate> candidates = findCandidates(asking, location.orElse(null));
+        LocalDateTime now = LocalDateTime.now();
+
+        Boolean matched = transactionTemplate.execute(status -> {
+            // Verrouille la demande : une autre mise en relation concurrente de la même demande ne fera rien
+            if (askingRepo.markMatched(asking.getId(), now) == 0) {
+                return false;
+            }
+            Asking reference = askingRepo.getReferenceById(asking.getId());
+            List<AskingMatch> matches = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                AskingMatch match = new AskingMatch(reference, artisanRepo.getReferenceById(candidate.artisanId()), candidate.distanceKm());
+                match.setCreatedAt(now);
+                matches.add(match);
+            }
+            askingMatchRepo.saveAll(matches);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(matched)) {
+            return List.of();
+        }
+
+        List<OpportunityDTO> opportunities = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            OpportunityDTO opportunity = new OpportunityDTO(asking, candidate.distanceKm(), now);
+            messagingTemplate.convertAndSendToUser(candidate.email(), "/queue/opportunities", opportunity);
+            opportunities.add(opportunity);
+        }
+        logger.debug("Demande {} proposée à {} artisans", asking.getId(), candidates.size());
+        return opportunities;
+    }
+
+    // -------------------------------------------------------------------------
+    // BOÎTE DE RÉCEPTION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Récupère une page des opportunités ouvertes d'un artisan, de la plus récente à la plus ancienne.
+     * Les demandes closes n'y figurent plus.
+     *
+     * @param artisanId ID de l'artisan
+     * @param cursor curseur renvoyé par la page précédente (null pour la page la plus récente)
+     * @param size taille de page souhaitée (bornée à MAX_PAGE_SIZE)
+     * @return page d'opportunités, avec le curseur de la page suivante
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public CursorPageDTO<OpportunityDTO> getInbox(UUID artisanId, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor before = KeysetCursor.decode(cursor);
+
+        // Un élément supplémentaire est demandé pour savoir s'il reste une page plus ancienne
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<AskingMatch> matches = before == null
+                ? askingMatchRepo.findLatestInboxPage(artisanId, limit)
+                : askingMatchRepo.findInboxPageBefore(artisanId, before.getCreatedAt(), before.getId(), limit);
+
+        boolean hasMore = matches.size() > pageSize;
+        List<AskingMatch> page = hasMore ? matches.subList(0, pageSize) : matches;
+        if (page.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+
+        AskingMatch oldest = page.get(page.size() - 1);
+        String nextCursor = hasMore ? new KeysetCursor(oldest.getCreatedAt(), oldest.getId()).encode() : null;
+        List<OpportunityDTO> items = page.stream()
+                .map(match -> new OpportunityDTO(new AskingResponseDTO(match.getAsking()), match.getDistanceKm(), match.getCreatedAt()))
+                .toList();
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Localise le lieu de l'événement. Un lieu absent ou inconnu n'est pas une erreur :
+     * la demande est alors proposée sans critère de distance. Une panne du fournisseur
+     * de géocodage interrompt la mise en relation, reprise au prochain passage.
+     */
+    private Optional<GeoCoordinates> locate(String eventLocalisation) {
+        if (eventLocalisation == null || eventLocalisation.isBlank()) {
+            return Optional.empty();
+        }
+        return geocodingService.geocode(eventLocalisation);
+    }
+
+    /**
+     * Artisans actifs de la catégorie (et de la catégorie d'événement), dans le rayon du lieu s'il est connu.
+     * Les identifiants sont sélectionnés et triés par la base, puis les coordonnées et emails lus par projection.
+     */
+    private List<Candidate> findCandidates(AskingResponseDTO asking, GeoCoordinates location) {
+        Specification<Artisan> spec = ArtisanSpecifications.isActive(true)
+            .and(ArtisanSpecifications.hasCategory(asking.getArtisanCategoryId()));
+        if (asking.getEventCategoryId() != null) {
+            spec = spec.and(ArtisanSpecifications.inEventCategory(asking.getEventCategoryId()));
+        }
+
+        List<UUID> ids;
+        if (location != null) {
+            GeoBoundingBox box = GeoBoundingBox.around(location.getLatitude(), location.getLongitude(), radiusKm);
+            spec = spec.and(ArtisanSpecifications.hasCoordinates())
+                .and(ArtisanSpecifications.inGeohashCells(GeoHash.coveringCells(box, maxCells)));
+            ids = artisanRepo.findCatalogIds(spec, ArtisanCatalogSort.DISTANCE,
+                location.getLatitude(), location.getLongitude(), 0, maxArtisans);
+        } else {
+            ids = artisanRepo.findCatalogIds(spec, ArtisanCatalogSort.RECOMMENDATIONS, null, null, 0, maxArtisans);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (ArtisanListingView artisan : artisanRepo.findListingByIds(ids)) {
+            Double distanceKm = null;
+            if (location != null) {
+                double distance = GeoHash.distanceKm(location.getLatitude(), location.getLongitude(),
+                    artisan.getLatitude(), artisan.getLongitude());
+                // Les cellules débordent du cercle : seuls les artisans réellement dans le rayon sont gardés
+                if (distance > radiusKm) {
+                    continue;
+                }
+                distanceKm = Math.round(distance * 100) / 100.0;
+            }
+            candidates.add(new Candidate(artisan.getId(), artisan.getEmail(), distanceKm));
+        }
+        if (location != null) {
+            candidates.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        }
+        return candidates;
+    }
+
+    /**
+     * Exécute une action après la validation de la transaction courante,
+     * ou immédiatement si aucune transaction n'est active.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Arrêt de l'exécuteur à l'arrêt de l'application : les demandes non traitées seront reprises au redémarrage.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Artisan retenu pour une demande.
+     */
+    private record Candidate(UUID artisanId, String email, Double distanceKm) {
+    }
+}
@@ -28,6 +28,9 @@ import com.atelierlocal.repository.ArtisanCategoryRepo;
  * - modifier le statut d'une demande,
  * - récupérer des demandes par ID, client ou catégorie,
  * - appliquer des contrôles d'accès via SecurityService.
+ *
+ * Les demandes créées sont proposées aux artisans concernés par AskingMatchingService,
+ * et retirées de leurs boîtes de réception lorsqu'elles sont closes ou supprimées.
  */
 @Service
 public class AskingService {
@@ -37,6 +40,7 @@ public class AskingService {
     private final ClientRepo clientRepo;
     private final EventCategoryRepo eventCategoryRepo;
     private final SecurityService securityService;
+    private final AskingMatchingService askingMatchingService;
 
     /**
      * Constructeur avec injection des dépendances.
@@ -46,12 +50,14 @@ public class AskingService {
                 ArtisanCategoryRepo artisanCategoryRepo,
                 ClientRepo clientRepo,
                 EventCategoryRepo eventCategoryRepo,
-                SecurityService securityService) {
+                SecurityService securityService,
+                AskingMatchingService askingMatchingService) {
         this.askingRepo = askingRepo;
         this.artisanCategoryRepo = artisanCategoryRepo;
         this.clientRepo = clientRepo;
         this.eventCategoryRepo = eventCategoryRepo;
         this.securityService = securityService;
+        this.askingMatchingService = askingMatchingService;
     }
 
     /**
@@ -104,7 +110,9 @@ public class AskingService {
         asking.setArtisanCategory(artisanCategory);
 
         Asking newAsking = askingRepo.save(asking);
-        return new AskingResponseDTO(newAsking);
+        AskingResponseDTO response = new AskingResponseDTO(newAsking);
+        askingMatchingService.submit(response);
+        return response;
     }
 
     /**
@@ -128,6 +136,7 @@ public class AskingService {
 
         asking.setStatus(newStatus);
         Asking patchedAsking = askingRepo.save(asking);
+        askingMatchingService.withdraw(askingId);
         return new AskingResponseDTO(patchedAsking);
     }
 
@@ -139,6 +148,7 @@ public class AskingService {
             .orElseThrow(() -> new RuntimeException("Demande non trouvée."));
 
         securityService.checkClientOwnershipOrAdmin(currentClient, asking.getClient().getId());
+        askingMatchingService.withdraw(askingId);
         askingRepo.delete(asking);
     }
 
@@ -153,16 +163,24 @@ public class AskingService {
 
         if (request.getContent() != null) { asking.setContent(request.getContent()); }
         if (request.getTitle() != null) { asking.setTitle(request.getTitle()); }
-        if (request.getArtisanCategoryId() != null &&
-        !request.getArtisanCategoryId().equals(asking.getArtisanCategory().getId())) {
+        boolean categoryChanged = request.getArtisanCategoryId() != null &&
+            !request.getArtisanCategoryId().equals(asking.getArtisanCategory().getId());
+        if (categoryChanged) {
             ArtisanCategory artisanCategory = artisanCategoryRepo.findById(request.getArtisanCategoryId())
                 .orElseThrow(() -> new RuntimeException("Catégorie d'artisan non trouvée."));
 
             asking.setArtisanCategory(artisanCategory);
+            // Les artisans concernés changent : la demande est retirée puis proposée à nouveau
+            asking.setMatchedAt(null);
         }
 
         Asking updatedAsking = askingRepo.save(asking);
-        return new AskingResponseDTO(updatedAsking);
+        AskingResponseDTO response = new AskingResponseDTO(updatedAsking);
+        if (categoryChanged && updatedAsking.getStatus() == AskingStatus.PENDING) {
+            askingMatchingService.withdraw(askingId);
+            askingMatchingService.submit(response);
+        }
+        return response;
     }
 
     /**
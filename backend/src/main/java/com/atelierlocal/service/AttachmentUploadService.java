@@ -0,0 +1,358 @@
+package com.atelierlocal.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.atelierlocal.dto.MessageResponseDTO;
+import com.atelierlocal.model.Attachment;
+import com.atelierlocal.model.Message;
+import com.atelierlocal.model.MessageStatus;
+import com.atelierlocal.repository.MessageRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service d'envoi asynchrone des pièces jointes des messages.
+ *
+ * Le message est d'abord enregistré à l'état PENDING_UPLOAD par MessageService ;
+ * une fois la transaction validée, le fichier est confié à un exécuteur borné
+ * (threads virtuels, file d'attente limitée) qui l'envoie sur le stockage de fichiers.
+ * Les fichiers en attente sont conservés sur disque, jamais en mémoire.
+ *
+ * À la fin de l'envoi, le message passe à l'état SENT (ou FAILED en cas d'erreur)
+ * et sa nouvelle version est diffusée aux deux participants sur "/queue/messages",
+ * le tempId permettant au front-end de corréler la mise à jour.
+ *
+ * Les envois en attente ne survivent pas à un arrêt du serveur : à l'arrêt, les envois encore en file
+ * sont marqués FAILED, et les messages restés PENDING_UPLOAD au-delà de "messaging.upload.stale-after-seconds"
+ * (arrêt brutal, autre instance arrêtée) le sont au démarrage puis périodiquement. Le client peut alors
+ * renvoyer la pièce jointe. Ce délai doit dépasser la durée d'un envoi : une autre instance peut encore
+ * traiter le message.
+ */
+@Service
+public class AttachmentUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentUploadService.class);
+
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    private final MessageRepo messageRepo;
+    private final StoredObjectService storedObjectService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Duration staleAfter;
+
+    // Messages dont l'envoi est planifié, en file ou en cours sur cette instance
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructeur du service.
+     *
+     * @param messageRepo repository des messages
+     * @param storedObjectService stockage des pièces jointes (adressé par contenu)
+     * @param messagingTemplate pour la diffusion du statut via WebSocket
+     * @param transactionManager gestionnaire de transactions pour la mise à jour du message
+     * @param poolSize nombre d'envois simultanés
+     * @param queueCapacity nombre d'envois en attente avant rejet
+     * @param staleAfterSeconds âge à partir duquel un message encore PENDING_UPLOAD est considéré en échec
+     */
+    public AttachmentUploadService(MessageRepo messageRepo, StoredObjectService storedObjectService,
+                                   SimpMessagingTemplate messagingTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${messaging.upload.pool-size:4}") int poolSize,
+                                   @Value("${messaging.upload.queue-capacity:100}") int queueCapacity,
+                                   @Value("${messaging.upload.stale-after-seconds:600}") long staleAfterSeconds) {
+        this.messageRepo = messageRepo;
+        this.storedObjectService = storedObjectService;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofVirtual().name("attachment-upload-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+    }
+
+    /**
+     * Planifie l'envoi de la pièce jointe d'un message après la validation de la transaction courante.
+     *
+     * Le contenu du fichier est recopié immédiatement dans un fichier temporaire : celui de la requête
+     * multipart n'existe plus lorsque l'envoi démarre. Ce fichier est supprimé à la fin de l'envoi,
+     * en cas d'échec, de rejet ou d'annulation de la transaction.
+     *
+     * @param messageId ID du message enregistré à l'état PENDING_UPLOAD
+     * @param file fichier reçu (déjà validé)
+     * @throws IllegalArgumentException si le fichier ne peut pas être lu
+     */
+    public void submit(UUID messageId, MultipartFile file) {
+        PendingUpload upload;
+        Path spool = null;
+        try {
+            spool = Files.createTempFile("attachment-upload-", ".tmp");
+            file.transferTo(spool);
+            upload = new PendingUpload(messageId, spool, file.getContentType(), file.getOriginalFilename());
+        } catch (IOException e) {
+            deleteQuietly(spool);
+            throw new IllegalArgumentException("Erreur lors de la lecture du fichier: " + e.getMessage(), e);
+        }
+
+        inFlight.add(messageId);
+        Runnable enqueue = () -> {
+            try {
+                executor.execute(new UploadTask(upload));
+            } catch (RejectedExecutionException e) {
+                logger.warn("File d'envoi des pièces jointes saturée, message {} en échec", messageId);
+                deleteQuietly(upload.file);
+                inFlight.remove(messageId);
+                complete(messageId, null, "File d'envoi des pièces jointes saturée, veuillez réessayer.");
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    // Message non enregistré : rien ne sera envoyé
+                    if (status != STATUS_COMMITTED) {
+                        deleteQuietly(upload.file);
+                        inFlight.remove(messageId);
+                    }
+                }
+            });
+        } else {
+            enqueue.run();
+        }
+    }
+
+    /**
+     * Envoie le fichier sur le stockage, supprime le fichier temporaire puis met à jour le message.
+     */
+    void process(PendingUpload upload) {
+        try {
+            Attachment attachment;
+            try {
+                attachment = upload(upload);
+            } catch (Exception e) {
+                logger.error("Erreur lors de l'upload de la pièce jointe du message {}: {}", upload.messageId, e.getMessage(), e);
+                complete(upload.messageId, null, "Erreur lors de l'upload du fichier: " + e.getMessage());
+                return;
+            } finally {
+                deleteQuietly(upload.file);
+            }
+            complete(upload.messageId, attachment, null);
+        } finally {
+            inFlight.remove(upload.messageId);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ENVOIS INTERROMPUS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Au démarrage, passe en échec les messages dont l'envoi a été interrompu par un arrêt précédent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failStaleUploadsAtStartup() {
+        failStaleUploads();
+    }
+
+    /**
+     * Passe en échec (et notifie) les messages restés PENDING_UPLOAD au-delà du délai configuré,
+     * hors envois encore planifiés sur cette instance.
+     */
+    @Scheduled(fixedDelayString = "${messaging.upload.sweep-interval-ms:60000}")
+    public void failStaleUploads() {
+        try {
+            List<UUID> stale = messageRepo.findIdsByStatusCreatedBefore(MessageStatus.PENDING_UPLOAD,
+                LocalDateTime.now().minus(staleAfter), PageRequest.of(0, SWEEP_BATCH_SIZE));
+            for (UUID messageId : stale) {
+                if (!inFlight.contains(messageId)) {
+                    logger.warn("Envoi de la pièce jointe du message {} interrompu, message en échec", messageId);
+                    complete(messageId, null, "Envoi de la pièce jointe interrompu, veuillez réessayer.");
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Erreur lors de la reprise des envois de pièces jointes interrompus: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Finalise le message (SENT avec sa pièce jointe, ou FAILED avec l'erreur)
+     * et diffuse sa nouvelle version aux deux participants.
+     * Un message introuvable ou déjà finalisé n'est pas modifié.
+     */
+    private void complete(UUID messageId, Attachment attachment, String error) {
+        NotifiedMessage notified = transactionTemplate.execute(status -> {
+            Message message = messageRepo.findById(messageId).orElse(null);
+            if (message == null || message.getMessageStatus() != MessageStatus.PENDING_UPLOAD) {
+                return null;
+            }
+            if (attachment != null) {
+                attachment.setMessage(message);
+                message.getAttachments().add(attachment);
+                message.setMessageStatus(MessageStatus.SENT);
+            } else {
+                message.setMessageStatus(MessageStatus.FAILED);
+                message.setMessageError(error);
+            }
+            Message saved = messageRepo.save(message);
+            return new NotifiedMessage(
+                new MessageResponseDTO(saved),
+                saved.getSender().getEmail(),
+                saved.getReceiver().getEmail()
+            );
+        });
+
+        if (notified == null) {
+            logger.warn("Message {} introuvable ou déjà finalisé à la fin de l'upload", messageId);
+            if (attachment != null) {
+                storedObjectService.releaseAfterCommit(List.of(attachment.getFileUrl()));
+            }
+            return;
+        }
+        messagingTemplate.convertAndSendToUser(notified.receiverEmail, "/queue/messages", notified.response);
+        messagingTemplate.convertAndSendToUser(notified.senderEmail, "/queue/messages", notified.response);
+    }
+
+    /**
+     * Upload du fichier sur le stockage et création de l'entité Attachment correspondante.
+     * Un contenu déjà stocké (même fichier envoyé plusieurs fois) n'est pas renvoyé.
+     */
+    private Attachment upload(PendingUpload upload) {
+        String url = storedObjectService.store(upload.file, upload.contentType, getExtension(upload.originalFilename));
+
+        Attachment attachment = new Attachment();
+        attachment.setFileUrl(url);
+        attachment.setFileType(upload.contentType);
+        attachment.setFileName(upload.originalFilename);
+        return attachment;
+    }
+
+    private String getExtension(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return null;
+        }
+        return filename.substring(filename.lastIndexOf(".") + 1);
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Impossible de supprimer le fichier temporaire {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Arrêt de l'exécuteur à l'arrêt de l'application : les envois en cours sont terminés,
+     * ceux encore en file sont abandonnés et leurs messages passés en échec.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        List<Runnable> queued = new ArrayList<>();
+        executor.getQueue().drainTo(queued);
+        executor.shutdown();
+
+        for (Runnable task : queued) {
+            if (task instanceof UploadTask uploadTask) {
+                PendingUpload upload = uploadTask.upload;
+                deleteQuietly(upload.file);
+                inFlight.remove(upload.messageId);
+                try {
+                    complete(upload.messageId, null, "Envoi interrompu par l'arrêt du serveur, veuillez réessayer.");
+                } catch (Exception e) {
+                    // Le message sera passé en échec au prochain démarrage
+                    logger.warn("Impossible de finaliser le message {} à l'arrêt: {}", upload.messageId, e.getMessage());
+                }
+            }
+        }
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Envoi confié à l'exécuteur, reconnaissable dans sa file à l'arrêt.
+     */
+    private final class UploadTask implements Runnable {
+        private final PendingUpload upload;
+
+        private UploadTask(PendingUpload upload) {
+            this.upload = upload;
+        }
+
+        @Override
+        public void run() {
+            process(upload);
+        }
+    }
+
+    /**
+     * Fichier en attente d'envoi, recopié dans un fichier temporaire.
+     */
+    static class PendingUpload {
+        private final UUID messageId;
+        private final Path file;
+        private final String contentType;
+        private final String originalFilename;
+
+        PendingUpload(UUID messageId, Path file, String contentType, String originalFilename) {
+            this.messageId = messageId;
+            this.file = file;
+            this.contentType = contentType;
+            this.originalFilename = originalFilename;
+        }
+    }
+
+    /**
+     * Message finalisé à diffuser.
+     */
+    private static class NotifiedMessage {
+        private final MessageResponseDTO response;
+        private final String senderEmail;
+        private final String receiverEmail;
+
+        NotifiedMessage(MessageResponseDTO response, String senderEmail, String receiverEmail) {
+            this.response = response;
+            this.senderEmail = senderEmail;
+            this.receiverEmail = receiverEmail;
+        }
+    }
+}
@@ -1,42 +1,46 @@
 package com.atelierlocal.service;
 
-import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import com.atelierlocal.model.Avatar;
+import com.atelierlocal.storage.StoredImage;
 
 /**
  * Service pour la gestion des avatars des utilisateurs.
  * 
  * Fournit des méthodes pour :
- * - téléverser un avatar sur AWS S3,
+ * - téléverser un avatar sur le stockage de fichiers (S3 ou disque local),
+ *   sous forme de déclinaisons redimensionnées (voir ImageProcessingService),
+ * - appliquer ces déclinaisons à l'entité Avatar,
  * - récupérer l'extension d'un fichier avatar.
  */
 @Service
 public class AvatarService {
-    private final S3Client s3Client;
-    private final String bucketName = "atelierlocal-bucket2";
+    private final ImageProcessingService imageProcessingService;
+    private final StoredObjectService storedObjectService;
 
-    public AvatarService(S3Client s3Client) {
-        this.s3Client = s3Client;
+    public AvatarService(ImageProcessingService imageProcessingService, StoredObjectService storedObjectService) {
+        this.imageProcessingService = imageProcessingService;
+        this.storedObjectService = storedObjectService;
     }
 
     /**
-     * Upload un fichier avatar vers S3 pour un utilisateur donné.
+     * Upload un fichier avatar vers le stockage de fichiers pour un utilisateur donné.
      * 
      * @param file fichier avatar à uploader
-     * @param userId identifiant de l'utilisateur (pour structurer le chemin dans S3)
-     * @return URL publique de l'avatar
-     * @throws IllegalArgumentException si le fichier est vide, non autorisé ou trop volumineux
-     * @throws RuntimeException si une erreur survient lors de l'upload
+     * @param userId identifiant de l'utilisateur (conservé pour compatibilité, les fichiers sont adressés par contenu)
+     * @return URL publiques des déclinaisons de l'avatar
+     * @throws IllegalArgumentException si le fichier est vide, non autorisé, trop volumineux ou illisible
+     * @throws RuntimeException si une erreur survient lors de l'upload (ObjectStorageException côté stockage)
      */
-    public String uploadAvatar(MultipartFile file, UUID userId) {
+    public StoredImage uploadAvatar(MultipartFile file, UUID userId) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Aucun fichier fourni");
         }
@@ -53,33 +57,31 @@ public class AvatarService {
             throw new IllegalArgumentException("Fichier trop volumineux. Maximum autorisé : 5 Mo");
         }
 
-        try {
-            // Génération du chemin du fichier dans S3
-            String key = "avatars/" + userId + "/" + file.getOriginalFilename();
-
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(key)
-                .acl("public-read") // rendre le fichier accessible publiquement
-                .contentType(file.getContentType())
-                .build();
-
-            // Upload du fichier
-            s3Client.putObject(
-                    putObjectRequest,
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize())
-            );
+        // Génération et enregistrement des déclinaisons
+        return imageProcessingService.store(file);
+    }
 
-            // Retourne l'URL publique de l'avatar
-            return String.format("https://%s.s3.%s.amazonaws.com/%s",
-                    bucketName,
-                    s3Client.serviceClientConfiguration().region().id(),
-                    key
-            );
-        } catch (IOException err) {
-            err.printStackTrace();
-            throw new RuntimeException("Erreur lors de l'upload de l'avatar", err);
+    /**
+     * Applique les déclinaisons d'une image enregistrée à un avatar.
+     * Les fichiers de l'ancien avatar sont libérés après validation de la transaction courante :
+     * remplacer un avatar existant hors transaction est refusé, ses fichiers seraient libérés
+     * avant l'enregistrement du nouvel avatar.
+     *
+     * @param avatar avatar à mettre à jour
+     * @param image déclinaisons enregistrées
+     * @throws IllegalStateException si l'avatar a déjà des fichiers et qu'aucune transaction n'est active
+     */
+    public void applyTo(Avatar avatar, StoredImage image) {
+        List<String> previousUrls = getStoredUrls(avatar);
+        if (!previousUrls.isEmpty() && !TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Le remplacement d'un avatar doit s'effectuer dans une transaction.");
         }
+        storedObjectService.releaseAfterCommit(previousUrls);
+
+        avatar.setAvatarUrl(image.getFullUrl());
+        avatar.setCardUrl(image.getCardUrl());
+        avatar.setThumbnailUrl(image.getThumbnailUrl());
+        avatar.setExtension(image.getExtension());
     }
 
     /**
@@ -94,4 +96,19 @@ public class AvatarService {
         if (filename == null || !filename.contains(".")) { return ""; }
         return filename.substring(filename.lastIndexOf(".") + 1);
     }
+
+    /**
+     * URL de tous les fichiers stockés d'un avatar (image et déclinaisons), pour leur libération.
+     *
+     * @param avatar avatar (peut être nul)
+     * @return URL non nulles de l'avatar
+     */
+    public List<String> getStoredUrls(Avatar avatar) {
+        if (avatar == null) {
+            return List.of();
+        }
+        return Stream.of(avatar.getAvatarUrl(), avatar.getCardUrl(), avatar.getThumbnailUrl())
+            .filter(Objects::nonNull)
+            .toList();
+    }
 }
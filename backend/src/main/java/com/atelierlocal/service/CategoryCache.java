@@ -0,0 +1,242 @@
+package com.atelierlocal.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.atelierlocal.dto.ArtisanCategoryResponseDTO;
+import com.atelierlocal.dto.EventCategoryResponseDTO;
+import com.atelierlocal.model.ArtisanCategory;
+import com.atelierlocal.model.EventCategory;
+import com.atelierlocal.repository.ArtisanCategoryRepo;
+import com.atelierlocal.repository.EventCategoryRepo;
+
+/**
+ * Cache en mémoire des catégories d'artisans et d'événements (données de référence quasi statiques).
+ *
+ * Toutes les catégories sont chargées ensemble, en deux requêtes, au premier accès : listes,
+ * accès par identifiant, recherche d'une catégorie d'artisan par nom normalisé (sans requête
+ * LOWER(TRIM()) non indexable) et catégories d'artisans de chaque catégorie d'événement.
+ *
+ * Les méthodes de création, modification et suppression des services de catégories invalident
+ * le cache après validation de leur transaction ; il est aussi vidé à intervalle régulier pour
+ * intégrer les modifications faites par les autres instances. L'empreinte du contenu sert d'ETag
+ * aux endpoints de catégories.
+ */
+@Service
+public class CategoryCache {
+
+    private final ArtisanCategoryRepo artisanCategoryRepo;
+    private final EventCategoryRepo eventCategoryRepo;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Incrémenté à chaque invalidation : un chargement commencé avant une invalidation n'est pas conservé.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires.
+     */
+    public CategoryCache(ArtisanCategoryRepo artisanCategoryRepo, EventCategoryRepo eventCategoryRepo) {
+        this.artisanCategoryRepo = artisanCategoryRepo;
+        this.eventCategoryRepo = eventCategoryRepo;
+    }
+
+    // -------------------------------------------------------------------------
+    // CATÉGORIES D'ARTISANS
+    // -------------------------------------------------------------------------
+
+    public List<ArtisanCategoryResponseDTO> getArtisanCategories() {
+        return snapshot().artisanCategories();
+    }
+
+    public Optional<ArtisanCategoryResponseDTO> findArtisanCategory(UUID id) {
+        return Optional.ofNullable(snapshot().artisanCategoriesById().get(id));
+    }
+
+    /**
+     * Recherche une catégorie d'artisan par son nom, sans tenir compte de la casse ni des espaces superflus.
+     *
+     * @param name nom saisi
+     * @return identifiant de la catégorie, s'il en existe une de ce nom
+     */
+    public Optional<UUID> findArtisanCategoryIdByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot().artisanCategoryIdsByName().get(normalize(name)));
+    }
+
+    // -------------------------------------------------------------------------
+    // CATÉGORIES D'ÉVÉNEMENTS
+    // -------------------------------------------------------------------------
+
+    public List<EventCategoryResponseDTO> getEventCategories() {
+        return snapshot().eventCategories();
+    }
+
+    public Optional<EventCategoryResponseDTO> findEventCategory(UUID id) {
+        return Optional.ofNullable(snapshot().eventCategoriesById().get(id));
+    }
+
+    /**
+     * Catégories d'artisans associées à une catégorie d'événement.
+     *
+     * @param eventCategoryId identifiant de la catégorie d'événement
+     * @return catégories d'artisans associées, vide si la catégorie d'événement n'existe pas
+     */
+    public Optional<List<ArtisanCategoryResponseDTO>> findArtisanCategoriesByEvent(UUID eventCategoryId) {
+        return Optional.ofNullable(snapshot().artisanCategoriesByEvent().get(eventCategoryId));
+    }
+
+    // -------------------------------------------------------------------------
+    // VALIDATION ET INVALIDATION
+    // -------------------------------------------------------------------------
+
+    /**
+     * ETag du contenu courant des catégories (guillemets compris).
+     */
+    public String getEtag() {
+        return snapshot().etag();
+    }
+
+    /**
+     * Vide le cache après la validation de la transaction courante (ou immédiatement sans transaction),
+     * pour que le prochain chargement lise les modifications.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * Vide le cache à intervalle régulier, pour intégrer les modifications des autres instances.
+     */
+    @Scheduled(fixedDelayString = "${categories.cache.refresh-interval-ms:600000}")
+    public void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    // -------------------------------------------------------------------------
+    // CHARGEMENT
+    // -------------------------------------------------------------------------
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long loadedGeneration = generation.get();
+            Snapshot loaded = load();
+            if (generation.get() == loadedGeneration) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private Snapshot load() {
+        Map<UUID, ArtisanCategoryResponseDTO> artisanById = new LinkedHashMap<>();
+        Map<String, UUID> artisanIdByName = new LinkedHashMap<>();
+        for (ArtisanCategory category : artisanCategoryRepo.findAll()) {
+            artisanById.put(category.getId(),
+                new ArtisanCategoryResponseDTO(category.getId(), category.getName(), category.getDescription()));
+            if (category.getName() != null) {
+                artisanIdByName.putIfAbsent(normalize(category.getName()), category.getId());
+            }
+        }
+
+        Map<UUID, EventCategoryResponseDTO> eventById = new LinkedHashMap<>();
+        Map<UUID, List<ArtisanCategoryResponseDTO>> artisanByEvent = new LinkedHashMap<>();
+        for (EventCategory category : eventCategoryRepo.findAllWithArtisanCategories()) {
+            EventCategoryResponseDTO dto = new EventCategoryResponseDTO(category);
+            eventById.put(category.getId(), dto);
+            List<ArtisanCategoryResponseDTO> linked = new ArrayList<>();
+            for (UUID artisanCategoryId : dto.getArtisanCategoryIds()) {
+                ArtisanCategoryResponseDTO artisanCategory = artisanById.get(artisanCategoryId);
+                if (artisanCategory != null) {
+                    linked.add(artisanCategory);
+                }
+            }
+            artisanByEvent.put(category.getId(), List.copyOf(linked));
+        }
+
+        return new Snapshot(
+            List.copyOf(artisanById.values()),
+            Map.copyOf(artisanById),
+            Map.copyOf(artisanIdByName),
+            List.copyOf(eventById.values()),
+            Map.copyOf(eventById),
+            Map.copyOf(artisanByEvent),
+            etagOf(artisanById, eventById));
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String etagOf(Map<UUID, ArtisanCategoryResponseDTO> artisanCategories,
+                                 Map<UUID, EventCategoryResponseDTO> eventCategories) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ArtisanCategoryResponseDTO category : artisanCategories.values()) {
+                update(digest, category.getId(), category.getName(), category.getDescription());
+            }
+            for (EventCategoryResponseDTO category : eventCategories.values()) {
+                update(digest, category.getId(), category.getName(), category.getArtisanCategoryIds());
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, Object... values) {
+        for (Object value : values) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+
+    /**
+     * Contenu immuable du cache.
+     */
+    private record Snapshot(
+        List<ArtisanCategoryResponseDTO> artisanCategories,
+        Map<UUID, ArtisanCategoryResponseDTO> artisanCategoriesById,
+        Map<String, UUID> artisanCategoryIdsByName,
+        List<EventCategoryResponseDTO> eventCategories,
+        Map<UUID, EventCategoryResponseDTO> eventCategoriesById,
+        Map<UUID, List<ArtisanCategoryResponseDTO>> artisanCategoriesByEvent,
+        String etag) {
+    }
+}
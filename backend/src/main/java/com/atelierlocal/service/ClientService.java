@@ -13,9 +13,12 @@ import com.atelierlocal.model.Client;
 import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.AvatarRepo;
 import com.atelierlocal.repository.ClientRepo;
+import com.atelierlocal.security.AuthenticationCache;
 import com.atelierlocal.security.SecurityService;
+import com.atelierlocal.storage.StoredImage;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
 
 /**
  * Service pour la gestion des clients et administrateurs.
@@ -34,19 +37,28 @@ public class ClientService {
     private final AvatarService avatarService;
     private final AvatarRepo avatarRepo;
     private final SecurityService securityService;
+    private final AuthenticationCache authenticationCache;
+    private final UserDirectory userDirectory;
+    private final StoredObjectService storedObjectService;
 
     public ClientService(
                 PasswordService passwordService,
                 ClientRepo clientRepo,
                 AvatarService avatarService,
                 AvatarRepo avatarRepo,
-                SecurityService securityService
+                SecurityService securityService,
+                AuthenticationCache authenticationCache,
+                UserDirectory userDirectory,
+                StoredObjectService storedObjectService
                 ) {
         this.passwordService = passwordService;
         this.clientRepo = clientRepo;
         this.avatarService = avatarService;
         this.avatarRepo = avatarRepo;
         this.securityService = securityService;
+        this.authenticationCache = authenticationCache;
+        this.userDirectory = userDirectory;
+        this.storedObjectService = storedObjectService;
     }
 
     /**
@@ -97,10 +109,9 @@ public class ClientService {
                 // Gestion de l'avatar : upload si fourni, sinon placeholder par défaut
                 Avatar avatar = null;
                 if (dto.getAvatar() != null) {
-                    String avatarUrl = avatarService.uploadAvatar(dto.getAvatar(), client.getId());
+                    StoredImage avatarImage = avatarService.uploadAvatar(dto.getAvatar(), client.getId());
                     avatar = new Avatar();
-                    avatar.setAvatarUrl(avatarUrl);
-                    avatar.setExtension(avatarService.getFileExtension(dto.getAvatar()));
+                    avatarService.applyTo(avatar, avatarImage);
                     avatar.setUser(client);
                 } else {
                     avatar = new Avatar();
@@ -152,10 +163,9 @@ public class ClientService {
         // Gestion de l'avatar
         Avatar avatar = null;
         if (dto.getAvatar() != null) {
-            String avatarUrl = avatarService.uploadAvatar(dto.getAvatar(), null);
+            StoredImage avatarImage = avatarService.uploadAvatar(dto.getAvatar(), null);
             avatar = new Avatar();
-            avatar.setAvatarUrl(avatarUrl);
-            avatar.setExtension(avatarService.getFileExtension(dto.getAvatar()));
+            avatarService.applyTo(avatar, avatarImage);
             avatar.setUser(client);
         } else {
             avatar = new Avatar();
@@ -184,12 +194,20 @@ public class ClientService {
      * @param cientId ID du client à supprimer
      * @param currentClient utilisateur courant pour vérification admin
      */
+    @Transactional
     public void deleteClient(UUID cientId, Client currentClient ) {
         securityService.checkAdminOnly(currentClient);
         Client client = clientRepo.findById(cientId)
             .orElseThrow(() -> new EntityNotFoundException("Utilisateur non trouvé."));
 
+        // Fichiers de l'avatar, libérés après validation
+        List<String> storedUrls = avatarService.getStoredUrls(client.getAvatar());
+
         clientRepo.delete(client);
+        authenticationCache.invalidateUser(cientId);
+        userDirectory.invalidate(cientId);
+
+        storedObjectService.releaseAfterCommit(storedUrls);
     }
 
     /**
@@ -200,6 +218,7 @@ public class ClientService {
      * @param currentClient utilisateur courant pour vérification
      * @return DTO du client mis à jour
      */
+    @Transactional
     public ClientResponseDTO updateClient(UUID clientId, ClientRequestDTO request, Client currentClient) {
         securityService.checkClientOrAdmin(currentClient);
         Client client = clientRepo.findById(clientId)
@@ -225,18 +244,20 @@ public class ClientService {
 
         // Mise à jour de l'avatar
         if (request.getAvatar() != null) {
-            String avatarUrl = avatarService.uploadAvatar(request.getAvatar(), clientId);
+            StoredImage avatarImage = avatarService.uploadAvatar(request.getAvatar(), clientId);
             Avatar avatar = client.getAvatar();
             if (avatar == null) {
                 avatar = new Avatar();
                 avatar.setUser(client);
             }
-            avatar.setAvatarUrl(avatarUrl);
-            avatar.setExtension(avatarService.getFileExtension(request.getAvatar()));
+            avatarService.applyTo(avatar, avatarImage);
             avatarRepo.save(avatar);
         }
 
         Client updatedClient = clientRepo.save(client);
+        // Les tokens en cache portent l'ancien état du client (email, mot de passe, rôle...)
+        authenticationCache.invalidateUser(clientId);
+        userDirectory.invalidate(clientId);
         return new ClientResponseDTO(updatedClient);
     }
 
@@ -295,6 +316,8 @@ public class ClientService {
         client.setActive(!client.getActive());
 
         clientRepo.save(client);
+        authenticationCache.invalidateUser(clientId);
+        userDirectory.invalidate(clientId);
         return new ClientResponseDTO(client);
     }
 }
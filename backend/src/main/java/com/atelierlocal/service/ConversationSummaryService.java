@@ -0,0 +1,185 @@
+package com.atelierlocal.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.atelierlocal.dto.AvatarDTO;
+import com.atelierlocal.dto.ConversationSummaryDTO;
+import com.atelierlocal.model.ConversationSummary;
+import com.atelierlocal.model.Message;
+import com.atelierlocal.model.MessageStatus;
+import com.atelierlocal.model.User;
+import com.atelierlocal.repository.ConversationSummaryRepo;
+import com.atelierlocal.repository.MessageRepo;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Service de gestion des résumés matérialisés de conversation.
+ *
+ * Fournit des fonctionnalités pour :
+ * - mettre à jour les résumés des deux participants à chaque message envoyé,
+ * - décrémenter le compteur de non lus et avancer le filigrane de lecture,
+ * - lire la boîte de réception paginée d'un utilisateur,
+ * - reconstruire les résumés à partir des messages existants au démarrage.
+ */
+@Service
+public class ConversationSummaryService {
+
+    // Taille de page par défaut et maximale pour la boîte de réception
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ConversationSummaryRepo conversationSummaryRepo;
+    private final MessageRepo messageRepo;
+    private static final Logger logger = LoggerFactory.getLogger(ConversationSummaryService.class);
+
+    /**
+     * Constructeur du service.
+     *
+     * @param conversationSummaryRepo repository des résumés de conversation
+     * @param messageRepo repository des messages
+     */
+    public ConversationSummaryService(ConversationSummaryRepo conversationSummaryRepo, MessageRepo messageRepo) {
+        this.conversationSummaryRepo = conversationSummaryRepo;
+        this.messageRepo = messageRepo;
+    }
+
+    /**
+     * Met à jour les résumés de l'expéditeur et du destinataire après l'enregistrement d'un message.
+     * Le compteur de non lus n'est incrémenté que pour le destinataire.
+     *
+     * @param message message enregistré
+     */
+    @Transactional
+    public void recordMessage(Message message) {
+        String preview = buildPreview(message);
+        LocalDateTime lastMessageAt = message.getCreatedAt() != null ? message.getCreatedAt() : LocalDateTime.now();
+
+        // Création ou mise à jour en une seule requête : pas de conflit entre deux premiers messages simultanés
+        UUID senderId = message.getSender().getId();
+        UUID receiverId = message.getReceiver().getId();
+        conversationSummaryRepo.upsertActivity(senderId, receiverId, preview, lastMessageAt, 0);
+        conversationSummaryRepo.upsertActivity(receiverId, senderId, preview, lastMessageAt, 1);
+    }
+
+    /**
+     * Décrémente le compteur de non lus d'une conversation après lecture.
+     *
+     * @param ownerId ID du lecteur
+     * @param peerId ID de l'expéditeur des messages lus
+     * @param count nombre de messages passés à l'état lu
+     */
+    @Transactional
+    public void markRead(UUID ownerId, UUID peerId, long count) {
+        if (count > 0) {
+            conversationSummaryRepo.decrementUnread(ownerId, peerId, count);
+        }
+    }
+
+    /**
+     * Enregistre la lecture d'une conversation jusqu'à une date donnée :
+     * décrément du compteur de non lus et avancement du filigrane de lecture.
+     *
+     * @param ownerId ID du lecteur
+     * @param peerId ID de l'interlocuteur
+     * @param count nombre de messages passés à l'état lu
+     * @param readAt date jusqu'à laquelle la conversation a été lue
+     */
+    @Transactional
+    public void markConversationRead(UUID ownerId, UUID peerId, long count, LocalDateTime readAt) {
+        conversationSummaryRepo.markReadUpTo(ownerId, peerId, count, readAt);
+    }
+
+    /**
+     * Récupère une page de la boîte de réception d'un utilisateur.
+     *
+     * @param userId ID de l'utilisateur
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page (bornée à MAX_PAGE_SIZE)
+     * @return Liste de ConversationSummaryDTO triée par date du dernier message décroissante
+     */
+    @Transactional
+    public List<ConversationSummaryDTO> getInbox(UUID userId, int page, Integer size) {
+        if (userId == null) {
+            throw new IllegalArgumentException("L'ID de l'utilisateur ne peut pas être nul");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Le numéro de page doit être positif");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        return conversationSummaryRepo.findInbox(userId, PageRequest.of(page, pageSize)).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Supprime tous les résumés dans lesquels un utilisateur apparaît.
+     *
+     * @param userId ID de l'utilisateur supprimé
+     */
+    @Transactional
+    public void deleteForUser(UUID userId) {
+        conversationSummaryRepo.deleteByUserId(userId);
+    }
+
+    /**
+     * Reconstruit les résumés à partir des messages existants lorsque la table est vide
+     * (premier démarrage après l'introduction des résumés matérialisés).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        try {
+            if (conversationSummaryRepo.count() == 0 && messageRepo.count() > 0) {
+                int created = conversationSummaryRepo.rebuildFromMessages();
+                logger.info("Résumés de conversation reconstruits: {}", created);
+            }
+        } catch (Exception e) {
+            logger.error("Erreur lors de la reconstruction des résumés de conversation: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Construit l'aperçu d'un message, tronqué à la taille de la colonne.
+     */
+    private String buildPreview(Message message) {
+        String content = message.getContent();
+        if (content == null || content.isBlank()) {
+            boolean hasAttachment = !message.getAttachments().isEmpty()
+                    || message.getMessageStatus() == MessageStatus.PENDING_UPLOAD;
+            return hasAttachment ? "Pièce jointe" : "";
+        }
+        return content.length() > ConversationSummary.PREVIEW_MAX_LENGTH
+                ? content.substring(0, ConversationSummary.PREVIEW_MAX_LENGTH)
+                : content;
+    }
+
+    /**
+     * Conversion d'un résumé en DTO pour l'interface utilisateur.
+     */
+    private ConversationSummaryDTO toDTO(ConversationSummary summary) {
+        User peer = summary.getPeer();
+        ConversationSummaryDTO dto = new ConversationSummaryDTO(
+            peer.getId(),
+            UserDirectory.displayName(peer),
+            peer.getUserRole() != null ? peer.getUserRole().name() : null,
+            peer.getAvatar() != null ? new AvatarDTO(peer.getAvatar()).getThumbnailUrl() : null,
+            summary.getLastMessagePreview(),
+            summary.getLastMessageAt(),
+            summary.getUnreadCount()
+        );
+        dto.setLastReadAt(summary.getLastReadAt());
+        return dto;
+    }
+}
@@ -2,7 +2,6 @@ package com.atelierlocal.service;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
@@ -23,6 +22,8 @@ import jakarta.transaction.Transactional;
  * - créer, mettre à jour et supprimer des catégories d'événements,
  * - récupérer des catégories par ID ou toutes les catégories,
  * - récupérer les catégories d'artisans associées à un événement.
+ *
+ * Les lectures sont servies par {@link CategoryCache}, invalidé à chaque modification.
  */
 @Transactional
 @Service
@@ -30,10 +31,13 @@ public class EventCategoryService {
 
     private final EventCategoryRepo eventCategoryRepo;
     private final ArtisanCategoryRepo artisanCategoryRepo;
+    private final CategoryCache categoryCache;
 
-    public EventCategoryService(EventCategoryRepo eventCategoryRepo, ArtisanCategoryRepo artisanCategoryRepo) {
+    public EventCategoryService(EventCategoryRepo eventCategoryRepo, ArtisanCategoryRepo artisanCategoryRepo,
+                                CategoryCache categoryCache) {
         this.eventCategoryRepo = eventCategoryRepo;
         this.artisanCategoryRepo = artisanCategoryRepo;
+        this.categoryCache = categoryCache;
     }
 
     /**
@@ -49,6 +53,7 @@ public class EventCategoryService {
         category.setArtisanCategoryList(fetchArtisanCategories(request.getArtisanCategoryIds()));
 
         EventCategory saved = eventCategoryRepo.save(category);
+        categoryCache.invalidate();
         return toResponseDTO(saved);
     }
 
@@ -68,6 +73,7 @@ public class EventCategoryService {
         category.setArtisanCategoryList(fetchArtisanCategories(request.getArtisanCategoryIds()));
 
         EventCategory updated = eventCategoryRepo.save(category);
+        categoryCache.invalidate();
         return toResponseDTO(updated);
     }
 
@@ -82,6 +88,7 @@ public class EventCategoryService {
             throw new IllegalArgumentException("Catégorie non trouvée " + id);
         }
         eventCategoryRepo.deleteById(id);
+        categoryCache.invalidate();
     }
 
     /**
@@ -92,9 +99,8 @@ public class EventCategoryService {
      * @throws IllegalArgumentException si la catégorie n'existe pas
      */
     public EventCategoryResponseDTO getEventCategoryById(UUID id) {
-        EventCategory category = eventCategoryRepo.findById(id)
+        return categoryCache.findEventCategory(id)
             .orElseThrow(() -> new IllegalArgumentException("Catégorie non trouvée: " + id));
-        return toResponseDTO(category);
     }
 
     /**
@@ -103,9 +109,7 @@ public class EventCategoryService {
      * @return liste de DTO de toutes les catégories
      */
     public List<EventCategoryResponseDTO> getAllEventCategories() {
-        return eventCategoryRepo.findAll().stream()
-            .map(this::toResponseDTO)
-            .collect(Collectors.toList());
+        return categoryCache.getEventCategories();
     }
 
     /**
@@ -116,12 +120,8 @@ public class EventCategoryService {
      * @throws IllegalArgumentException si la catégorie d'événement n'existe pas
      */
     public List<ArtisanCategoryResponseDTO> getArtisanCategoriesByEvent(UUID eventCategoryId) {
-        EventCategory category = eventCategoryRepo.findById(eventCategoryId)
+        return categoryCache.findArtisanCategoriesByEvent(eventCategoryId)
             .orElseThrow(() -> new IllegalArgumentException("Catégorie non trouvée : " + eventCategoryId));
-
-        return category.getArtisanCategoryList().stream()
-            .map(ac -> new ArtisanCategoryResponseDTO(ac.getId(), ac.getName(), ac.getDescription()))
-            .collect(Collectors.toList());
     }
 
     // --- Méthodes utilitaires ---
@@ -148,4 +148,11 @@ public class EventCategoryService {
     private EventCategoryResponseDTO toResponseDTO(EventCategory category) {
             return new EventCategoryResponseDTO(category);
     }
+
+    /**
+     * ETag du contenu courant des catégories, pour les réponses conditionnelles.
+     */
+    public String getEtag() {
+        return categoryCache.getEtag();
+    }
 }
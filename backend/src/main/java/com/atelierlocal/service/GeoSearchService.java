@@ -0,0 +1,286 @@
+package com.atelierlocal.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.atelierlocal.dto.ArtisanResponseDTO;
+import com.atelierlocal.dto.NearbyArtisanDTO;
+import com.atelierlocal.dto.PageDTO;
+import com.atelierlocal.dto.UploadedPhotoResponseDTO;
+import com.atelierlocal.geo.GeoBoundingBox;
+import com.atelierlocal.geo.GeoHash;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.User;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanLocation;
+import com.atelierlocal.repository.ArtisanPhotoView;
+import com.atelierlocal.repository.ArtisanRepo;
+import com.atelierlocal.repository.ArtisanSpecifications;
+import com.atelierlocal.repository.UploadedPhotoRepo;
+import com.atelierlocal.repository.UserRepo;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Service de recherche géographique des artisans.
+ *
+ * Fournit des méthodes pour :
+ * - rechercher les artisans dans un rayon autour d'un point,
+ * - rechercher les artisans dans un rectangle (zone affichée sur une carte),
+ * - trouver les k artisans les plus proches d'un point.
+ *
+ * La zone recherchée est recouverte par quelques cellules geohash : chacune correspond à
+ * un intervalle de la colonne "geohash" indexée, la base ne lit donc que les artisans proches.
+ * Seules leurs positions sont lues : les distances exactes sont calculées ici, triées et paginées,
+ * puis les artisans de la page retenue sont chargés par projection (deux requêtes, quelle que soit la zone).
+ */
+@Service
+public class GeoSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoSearchService.class);
+
+    /**
+     * Rayon de départ de la recherche des plus proches voisins, doublé tant qu'il manque des résultats.
+     */
+    private static final double NEAREST_INITIAL_RADIUS_KM = 5;
+
+    private final ArtisanRepo artisanRepo;
+    private final UploadedPhotoRepo uploadedPhotoRepo;
+    private final UserRepo userRepo;
+    private final double maxRadiusKm;
+    private final int maxPageSize;
+    private final int maxCells;
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires.
+     *
+     * @param maxRadiusKm rayon maximal d'une recherche (demi-diagonale pour un rectangle)
+     * @param maxPageSize taille maximale d'une page de résultats (et nombre maximal de voisins)
+     * @param maxCells nombre maximal de cellules geohash, donc de parcours d'index, par recherche
+     */
+    public GeoSearchService(
+                ArtisanRepo artisanRepo,
+                UploadedPhotoRepo uploadedPhotoRepo,
+                UserRepo userRepo,
+                @Value("${geo.search.max-radius-km:200}") double maxRadiusKm,
+                @Value("${geo.search.max-page-size:50}") int maxPageSize,
+                @Value("${geo.search.max-cells:16}") int maxCells
+                ) {
+        this.artisanRepo = artisanRepo;
+        this.uploadedPhotoRepo = uploadedPhotoRepo;
+        this.userRepo = userRepo;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxPageSize = maxPageSize;
+        this.maxCells = maxCells;
+    }
+
+    // -------------------------------------------------------------------------
+    // RECHERCHES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Recherche les artisans situés à moins de "radiusKm" du point donné.
+     *
+     * @param latitude latitude du point de recherche
+     * @param longitude longitude du point de recherche
+     * @param radiusKm rayon de recherche en kilomètres
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page
+     * @return page d'artisans triés du plus proche au plus éloigné
+     * @throws IllegalArgumentException si les paramètres sont invalides
+     */
+    public PageDTO<NearbyArtisanDTO> searchWithinRadius(double latitude, double longitude, double radiusKm,
+                                                        UUID categoryId, int page, int size) {
+        checkPage(page, size);
+        checkRadius(radiusKm);
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, radiusKm);
+
+        List<Candidate> results = findCandidates(box, categoryId, latitude, longitude).stream()
+            .filter(candidate -> candidate.distanceKm() <= radiusKm)
+            .toList();
+        return toPage(results, page, size);
+    }
+
+    /**
+     * Recherche les artisans situés dans un rectangle, triés par distance à son centre.
+     *
+     * @param box zone de recherche
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page
+     * @return page d'artisans triés du plus proche au plus éloigné du centre
+     * @throws IllegalArgumentException si la zone est trop grande ou la pagination invalide
+     */
+    public PageDTO<NearbyArtisanDTO> searchWithinBox(GeoBoundingBox box, UUID categoryId, int page, int size) {
+        checkPage(page, size);
+        double halfDiagonalKm = GeoHash.distanceKm(box.getCenterLatitude(), box.getCenterLongitude(),
+            box.getMaxLatitude(), box.getMaxLongitude());
+        if (halfDiagonalKm > maxRadiusKm) {
+            throw new IllegalArgumentException("La zone de recherche est trop étendue.");
+        }
+
+        List<Candidate> results = findCandidates(box, categoryId, box.getCenterLatitude(), box.getCenterLongitude());
+        return toPage(results, page, size);
+    }
+
+    /**
+     * Recherche les k artisans les plus proches du point donné, dans la limite du rayon maximal.
+     *
+     * Le rayon de recherche part de quelques kilomètres et double tant que moins de k artisans
+     * s'y trouvent : tout artisan hors du cercle est plus éloigné que ceux qu'il contient.
+     * Chaque élargissement ne relit que des positions, seuls les k artisans retenus sont chargés.
+     *
+     * @param latitude latitude du point de recherche
+     * @param longitude longitude du point de recherche
+     * @param k nombre d'artisans souhaités
+     * @param categoryId catégorie d'artisan (optionnelle)
+     * @return au plus k artisans, du plus proche au plus éloigné
+     * @throws IllegalArgumentException si k est invalide
+     */
+    public List<NearbyArtisanDTO> findNearest(double latitude, double longitude, int k, UUID categoryId) {
+        if (k < 1 || k > maxPageSize) {
+            throw new IllegalArgumentException("Le nombre d'artisans demandé doit être compris entre 1 et " + maxPageSize + ".");
+        }
+        GeoHash.checkCoordinates(latitude, longitude);
+
+        double radiusKm = Math.min(NEAREST_INITIAL_RADIUS_KM, maxRadiusKm);
+        while (true) {
+            double radius = radiusKm;
+            List<Candidate> inRadius = findCandidates(GeoBoundingBox.around(latitude, longitude, radius),
+                    categoryId, latitude, longitude).stream()
+                .filter(candidate -> candidate.distanceKm() <= radius)
+                .toList();
+            if (inRadius.size() >= k || radiusKm >= maxRadiusKm) {
+                return toNearby(inRadius.subList(0, Math.min(k, inRadius.size())));
+            }
+            radiusKm = Math.min(radiusKm * 2, maxRadiusKm);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // INITIALISATION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Calcule le geohash des utilisateurs localisés qui n'en ont pas encore
+     * (comptes créés avant l'introduction de la recherche géographique).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillGeohashes() {
+        try {
+            List<User> users = userRepo.findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
+            if (users.isEmpty()) {
+                return;
+            }
+            users.forEach(User::refreshGeohash);
+            userRepo.saveAll(users);
+            logger.info("Geohash calculé pour {} utilisateurs", users.size());
+        } catch (Exception e) {
+            logger.error("Erreur lors du calcul des geohash: {}", e.getMessage(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Lit la position des artisans actifs de la zone et les trie par distance au point de référence.
+     */
+    private List<Candidate> findCandidates(GeoBoundingBox box, UUID categoryId,
+                                           double latitude, double longitude) {
+        List<ArtisanLocation> locations = artisanRepo.findLocations(withinBox(box, categoryId));
+
+        List<Candidate> results = new ArrayList<>();
+        for (ArtisanLocation location : locations) {
+            // Les cellules débordent de la zone : seuls les artisans réellement dedans sont gardés
+            if (location.latitude() == null || location.longitude() == null
+                    || !box.contains(location.latitude(), location.longitude())) {
+                continue;
+            }
+            double distance = GeoHash.distanceKm(latitude, longitude, location.latitude(), location.longitude());
+            results.add(new Candidate(location.id(), Math.round(distance * 100) / 100.0));
+        }
+        results.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        return results;
+    }
+
+    /**
+     * Charge les artisans retenus (projection et premières photos), dans l'ordre des distances.
+     */
+    private List<NearbyArtisanDTO> toNearby(List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = candidates.stream().map(Candidate::id).toList();
+        Map<UUID, ArtisanListingView> views = artisanRepo.findListingByIds(ids).stream()
+            .collect(Collectors.toMap(ArtisanListingView::getId, Function.identity()));
+        Map<UUID, List<UploadedPhotoResponseDTO>> photos = uploadedPhotoRepo
+            .findFirstPhotosByArtisans(ids, ArtisanService.LISTING_PHOTO_LIMIT).stream()
+            .collect(Collectors.groupingBy(ArtisanPhotoView::getArtisanId,
+                     Collectors.mapping(UploadedPhotoResponseDTO::new, Collectors.toList())));
+
+        // La projection ne conserve pas l'ordre : il est rétabli d'après la liste des candidats
+        List<NearbyArtisanDTO> results = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            ArtisanListingView view = views.get(candidate.id());
+            if (view != null) {
+                ArtisanResponseDTO artisan = new ArtisanResponseDTO(view, photos.getOrDefault(candidate.id(), List.of()));
+                results.add(new NearbyArtisanDTO(artisan, candidate.distanceKm()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Critère de recherche : un intervalle de geohash par cellule couvrant la zone,
+     * artisans actifs uniquement, catégorie optionnelle.
+     */
+    private Specification<Artisan> withinBox(GeoBoundingBox box, UUID categoryId) {
+        Specification<Artisan> spec = ArtisanSpecifications.inGeohashCells(GeoHash.coveringCells(box, maxCells))
+            .and(ArtisanSpecifications.isActive(true));
+        return categoryId != null ? spec.and(ArtisanSpecifications.hasCategory(categoryId)) : spec;
+    }
+
+    private PageDTO<NearbyArtisanDTO> toPage(List<Candidate> results, int page, int size) {
+        int from = (int) Math.min((long) page * size, results.size());
+        int to = Math.min(from + size, results.size());
+        return new PageDTO<>(toNearby(results.subList(from, to)), page, size, results.size());
+    }
+
+    private void checkPage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Le numéro de page ne peut être négatif.");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + maxPageSize + ".");
+        }
+    }
+
+    private void checkRadius(double radiusKm) {
+        if (!(radiusKm > 0) || radiusKm > maxRadiusKm) {
+            throw new IllegalArgumentException("Le rayon de recherche doit être compris entre 0 et " + maxRadiusKm + " km.");
+        }
+    }
+
+    /**
+     * Artisan de la zone et sa distance au point de référence, en kilomètres.
+     */
+    private record Candidate(UUID id, double distanceKm) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.atelierlocal.service;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.atelierlocal.cache.ExpiringCache;
+import com.atelierlocal.geo.GeoAddress;
+import com.atelierlocal.geo.GeoCoordinates;
+import com.atelierlocal.geo.GeoHash;
+import com.atelierlocal.geo.GeocodingException;
+import com.atelierlocal.geo.GeocodingProvider;
+
+/**
+ * Service de géocodage avec mise en cache.
+ *
+ * Les mêmes villes et adresses sont géocodées de nombreuses fois (inscription, création
+ * de demandes) : les résultats sont conservés en mémoire pour une durée limitée.
+ * - les adresses sont normalisées (casse, accents composés, espaces) avant d'être utilisées comme clé,
+ * - les coordonnées sont arrondies à 4 décimales (environ 10 m), précision suffisante pour une adresse,
+ * - les recherches identiques simultanées ne provoquent qu'un seul appel au fournisseur,
+ * - les adresses introuvables sont aussi mises en cache, mais pas les erreurs du fournisseur.
+ */
+@Service
+public class GeocodingService {
+
+    private final GeocodingProvider geocodingProvider;
+    private final ExpiringCache<String, Optional<GeoCoordinates>> geocodeCache;
+    private final ExpiringCache<String, Optional<GeoAddress>> reverseCache;
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires.
+     *
+     * @param geocodingProvider fournisseur de géocodage
+     * @param maxSize nombre maximal d'entrées de chacun des deux caches
+     * @param ttlMinutes durée de conservation d'un résultat, en minutes
+     */
+    public GeocodingService(
+                GeocodingProvider geocodingProvider,
+                @Value("${geocoding.cache.max-size:10000}") int maxSize,
+                @Value("${geocoding.cache.ttl-minutes:1440}") long ttlMinutes
+                ) {
+        this.geocodingProvider = geocodingProvider;
+        this.geocodeCache = new ExpiringCache<>(maxSize, Duration.ofMinutes(ttlMinutes));
+        this.reverseCache = new ExpiringCache<>(maxSize, Duration.ofMinutes(ttlMinutes));
+    }
+
+    /**
+     * Transforme une adresse en coordonnées GPS.
+     *
+     * @param address adresse à géocoder
+     * @return coordonnées du meilleur résultat, ou vide si l'adresse est inconnue
+     * @throws IllegalArgumentException si l'adresse est vide
+     * @throws GeocodingException si le fournisseur est injoignable ou répond en erreur
+     */
+    public Optional<GeoCoordinates> geocode(String address) {
+        if (address == null || address.isBlank()) {
+            throw new IllegalArgumentException("Adresse manquante");
+        }
+        String key = normalizeAddress(address);
+        return geocodeCache.get(key, geocodingProvider::geocode);
+    }
+
+    /**
+     * Transforme des coordonnées GPS en adresse lisible.
+     *
+     * @param latitude latitude GPS
+     * @param longitude longitude GPS
+     * @return adresse trouvée, ou vide si aucune ne correspond
+     * @throws IllegalArgumentException si les coordonnées sont hors bornes
+     * @throws GeocodingException si le fournisseur est injoignable ou répond en erreur
+     */
+    public Optional<GeoAddress> reverseGeocode(double latitude, double longitude) {
+        GeoHash.checkCoordinates(latitude, longitude);
+        double roundedLatitude = round(latitude);
+        double roundedLongitude = round(longitude);
+        String key = roundedLatitude + "," + roundedLongitude;
+        return reverseCache.get(key, k -> geocodingProvider.reverse(roundedLatitude, roundedLongitude));
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Normalise une adresse pour qu'une même adresse saisie différemment partage la même clé.
+     */
+    static String normalizeAddress(String address) {
+        return Normalizer.normalize(address, Normalizer.Form.NFC)
+            .trim()
+            .replaceAll("\\s+", " ")
+            .toLowerCase(Locale.ROOT);
+    }
+
+    private static double round(double coordinate) {
+        return Math.round(coordinate * 10_000) / 10_000.0;
+    }
+}
@@ -0,0 +1,410 @@
+package com.atelierlocal.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.atelierlocal.model.ImageRendition;
+import com.atelierlocal.storage.StoredImage;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service de traitement des images uploadées (avatars, photos de portfolio).
+ *
+ * Chaque image est décodée puis réencodée en plusieurs déclinaisons (voir ImageRendition),
+ * ce qui supprime au passage toutes les métadonnées (EXIF, GPS, profils). L'orientation EXIF
+ * des photos JPEG est appliquée aux pixels avant le redimensionnement, pour que les photos
+ * prises en portrait ne soient pas affichées pivotées une fois la métadonnée supprimée.
+ * Le format de sortie est JPEG, ou PNG si l'image comporte de la transparence.
+ * Les déclinaisons sont enregistrées via StoredObjectService (stockage adressé par contenu).
+ *
+ * Le décodage est confié à un exécuteur borné (nombre de threads et file d'attente limités)
+ * pour que des uploads simultanés ne saturent pas la mémoire ; les images trop grandes sont
+ * refusées avant décodage et les très grandes images sont sous-échantillonnées à la lecture.
+ */
+@Service
+public class ImageProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageProcessingService.class);
+
+    private static final int APP1_MARKER = 0xE1;
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private final StoredObjectService storedObjectService;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final long timeoutSeconds;
+
+    /**
+     * Constructeur du service.
+     *
+     * @param storedObjectService stockage des déclinaisons
+     * @param poolSize nombre d'images traitées simultanément
+     * @param queueCapacity nombre d'images en attente avant rejet
+     * @param maxPixels nombre de pixels maximal d'une image reçue
+     * @param jpegQuality qualité de l'encodage JPEG (0 à 1)
+     * @param timeoutSeconds durée maximale d'attente du traitement d'une image
+     */
+    public ImageProcessingService(StoredObjectService storedObjectService,
+                                  @Value("${images.processing.pool-size:2}") int poolSize,
+                                  @Value("${images.processing.queue-capacity:20}") int queueCapacity,
+                                  @Value("${images.processing.max-pixels:40000000}") long maxPixels,
+                                  @Value("${images.processing.jpeg-quality:0.85}") float jpegQuality,
+                                  @Value("${images.processing.timeout-seconds:30}") long timeoutSeconds) {
+        this.storedObjectService = storedObjectService;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        this.timeoutSeconds = timeoutSeconds;
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("image-processing-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Génère les déclinaisons d'une image et les enregistre.
+     * Chaque déclinaison ajoute une référence au fichier stocké (voir StoredObjectService.release).
+     *
+     * @param file image reçue (PNG ou JPEG, déjà validée par l'appelant)
+     * @return URL des déclinaisons et format de sortie
+     * @throws IllegalArgumentException si l'image est illisible ou trop grande
+     * @throws IllegalStateException si le traitement des images est saturé ou trop long
+     */
+    public StoredImage store(MultipartFile file) {
+        ProcessedImage processed = process(file);
+
+        Map<ImageRendition, String> urls = new EnumMap<>(ImageRendition.class);
+        for (Map.Entry<ImageRendition, byte[]> rendition : processed.renditions.entrySet()) {
+            byte[] content = rendition.getValue();
+            urls.put(rendition.getKey(), storedObjectService.store(
+                new ByteArrayInputStream(content), content.length, processed.contentType, processed.extension
+            ));
+        }
+
+        return new StoredImage(
+            urls.get(ImageRendition.FULL),
+            urls.get(ImageRendition.CARD),
+            urls.get(ImageRendition.THUMBNAIL),
+            processed.extension,
+            processed.contentType
+        );
+    }
+
+    /**
+     * Traitement de l'image sur l'exécuteur borné, le thread appelant attend le résultat.
+     */
+    ProcessedImage process(MultipartFile file) {
+        Future<ProcessedImage> future;
+        try {
+            future = executor.submit(() -> {
+                try (InputStream in = file.getInputStream()) {
+                    return render(in);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Trop d'images en cours de traitement, veuillez réessayer.");
+        }
+
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException illegalArgument) {
+                throw illegalArgument;
+            }
+            throw new IllegalArgumentException("Image illisible: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Traitement de l'image trop long.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Traitement de l'image interrompu.");
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // DÉCODAGE ET DÉCLINAISONS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Décode l'image (sans ses métadonnées) et produit chaque déclinaison, de la plus grande à la plus petite.
+     */
+    private ProcessedImage render(InputStream in) throws IOException {
+        BufferedImage source = decode(in);
+        boolean transparent = source.getColorModel().hasAlpha();
+        String extension = transparent ? "png" : "jpg";
+        String contentType = transparent ? "image/png" : "image/jpeg";
+        int imageType = transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        Map<ImageRendition, byte[]> renditions = new EnumMap<>(ImageRendition.class);
+        BufferedImage current = source;
+        for (ImageRendition rendition : new ImageRendition[] { ImageRendition.FULL, ImageRendition.CARD, ImageRendition.THUMBNAIL }) {
+            current = resize(current, rendition.getMaxSize(), imageType);
+            renditions.put(rendition, transparent ? encodePng(current) : encodeJpeg(current));
+        }
+        return new ProcessedImage(renditions, extension, contentType);
+    }
+
+    /**
+     * Lecture de l'image : les dimensions sont vérifiées avant décodage, et les images
+     * bien plus grandes que la déclinaison FULL sont sous-échantillonnées pendant la lecture.
+     * L'image retournée est redressée selon son orientation EXIF.
+     */
+    private BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Format d'image non reconnu.");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                int orientation = "jpeg".equalsIgnoreCase(reader.getFormatName()) ? readOrientation(input) : 1;
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image trop grande (" + width + "x" + height + ").");
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / ImageRendition.FULL.getMaxSize());
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                return orient(image, orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ORIENTATION EXIF
+    // -------------------------------------------------------------------------
+
+    /**
+     * Orientation EXIF (1 à 8) lue dans le segment APP1 d'un JPEG, 1 si absente ou illisible.
+     * Seuls les segments précédant les données de l'image sont parcourus, puis le flux est replacé au début.
+     */
+    private int readOrientation(ImageInputStream input) {
+        input.mark();
+        try {
+            if (input.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = input.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = input.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == 0xFF00 + APP1_MARKER) {
+                    byte[] data = new byte[length];
+                    input.readFully(data);
+                    int orientation = parseOrientation(data);
+                    if (orientation != 0) {
+                        return orientation;
+                    }
+                } else {
+                    input.skipBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Orientation EXIF illisible, image conservée telle quelle: {}", e.getMessage());
+            return 1;
+        } finally {
+            try {
+                input.reset();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Recherche le tag Orientation dans l'IFD0 d'un segment APP1 Exif ("Exif", deux octets nuls, puis un en-tête TIFF).
+     *
+     * @return orientation (1 à 8), ou 0 si le segment n'en contient pas
+     */
+    static int parseOrientation(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f'
+                || app1[4] != 0 || app1[5] != 0) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return 0;
+        }
+
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return 0;
+            }
+            if ((tiff.getShort(entry) & 0xFFFF) == ORIENTATION_TAG) {
+                int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                return orientation >= 1 && orientation <= 8 ? orientation : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Applique l'orientation EXIF aux pixels (rotations par quart de tour et symétries).
+     */
+    private BufferedImage orient(BufferedImage image, int orientation) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+
+        boolean swapped = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swapped ? height : width, swapped ? width : height,
+            image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * Redimensionne l'image pour que son plus grand côté ne dépasse pas maxSize (sans agrandissement).
+     * Les fortes réductions se font par divisions successives par deux pour limiter le crénelage.
+     */
+    private BufferedImage resize(BufferedImage image, int maxSize, int imageType) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, imageType);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (imageType == BufferedImage.TYPE_INT_RGB) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Arrêt de l'exécuteur à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Déclinaisons encodées d'une image.
+     */
+    static class ProcessedImage {
+        private final Map<ImageRendition, byte[]> renditions;
+        private final String extension;
+        private final String contentType;
+
+        ProcessedImage(Map<ImageRendition, byte[]> renditions, String extension, String contentType) {
+            this.renditions = renditions;
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.atelierlocal.service;
 
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import com.atelierlocal.model.User;
 import com.atelierlocal.repository.UserRepo;
+import com.atelierlocal.security.PasswordHashingBusyException;
 
 /**
  * Service pour gérer l'authentification des utilisateurs.
@@ -12,10 +17,15 @@ import com.atelierlocal.repository.UserRepo;
  * - que l'email existe dans la base,
  * - que l'utilisateur est actif,
  * - que le mot de passe fourni correspond au mot de passe haché.
+ * 
+ * Après une connexion réussie, un hash calculé avec des paramètres Argon2 plus faibles
+ * que les paramètres actuels est recalculé avec le mot de passe fourni.
  */
 @Service
 public class LoginService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LoginService.class);
+
     private final PasswordService passwordService;
     private final UserRepo userRepo;
 
@@ -39,13 +49,37 @@ public class LoginService {
      */
     public boolean login(String email, String rawPassword) {
         try {
-            return userRepo.findByEmail(email)        // Recherche l'utilisateur par email
-                .filter(User::getActive)             // Vérifie que l'utilisateur est actif
-                .map(user -> passwordService.verifyPassword(user.getHashedPassword(), rawPassword)) // Vérifie le mot de passe
-                .orElse(false);                       // Retourne false si utilisateur non trouvé ou inactif
+            Optional<User> user = userRepo.findByEmail(email)  // Recherche l'utilisateur par email
+                .filter(User::getActive);                        // Vérifie que l'utilisateur est actif
+            if (user.isEmpty() || !passwordService.verifyPassword(user.get().getHashedPassword(), rawPassword)) {
+                return false;                                    // Utilisateur non trouvé, inactif ou mot de passe incorrect
+            }
+            rehashIfNeeded(user.get(), rawPassword);
+            return true;
+        } catch (PasswordHashingBusyException e) {
+            throw e;                                             // Surcharge : le client doit réessayer (503)
         } catch (Exception e) {
             System.err.println("Erreur de la tentative de login: " + e.getMessage());
-            return false;                              // En cas d'erreur inattendue, retourne false
+            return false;                                        // En cas d'erreur inattendue, retourne false
+        }
+    }
+
+    /**
+     * Recalcule le hash du mot de passe s'il utilise des paramètres Argon2 dépassés.
+     * Le remplacement n'a lieu que si le hash n'a pas été modifié entre-temps ; un échec n'empêche pas la connexion.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        String oldHash = user.getHashedPassword();
+        if (!passwordService.needsRehash(oldHash)) {
+            return;
+        }
+        try {
+            String newHash = passwordService.hashPassword(rawPassword);
+            if (userRepo.replaceHashedPassword(user.getId(), oldHash, newHash) > 0) {
+                logger.info("Hash du mot de passe recalculé pour l'utilisateur {}", user.getId());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Recalcul du hash reporté pour l'utilisateur {}: {}", user.getId(), e.getMessage());
         }
     }
 }
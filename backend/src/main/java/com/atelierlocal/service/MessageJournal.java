@@ -0,0 +1,229 @@
+package com.atelierlocal.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Journal local des messages acceptés mais pas encore enregistrés en base (mode write-behind).
+ *
+ * Chaque message est ajouté en fin de segment (une ligne JSON) avant d'être acquitté ; un segment
+ * est supprimé dès que tous ses messages sont enregistrés. Au redémarrage, les segments restants
+ * contiennent les messages à rejouer. Une ligne incomplète (arrêt brutal pendant l'écriture)
+ * est ignorée : le message correspondant n'avait pas été acquitté.
+ *
+ * Le dossier est réservé à une seule instance par un verrou sur le fichier "journal.lock" :
+ * deux instances partageant un dossier rejoueraient et supprimeraient les segments l'une de l'autre.
+ */
+class MessageJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageJournal.class);
+
+    private static final String SEGMENT_PREFIX = "messages-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = "journal.lock";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private final long maxSegmentBytes;
+    private final List<Path> recovered;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private Segment current;
+    private long sequence;
+
+    /**
+     * @param directory dossier des segments (créé si nécessaire)
+     * @param objectMapper sérialisation des messages
+     * @param fsync force l'écriture sur disque à chaque ajout
+     * @param maxSegmentBytes taille à partir de laquelle un nouveau segment est ouvert
+     * @throws IOException si le dossier ne peut pas être créé ou lu, ou s'il est utilisé par une autre instance
+     */
+    MessageJournal(Path directory, ObjectMapper objectMapper, boolean fsync, long maxSegmentBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.lockChannel = FileChannel.open(this.directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Journal déjà utilisé par une autre instance: " + this.directory);
+        }
+        try (Stream<Path> files = Files.list(this.directory)) {
+            this.recovered = files
+                .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                .sorted()
+                .toList();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ÉCRITURE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Ajoute un message au segment courant.
+     *
+     * @return segment contenant le message, à passer à committed une fois le message enregistré
+     * @throws IOException si l'écriture échoue (le message ne doit alors pas être acquitté)
+     */
+    synchronized Segment append(PendingMessage message) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(message) + "\n").getBytes(StandardCharsets.UTF_8);
+        if (current == null || current.size >= maxSegmentBytes) {
+            rotate();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            current.channel.write(buffer);
+        }
+        if (fsync) {
+            current.channel.force(false);
+        }
+        current.size += line.length;
+        current.pending++;
+        return current;
+    }
+
+    /**
+     * Signale l'enregistrement en base de messages d'un segment.
+     * Un segment sans message en attente est supprimé (ou vidé s'il s'agit du segment courant).
+     */
+    synchronized void committed(Segment segment, int count) {
+        segment.pending -= count;
+        if (segment.pending > 0) {
+            return;
+        }
+        try {
+            if (segment == current) {
+                segment.channel.truncate(0);
+                segment.size = 0;
+            } else {
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+            }
+        } catch (IOException e) {
+            logger.warn("Impossible de libérer le segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    /**
+     * Ferme le segment courant (les messages en attente y restent pour le prochain démarrage)
+     * et libère le dossier.
+     */
+    synchronized void close() {
+        if (current != null) {
+            try {
+                current.channel.close();
+                if (current.pending == 0) {
+                    Files.deleteIfExists(current.path);
+                }
+            } catch (IOException e) {
+                logger.warn("Erreur lors de la fermeture du journal: {}", e.getMessage());
+            }
+            current = null;
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            logger.warn("Erreur lors de la libération du verrou du journal: {}", e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // REPRISE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Messages des segments présents à l'ouverture du journal (arrêt avant leur enregistrement).
+     */
+    List<PendingMessage> readRecovered() throws IOException {
+        List<PendingMessage> messages = new ArrayList<>();
+        for (Path path : recovered) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        messages.add(objectMapper.readValue(line, PendingMessage.class));
+                    } catch (JsonProcessingException e) {
+                        logger.warn("Ligne illisible ignorée dans {}: {}", path.getFileName(), e.getOriginalMessage());
+                    }
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Supprime les segments rejoués, une fois leurs messages enregistrés.
+     */
+    void deleteRecovered() throws IOException {
+        for (Path path : recovered) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Verrou déjà détenu dans cette JVM
+            return null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (current != null) {
+            if (current.pending == 0) {
+                current.channel.close();
+                Files.deleteIfExists(current.path);
+            }
+            // Sinon le segment est fermé et supprimé par committed
+        }
+        String name = SEGMENT_PREFIX + String.format("%020d-%06d", System.currentTimeMillis(), sequence++) + SEGMENT_SUFFIX;
+        Path path = directory.resolve(name);
+        current = new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Segment du journal : fichier, taille écrite et nombre de messages pas encore enregistrés.
+     */
+    static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+        private int pending;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
@@ -1,27 +1,37 @@
 package com.atelierlocal.service;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.atelierlocal.cache.ExpiringCache;
 import com.atelierlocal.dto.ConversationSummaryDTO;
+import com.atelierlocal.dto.CursorPageDTO;
+import com.atelierlocal.dto.KeysetCursor;
 import com.atelierlocal.dto.MessageRequestDTO;
 import com.atelierlocal.dto.MessageResponseDTO;
 import com.atelierlocal.model.Artisan;
-import com.atelierlocal.model.Attachment;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.Message;
-import com.atelierlocal.model.S3Properties;
 import com.atelierlocal.model.User;
 import com.atelierlocal.repository.ArtisanRepo;
 import com.atelierlocal.repository.ClientRepo;
@@ -29,9 +39,6 @@ import com.atelierlocal.repository.MessageRepo;
 
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 /**
  * Service de gestion des messages entre utilisateurs (Artisans et Clients).
@@ -40,8 +47,15 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
  * - envoyer un message avec ou sans pièce jointe,
  * - récupérer la conversation entre deux utilisateurs,
  * - récupérer les résumés des conversations,
- * - gérer les pièces jointes avec AWS S3,
+ * - valider les pièces jointes et déléguer leur envoi asynchrone à AttachmentUploadService,
  * - notifier les utilisateurs des messages non lus.
+ *
+ * L'envoi est idempotent par (expéditeur, tempId) : un renvoi du même message (reconnexion STOMP,
+ * nouvelle tentative HTTP) renvoie la réponse d'origine, marquée comme renvoi, sans rien enregistrer
+ * ni téléverser. Les envois récents sont gardés en mémoire pendant une courte fenêtre, qui regroupe
+ * aussi les renvois simultanés ; au-delà, le message d'origine est retrouvé en base. Un envoi n'est
+ * mémorisé qu'une fois sa transaction validée, et un renvoi concurrent traité par une autre instance
+ * est détecté par la contrainte d'unicité (expéditeur, tempId).
  */
 @Service
 public class MessageService {
@@ -50,13 +64,19 @@ public class MessageService {
     private static final List<String> ALLOWED_FILE_TYPES = List.of("image/png", "image/jpeg", "application/pdf");
     // Taille maximale d'un fichier (5 Mo)
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+    // Taille de page par défaut et maximale pour l'historique paginé
+    private static final int DEFAULT_PAGE_SIZE = 30;
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final MessageRepo messageRepository;
     private final ArtisanRepo artisanRepo;
     private final ClientRepo clientRepo;
-    private final S3Client s3Client;
-    private final S3Properties s3Properties;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final UserDirectory userDirectory;
+    private final AttachmentUploadService attachmentUploadService;
+    private final ConversationSummaryService conversationSummaryService;
+    private final UnreadCounterService unreadCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpiringCache<String, MessageResponseDTO> recentSends;
     private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
 
     /**
@@ -65,33 +85,106 @@ public class MessageService {
      * @param messageRepository repository des messages
      * @param artisanRepo repository des artisans
      * @param clientRepo repository des clients
-     * @param s3Client client AWS S3 pour l'upload des pièces jointes
-     * @param s3Properties propriétés S3 (bucket, région)
-     * @param messagingTemplate pour la notification en temps réel via WebSocket
+     * @param userDirectory annuaire des utilisateurs, indiquant le type (artisan ou client) de chaque ID
+     * @param attachmentUploadService service d'envoi asynchrone des pièces jointes
+     * @param conversationSummaryService service des résumés de conversation
+     * @param unreadCounterService service des compteurs de messages non lus
+     * @param transactionManager gestionnaire de transactions (une transaction par envoi)
+     * @param dedupWindowSeconds durée pendant laquelle un envoi reste en mémoire pour la détection des renvois
+     * @param dedupMaxEntries nombre maximal d'envois gardés en mémoire
      */
     public MessageService(MessageRepo messageRepository, ArtisanRepo artisanRepo, ClientRepo clientRepo,
-                         S3Client s3Client, S3Properties s3Properties,
-                         SimpMessagingTemplate messagingTemplate) {
+                         UserDirectory userDirectory,
+                         AttachmentUploadService attachmentUploadService,
+                         ConversationSummaryService conversationSummaryService,
+                         UnreadCounterService unreadCounterService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${messaging.dedup.window-seconds:300}") long dedupWindowSeconds,
+                         @Value("${messaging.dedup.max-entries:10000}") int dedupMaxEntries) {
         this.messageRepository = messageRepository;
         this.artisanRepo = artisanRepo;
         this.clientRepo = clientRepo;
-        this.s3Client = s3Client;
-        this.s3Properties = s3Properties;
-        this.messagingTemplate = messagingTemplate;
+        this.userDirectory = userDirectory;
+        this.attachmentUploadService = attachmentUploadService;
+        this.conversationSummaryService = conversationSummaryService;
+        this.unreadCounterService = unreadCounterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recentSends = new ExpiringCache<>(dedupMaxEntries, Duration.ofSeconds(dedupWindowSeconds));
     }
 
     /**
      * Envoie un message d'un utilisateur à un autre.
      *
+     * Si l'expéditeur a déjà envoyé un message avec le même tempId, la réponse d'origine est renvoyée
+     * (isReplayed() vrai) : aucun message n'est enregistré, aucune pièce jointe téléversée.
+     *
+     * L'envoi est validé dans sa propre transaction avant d'être mémorisé pour la déduplication.
+     *
      * @param dto DTO contenant les informations du message (expéditeur, destinataire, contenu, pièce jointe)
      * @return MessageResponseDTO avec le message sauvegardé et son statut
      */
-    @Transactional
     public MessageResponseDTO sendMessage(@Valid MessageRequestDTO dto) {
+        try {
+            return deduplicate(dto, () -> transactionTemplate.execute(status -> send(dto)));
+        } catch (DataIntegrityViolationException e) {
+            return replayConcurrentSend(dto, e);
+        }
+    }
+
+    /**
+     * Exécute un envoi une seule fois par (expéditeur, tempId).
+     *
+     * Un envoi déjà effectué (en mémoire sur la fenêtre de déduplication, sinon en base) est renvoyé
+     * marqué comme renvoi sans appeler "send" ; les envois simultanés du même message attendent
+     * le résultat du premier. Sans tempId, "send" est appelé directement.
+     *
+     * Si "send" s'exécute dans une transaction, la réponse n'est mémorisée qu'après sa validation.
+     *
+     * @param dto message à envoyer
+     * @param send envoi effectif, renvoyant la réponse (FAILED en cas d'échec)
+     * @return réponse de l'envoi, ou copie de la réponse d'origine marquée comme renvoi
+     */
+    public MessageResponseDTO deduplicate(MessageRequestDTO dto, Supplier<MessageResponseDTO> send) {
+        String tempId = normalizeTempId(dto.getTempId());
+        if (tempId == null || dto.getSenderId() == null) {
+            return send.get();
+        }
+
+        String key = dto.getSenderId() + ":" + tempId;
+        MessageResponseDTO[] sent = new MessageResponseDTO[1];
+        MessageResponseDTO response;
+        try {
+            // Les renvois simultanés attendent le résultat du premier envoi
+            response = recentSends.get(key, k -> messageRepository.findBySenderIdAndTempId(dto.getSenderId(), tempId)
+                .map(MessageResponseDTO::new)
+                .orElseGet(() -> {
+                    sent[0] = send.get();
+                    if (sent[0].getMessageStatus() == com.atelierlocal.model.MessageStatus.FAILED) {
+                        // Un échec n'est pas mémorisé : le client pourra renvoyer le message
+                        throw new FailedSendException(sent[0]);
+                    }
+                    return sent[0];
+                }));
+        } catch (FailedSendException e) {
+            return e.response;
+        }
+
+        if (sent[0] != null) {
+            publishAfterCommit(key, sent[0]);
+            return sent[0];
+        }
+        logger.info("Renvoi du message {} (tempId {}) ignoré", response.getId(), tempId);
+        return response.asReplay();
+    }
+
+    /**
+     * Enregistre le message, programme l'envoi de sa pièce jointe et met à jour les résumés et compteurs.
+     */
+    private MessageResponseDTO send(MessageRequestDTO dto) {
         try {
             // Récupération des utilisateurs expéditeur et destinataire
-            User sender = findUserById(dto.getSenderId());
-            User receiver = findUserById(dto.getReceiverId());
+            User sender = findUserById(dto.getSenderId(), false);
+            User receiver = findUserById(dto.getReceiverId(), true);
 
             // Création de l'entité Message
             Message message = new Message();
@@ -99,26 +192,38 @@ public class MessageService {
             message.setReceiver(receiver);
             message.setContent(dto.getContent());
             message.setRead(false);
-            message.setTempId(dto.getTempId());
+            message.setTempId(normalizeTempId(dto.getTempId()));
             message.setMessageStatus(com.atelierlocal.model.MessageStatus.SENT);
 
-            // Gestion des pièces jointes si présentes
-            if (dto.getFile() != null && !dto.getFile().isEmpty()) {
-                Attachment attachment = uploadToS3(dto.getFile());
-                attachment.setMessage(message);
-                message.getAttachments().add(attachment);
+            // Une pièce jointe est validée immédiatement puis envoyée en arrière-plan
+            boolean hasFile = dto.getFile() != null && !dto.getFile().isEmpty();
+            if (hasFile) {
+                validateFile(dto.getFile());
+                message.setMessageStatus(com.atelierlocal.model.MessageStatus.PENDING_UPLOAD);
             }
 
-            // Sauvegarde du message (les attachments sont sauvegardés en cascade)
+            // Sauvegarde du message
             Message savedMessage = messageRepository.save(message);
 
-            // Notification du destinataire pour les messages non lus
-            notifyUnreadMessages(receiver);
+            // Envoi de la pièce jointe après validation de la transaction
+            if (hasFile) {
+                attachmentUploadService.submit(savedMessage.getId(), dto.getFile());
+            }
+
+            // Mise à jour des résumés de conversation des deux participants
+            conversationSummaryService.recordMessage(savedMessage);
+
+            // Incrément du compteur de non lus du destinataire et notification après validation
+            unreadCounterService.messageReceived(receiver, sender.getId());
 
             // Conversion en DTO pour la réponse
             MessageResponseDTO response = new MessageResponseDTO(savedMessage);
             return response;
 
+        } catch (DataIntegrityViolationException e) {
+            // Renvoi concurrent du même tempId (autre instance) : traité par sendMessage après annulation
+            throw e;
+
         } catch (IllegalArgumentException e) {
             // Gestion des erreurs liées à la saisie ou aux entités
             e.printStackTrace();
@@ -138,55 +243,83 @@ public class MessageService {
     }
 
     /**
-     * Récupère un utilisateur par son ID en vérifiant s'il est artisan ou client.
-     *
-     * @param userId ID de l'utilisateur
-     * @return User trouvé
+     * Réponse à un envoi rejeté par la base : si le même tempId a été enregistré entre-temps
+     * (renvoi traité en parallèle, par exemple par une autre instance), le message d'origine
+     * est renvoyé marqué comme renvoi ; sinon l'envoi échoue.
      */
-    private User findUserById(UUID userId) {
-        return artisanRepo.findById(userId)
-            .map(User.class::cast)
-            .orElseGet(() -> clientRepo.findById(userId)
-                .map(User.class::cast)
-                .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé avec l'ID: " + userId)));
+    private MessageResponseDTO replayConcurrentSend(MessageRequestDTO dto, DataIntegrityViolationException e) {
+        String tempId = normalizeTempId(dto.getTempId());
+        String cause = e.getMostSpecificCause().getMessage();
+        if (tempId != null && cause != null && cause.contains(Message.TEMP_ID_CONSTRAINT)) {
+            Optional<Message> original = messageRepository.findBySenderIdAndTempId(dto.getSenderId(), tempId);
+            if (original.isPresent()) {
+                logger.info("Renvoi concurrent du message {} (tempId {}) ignoré", original.get().getId(), tempId);
+                return new MessageResponseDTO(original.get()).asReplay();
+            }
+        }
+        logger.error("Message de {} rejeté par la base: {}", dto.getSenderId(), cause);
+        MessageResponseDTO response = new MessageResponseDTO("Erreur serveur interne lors de l'envoi, veuillez réessayer.");
+        response.setMessageStatus(com.atelierlocal.model.MessageStatus.FAILED);
+        response.setTempId(dto.getTempId());
+        return response;
     }
 
     /**
-     * Upload d'une pièce jointe sur AWS S3.
-     *
-     * @param file fichier multipart
-     * @return Attachment contenant l'URL et le type de fichier
+     * Mémorise un envoi une fois la transaction en cours validée : tant qu'elle ne l'est pas,
+     * un renvoi ne doit pas recevoir un message qui peut encore être annulé.
+     * Sans transaction, l'envoi reste mémorisé tel quel.
      */
-    private Attachment uploadToS3(MultipartFile file) {
-        validateFile(file);
-
-        // Génération de la clé unique pour le fichier
-        String key = String.format("messages/%s_%s", UUID.randomUUID(), file.getOriginalFilename());
-
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(s3Properties.getBucketName())
-                .key(key)
-                .contentType(file.getContentType())
-                .build();
-
-        try (InputStream inputStream = file.getInputStream()) {
-            // Upload du fichier vers S3
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(inputStream, file.getSize()));
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Erreur lors de l'upload du fichier sur S3: " + e.getMessage(), e);
+    private void publishAfterCommit(String key, MessageResponseDTO response) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentSends.invalidate(key);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentSends.put(key, response);
+                }
+            });
         }
+    }
 
-        // Construction de l'URL publique du fichier
-        String url = String.format("https://%s.s3.%s.amazonaws.com/%s",
-                s3Properties.getBucketName(),
-                s3Properties.getRegion(),
-                key);
-
-        // Création de l'entité Attachment
-        Attachment attachment = new Attachment();
-        attachment.setFileUrl(url);
-        attachment.setFileType(file.getContentType());
-        return attachment;
+    /**
+     * tempId renseigné, sans espaces superflus ; null s'il est absent ou vide.
+     */
+    static String normalizeTempId(String tempId) {
+        return tempId == null || tempId.isBlank() ? null : tempId.trim();
+    }
+
+    /**
+     * Échec d'envoi transmis aux renvois simultanés qui attendaient son résultat.
+     */
+    private static final class FailedSendException extends RuntimeException {
+
+        private final transient MessageResponseDTO response;
+
+        FailedSendException(MessageResponseDTO response) {
+            super(response.getMessageError(), null, false, false);
+            this.response = response;
+        }
+    }
+
+    /**
+     * Récupère un utilisateur par son ID, depuis le repository correspondant à son type (artisan ou client)
+     * indiqué par l'annuaire.
+     *
+     * Sans chargement, une référence est renvoyée sans requête : elle suffit à rattacher le message
+     * à l'utilisateur. Le destinataire est chargé, son email servant à la notification des non lus.
+     *
+     * @param userId ID de l'utilisateur
+     * @param load true pour charger l'entité, false pour une simple référence
+     * @return User trouvé
+     */
+    private User findUserById(UUID userId, boolean load) {
+        UserDirectory.Entry entry = userDirectory.findById(userId)
+            .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé avec l'ID: " + userId));
+        if (!load) {
+            return entry.artisan() ? artisanRepo.getReferenceById(userId) : clientRepo.getReferenceById(userId);
+        }
+        return (entry.artisan() ? artisanRepo.findById(userId).map(User.class::cast) : clientRepo.findById(userId).map(User.class::cast))
+            .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé avec l'ID: " + userId));
     }
 
     /**
@@ -241,6 +374,51 @@ public class MessageService {
         }
     }
 
+    /**
+     * Récupère une page de l'historique de conversation entre deux utilisateurs,
+     * paginée par clé (createdAt, id) du plus récent au plus ancien.
+     *
+     * Le nombre de requêtes est constant quelle que soit la taille de la page :
+     * une requête pour les messages (expéditeur et destinataire inclus)
+     * et une requête groupée pour les pièces jointes.
+     *
+     * @param user1Id ID de l'utilisateur courant
+     * @param user2Id ID de l'interlocuteur
+     * @param cursor curseur renvoyé par la page précédente (null pour la page la plus récente)
+     * @param size taille de page souhaitée (bornée à MAX_PAGE_SIZE)
+     * @return page de messages triée par date croissante, avec le curseur de la page plus ancienne
+     */
+    @Transactional
+    public CursorPageDTO<MessageResponseDTO> getConversationPage(UUID user1Id, UUID user2Id, String cursor, Integer size) {
+        validateUserIds(user1Id, user2Id);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor before = KeysetCursor.decode(cursor);
+
+        // Un élément supplémentaire est demandé pour savoir s'il reste une page plus ancienne
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Message> messages = before == null
+                ? messageRepository.findLatestConversationPage(user1Id, user2Id, limit)
+                : messageRepository.findConversationPageBefore(user1Id, user2Id, before.getCreatedAt(), before.getId(), limit);
+
+        boolean hasMore = messages.size() > pageSize;
+        List<Message> page = new ArrayList<>(hasMore ? messages.subList(0, pageSize) : messages);
+        if (page.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+
+        // Chargement groupé des pièces jointes des messages déjà présents dans le contexte de persistance
+        messageRepository.fetchAttachments(page.stream().map(Message::getId).collect(Collectors.toList()));
+
+        Message oldest = page.get(page.size() - 1);
+        String nextCursor = hasMore ? new KeysetCursor(oldest.getCreatedAt(), oldest.getId()).encode() : null;
+
+        Collections.reverse(page);
+        List<MessageResponseDTO> items = page.stream()
+                .map(MessageResponseDTO::new)
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
     /**
      * Validation de l'existence des utilisateurs dans la conversation.
      *
@@ -260,94 +438,18 @@ public class MessageService {
     }
 
     /**
-     * Récupère les résumés de toutes les conversations d'un utilisateur.
+     * Récupère une page des résumés de conversation d'un utilisateur.
+     *
+     * Les résumés sont matérialisés et maintenus à chaque envoi et lecture de message,
+     * la boîte de réception est donc lue sans parcourir l'historique des messages.
      *
      * @param userId ID de l'utilisateur courant
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page (optionnelle)
      * @return Liste de ConversationSummaryDTO triée par date du dernier message décroissante
      */
-    @Transactional
-    public List<ConversationSummaryDTO> getConversationSummaries(UUID userId) {
-        logger.info("🔍 Récupération des conversations pour userId: {}", userId);
-
-        // Récupération de tous les messages envoyés ou reçus
-        List<Message> messages = messageRepository.findAllBySenderIdOrReceiverId(userId, userId);
-        logger.info("📊 Messages trouvés: {}", messages.size());
-        logger.info("📊 Détails des messages: {}", messages);
-
-        // Initialisation des relations pour éviter LazyInitializationException
-        messages.forEach(m -> {
-            Hibernate.initialize(m.getSender());
-            Hibernate.initialize(m.getReceiver());
-            Hibernate.initialize(m.getSender().getAvatar());
-            Hibernate.initialize(m.getReceiver().getAvatar());
-        });
-
-        User currentUser = findUserById(userId); 
-        logger.info("📊 Utilisateur courant: {}", currentUser.getEmail());
-
-        // Récupération des messages non lus
-        List<Message> allUnreadMessages = messageRepository.findByReceiverAndIsReadFalse(currentUser); 
-        logger.info("📊 Messages non lus: {}", allUnreadMessages.size());
-        logger.info("📊 Détails des messages non lus: {}", allUnreadMessages);
-
-        // Comptage des messages non lus par expéditeur
-        Map<UUID, Long> unreadCountsBySender = allUnreadMessages.stream()
-            .collect(Collectors.groupingBy( 
-                msg -> msg.getSender().getId(), 
-                Collectors.counting() 
-            ));
-        logger.info("📊 Comptage des messages non lus par expéditeur: {}", unreadCountsBySender);
-
-        // Récupération des derniers messages par conversation
-        Map<UUID, Message> latestMessages = messages.stream()
-                .collect(Collectors.toMap(
-                        m -> m.getSender().getId().equals(userId) ? m.getReceiver().getId() : m.getSender().getId(),
-                        m -> m,
-                        (m1, m2) -> m1.getCreatedAt().isAfter(m2.getCreatedAt()) ? m1 : m2
-                ));
-        logger.info("📊 Derniers messages par conversation: {}", latestMessages.size());
-
-        // Construction des DTOs de résumé de conversation
-        List<ConversationSummaryDTO> summaries = latestMessages.values().stream()
-                .map(m -> {
-                    User otherUser = m.getSender().getId().equals(userId) ? m.getReceiver() : m.getSender();
-                    String otherUserName = getUserDisplayName(otherUser);
-                    String otherUserRole = otherUser.getUserRole().name();
-                    String otherUserAvatarUrl = otherUser.getAvatar() != null ? otherUser.getAvatar().getAvatarUrl() : null;
-                    long unreadCount = unreadCountsBySender.getOrDefault(otherUser.getId(), 0L);
-                    return new ConversationSummaryDTO(
-                        otherUser.getId(),
-                        otherUserName,
-                        otherUserRole,
-                        otherUserAvatarUrl,
-                        m.getContent(),
-                        m.getCreatedAt(),
-                        unreadCount
-                    );
-                })
-                .sorted((dto1, dto2) -> dto2.getLastTimestamp().compareTo(dto1.getLastTimestamp()))
-                .collect(Collectors.toList());
-
-        logger.info("📊 Résumés de conversations renvoyés: {}", summaries.size());
-        logger.info("📊 Détails des résumés: {}", summaries);
-        return summaries;
-    }
-
-    /**
-     * Récupère le nom affichable d'un utilisateur selon son type (Artisan/Client).
-     *
-     * @param user utilisateur
-     * @return nom affichable
-     */
-    private String getUserDisplayName(User user) {
-        if (user instanceof Artisan artisan) {
-            return artisan.getName() != null ? artisan.getName() : "Artisan sans nom";
-        } else if (user instanceof Client client) {
-            String firstName = client.getFirstName() != null ? client.getFirstName() : "";
-            String lastName = client.getLastName() != null ? client.getLastName() : "";
-            return (firstName + " " + lastName).trim().isEmpty() ? "Client sans nom" : (firstName + " " + lastName).trim();
-        }
-        throw new IllegalStateException("Type d'utilisateur inconnu: " + user.getClass().getSimpleName());
+    public List<ConversationSummaryDTO> getConversationSummaries(UUID userId, int page, Integer size) {
+        return conversationSummaryService.getInbox(userId, page, size);
     }
 
     /**
@@ -374,24 +476,52 @@ public class MessageService {
         if (!message.getReceiver().getId().equals(authenticatedUser.getId())) {
             throw new IllegalArgumentException("Seul le destinataire peut marquer le message comme lu");
         }
-        message.setRead(true);
-        messageRepository.save(message);
+        long readCount = 0;
+        if (!message.getRead()) {
+            message.setRead(true);
+            messageRepository.save(message);
+            conversationSummaryService.markRead(authenticatedUser.getId(), message.getSender().getId(), 1);
+            readCount = 1;
+        }
 
         // Notifier le destinataire du nouveau nombre de messages non lus
-        notifyUnreadMessages(authenticatedUser);
+        unreadCounterService.messagesRead(authenticatedUser, message.getSender().getId(), readCount);
+    }
+
+    /**
+     * Marque comme lus tous les messages reçus d'un interlocuteur jusqu'à une date donnée.
+     *
+     * Une seule requête UPDATE est exécutée quel que soit le nombre de messages,
+     * le filigrane de lecture de la conversation est avancé et une seule notification
+     * du compteur de non lus est envoyée.
+     *
+     * @param reader utilisateur connecté (destinataire des messages)
+     * @param peerId ID de l'interlocuteur
+     * @param upTo date jusqu'à laquelle la conversation est lue (maintenant si null ou dans le futur)
+     * @return nombre de messages passés à l'état lu
+     */
+    @Transactional
+    public int markConversationRead(User reader, UUID peerId, LocalDateTime upTo) {
+        if (peerId == null) {
+            throw new IllegalArgumentException("L'ID de l'interlocuteur ne peut pas être nul");
+        }
+        // Une date future (horloge du client en avance) marquerait comme lus des messages pas encore reçus
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime readAt = upTo == null || upTo.isAfter(now) ? now : upTo;
+
+        int updated = messageRepository.markConversationRead(reader.getId(), peerId, readAt);
+        conversationSummaryService.markConversationRead(reader.getId(), peerId, updated, readAt);
+        unreadCounterService.messagesRead(reader, peerId, updated);
+        return updated;
     }
 
     /**
-     * Notifie un utilisateur du nombre de messages non lus via WebSocket.
+     * Retourne le nombre de messages non lus d'un utilisateur sans charger les messages.
      *
      * @param receiver utilisateur destinataire
+     * @return nombre de messages non lus
      */
-    private void notifyUnreadMessages(User receiver) {
-        List<Message> unreadMessages = getUnreadMessages(receiver);
-        messagingTemplate.convertAndSendToUser(
-            receiver.getEmail(),
-            "/queue/unread",
-            unreadMessages.size()
-        );
+    public long getUnreadCount(User receiver) {
+        return unreadCounterService.getTotal(receiver.getId());
     }
 }
@@ -0,0 +1,414 @@
+package com.atelierlocal.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.atelierlocal.dto.MessageRequestDTO;
+import com.atelierlocal.dto.MessageResponseDTO;
+import com.atelierlocal.model.Message;
+import com.atelierlocal.model.MessageStatus;
+import com.atelierlocal.model.User;
+import com.atelierlocal.repository.UserRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Enregistrement différé (write-behind) des messages texte reçus par WebSocket.
+ *
+ * Activé par "messaging.write-behind.enabled" : un message texte est écrit dans un journal local,
+ * acquitté et diffusé immédiatement, puis enregistré en base par micro-lots (un seul thread d'écriture,
+ * une transaction et un INSERT JDBC groupé par lot, sans relire les utilisateurs). Les résumés de
+ * conversation et les compteurs de non lus sont mis à jour dans la même transaction.
+ *
+ * Le nombre de messages acquittés non encore enregistrés est borné : au-delà, l'envoi attend
+ * brièvement puis échoue, et le client peut renvoyer le message avec le même tempId.
+ *
+ * Les identifiants sont attribués à l'acquittement (UUID, sans aller-retour en base) et l'insertion
+ * ignore les messages déjà présents : le rejeu du journal après un arrêt brutal est sans effet sur
+ * les messages déjà enregistrés. Les envois avec pièce jointe restent synchrones (MessageService).
+ *
+ * Le dossier du journal ("messaging.write-behind.journal-dir") est obligatoire lorsque le mode est actif :
+ * il doit être sur un disque persistant et propre à l'instance (voir MessageJournal).
+ */
+@Service
+public class MessageWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWriteBehindService.class);
+
+    static final String INSERT_SQL =
+        "INSERT INTO message (id, sender_id, receiver_id, content, is_read, message_status, created_at, updated_at, temp_id) " +
+        "VALUES (?, ?, ?, ?, false, 'SENT', ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final long SEGMENT_MAX_BYTES = 1024 * 1024;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final boolean enabled;
+    private final MessageService messageService;
+    private final ConversationSummaryService conversationSummaryService;
+    private final UnreadCounterService unreadCounterService;
+    private final UserRepo userRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long enqueueTimeoutMs;
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final MessageJournal journal;
+    private final Thread writer;
+
+    private volatile boolean running;
+
+    /**
+     * Constructeur du service.
+     *
+     * @param messageService déduplication des envois par tempId
+     * @param conversationSummaryService mise à jour des résumés de conversation
+     * @param unreadCounterService compteurs de messages non lus
+     * @param userRepo chargement des utilisateurs des messages rejoués depuis le journal
+     * @param jdbcTemplate insertion groupée des messages
+     * @param transactionManager gestionnaire de transactions (une transaction par lot)
+     * @param objectMapper sérialisation du journal
+     * @param enabled active l'enregistrement différé
+     * @param batchSize nombre maximal de messages par lot
+     * @param flushIntervalMs attente maximale d'un premier message avant de vérifier l'arrêt
+     * @param queueCapacity nombre maximal de messages acquittés non encore enregistrés
+     * @param enqueueTimeoutMs attente maximale d'une place dans la file avant échec de l'envoi
+     * @param journalDir dossier du journal local, obligatoire si l'enregistrement différé est actif
+     * @param fsync force l'écriture du journal sur disque avant chaque acquittement
+     */
+    public MessageWriteBehindService(MessageService messageService,
+                ConversationSummaryService conversationSummaryService,
+                UnreadCounterService unreadCounterService,
+                UserRepo userRepo,
+                JdbcTemplate jdbcTemplate,
+                PlatformTransactionManager transactionManager,
+                ObjectMapper objectMapper,
+                @Value("${messaging.write-behind.enabled:false}") boolean enabled,
+                @Value("${messaging.write-behind.batch-size:100}") int batchSize,
+                @Value("${messaging.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+                @Value("${messaging.write-behind.queue-capacity:5000}") int queueCapacity,
+                @Value("${messaging.write-behind.enqueue-timeout-ms:200}") long enqueueTimeoutMs,
+                @Value("${messaging.write-behind.journal-dir:}") String journalDir,
+                @Value("${messaging.write-behind.fsync:true}") boolean fsync
+                ) {
+        this.enabled = enabled;
+        this.messageService = messageService;
+        this.conversationSummaryService = conversationSummaryService;
+        this.unreadCounterService = unreadCounterService;
+        this.userRepo = userRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.permits = new Semaphore(Math.max(1, queueCapacity));
+
+        if (!enabled) {
+            this.journal = null;
+            this.writer = null;
+            return;
+        }
+        if (journalDir == null || journalDir.isBlank()) {
+            throw new IllegalStateException(
+                "messaging.write-behind.journal-dir doit être renseigné lorsque l'enregistrement différé est actif.");
+        }
+        try {
+            this.journal = new MessageJournal(Path.of(journalDir), objectMapper, fsync, SEGMENT_MAX_BYTES);
+        } catch (IOException e) {
+            throw new IllegalStateException("Journal des messages inaccessible: " + journalDir, e);
+        }
+        this.running = true;
+        this.writer = Thread.ofPlatform().name("message-write-behind").daemon().start(this::run);
+    }
+
+    /**
+     * Indique si les messages texte sont enregistrés de façon différée.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // -------------------------------------------------------------------------
+    // ACQUITTEMENT
+    // -------------------------------------------------------------------------
+
+    /**
+     * Acquitte un message texte : il est journalisé et mis en file, puis enregistré par le prochain lot.
+     * Un renvoi du même tempId renvoie la réponse d'origine (voir MessageService.deduplicate).
+     *
+     * Les utilisateurs, déjà vérifiés par l'appelant, ne sont chargés qu'à l'enregistrement du lot.
+     *
+     * @param dto message à envoyer (sans pièce jointe), expéditeur et destinataire renseignés
+     * @return réponse à diffuser (état SENT), ou FAILED si la file est saturée
+     */
+    public MessageResponseDTO send(MessageRequestDTO dto) {
+        return messageService.deduplicate(dto, () -> enqueue(dto));
+    }
+
+    private MessageResponseDTO enqueue(MessageRequestDTO dto) {
+        if (!running) {
+            return failed(dto, "Service de messagerie indisponible, veuillez réessayer.");
+        }
+        try {
+            if (!permits.tryAcquire(enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("File d'enregistrement des messages saturée, message de {} refusé", dto.getSenderId());
+                return failed(dto, "Trop de messages en attente d'enregistrement, veuillez réessayer.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(dto, "Envoi interrompu, veuillez réessayer.");
+        }
+
+        PendingMessage pending = new PendingMessage(UUID.randomUUID(), dto.getSenderId(), dto.getReceiverId(),
+            dto.getContent(), MessageService.normalizeTempId(dto.getTempId()), LocalDateTime.now());
+        MessageJournal.Segment segment;
+        try {
+            segment = journal.append(pending);
+        } catch (IOException e) {
+            permits.release();
+            logger.error("Erreur lors de l'écriture du journal des messages: {}", e.getMessage(), e);
+            return failed(dto, "Erreur serveur lors de l'envoi, veuillez réessayer.");
+        }
+        queue.add(new Entry(pending, segment));
+        return toResponse(pending);
+    }
+
+    // -------------------------------------------------------------------------
+    // ENREGISTREMENT PAR LOTS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Boucle du thread d'écriture : reprise du journal, puis enregistrement des lots
+     * jusqu'à l'arrêt et la vidange de la file.
+     */
+    private void run() {
+        recover();
+        while (running || !queue.isEmpty()) {
+            List<Entry> batch = new ArrayList<>(batchSize);
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            if (!write(batch)) {
+                // Arrêt pendant une indisponibilité de la base : les messages restent dans le journal
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rejoue les messages journalisés avant le dernier arrêt.
+     */
+    private void recover() {
+        try {
+            List<PendingMessage> messages = journal.readRecovered();
+            if (!messages.isEmpty()) {
+                logger.info("Reprise de {} message(s) du journal", messages.size());
+            }
+            for (int from = 0; from < messages.size(); from += batchSize) {
+                List<Entry> batch = messages.subList(from, Math.min(from + batchSize, messages.size())).stream()
+                    .map(message -> new Entry(message, null))
+                    .toList();
+                if (!write(batch)) {
+                    return;
+                }
+            }
+            journal.deleteRecovered();
+        } catch (IOException e) {
+            logger.error("Erreur lors de la reprise du journal des messages: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Enregistre un lot, en réessayant tant que la base est indisponible.
+     * Si un message du lot est rejeté par la base, les messages sont enregistrés un par un
+     * et seuls ceux rejetés sont abandonnés.
+     *
+     * @return false si le service s'arrête avant que le lot ait pu être enregistré
+     */
+    private boolean write(List<Entry> batch) {
+        long backoffMs = 1000;
+        while (true) {
+            try {
+                persist(batch);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() == 1) {
+                    logger.error("Message {} rejeté par la base, abandonné: {}", batch.get(0).message().id(), e.getMessage());
+                    break;
+                }
+                for (Entry entry : batch) {
+                    if (!write(List.of(entry))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (Exception e) {
+                logger.error("Erreur lors de l'enregistrement d'un lot de {} message(s): {}", batch.size(), e.getMessage());
+                if (!running) {
+                    return false;
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+        release(batch);
+        return true;
+    }
+
+    /**
+     * Insère le lot puis met à jour résumés et compteurs des messages effectivement insérés,
+     * dans une seule transaction.
+     */
+    void persist(List<Entry> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                PendingMessage message = entry.message();
+                Timestamp createdAt = Timestamp.valueOf(message.createdAt());
+                ps.setObject(1, message.id());
+                ps.setObject(2, message.senderId());
+                ps.setObject(3, message.receiverId());
+                ps.setString(4, message.content());
+                ps.setTimestamp(5, createdAt);
+                ps.setTimestamp(6, createdAt);
+                ps.setString(7, message.tempId());
+            });
+
+            Map<UUID, User> users = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                // 0 : message déjà présent (rejeu du journal) ; le pilote peut ne pas détailler le résultat (< 0)
+                if (counts[0][i] == 0) {
+                    continue;
+                }
+                Entry entry = batch.get(i);
+                User sender = resolve(entry.message().senderId(), users);
+                User receiver = resolve(entry.message().receiverId(), users);
+                conversationSummaryService.recordMessage(toMessage(entry.message(), sender, receiver));
+                unreadCounterService.messageReceived(receiver, sender.getId());
+            }
+        });
+    }
+
+    /**
+     * Libère les places de la file et les segments du journal des messages d'un lot traité.
+     */
+    private void release(List<Entry> batch) {
+        Map<MessageJournal.Segment, Integer> bySegment = new IdentityHashMap<>();
+        for (Entry entry : batch) {
+            if (entry.segment() != null) {
+                bySegment.merge(entry.segment(), 1, Integer::sum);
+            }
+        }
+        bySegment.forEach(journal::committed);
+        permits.release(bySegment.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    /**
+     * Arrête le thread d'écriture après l'enregistrement des messages en file.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+            logger.warn("{} message(s) non enregistré(s) à l'arrêt, conservés dans le journal", queue.size());
+        }
+        journal.close();
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    private User resolve(UUID id, Map<UUID, User> users) {
+        return users.computeIfAbsent(id, key -> userRepo.findById(key)
+            .orElseThrow(() -> new IllegalStateException("Utilisateur non trouvé: " + key)));
+    }
+
+    private static Message toMessage(PendingMessage pending, User sender, User receiver) {
+        Message message = new Message();
+        message.setId(pending.id());
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setContent(pending.content());
+        message.setRead(false);
+        message.setTempId(pending.tempId());
+        message.setMessageStatus(MessageStatus.SENT);
+        message.setCreatedAt(pending.createdAt());
+        return message;
+    }
+
+    /**
+     * Réponse d'acquittement, construite sans charger les utilisateurs.
+     */
+    private static MessageResponseDTO toResponse(PendingMessage pending) {
+        MessageResponseDTO response = new MessageResponseDTO((String) null);
+        response.setId(pending.id());
+        response.setSenderId(pending.senderId());
+        response.setReceiverId(pending.receiverId());
+        response.setContent(pending.content());
+        response.setMessageStatus(MessageStatus.SENT);
+        response.setCreatedAt(pending.createdAt());
+        response.setRead(false);
+        response.setTempId(pending.tempId());
+        response.setAttachments(List.of());
+        return response;
+    }
+
+    private static MessageResponseDTO failed(MessageRequestDTO dto, String error) {
+        MessageResponseDTO response = new MessageResponseDTO(error);
+        response.setTempId(dto.getTempId());
+        return response;
+    }
+
+    /**
+     * Message en file : message journalisé et segment du journal (null pour un message rejoué).
+     */
+    record Entry(PendingMessage message, MessageJournal.Segment segment) {
+    }
+}
@@ -1,12 +1,23 @@
 package com.atelierlocal.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.atelierlocal.security.PasswordHashingBusyException;
+import com.atelierlocal.security.PasswordHashingExecutor;
+
 import de.mkammerer.argon2.Argon2;
 import de.mkammerer.argon2.Argon2Factory;
+import de.mkammerer.argon2.Argon2Helper;
+import jakarta.annotation.PostConstruct;
 
 /**
  * Service de gestion des mots de passe.
@@ -14,29 +25,102 @@ import de.mkammerer.argon2.Argon2Factory;
  * Fournit des fonctionnalités pour :
  * - le hachage sécurisé des mots de passe avec Argon2,
  * - la vérification d'un mot de passe contre son hash,
+ * - la détection des hash calculés avec des paramètres plus faibles que les paramètres actuels,
  * - la validation des règles de sécurité d'un mot de passe,
  * - la récupération des erreurs de validation détaillées.
+ * 
+ * Les hachages et vérifications passent par {@link PasswordHashingExecutor}, qui borne leur nombre
+ * simultané. Au démarrage, le nombre d'itérations est calibré pour qu'un hachage prenne environ
+ * la durée visée sur la machine, sans descendre sous le minimum configuré.
  */
 @Service
 public class PasswordService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordService.class);
+
+    /**
+     * Paramètres d'un hash Argon2 encodé : "$argon2i$v=19$m=65536,t=2,p=1$sel$hash".
+     */
+    private static final Pattern HASH_PARAMETERS = Pattern.compile("^\\$argon2[a-z]*\\$(?:v=\\d+\\$)?m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
     // Instance de Argon2 pour le hachage sécurisé
     private final Argon2 argon2 = Argon2Factory.create();
 
+    private final PasswordHashingExecutor hashingExecutor;
+    private final int memoryKb;
+    private final int parallelism;
+    private final int minIterations;
+    private final int maxIterations;
+    private final long targetMs;
+    private final boolean calibrate;
+
+    /**
+     * Nombre d'itérations utilisé pour les nouveaux hash (calibré au démarrage).
+     */
+    private volatile int iterations;
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires.
+     *
+     * @param hashingExecutor exécuteur borné des hachages
+     * @param memoryKb mémoire utilisée par un hachage, en Ko
+     * @param parallelism nombre de voies de calcul d'un hachage
+     * @param minIterations nombre minimal d'itérations (utilisé tel quel sans calibrage)
+     * @param maxIterations nombre maximal d'itérations retenu par le calibrage
+     * @param targetMs durée visée d'un hachage pour le calibrage, en millisecondes
+     * @param calibrate calibrer le nombre d'itérations au démarrage
+     */
+    public PasswordService(
+                PasswordHashingExecutor hashingExecutor,
+                @Value("${security.password.memory-kb:65536}") int memoryKb,
+                @Value("${security.password.parallelism:1}") int parallelism,
+                @Value("${security.password.min-iterations:2}") int minIterations,
+                @Value("${security.password.max-iterations:10}") int maxIterations,
+                @Value("${security.password.target-ms:250}") long targetMs,
+                @Value("${security.password.calibrate:true}") boolean calibrate
+                ) {
+        this.hashingExecutor = hashingExecutor;
+        this.memoryKb = memoryKb;
+        this.parallelism = parallelism;
+        this.minIterations = minIterations;
+        this.maxIterations = Math.max(minIterations, maxIterations);
+        this.targetMs = targetMs;
+        this.calibrate = calibrate;
+        this.iterations = minIterations;
+    }
+
+    /**
+     * Calibre le nombre d'itérations pour la durée visée, entre le minimum et le maximum configurés.
+     */
+    @PostConstruct
+    void calibrate() {
+        if (!calibrate) {
+            return;
+        }
+        try {
+            int found = Argon2Helper.findIterations(argon2, targetMs, memoryKb, parallelism);
+            iterations = Math.min(maxIterations, Math.max(minIterations, found));
+            logger.info("Argon2 calibré : {} itérations, {} Ko, {} voies (cible {} ms)", iterations, memoryKb, parallelism, targetMs);
+        } catch (RuntimeException e) {
+            logger.error("Erreur lors du calibrage d'Argon2, {} itérations conservées: {}", iterations, e.getMessage(), e);
+        }
+    }
+
     /**
      * Hache un mot de passe en clair avec Argon2.
      *
      * @param plainPassword mot de passe en clair
      * @return hash sécurisé du mot de passe
+     * @throws PasswordHashingBusyException si trop de hachages sont en cours
      */
     public String hashPassword(String plainPassword) {
         char[] passwordArray = plainPassword.toCharArray();
+        int hashIterations = iterations;
         try {
-            // Paramètres : itérations = 2, mémoire = 65536 KB, threads = 1
-            return argon2.hash(2, 65536, 1, passwordArray);
+            return hashingExecutor.execute(() -> argon2.hash(hashIterations, memoryKb, parallelism, passwordArray));
         } finally {
             // Effacement de la mémoire contenant le mot de passe
-            java.util.Arrays.fill(passwordArray, '\0');
+            Arrays.fill(passwordArray, '\0');
         }
     }
 
@@ -46,14 +130,37 @@ public class PasswordService {
      * @param hash hash sécurisé du mot de passe
      * @param plainPassword mot de passe en clair à vérifier
      * @return true si le mot de passe correspond au hash, false sinon
+     * @throws PasswordHashingBusyException si trop de hachages sont en cours
      */
     public boolean verifyPassword(String hash, String plainPassword) {
         char[] passwordArray = plainPassword.toCharArray();
         try {
-            return argon2.verify(hash, passwordArray);
+            return hashingExecutor.execute(() -> argon2.verify(hash, passwordArray));
         } finally {
             // Effacement de la mémoire contenant le mot de passe
-            java.util.Arrays.fill(passwordArray, '\0');
+            Arrays.fill(passwordArray, '\0');
+        }
+    }
+
+    /**
+     * Indique si un hash a été calculé avec des paramètres plus faibles que les paramètres actuels
+     * (ou illisibles) : il doit être recalculé à la prochaine connexion réussie.
+     * Un hash plus coûteux que nécessaire (calibrage sur une machine plus rapide) est conservé.
+     *
+     * @param hash hash stocké
+     * @return true si le hash doit être recalculé
+     */
+    public boolean needsRehash(String hash) {
+        Matcher matcher = hash != null ? HASH_PARAMETERS.matcher(hash) : null;
+        if (matcher == null || !matcher.find()) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(matcher.group(1)) < memoryKb
+                || Integer.parseInt(matcher.group(2)) < iterations
+                || Integer.parseInt(matcher.group(3)) != parallelism;
+        } catch (NumberFormatException e) {
+            return true;
         }
     }
 
@@ -0,0 +1,17 @@
+package com.atelierlocal.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Message texte acquitté en attente d'enregistrement (mode write-behind), tel qu'écrit dans le journal.
+ *
+ * @param id identifiant attribué à l'acquittement (celui renvoyé au client)
+ * @param senderId ID de l'expéditeur
+ * @param receiverId ID du destinataire
+ * @param content contenu du message
+ * @param tempId identifiant temporaire côté client (peut être null)
+ * @param createdAt date d'envoi
+ */
+record PendingMessage(UUID id, UUID senderId, UUID receiverId, String content, String tempId, LocalDateTime createdAt) {
+}
@@ -1,10 +1,11 @@
 package com.atelierlocal.service;
 
-import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,33 +14,32 @@ import com.atelierlocal.model.UploadedPhoto;
 import com.atelierlocal.model.User;
 import com.atelierlocal.repository.ArtisanRepo;
 import com.atelierlocal.security.SecurityService;
+import com.atelierlocal.storage.StoredImage;
 
 import jakarta.persistence.EntityNotFoundException;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.core.sync.RequestBody;
 
 /**
  * Service de gestion du portfolio des artisans.
  * 
  * Fournit les fonctionnalités suivantes :
- * - Upload d'images dans le portfolio sur AWS S3
+ * - Upload d'images dans le portfolio sur le stockage de fichiers (S3 ou disque local),
+ *   en plusieurs déclinaisons redimensionnées (voir ImageProcessingService)
  * - Création et liaison des photos avec l'artisan
- * - Suppression de photos
+ * - Suppression de photos (et libération des fichiers stockés)
  * - Récupération de l'ensemble du portfolio d'un artisan
  */
 @Service
 public class PortfolioService {
 
-    private final S3Client s3Client;
+    private final ImageProcessingService imageProcessingService;
+    private final StoredObjectService storedObjectService;
     private final ArtisanRepo artisanRepo;
     private final SecurityService securityService;
 
-    @Value("${aws.s3.bucketName}")
-    private String bucketName;
-
-    public PortfolioService(S3Client s3Client, ArtisanRepo artisanRepo, SecurityService securityService) {
-        this.s3Client = s3Client;
+    public PortfolioService(ImageProcessingService imageProcessingService, StoredObjectService storedObjectService,
+                            ArtisanRepo artisanRepo, SecurityService securityService) {
+        this.imageProcessingService = imageProcessingService;
+        this.storedObjectService = storedObjectService;
         this.artisanRepo = artisanRepo;
         this.securityService = securityService;
     }
@@ -49,7 +49,7 @@ public class PortfolioService {
     /**
      * Ajoute une photo au portfolio d'un artisan.
      * 
-     * Vérifie les droits de l'utilisateur, la validité du fichier, effectue l'upload sur S3,
+     * Vérifie les droits de l'utilisateur, la validité du fichier, effectue l'upload sur le stockage,
      * crée l'entité UploadedPhoto et l'associe à l'artisan.
      *
      * @param artisanId ID de l'artisan
@@ -80,41 +80,27 @@ public class PortfolioService {
         Artisan artisan = artisanRepo.findById(artisanId)
             .orElseThrow(() -> new EntityNotFoundException("Professionnel non trouvé."));
 
-        // Construction de la clé S3 et préparation de la requête d'upload
-        String key = "portfolio/" + artisanId + "/" + file.getOriginalFilename();
-        PutObjectRequest putReq = PutObjectRequest.builder()
-            .bucket(bucketName)
-            .key(key)
-            .acl("public-read") // rendre l'image accessible publiquement
-            .contentType(file.getContentType())
-            .build();
-
-        // Upload sur S3
-        try {
-            s3Client.putObject(putReq, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-        } catch (IOException e) {
-            throw new RuntimeException("Erreur upload S3", e);
-        }
-
-        // Construction de l'URL publique de la photo
-        String publicUrl = String.format("https://%s.s3.%s.amazonaws.com/%s",
-            bucketName,
-            s3Client.serviceClientConfiguration().region().id(),
-            key
-        );
+        // Génération des déclinaisons (miniature, vignette, grande taille) et upload sur le stockage
+        StoredImage image = imageProcessingService.store(file);
 
         // Création de l'entité UploadedPhoto et liaison avec l'artisan
+        Set<UUID> existingPhotoIds = artisan.getPhotoGallery().stream()
+            .map(UploadedPhoto::getId)
+            .collect(Collectors.toSet());
         UploadedPhoto photo = new UploadedPhoto();
-        photo.setUploadedPhotoUrl(publicUrl);
-        photo.setExtension(file.getContentType());
+        photo.setUploadedPhotoUrl(image.getFullUrl());
+        photo.setCardUrl(image.getCardUrl());
+        photo.setThumbnailUrl(image.getThumbnailUrl());
+        photo.setExtension(image.getContentType());
         photo.setArtisan(artisan);
         artisan.getPhotoGallery().add(photo);
 
-        // Sauvegarde de l'artisan (cascade persiste la photo) et récupération de la photo sauvegardée
+        // Sauvegarde de l'artisan (cascade persiste la photo) et récupération de la photo sauvegardée :
+        // une même image peut figurer deux fois dans le portfolio, la nouvelle photo est celle dont l'ID est nouveau
         artisan = artisanRepo.save(artisan);
         UploadedPhoto savedPhoto = artisan.getPhotoGallery()
             .stream()
-            .filter(p -> p.getUploadedPhotoUrl().equals(publicUrl))
+            .filter(p -> !existingPhotoIds.contains(p.getId()))
             .findFirst()
             .orElseThrow(() -> new RuntimeException("Photo non sauvegardée correctement"));
 
@@ -127,7 +113,7 @@ public class PortfolioService {
      * Supprime une photo du portfolio d'un artisan.
      * 
      * Vérifie que l'utilisateur a le droit (propriétaire ou admin), supprime la relation
-     * avec l'artisan et sauvegarde les changements.
+     * avec l'artisan, sauvegarde les changements puis libère les fichiers stockés.
      *
      * @param artisanId ID de l'artisan
      * @param photoId ID de la photo à supprimer
@@ -153,6 +139,14 @@ public class PortfolioService {
 
         // Sauvegarde de l'artisan pour appliquer la suppression (orphanRemoval gère la suppression de la photo)
         artisanRepo.save(artisan);
+
+        // Libération des fichiers stockés (toutes les déclinaisons) : ils ne sont supprimés
+        // que si plus aucune photo ou avatar n'y fait référence
+        storedObjectService.releaseAfterCommit(Arrays.asList(
+            photoToRemove.getUploadedPhotoUrl(),
+            photoToRemove.getCardUrl(),
+            photoToRemove.getThumbnailUrl()
+        ));
     }
 
     // ================= Liste des photos =================
@@ -0,0 +1,482 @@
+package com.atelierlocal.service;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import com.atelierlocal.cache.ExpiringCache;
+import com.atelierlocal.dto.PresenceDTO;
+import com.atelierlocal.dto.TypingIndicatorDTO;
+import com.atelierlocal.security.JwtHandshakeInterceptor;
+
+/**
+ * Service de présence et d'indicateurs de saisie de la messagerie.
+ *
+ * Tout est tenu en mémoire, sans aucun accès à la base :
+ * - les sessions STOMP sont enregistrées à la connexion et retirées à la déconnexion (événements de session),
+ *   l'utilisateur étant identifié par les attributs posés par JwtHandshakeInterceptor ;
+ * - placé en intercepteur du canal entrant, le service note l'activité de chaque session (messages et
+ *   heartbeats) ; une session sans activité depuis "presence.expiry-ms" est considérée comme perdue ;
+ * - les indicateurs de saisie ne sont transmis qu'aux destinataires en ligne, fusionnés (un "écrit" répété
+ *   n'est retransmis qu'après "presence.typing.refresh-ms") et limités par expéditeur.
+ *
+ * La mémoire est bornée par utilisateur connecté : nombre de sessions, d'interlocuteurs suivis pour la saisie
+ * et d'utilisateurs observés. La présence est propre au nœud : en mode cluster, seuls les utilisateurs
+ * connectés au nœud courant sont vus en ligne.
+ */
+@Service
+public class PresenceService implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceService.class);
+
+    /**
+     * Durée de conservation de la dernière activité d'un utilisateur déconnecté.
+     */
+    private static final Duration LAST_SEEN_RETENTION = Duration.ofDays(1);
+
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final long expiryMs;
+    private final int maxSessionsPerUser;
+    private final int maxWatched;
+    private final int maxTypingPeers;
+    private final long typingRefreshMs;
+    private final int typingMaxPerWindow;
+    private final long typingWindowMs;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, UserState> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Set<UUID>> watchers = new ConcurrentHashMap<>();
+    private final ExpiringCache<UUID, Long> lastSeen;
+
+    /**
+     * Constructeur utilisant l'horloge système.
+     * Le template de messagerie est résolu à l'envoi : le service est lui-même un intercepteur
+     * de la configuration WebSocket qui crée ce template.
+     *
+     * @param messagingTemplate template d'envoi vers les destinations utilisateur
+     * @param expiryMs durée sans activité après laquelle une session est considérée comme perdue
+     * @param maxSessionsPerUser nombre maximal de sessions suivies par utilisateur (les plus anciennes sont oubliées)
+     * @param maxWatched nombre maximal d'utilisateurs dont un utilisateur suit la présence
+     * @param maxTypingPeers nombre maximal d'interlocuteurs suivis pour la saisie, par utilisateur
+     * @param typingRefreshMs délai minimal avant de retransmettre un indicateur "écrit" identique
+     * @param typingMaxPerWindow nombre maximal d'indicateurs transmis par expéditeur sur la fenêtre
+     * @param typingWindowMs durée de la fenêtre de limitation, en millisecondes
+     * @param lastSeenMaxEntries nombre maximal d'utilisateurs déconnectés dont la dernière activité est conservée
+     */
+    @Autowired
+    public PresenceService(ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                @Value("${presence.expiry-ms:30000}") long expiryMs,
+                @Value("${presence.max-sessions-per-user:10}") int maxSessionsPerUser,
+                @Value("${presence.max-watched:100}") int maxWatched,
+                @Value("${presence.typing.max-peers:20}") int maxTypingPeers,
+                @Value("${presence.typing.refresh-ms:3000}") long typingRefreshMs,
+                @Value("${presence.typing.max-per-window:20}") int typingMaxPerWindow,
+                @Value("${presence.typing.window-ms:10000}") long typingWindowMs,
+                @Value("${presence.last-seen.max-entries:10000}") int lastSeenMaxEntries
+                ) {
+        this(messagingTemplate, expiryMs, maxSessionsPerUser, maxWatched, maxTypingPeers, typingRefreshMs,
+            typingMaxPerWindow, typingWindowMs, lastSeenMaxEntries, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructeur avec une horloge fournie (en millisecondes), utile pour les tests.
+     */
+    PresenceService(ObjectProvider<SimpMessagingTemplate> messagingTemplate, long expiryMs, int maxSessionsPerUser,
+                    int maxWatched, int maxTypingPeers, long typingRefreshMs, int typingMaxPerWindow,
+                    long typingWindowMs, int lastSeenMaxEntries, LongSupplier clock) {
+        this.messagingTemplate = messagingTemplate;
+        this.expiryMs = expiryMs;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.maxWatched = maxWatched;
+        this.maxTypingPeers = maxTypingPeers;
+        this.typingRefreshMs = typingRefreshMs;
+        this.typingMaxPerWindow = typingMaxPerWindow;
+        this.typingWindowMs = typingWindowMs;
+        this.clock = clock;
+        this.lastSeen = new ExpiringCache<>(lastSeenMaxEntries, LAST_SEEN_RETENTION);
+    }
+
+    // -------------------------------------------------------------------------
+    // SESSIONS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Enregistre une session STOMP connectée.
+     * Les sessions dont le token ne porte pas l'ID de l'utilisateur ne sont pas suivies.
+     */
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Message<?> message = event.getMessage();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (attributes == null
+                && message.getHeaders().get(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER) instanceof Message<?> connect) {
+            attributes = SimpMessageHeaderAccessor.getSessionAttributes(connect.getHeaders());
+        }
+        register(sessionId, attributes, event.getUser());
+    }
+
+    /**
+     * Retire une session STOMP fermée (déconnexion du client ou coupure du transport).
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    /**
+     * Note l'activité de la session émettrice de chaque message entrant, heartbeats compris.
+     * Une session encore ouverte mais plus suivie (expirée après une coupure réseau, par exemple)
+     * est de nouveau enregistrée à partir de ses attributs.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (sessionId != null) {
+            SessionState session = sessions.get(sessionId);
+            if (session != null) {
+                session.lastSeen = clock.getAsLong();
+            } else if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.DISCONNECT) {
+                register(sessionId, SimpMessageHeaderAccessor.getSessionAttributes(headers),
+                    SimpMessageHeaderAccessor.getUser(headers));
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Retire les sessions sans activité depuis plus de "presence.expiry-ms"
+     * (événement de déconnexion perdu, client disparu sans fermer la connexion).
+     */
+    @Scheduled(fixedDelayString = "${presence.sweep-interval-ms:10000}")
+    public void expireStaleSessions() {
+        long deadline = clock.getAsLong() - expiryMs;
+        sessions.forEach((sessionId, session) -> {
+            if (session.lastSeen < deadline) {
+                logger.debug("Session {} expirée (aucune activité)", sessionId);
+                disconnect(sessionId);
+            }
+        });
+    }
+
+    /**
+     * Enregistre une session à partir de ses attributs (ID posé par JwtHandshakeInterceptor)
+     * et de son utilisateur STOMP ; une session sans utilisateur identifié n'est pas suivie.
+     */
+    private void register(String sessionId, Map<String, Object> attributes, Principal user) {
+        Object userId = attributes != null ? attributes.get(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE) : null;
+        Object email = user != null ? user.getName() : attributes != null ? attributes.get("username") : null;
+
+        if (sessionId == null || !(userId instanceof UUID id) || !(email instanceof String name)) {
+            logger.debug("Session {} non suivie : utilisateur non identifié", sessionId);
+            return;
+        }
+        connect(sessionId, id, name);
+    }
+
+    /**
+     * Enregistre une session ; l'utilisateur passe en ligne à sa première session.
+     */
+    void connect(String sessionId, UUID userId, String email) {
+        long now = clock.getAsLong();
+        if (sessions.putIfAbsent(sessionId, new SessionState(userId, now)) != null) {
+            return;
+        }
+        boolean[] cameOnline = {false};
+        users.compute(userId, (id, state) -> {
+            if (state == null) {
+                state = new UserState(id, email, maxTypingPeers);
+                cameOnline[0] = true;
+            }
+            state.sessionIds.add(sessionId);
+            // Au-delà de la limite, les sessions les plus anciennes ne sont plus suivies
+            Iterator<String> oldest = state.sessionIds.iterator();
+            while (state.sessionIds.size() > maxSessionsPerUser) {
+                sessions.remove(oldest.next());
+                oldest.remove();
+            }
+            return state;
+        });
+        if (cameOnline[0]) {
+            lastSeen.invalidate(userId);
+            notifyWatchers(userId, true, now);
+        }
+    }
+
+    /**
+     * Retire une session ; l'utilisateur passe hors ligne à la fermeture de sa dernière session.
+     */
+    void disconnect(String sessionId) {
+        SessionState session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        UserState[] offline = {null};
+        users.computeIfPresent(session.userId, (id, state) -> {
+            state.sessionIds.remove(sessionId);
+            if (!state.sessionIds.isEmpty()) {
+                return state;
+            }
+            offline[0] = state;
+            return null;
+        });
+        if (offline[0] != null) {
+            goOffline(offline[0], session.lastSeen);
+        }
+    }
+
+    /**
+     * Indique si un utilisateur a au moins une session active sur ce nœud.
+     */
+    public boolean isOnline(UUID userId) {
+        return users.containsKey(userId);
+    }
+
+    // -------------------------------------------------------------------------
+    // PRÉSENCE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Renvoie la présence des utilisateurs demandés et abonne la session à leurs changements d'état
+     * (envoyés sur "/queue/presence"). La liste remplace la précédente ; elle est tronquée à "presence.max-watched".
+     *
+     * @param sessionId session à l'origine de la demande
+     * @param userIds utilisateurs à observer
+     * @return présence actuelle de chaque utilisateur retenu
+     */
+    public List<PresenceDTO> watch(String sessionId, Collection<UUID> userIds) {
+        Set<UUID> targets = new LinkedHashSet<>();
+        for (UUID userId : userIds) {
+            if (userId != null && targets.size() < maxWatched) {
+                targets.add(userId);
+            }
+        }
+        UserState watcher = stateOf(sessionId);
+        if (watcher != null) {
+            synchronized (watcher) {
+                if (!watcher.removed) {
+                    for (UUID previous : watcher.watched) {
+                        if (!targets.contains(previous)) {
+                            unregisterWatcher(previous, watcher.userId);
+                        }
+                    }
+                    for (UUID target : targets) {
+                        watchers.computeIfAbsent(target, key -> ConcurrentHashMap.newKeySet()).add(watcher.userId);
+                    }
+                    watcher.watched = targets;
+                }
+            }
+        }
+        List<PresenceDTO> presences = new ArrayList<>(targets.size());
+        for (UUID userId : targets) {
+            presences.add(presenceOf(userId));
+        }
+        return presences;
+    }
+
+    /**
+     * Présence actuelle d'un utilisateur (la dernière activité n'est connue que si l'utilisateur
+     * a été vu depuis le démarrage).
+     */
+    public PresenceDTO presenceOf(UUID userId) {
+        if (isOnline(userId)) {
+            return new PresenceDTO(userId, true, Instant.ofEpochMilli(clock.getAsLong()));
+        }
+        Instant seen = lastSeen.getIfPresent(userId).map(Instant::ofEpochMilli).orElse(null);
+        return new PresenceDTO(userId, false, seen);
+    }
+
+    // -------------------------------------------------------------------------
+    // SAISIE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Transmet un indicateur de saisie au destinataire s'il est en ligne.
+     *
+     * Un "écrit" n'est retransmis vers un même destinataire qu'après "presence.typing.refresh-ms" ;
+     * un "n'écrit plus" n'est transmis que si un "écrit" l'a précédé. Les "écrit" sont de plus limités
+     * à "presence.typing.max-per-window" par expéditeur sur la fenêtre.
+     *
+     * @param sessionId session de l'expéditeur
+     * @param receiverId destinataire
+     * @param typing true si l'expéditeur écrit, false s'il s'arrête
+     * @return true si l'indicateur a été transmis
+     */
+    public boolean typing(String sessionId, UUID receiverId, boolean typing) {
+        UserState sender = stateOf(sessionId);
+        if (sender == null || receiverId == null || receiverId.equals(sender.userId)) {
+            return false;
+        }
+        UserState receiver = users.get(receiverId);
+        long now = clock.getAsLong();
+        synchronized (sender) {
+            Long previous = sender.typingSince.get(receiverId);
+            if (receiver == null) {
+                // Destinataire hors ligne : rien à transmettre
+                sender.typingSince.remove(receiverId);
+                return false;
+            }
+            if (typing) {
+                if (previous != null && now - previous < typingRefreshMs) {
+                    return false;
+                }
+                if (!sender.acquire(now, typingMaxPerWindow, typingWindowMs)) {
+                    return false;
+                }
+                sender.typingSince.put(receiverId, now);
+            } else if (sender.typingSince.remove(receiverId) == null) {
+                return false;
+            }
+        }
+        send(receiver.email, "/queue/typing", new TypingIndicatorDTO(sender.userId, receiverId, typing));
+        return true;
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    private UserState stateOf(String sessionId) {
+        SessionState session = sessionId != null ? sessions.get(sessionId) : null;
+        return session != null ? users.get(session.userId) : null;
+    }
+
+    /**
+     * Passage hors ligne : arrêt des indicateurs de saisie en cours, désabonnement et notification.
+     */
+    private void goOffline(UserState state, long seenAt) {
+        List<UUID> typingPeers;
+        synchronized (state) {
+            state.removed = true;
+            for (UUID target : state.watched) {
+                unregisterWatcher(target, state.userId);
+            }
+            state.watched = Set.of();
+            typingPeers = new ArrayList<>(state.typingSince.keySet());
+            state.typingSince.clear();
+        }
+        for (UUID peerId : typingPeers) {
+            UserState peer = users.get(peerId);
+            if (peer != null) {
+                send(peer.email, "/queue/typing", new TypingIndicatorDTO(state.userId, peerId, false));
+            }
+        }
+        lastSeen.put(state.userId, seenAt);
+        notifyWatchers(state.userId, false, seenAt);
+    }
+
+    private void unregisterWatcher(UUID target, UUID watcherId) {
+        watchers.computeIfPresent(target, (key, ids) -> {
+            ids.remove(watcherId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void notifyWatchers(UUID userId, boolean online, long at) {
+        Set<UUID> watcherIds = watchers.get(userId);
+        if (watcherIds == null) {
+            return;
+        }
+        PresenceDTO presence = new PresenceDTO(userId, online, Instant.ofEpochMilli(at));
+        for (UUID watcherId : watcherIds) {
+            UserState watcher = users.get(watcherId);
+            if (watcher != null) {
+                send(watcher.email, "/queue/presence", presence);
+            }
+        }
+    }
+
+    private void send(String email, String destination, Object payload) {
+        try {
+            messagingTemplate.getObject().convertAndSendToUser(email, destination, payload);
+        } catch (Exception e) {
+            logger.warn("Envoi sur {} impossible: {}", destination, e.getMessage());
+        }
+    }
+
+    /**
+     * Session suivie : utilisateur et dernière activité (en millisecondes).
+     */
+    private static final class SessionState {
+        private final UUID userId;
+        private volatile long lastSeen;
+
+        private SessionState(UUID userId, long lastSeen) {
+            this.userId = userId;
+            this.lastSeen = lastSeen;
+        }
+    }
+
+    /**
+     * État d'un utilisateur en ligne. Les sessions sont modifiées sous le verrou de la map des utilisateurs,
+     * le reste sous le verrou de l'état.
+     */
+    private static final class UserState {
+        private final UUID userId;
+        private final String email;
+        private final Set<String> sessionIds = new LinkedHashSet<>();
+        private final Map<UUID, Long> typingSince;
+        private Set<UUID> watched = Set.of();
+        private boolean removed;
+        private long windowStart;
+        private int windowCount;
+
+        private UserState(UUID userId, String email, int maxTypingPeers) {
+            this.userId = userId;
+            this.email = email;
+            // Interlocuteurs en cours de saisie, du moins au plus récemment mis à jour
+            this.typingSince = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                    return size() > maxTypingPeers;
+                }
+            };
+        }
+
+        /**
+         * Fenêtre fixe de limitation des indicateurs transmis.
+         */
+        private boolean acquire(long now, int maxPerWindow, long windowMs) {
+            if (now - windowStart >= windowMs) {
+                windowStart = now;
+                windowCount = 0;
+            }
+            if (windowCount >= maxPerWindow) {
+                return false;
+            }
+            windowCount++;
+            return true;
+        }
+    }
+}
@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +24,8 @@ import com.atelierlocal.security.SecurityService;
  * Service responsable de la gestion des recommandations entre clients et artisans.
  * 
  * Il permet de créer, consulter et supprimer des recommandations.  
+ * Les compteurs de recommandations des artisans et des clients sont mis à jour
+ * par incrément atomique en base dans la même transaction.
  * La couche de sécurité est assurée par {@link SecurityService} afin de restreindre
  * les actions selon le rôle de l'utilisateur (client ou administrateur).
  * 
@@ -30,6 +35,8 @@ import com.atelierlocal.security.SecurityService;
 @Transactional
 public class RecommendationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
     /** Dépôt pour la gestion des entités Recommendation. */
     private final RecommendationRepo recommendationRepo;
 
@@ -42,6 +49,9 @@ public class RecommendationService {
     /** Service de sécurité vérifiant les autorisations des utilisateurs. */
     private final SecurityService securityService;
 
+    /** Sélection de la page d'accueil, à recharger quand le classement change. */
+    private final TopArtisansFeedService topArtisansFeedService;
+
     /**
      * Constructeur injectant les dépendances nécessaires.
      */
@@ -49,12 +59,14 @@ public class RecommendationService {
         RecommendationRepo recommendationRepo,
         ClientRepo clientRepo,
         ArtisanRepo artisanRepo,
-        SecurityService securityService
+        SecurityService securityService,
+        TopArtisansFeedService topArtisansFeedService
     ) {
         this.recommendationRepo = recommendationRepo;
         this.clientRepo = clientRepo;
         this.artisanRepo = artisanRepo;
         this.securityService = securityService;
+        this.topArtisansFeedService = topArtisansFeedService;
     }
 
     // ==============================================================
@@ -84,6 +96,9 @@ public class RecommendationService {
         recommendation.setArtisan(artisan);
 
         Recommendation saved = recommendationRepo.save(recommendation);
+        artisanRepo.addToRecommendationCount(artisan.getId(), 1);
+        clientRepo.addToRecommendationCount(client.getId(), 1);
+        topArtisansFeedService.invalidate();
 
         return toResponseDTO(saved);
     }
@@ -103,11 +118,13 @@ public class RecommendationService {
     public void deleteRecommendation(UUID recommendationId, Client currentClient) {
         securityService.checkAdminOnly(currentClient);
 
-        if (!recommendationRepo.existsById(recommendationId)) {
-            throw new IllegalArgumentException("Recommendation non trouvée : " + recommendationId);
-        }
+        Recommendation recommendation = recommendationRepo.findById(recommendationId)
+            .orElseThrow(() -> new IllegalArgumentException("Recommendation non trouvée : " + recommendationId));
 
         recommendationRepo.deleteById(recommendationId);
+        artisanRepo.addToRecommendationCount(recommendation.getArtisan().getId(), -1);
+        clientRepo.addToRecommendationCount(recommendation.getClient().getId(), -1);
+        topArtisansFeedService.invalidate();
     }
 
     // ==============================================================
@@ -148,6 +165,31 @@ public class RecommendationService {
             .collect(Collectors.toList());
     }
 
+    // ==============================================================
+    // Réconciliation des compteurs
+    // ==============================================================
+
+    /**
+     * Recalcule les compteurs de recommandations des artisans et des clients qui ne correspondent
+     * plus aux recommandations enregistrées (suppressions en cascade, modifications manuelles en base...).
+     *
+     * Exécutée au démarrage, ce qui initialise aussi les compteurs des comptes existants,
+     * puis à intervalle régulier. Seules les lignes erronées sont modifiées.
+     */
+    @Scheduled(fixedDelayString = "${recommendations.reconcile-interval-ms:3600000}")
+    public void reconcileCounts() {
+        try {
+            int artisans = artisanRepo.reconcileRecommendationCounts();
+            int clients = clientRepo.reconcileRecommendationCounts();
+            if (artisans + clients > 0) {
+                logger.info("Compteurs de recommandations corrigés : {} artisans, {} clients", artisans, clients);
+                topArtisansFeedService.invalidate();
+            }
+        } catch (Exception e) {
+            logger.error("Erreur lors de la réconciliation des compteurs de recommandations: {}", e.getMessage(), e);
+        }
+    }
+
     // ==============================================================
     // Méthode utilitaire
     // ==============================================================
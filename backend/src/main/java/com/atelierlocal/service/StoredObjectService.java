@@ -0,0 +1,276 @@
+package com.atelierlocal.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.atelierlocal.model.StoredObject;
+import com.atelierlocal.repository.StoredObjectRepo;
+import com.atelierlocal.storage.ObjectStorage;
+import com.atelierlocal.storage.ObjectStorageException;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Service de stockage des fichiers adressés par leur contenu (avatars, photos, pièces jointes).
+ *
+ * L'empreinte SHA-256 du contenu est calculée pendant la lecture du flux : un contenu déjà
+ * enregistré n'est pas renvoyé au stockage, seul son compteur de références est incrémenté.
+ * Deux fichiers de même nom ne peuvent donc plus s'écraser, et un fichier n'est supprimé
+ * du stockage que lorsque plus aucune entité n'y fait référence.
+ */
+@Service
+public class StoredObjectService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredObjectService.class);
+
+    private final StoredObjectRepo storedObjectRepo;
+    private final ObjectStorage objectStorage;
+    private final TransactionTemplate releaseTransaction;
+
+    /**
+     * Constructeur du service.
+     *
+     * @param storedObjectRepo repository des fichiers et de leurs compteurs de références
+     * @param objectStorage stockage des fichiers (S3 ou disque local)
+     * @param transactionManager gestionnaire de transactions pour la libération des références
+     */
+    public StoredObjectService(StoredObjectRepo storedObjectRepo, ObjectStorage objectStorage,
+                               PlatformTransactionManager transactionManager) {
+        this.storedObjectRepo = storedObjectRepo;
+        this.objectStorage = objectStorage;
+        this.releaseTransaction = new TransactionTemplate(transactionManager);
+        this.releaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // -------------------------------------------------------------------------
+    // ENREGISTREMENT
+    // -------------------------------------------------------------------------
+
+    /**
+     * Enregistre un contenu et ajoute une référence vers celui-ci.
+     *
+     * Les contenus déjà en mémoire (ByteArrayInputStream) sont hachés puis relus directement ;
+     * les autres flux sont recopiés dans un fichier temporaire pendant le calcul de l'empreinte,
+     * pour ne jamais charger le fichier entier en mémoire.
+     *
+     * @param content flux du contenu (non fermé par cette méthode)
+     * @param contentLength taille du contenu en octets
+     * @param contentType type MIME du contenu
+     * @param extension extension ajoutée à la clé de stockage (peut être nulle)
+     * @return URL publique du fichier
+     * @throws ObjectStorageException si la lecture ou l'enregistrement échoue
+     */
+    @Transactional
+    public String store(InputStream content, long contentLength, String contentType, String extension) {
+        Path spool = null;
+        try {
+            String hash;
+            long size = contentLength;
+            if (content instanceof ByteArrayInputStream inMemory) {
+                inMemory.mark(0);
+                hash = digest(inMemory, OutputStream.nullOutputStream());
+                inMemory.reset();
+            } else {
+                spool = Files.createTempFile("stored-object-", ".tmp");
+                try (OutputStream out = Files.newOutputStream(spool)) {
+                    hash = digest(content, out);
+                }
+                size = Files.size(spool);
+            }
+
+            return storeHashed(hash, size, contentType, extension, content, spool);
+        } catch (IOException e) {
+            throw new ObjectStorageException("Erreur lors de la lecture du fichier: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    /**
+     * Enregistre un fichier déjà présent sur disque et ajoute une référence vers son contenu.
+     * Le fichier est lu directement (empreinte puis envoi), sans copie intermédiaire ; il n'est pas supprimé.
+     *
+     * @param file fichier à enregistrer
+     * @param contentType type MIME du contenu
+     * @param extension extension ajoutée à la clé de stockage (peut être nulle)
+     * @return URL publique du fichier
+     * @throws ObjectStorageException si la lecture ou l'enregistrement échoue
+     */
+    @Transactional
+    public String store(Path file, String contentType, String extension) {
+        try {
+            String hash;
+            try (InputStream in = Files.newInputStream(file)) {
+                hash = digest(in, OutputStream.nullOutputStream());
+            }
+            return storeHashed(hash, Files.size(file), contentType, extension, null, file);
+        } catch (IOException e) {
+            throw new ObjectStorageException("Erreur lors de la lecture du fichier: " + e.getMessage(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // LIBÉRATION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Retire une référence vers un fichier, et le supprime du stockage s'il n'est plus référencé.
+     *
+     * S'exécute dans sa propre transaction : la ligne reste verrouillée jusqu'à la suppression
+     * du fichier, un envoi concurrent du même contenu attend donc et le renvoie ensuite.
+     * Les URL inconnues (fichiers externes, placeholders, anciens fichiers) sont ignorées.
+     *
+     * @param url URL publique du fichier
+     * @throws ObjectStorageException si la suppression du fichier échoue (la référence est alors conservée)
+     */
+    public void release(String url) {
+        String key = objectStorage.resolveKey(url);
+        if (key == null) {
+            return;
+        }
+
+        releaseTransaction.executeWithoutResult(status -> {
+            Optional<StoredObject> found = storedObjectRepo.findByStorageKeyForUpdate(key);
+            if (found.isEmpty()) {
+                logger.debug("Fichier {} non suivi, aucune suppression", key);
+                return;
+            }
+
+            StoredObject storedObject = found.get();
+            storedObject.setRefCount(storedObject.getRefCount() - 1);
+            if (storedObject.getRefCount() > 0) {
+                storedObjectRepo.save(storedObject);
+                return;
+            }
+
+            storedObjectRepo.delete(storedObject);
+            storedObjectRepo.flush();
+            objectStorage.delete(key);
+        });
+    }
+
+    /**
+     * Retire une référence vers chacun des fichiers une fois la transaction courante validée
+     * (immédiatement s'il n'y en a pas). Les erreurs sont journalisées : l'entité qui référençait
+     * les fichiers est déjà supprimée ou modifiée.
+     *
+     * @param urls URL publiques des fichiers (les valeurs nulles sont ignorées)
+     */
+    public void releaseAfterCommit(Collection<String> urls) {
+        List<String> toRelease = urls.stream().filter(Objects::nonNull).toList();
+        if (toRelease.isEmpty()) {
+            return;
+        }
+
+        Runnable releaseAll = () -> toRelease.forEach(url -> {
+            try {
+                release(url);
+            } catch (RuntimeException e) {
+                logger.warn("Impossible de libérer le fichier {}: {}", url, e.getMessage());
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseAll.run();
+                }
+            });
+        } else {
+            releaseAll.run();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Ajoute une référence vers un contenu d'empreinte connue, et l'envoie au stockage s'il n'y est pas encore :
+     * depuis le fichier s'il est fourni, sinon depuis le flux (déjà relu depuis le début).
+     */
+    private String storeHashed(String hash, long size, String contentType, String extension,
+                               InputStream content, Path file) throws IOException {
+        // Contenu déjà présent : une référence de plus, aucun envoi vers le stockage
+        Optional<StoredObject> existing = storedObjectRepo.findForUpdate(hash);
+        if (existing.isPresent()) {
+            StoredObject storedObject = existing.get();
+            storedObject.setRefCount(storedObject.getRefCount() + 1);
+            storedObjectRepo.save(storedObject);
+            return objectStorage.resolveUrl(storedObject.getStorageKey());
+        }
+
+        String key = buildKey(hash, extension);
+        if (file != null) {
+            try (InputStream fromFile = Files.newInputStream(file)) {
+                objectStorage.put(key, fromFile, size, contentType);
+            }
+        } else {
+            objectStorage.put(key, content, size, contentType);
+        }
+        storedObjectRepo.insertOrIncrement(hash, key, contentType, size);
+        return objectStorage.resolveUrl(key);
+    }
+
+    /**
+     * Lit le flux jusqu'au bout en calculant son empreinte SHA-256, en recopiant le contenu dans "out".
+     */
+    private String digest(InputStream content, OutputStream out) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            messageDigest.update(buffer, 0, read);
+            out.write(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    /**
+     * Clé de stockage d'un contenu : "objects/{2 premiers caractères}/{empreinte}.{extension}".
+     */
+    static String buildKey(String hash, String extension) {
+        String key = "objects/" + hash.substring(0, 2) + "/" + hash;
+        if (extension != null && extension.matches("[A-Za-z0-9]{1,10}")) {
+            key += "." + extension.toLowerCase();
+        }
+        return key;
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Impossible de supprimer le fichier temporaire {}", path);
+        }
+    }
+}
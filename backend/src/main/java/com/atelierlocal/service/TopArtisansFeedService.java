@@ -0,0 +1,220 @@
+package com.atelierlocal.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.atelierlocal.dto.ArtisanResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Sélection d'artisans les plus recommandés affichée sur la page d'accueil.
+ *
+ * Les 10 artisans actifs les plus recommandés sont chargés en arrière-plan et conservés dans un instantané
+ * immuable, déjà sérialisé en JSON : une requête se contente de tirer quelques artisans au hasard
+ * dans l'instantané et de concaténer leur JSON, sans accès à la base ni sérialisation.
+ *
+ * L'instantané est rechargé à intervalle régulier, et dès que possible après la création ou la
+ * suppression d'une recommandation (les invalidations rapprochées ne provoquent qu'un rechargement).
+ * Son empreinte sert d'ETag faible : le client garde sa sélection tant que l'instantané n'a pas changé,
+ * les artisans tirés (et donc le corps exact de la réponse) variant d'une requête à l'autre.
+ */
+@Service
+public class TopArtisansFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopArtisansFeedService.class);
+
+    /**
+     * Nombre d'artisans de l'instantané, parmi lesquels les artisans affichés sont tirés.
+     */
+    static final int SNAPSHOT_SIZE = 10;
+
+    private final ArtisanService artisanService;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeSeconds;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires.
+     *
+     * @param maxAgeSeconds durée pendant laquelle un client peut réutiliser sa sélection sans la redemander
+     */
+    public TopArtisansFeedService(
+                ArtisanService artisanService,
+                ObjectMapper objectMapper,
+                @Value("${homepage.top-artisans.max-age-seconds:60}") long maxAgeSeconds
+                ) {
+        this.artisanService = artisanService;
+        this.objectMapper = objectMapper;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    // -------------------------------------------------------------------------
+    // LECTURE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Tire au hasard des artisans de l'instantané courant.
+     *
+     * @param count nombre d'artisans souhaités
+     * @return tableau JSON des artisans tirés, et ETag de l'instantané
+     */
+    public Sample sample(int count) {
+        Snapshot current = snapshot;
+        List<String> artisans = current.artisans();
+        int size = Math.min(count, artisans.size());
+
+        // Tirage sans remise (Fisher-Yates partiel sur les indices)
+        int[] indexes = new int[artisans.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            int j = i + random.nextInt(indexes.length - i);
+            int picked = indexes[j];
+            indexes[j] = indexes[i];
+            indexes[i] = picked;
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(artisans.get(picked));
+        }
+        return new Sample(json.append(']').toString(), current.etag());
+    }
+
+    /**
+     * ETag de l'instantané courant.
+     */
+    public String getEtag() {
+        return snapshot.etag();
+    }
+
+    /**
+     * Durée de mise en cache des sélections par les clients, en secondes.
+     */
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    // -------------------------------------------------------------------------
+    // RECHARGEMENT
+    // -------------------------------------------------------------------------
+
+    /**
+     * Signale que le classement a pu changer : l'instantané sera rechargé au prochain contrôle,
+     * après la validation de la transaction en cours pour lire les compteurs à jour.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.set(true);
+                }
+            });
+        } else {
+            stale.set(true);
+        }
+    }
+
+    /**
+     * Recharge l'instantané s'il a été invalidé.
+     */
+    @Scheduled(fixedDelayString = "${homepage.top-artisans.invalidation-check-ms:5000}")
+    public void refreshIfStale() {
+        if (stale.compareAndSet(true, false)) {
+            refreshSafely();
+        }
+    }
+
+    /**
+     * Recharge l'instantané à intervalle régulier, invalidé ou non.
+     */
+    @Scheduled(fixedDelayString = "${homepage.top-artisans.refresh-interval-ms:300000}",
+               initialDelayString = "${homepage.top-artisans.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        stale.set(false);
+        refreshSafely();
+    }
+
+    /**
+     * Construit le premier instantané au démarrage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        stale.set(false);
+        refreshSafely();
+    }
+
+    /**
+     * Charge les artisans les plus recommandés et remplace l'instantané.
+     */
+    public void refresh() throws JsonProcessingException {
+        List<ArtisanResponseDTO> top = artisanService.getTopArtisans(SNAPSHOT_SIZE);
+        List<String> serialized = new ArrayList<>(top.size());
+        for (ArtisanResponseDTO artisan : top) {
+            serialized.add(objectMapper.writeValueAsString(artisan));
+        }
+        snapshot = new Snapshot(List.copyOf(serialized), etagOf(serialized));
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // L'instantané précédent reste servi
+            stale.set(true);
+            logger.error("Erreur lors du rechargement des artisans de la page d'accueil: {}", e.getMessage(), e);
+        }
+    }
+
+    private static String etagOf(List<String> serialized) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String json : serialized) {
+                digest.update(json.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Artisans sérialisés en JSON et empreinte de l'ensemble.
+     */
+    private record Snapshot(List<String> artisans, String etag) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), etagOf(List.of()));
+    }
+
+    /**
+     * Artisans tirés (tableau JSON) et ETag de l'instantané dont ils proviennent.
+     */
+    public record Sample(String json, String etag) {
+    }
+}
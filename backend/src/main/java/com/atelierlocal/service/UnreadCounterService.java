@@ -0,0 +1,271 @@
+package com.atelierlocal.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.atelierlocal.cache.ExpiringCache;
+import com.atelierlocal.model.User;
+import com.atelierlocal.repository.MessageRepo;
+
+/**
+ * Service de comptage incrémental des messages non lus.
+ *
+ * Les compteurs sont conservés en mémoire, par utilisateur et par conversation (interlocuteur) :
+ * - ils sont chargés à la première consultation via une seule requête COUNT groupée,
+ *   ce qui les réconcilie avec la base après un redémarrage ou une éviction,
+ * - ils sont ensuite maintenus par incréments et décréments atomiques,
+ *   appliqués uniquement après la validation de la transaction en cours.
+ *
+ * Le nombre d'utilisateurs suivis est borné et chaque compteur expire après la durée configurée.
+ * Un chargement qui croise une modification en cours de validation n'est pas conservé : il pourrait
+ * déjà compter le message que l'incrément appliqué après la validation ajoutera.
+ *
+ * Les compteurs sont propres à chaque instance : en déploiement multi-instances, un message
+ * enregistré par une autre instance n'est compté ici qu'au rechargement (expiration ou éviction),
+ * la base restant la référence.
+ *
+ * La notification WebSocket "/queue/unread" transporte le nouveau total sans charger d'entité.
+ */
+@Service
+public class UnreadCounterService {
+
+    private final MessageRepo messageRepo;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Compteurs chargés, par utilisateur destinataire
+    private final ExpiringCache<UUID, UnreadCounts> counters;
+
+    /**
+     * Modifications enregistrées mais pas encore terminées (validées ou annulées), par utilisateur.
+     */
+    private final Map<UUID, Integer> pending = new HashMap<>();
+
+    /**
+     * Numéro de la dernière modification commencée ou terminée, par utilisateur (numérotation commune) :
+     * un chargement commencé avant une modification du même utilisateur n'est pas mis en cache.
+     * Borné comme les compteurs : les utilisateurs modifiés le moins récemment sont oubliés, et le plus
+     * grand numéro oublié s'applique alors à tous les utilisateurs absents.
+     */
+    private final Map<UUID, Long> lastChanges;
+    private long changeSequence;
+    private long forgottenChange;
+    private final Object lock = new Object();
+
+    /**
+     * Constructeur du service.
+     *
+     * @param messageRepo repository des messages (comptage en base)
+     * @param messagingTemplate pour la notification en temps réel via WebSocket
+     * @param maxUsers nombre maximal d'utilisateurs dont les compteurs sont conservés
+     * @param ttlSeconds durée de conservation des compteurs d'un utilisateur, en secondes
+     */
+    public UnreadCounterService(MessageRepo messageRepo, SimpMessagingTemplate messagingTemplate,
+                                @Value("${messaging.unread.max-users:10000}") int maxUsers,
+                                @Value("${messaging.unread.ttl-seconds:3600}") long ttlSeconds) {
+        this.messageRepo = messageRepo;
+        this.messagingTemplate = messagingTemplate;
+        this.counters = new ExpiringCache<>(maxUsers, Duration.ofSeconds(ttlSeconds));
+        this.lastChanges = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                if (size() <= maxUsers) {
+                    return false;
+                }
+                forgottenChange = Math.max(forgottenChange, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Retourne le nombre total de messages non lus d'un utilisateur.
+     *
+     * @param userId ID de l'utilisateur
+     * @return nombre de messages non lus
+     */
+    public long getTotal(UUID userId) {
+        return load(userId).total.get();
+    }
+
+    /**
+     * Retourne le nombre de messages non lus par interlocuteur.
+     *
+     * @param userId ID de l'utilisateur
+     * @return map (ID de l'interlocuteur → nombre de messages non lus)
+     */
+    public Map<UUID, Long> getByConversation(UUID userId) {
+        return load(userId).byPeer.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().get()));
+    }
+
+    /**
+     * Enregistre la réception d'un message non lu et notifie le destinataire du nouveau total.
+     *
+     * @param receiver destinataire du message
+     * @param senderId ID de l'expéditeur
+     */
+    public void messageReceived(User receiver, UUID senderId) {
+        afterCommit(receiver.getId(), () -> {
+            apply(receiver.getId(), senderId, 1);
+            notifyTotal(receiver);
+        });
+    }
+
+    /**
+     * Enregistre la lecture de messages d'une conversation et notifie le lecteur du nouveau total.
+     *
+     * @param reader utilisateur ayant lu les messages
+     * @param peerId ID de l'expéditeur des messages lus
+     * @param count nombre de messages passés à l'état lu (0 pour une simple notification)
+     */
+    public void messagesRead(User reader, UUID peerId, long count) {
+        afterCommit(reader.getId(), () -> {
+            if (count > 0) {
+                apply(reader.getId(), peerId, -count);
+            }
+            notifyTotal(reader);
+        });
+    }
+
+    /**
+     * Oublie les compteurs d'un utilisateur : ils seront rechargés depuis la base à la prochaine consultation.
+     *
+     * @param userId ID de l'utilisateur
+     */
+    public void evict(UUID userId) {
+        synchronized (lock) {
+            recordChange(userId);
+            counters.invalidate(userId);
+        }
+    }
+
+    /**
+     * Charge les compteurs d'un utilisateur depuis la base s'ils ne sont pas déjà en mémoire.
+     * Le résultat n'est conservé que si aucune modification de cet utilisateur n'a commencé
+     * ou n'est en cours entre-temps ; les modifications des autres utilisateurs sont sans effet.
+     */
+    private UnreadCounts load(UUID userId) {
+        Optional<UnreadCounts> cached = counters.getIfPresent(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long sequenceBefore;
+        synchronized (lock) {
+            sequenceBefore = changeSequence;
+        }
+        UnreadCounts counts = new UnreadCounts();
+        for (Object[] row : messageRepo.countUnreadBySender(userId)) {
+            long count = ((Number) row[1]).longValue();
+            counts.byPeer.put((UUID) row[0], new AtomicLong(count));
+            counts.total.addAndGet(count);
+        }
+
+        synchronized (lock) {
+            long lastChange = lastChanges.getOrDefault(userId, forgottenChange);
+            if (lastChange <= sequenceBefore && !pending.containsKey(userId)) {
+                // Un chargement concurrent a pu précéder celui-ci : son résultat, déjà incrémenté, est gardé
+                Optional<UnreadCounts> loaded = counters.getIfPresent(userId);
+                if (loaded.isPresent()) {
+                    return loaded.get();
+                }
+                counters.put(userId, counts);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Applique une variation aux compteurs d'un utilisateur s'ils sont chargés.
+     * Sinon la base fait foi et sera lue à la prochaine consultation.
+     */
+    private void apply(UUID userId, UUID peerId, long delta) {
+        counters.getIfPresent(userId).ifPresent(counts -> {
+            synchronized (counts) {
+                AtomicLong peerCount = counts.byPeer.computeIfAbsent(peerId, p -> new AtomicLong());
+                long before = peerCount.get();
+                long after = Math.max(0, before + delta);
+                peerCount.set(after);
+                counts.total.updateAndGet(total -> Math.max(0, total + (after - before)));
+                if (after == 0) {
+                    counts.byPeer.remove(peerId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Notifie un utilisateur de son nombre total de messages non lus via WebSocket.
+     */
+    private void notifyTotal(User user) {
+        messagingTemplate.convertAndSendToUser(
+            user.getEmail(),
+            "/queue/unread",
+            (int) getTotal(user.getId())
+        );
+    }
+
+    /**
+     * Exécute une action après la validation de la transaction courante,
+     * ou immédiatement si aucune transaction n'est active.
+     * L'utilisateur est signalé comme modifié jusqu'à la fin de la transaction : ses compteurs
+     * ne sont pas mis en cache entre-temps.
+     */
+    private void afterCommit(UUID userId, Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (lock) {
+                recordChange(userId);
+                pending.merge(userId, 1, Integer::sum);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (lock) {
+                        recordChange(userId);
+                        pending.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+                    }
+                }
+            });
+        } else {
+            synchronized (lock) {
+                recordChange(userId);
+            }
+            action.run();
+        }
+    }
+
+    /**
+     * Numérote une modification des compteurs d'un utilisateur (appelé sous le verrou).
+     * L'utilisateur devient le plus récemment modifié.
+     */
+    private void recordChange(UUID userId) {
+        lastChanges.remove(userId);
+        lastChanges.put(userId, ++changeSequence);
+    }
+
+    /**
+     * Compteurs de messages non lus d'un utilisateur.
+     */
+    private static class UnreadCounts {
+        private final AtomicLong total = new AtomicLong();
+        private final Map<UUID, AtomicLong> byPeer = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,194 @@
+package com.atelierlocal.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.atelierlocal.cache.ExpiringCache;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.User;
+import com.atelierlocal.model.UserRole;
+import com.atelierlocal.repository.ArtisanRepo;
+import com.atelierlocal.repository.ClientRepo;
+
+/**
+ * Annuaire en mémoire des utilisateurs, pour les chemins critiques de la messagerie.
+ *
+ * Pour chaque utilisateur, l'annuaire garde un instantané (ID, email, rôle, type),
+ * accessible par ID et par email : l'autorisation d'envoi et l'acheminement STOMP d'un message ne
+ * nécessitent ainsi aucune requête. Les entités JPA ne sont pas conservées : elles sont propres à un
+ * contexte de persistance, les services qui en ont besoin les chargent depuis le bon repository
+ * grâce au type connu.
+ *
+ * Une entrée expire après la durée configurée, ce qui borne le délai de prise en compte des modifications
+ * non signalées. Les modifications (mise à jour, bannissement, suppression) doivent appeler invalidate,
+ * qui retire l'utilisateur après validation de la transaction en cours.
+ */
+@Service
+public class UserDirectory {
+
+    private final ArtisanRepo artisanRepo;
+    private final ClientRepo clientRepo;
+    private final ExpiringCache<UUID, Entry> byId;
+    private final ExpiringCache<String, Entry> byEmail;
+
+    /**
+     * Nombre d'invalidations effectuées : un chargement commencé avant une invalidation
+     * n'est pas mis en cache, car il a pu lire l'utilisateur avant sa modification.
+     */
+    private long invalidations;
+    private final Object lock = new Object();
+
+    /**
+     * Constructeur de l'annuaire.
+     *
+     * @param artisanRepo repository des artisans
+     * @param clientRepo repository des clients
+     * @param maxSize nombre maximal d'utilisateurs en cache
+     * @param ttlSeconds durée maximale de conservation d'une entrée, en secondes
+     */
+    public UserDirectory(ArtisanRepo artisanRepo, ClientRepo clientRepo,
+                @Value("${users.directory.max-size:10000}") int maxSize,
+                @Value("${users.directory.ttl-seconds:600}") long ttlSeconds
+                ) {
+        this.artisanRepo = artisanRepo;
+        this.clientRepo = clientRepo;
+        this.byId = new ExpiringCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+        this.byEmail = new ExpiringCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    // -------------------------------------------------------------------------
+    // RECHERCHE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Recherche un utilisateur (artisan ou client) par son ID.
+     *
+     * @param userId ID de l'utilisateur
+     * @return instantané de l'utilisateur, ou vide s'il n'existe pas
+     */
+    public Optional<Entry> findById(UUID userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        Optional<Entry> cached = byId.getIfPresent(userId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return load(() -> artisanRepo.findById(userId)
+            .map(User.class::cast)
+            .or(() -> clientRepo.findById(userId)));
+    }
+
+    /**
+     * Recherche un utilisateur (artisan ou client) par son email.
+     *
+     * @param email email de l'utilisateur
+     * @return instantané de l'utilisateur, ou vide s'il n'existe pas
+     */
+    public Optional<Entry> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Optional<Entry> cached = byEmail.getIfPresent(email);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return load(() -> artisanRepo.findByEmail(email)
+            .map(User.class::cast)
+            .or(() -> clientRepo.findByEmail(email)));
+    }
+
+    // -------------------------------------------------------------------------
+    // INVALIDATION
+    // -------------------------------------------------------------------------
+
+    /**
+     * Retire un utilisateur de l'annuaire, une fois la transaction en cours validée
+     * (immédiatement s'il n'y en a pas).
+     *
+     * @param userId ID de l'utilisateur modifié ou supprimé
+     */
+    public void invalidate(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Nom affiché d'un utilisateur : nom de l'artisan, ou prénom et nom du client.
+     *
+     * @param user utilisateur
+     * @return nom affiché
+     */
+    public static String displayName(User user) {
+        if (user instanceof Artisan artisan) {
+            return artisan.getName() != null ? artisan.getName() : "Artisan sans nom";
+        } else if (user instanceof Client client) {
+            String firstName = client.getFirstName() != null ? client.getFirstName() : "";
+            String lastName = client.getLastName() != null ? client.getLastName() : "";
+            return (firstName + " " + lastName).trim().isEmpty() ? "Client sans nom" : (firstName + " " + lastName).trim();
+        }
+        throw new IllegalStateException("Type d'utilisateur inconnu: " + user.getClass().getSimpleName());
+    }
+
+    private Optional<Entry> load(Supplier<Optional<User>> loader) {
+        long invalidationsBefore;
+        synchronized (lock) {
+            invalidationsBefore = invalidations;
+        }
+
+        Optional<Entry> loaded = loader.get().map(Entry::of);
+        loaded.ifPresent(entry -> {
+            synchronized (lock) {
+                if (invalidations == invalidationsBefore) {
+                    byId.put(entry.id(), entry);
+                    byEmail.put(entry.email(), entry);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    private void evict(UUID userId) {
+        synchronized (lock) {
+            invalidations++;
+            byId.invalidate(userId);
+            // L'email a pu changer : toutes les entrées de l'utilisateur sont retirées
+            byEmail.invalidateIf(entry -> entry.id().equals(userId));
+        }
+    }
+
+    /**
+     * Instantané d'un utilisateur.
+     *
+     * @param id identifiant
+     * @param email email (nom d'utilisateur STOMP)
+     * @param role rôle
+     * @param artisan true pour un artisan, false pour un client
+     */
+    public record Entry(UUID id, String email, UserRole role, boolean artisan) {
+
+        static Entry of(User user) {
+            return new Entry(user.getId(), user.getEmail(), user.getUserRole(), user instanceof Artisan);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.atelierlocal.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stockage de fichiers sur le disque local, pour les tests et les instances auto-hébergées.
+ *
+ * Les fichiers sont rangés sous le répertoire "storage.local.root-dir" selon leur clé,
+ * et servis publiquement par FileController sous "storage.local.public-url".
+ *
+ * Les écritures et lectures passent par des fichiers mappés en mémoire : le contenu est copié
+ * directement dans le cache de pages du système, sans tampon intermédiaire côté JVM.
+ * Une écriture se fait dans un fichier temporaire renommé à la fin, un lecteur ne voit donc
+ * jamais un fichier partiellement écrit.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    /**
+     * Taille des fenêtres de mappage (les gros fichiers sont mappés par morceaux).
+     */
+    private static final long MAPPING_WINDOW = 64L * 1024 * 1024;
+
+    private final Path rootDir;
+    private final String publicUrl;
+
+    /**
+     * Constructeur du stockage local.
+     *
+     * @param rootDir répertoire racine des fichiers
+     * @param publicUrl préfixe des URL publiques (servies par FileController)
+     */
+    public LocalObjectStorage(@Value("${storage.local.root-dir:./storage}") String rootDir,
+                              @Value("${storage.local.public-url:/api/files}") String publicUrl) {
+        this.rootDir = Path.of(rootDir).toAbsolutePath().normalize();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl : publicUrl + "/";
+        try {
+            Files.createDirectories(this.rootDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossible de créer le répertoire de stockage " + this.rootDir, e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ÉCRITURE
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) {
+        Path target = resolvePath(key);
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                byte[] chunk = new byte[8192];
+                long position = 0;
+                while (position < contentLength) {
+                    long windowSize = Math.min(MAPPING_WINDOW, contentLength - position);
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, position, windowSize);
+                    while (window.hasRemaining()) {
+                        int read = content.read(chunk, 0, Math.min(chunk.length, window.remaining()));
+                        if (read < 0) {
+                            throw new ObjectStorageException("Contenu du fichier " + key + " plus court que la taille annoncée.");
+                        }
+                        window.put(chunk, 0, read);
+                    }
+                    window.force();
+                    position += windowSize;
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            if (e instanceof ObjectStorageException storageException) {
+                throw storageException;
+            }
+            throw new ObjectStorageException("Erreur lors de l'écriture du fichier " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // LECTURE / SUPPRESSION
+    // -------------------------------------------------------------------------
+
+    @Override
+    public InputStream get(String key) {
+        Path path = resolvePath(key);
+        if (!Files.isRegularFile(path)) {
+            throw new ObjectStorageException("Fichier introuvable: " + key);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new ObjectStorageException("Erreur lors de la lecture du fichier " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolvePath(key));
+        } catch (IOException e) {
+            throw new ObjectStorageException("Erreur lors de la suppression du fichier " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolvePath(key));
+    }
+
+    // -------------------------------------------------------------------------
+    // URL PUBLIQUES
+    // -------------------------------------------------------------------------
+
+    @Override
+    public String resolveUrl(String key) {
+        return publicUrl + ObjectStorage.encodeKey(key);
+    }
+
+    @Override
+    public String resolveKey(String url) {
+        if (url == null || !url.startsWith(publicUrl)) {
+            return null;
+        }
+        return ObjectStorage.decodeKey(url.substring(publicUrl.length()));
+    }
+
+    // -------------------------------------------------------------------------
+    // MÉTHODES UTILITAIRES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Chemin du fichier correspondant à une clé. Refuse les clés sortant du répertoire racine.
+     */
+    private Path resolvePath(String key) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Clé de fichier manquante.");
+        }
+        Path path = rootDir.resolve(key).normalize();
+        if (!path.startsWith(rootDir) || path.equals(rootDir)) {
+            throw new IllegalArgumentException("Clé de fichier invalide: " + key);
+        }
+        return path;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Le fichier temporaire sera écrasé ou nettoyé manuellement
+        }
+    }
+
+    /**
+     * Flux de lecture sur un fichier mappé en mémoire.
+     */
+    private static class MappedInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
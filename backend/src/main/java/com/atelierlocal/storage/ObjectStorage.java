@@ -0,0 +1,99 @@
+package com.atelierlocal.storage;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Abstraction du stockage de fichiers (pièces jointes, avatars, portfolio).
+ *
+ * Les fichiers sont identifiés par une clé hiérarchique (ex : "avatars/{userId}/photo.png").
+ * Les implémentations disponibles sont :
+ * - S3ObjectStorage : stockage sur un bucket AWS S3 (envoi multipart pour les gros fichiers),
+ * - LocalObjectStorage : stockage sur disque local (tests, instances auto-hébergées).
+ *
+ * L'implémentation active est choisie via la propriété "storage.backend" (s3 par défaut, ou local).
+ *
+ * Dans les URL publiques, chaque segment de la clé est encodé (espaces, accents, "#", "?"...) :
+ * resolveUrl encode la clé, resolveKey la décode.
+ */
+public interface ObjectStorage {
+
+    /**
+     * Enregistre un fichier en lisant le flux fourni, sans le charger entièrement en mémoire.
+     *
+     * @param key clé du fichier
+     * @param content flux du contenu (non fermé par cette méthode)
+     * @param contentLength taille du contenu en octets
+     * @param contentType type MIME du contenu
+     * @throws ObjectStorageException si l'enregistrement échoue
+     */
+    void put(String key, InputStream content, long contentLength, String contentType);
+
+    /**
+     * Ouvre un flux de lecture sur un fichier stocké. Le flux doit être fermé par l'appelant.
+     *
+     * @param key clé du fichier
+     * @return flux du contenu
+     * @throws ObjectStorageException si le fichier est introuvable ou illisible
+     */
+    InputStream get(String key);
+
+    /**
+     * Supprime un fichier. Ne fait rien si le fichier n'existe pas.
+     *
+     * @param key clé du fichier
+     * @throws ObjectStorageException si la suppression échoue
+     */
+    void delete(String key);
+
+    /**
+     * Indique si un fichier existe.
+     *
+     * @param key clé du fichier
+     * @return true si le fichier existe
+     */
+    boolean exists(String key);
+
+    /**
+     * Construit l'URL publique d'un fichier.
+     *
+     * @param key clé du fichier
+     * @return URL publique
+     */
+    String resolveUrl(String key);
+
+    /**
+     * Retrouve la clé d'un fichier à partir de son URL publique.
+     *
+     * @param url URL publique
+     * @return clé du fichier, ou null si l'URL n'appartient pas à ce stockage
+     */
+    String resolveKey(String url);
+
+    /**
+     * Encode une clé pour l'utiliser dans une URL (segment par segment, les "/" sont conservés).
+     *
+     * @param key clé du fichier
+     * @return clé encodée
+     */
+    static String encodeKey(String key) {
+        return Arrays.stream(key.split("/", -1))
+            .map(segment -> UriUtils.encodePathSegment(segment, StandardCharsets.UTF_8))
+            .collect(Collectors.joining("/"));
+    }
+
+    /**
+     * Décode une clé extraite d'une URL.
+     *
+     * @param encodedKey clé encodée
+     * @return clé du fichier
+     * @throws IllegalArgumentException si l'encodage est invalide
+     */
+    static String decodeKey(String encodedKey) {
+        return UriUtils.decode(encodedKey, StandardCharsets.UTF_8);
+    }
+}
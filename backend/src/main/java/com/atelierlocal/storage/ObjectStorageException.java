@@ -0,0 +1,15 @@
+package com.atelierlocal.storage;
+
+/**
+ * Exception levée lorsqu'une opération sur le stockage de fichiers échoue.
+ */
+public class ObjectStorageException extends RuntimeException {
+
+    public ObjectStorageException(String message) {
+        super(message);
+    }
+
+    public ObjectStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,223 @@
+package com.atelierlocal.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.atelierlocal.model.S3Properties;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * Stockage de fichiers sur un bucket AWS S3.
+ *
+ * Les fichiers dont la taille dépasse le seuil "storage.s3.multipart-threshold" (8 Mo par défaut)
+ * sont envoyés en plusieurs parties : seule une partie est présente en mémoire à la fois,
+ * et l'envoi est annulé côté S3 en cas d'erreur pour ne pas laisser de parties orphelines.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStorage implements ObjectStorage {
+
+    /**
+     * Taille minimale d'une partie imposée par S3 (hors dernière partie).
+     */
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final S3Properties s3Properties;
+    private final long multipartThreshold;
+    private final String objectAcl;
+
+    /**
+     * Constructeur du stockage S3.
+     *
+     * @param s3Client client AWS S3
+     * @param s3Properties propriétés S3 (bucket, région)
+     * @param multipartThreshold taille (octets) au-delà de laquelle l'envoi se fait en plusieurs parties
+     * @param objectAcl ACL appliquée aux fichiers envoyés ; vide par défaut, aucune ACL n'est alors envoyée
+     *                  (les buckets en "BucketOwnerEnforced" refusent toute requête portant une ACL)
+     */
+    public S3ObjectStorage(S3Client s3Client, S3Properties s3Properties,
+                           @Value("${storage.s3.multipart-threshold:8388608}") long multipartThreshold,
+                           @Value("${storage.s3.acl:}") String objectAcl) {
+        this.s3Client = s3Client;
+        this.s3Properties = s3Properties;
+        this.multipartThreshold = Math.max(multipartThreshold, MIN_PART_SIZE);
+        this.objectAcl = objectAcl == null || objectAcl.isBlank() ? null : objectAcl;
+    }
+
+    // -------------------------------------------------------------------------
+    // ÉCRITURE
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) {
+        try {
+            if (contentLength <= multipartThreshold) {
+                PutObjectRequest.Builder request = PutObjectRequest.builder()
+                    .bucket(s3Properties.getBucketName())
+                    .key(key)
+                    .contentType(contentType);
+                if (objectAcl != null) {
+                    request.acl(objectAcl);
+                }
+                s3Client.putObject(request.build(), RequestBody.fromInputStream(content, contentLength));
+            } else {
+                putMultipart(key, content, contentLength, contentType);
+            }
+        } catch (SdkException e) {
+            throw new ObjectStorageException("Erreur lors de l'envoi du fichier " + key + " sur S3: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envoi en plusieurs parties de taille "multipartThreshold" (la dernière pouvant être plus petite).
+     */
+    private void putMultipart(String key, InputStream content, long contentLength, String contentType) {
+        String bucket = s3Properties.getBucketName();
+        CreateMultipartUploadRequest.Builder createRequest = CreateMultipartUploadRequest.builder()
+            .bucket(bucket)
+            .key(key)
+            .contentType(contentType);
+        if (objectAcl != null) {
+            createRequest.acl(objectAcl);
+        }
+        String uploadId = s3Client.createMultipartUpload(createRequest.build()).uploadId();
+
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[(int) multipartThreshold];
+            long remaining = contentLength;
+            int partNumber = 1;
+
+            while (remaining > 0) {
+                int partLength = content.readNBytes(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (partLength == 0) {
+                    throw new ObjectStorageException("Contenu du fichier " + key + " plus court que la taille annoncée.");
+                }
+
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) partLength)
+                        .build(),
+                    RequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, partLength)))
+                    .eTag();
+
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                remaining -= partLength;
+                partNumber++;
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+        } catch (IOException | RuntimeException e) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .build());
+            if (e instanceof ObjectStorageException storageException) {
+                throw storageException;
+            }
+            throw new ObjectStorageException("Erreur lors de l'envoi multipart du fichier " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // LECTURE / SUPPRESSION
+    // -------------------------------------------------------------------------
+
+    @Override
+    public InputStream get(String key) {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(key)
+                .build());
+        } catch (SdkException e) {
+            throw new ObjectStorageException("Erreur lors de la lecture du fichier " + key + " sur S3: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(key)
+                .build());
+        } catch (SdkException e) {
+            throw new ObjectStorageException("Erreur lors de la suppression du fichier " + key + " sur S3: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(key)
+                .build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new ObjectStorageException("Erreur lors de la vérification du fichier " + key + " sur S3: " + e.getMessage(), e);
+        } catch (SdkException e) {
+            throw new ObjectStorageException("Erreur lors de la vérification du fichier " + key + " sur S3: " + e.getMessage(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // URL PUBLIQUES
+    // -------------------------------------------------------------------------
+
+    @Override
+    public String resolveUrl(String key) {
+        return urlPrefix() + ObjectStorage.encodeKey(key);
+    }
+
+    @Override
+    public String resolveKey(String url) {
+        String prefix = urlPrefix();
+        if (url == null || !url.startsWith(prefix)) {
+            return null;
+        }
+        return ObjectStorage.decodeKey(url.substring(prefix.length()));
+    }
+
+    private String urlPrefix() {
+        return String.format("https://%s.s3.%s.amazonaws.com/", s3Properties.getBucketName(), s3Properties.getRegion());
+    }
+}
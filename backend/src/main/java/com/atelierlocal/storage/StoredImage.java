@@ -0,0 +1,32 @@
+package com.atelierlocal.storage;
+
+/**
+ * Résultat de l'enregistrement d'une image : URL publiques de chaque déclinaison
+ * et format de sortie (l'image est réencodée, son format peut différer du fichier reçu).
+ */
+public class StoredImage {
+
+    private final String fullUrl;
+    private final String cardUrl;
+    private final String thumbnailUrl;
+    private final String extension;
+    private final String contentType;
+
+    public StoredImage(String fullUrl, String cardUrl, String thumbnailUrl, String extension, String contentType) {
+        this.fullUrl = fullUrl;
+        this.cardUrl = cardUrl;
+        this.thumbnailUrl = thumbnailUrl;
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getFullUrl() { return fullUrl; }
+
+    public String getCardUrl() { return cardUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+
+    public String getExtension() { return extension; }
+
+    public String getContentType() { return contentType; }
+}
@@ -0,0 +1,138 @@
+package com.atelierlocal.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), now::get);
+        cache.put("lyon", "69000");
+
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals(Optional.of("69000"), cache.getIfPresent("lyon"));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(cache.getIfPresent("lyon").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEntryTtlIsCappedByCacheTtl() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), now::get);
+        cache.put("court", "a", Duration.ofSeconds(10));
+        cache.put("long", "b", Duration.ofHours(1));
+        cache.put("expiré", "c", Duration.ofSeconds(-1));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(cache.getIfPresent("court").isEmpty());
+        assertEquals(Optional.of("b"), cache.getIfPresent("long"));
+        assertTrue(cache.getIfPresent("expiré").isEmpty());
+
+        now.addAndGet(Duration.ofSeconds(50).toNanos());
+        assertTrue(cache.getIfPresent("long").isEmpty());
+    }
+
+    @Test
+    void testInvalidateIf() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.invalidateIf(value -> value % 2 == 1);
+
+        assertEquals(1, cache.size());
+        assertEquals(Optional.of(2), cache.getIfPresent("b"));
+    }
+
+    @Test
+    void testLeastRecentlyReadEntryIsEvicted() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.getIfPresent("a");
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.getIfPresent("b").isEmpty());
+        assertEquals(Optional.of(1), cache.getIfPresent("a"));
+        assertEquals(Optional.of(3), cache.getIfPresent("c"));
+    }
+
+    @Test
+    void testLoaderIsCalledOnceAndErrorsAreNotCached() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> cache.get("k", key -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("indisponible");
+        }));
+        assertEquals("v", cache.get("k", key -> { calls.incrementAndGet(); return "v"; }));
+        assertEquals("v", cache.get("k", key -> { calls.incrementAndGet(); return "autre"; }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testConcurrentLoadsOfSameKeyAreCoalesced() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("paris", key -> {
+                calls.incrementAndGet();
+                loaderStarted.countDown();
+                await(release);
+                return "75000";
+            })));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get("paris", key -> {
+                    calls.incrementAndGet();
+                    return "autre";
+                })));
+            }
+            // Laisse aux appelants le temps de se mettre en attente du premier chargement
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("75000", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -43,6 +43,7 @@ class ArtisanCategoryControllerTest {
         artisanCategoryController = new ArtisanCategoryController(artisanCategoryService, artisanService, askingService);
 
         categoryId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        when(artisanCategoryService.getEtag()).thenReturn("\"abc\"");
 
         client = new Client();
         client.setId(UUID.fromString("22222222-2222-2222-2222-222222222222"));
@@ -79,7 +80,7 @@ class ArtisanCategoryControllerTest {
     void testGetAllArtisanCategories() {
         when(artisanCategoryService.getAllArtisanCategory()).thenReturn(List.of(categoryResponseDTO));
 
-        ResponseEntity<List<ArtisanCategoryResponseDTO>> response = artisanCategoryController.getAllArtisanCategories();
+        ResponseEntity<List<ArtisanCategoryResponseDTO>> response = artisanCategoryController.getAllArtisanCategories(null);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(1, Objects.requireNonNull(response.getBody()).size());
@@ -87,11 +88,21 @@ class ArtisanCategoryControllerTest {
         verify(artisanCategoryService).getAllArtisanCategory();
     }
 
+    @Test
+    void testGetAllArtisanCategories_NotModified() {
+        ResponseEntity<List<ArtisanCategoryResponseDTO>> response = artisanCategoryController.getAllArtisanCategories("\"abc\"");
+
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        verify(artisanCategoryService, never()).getAllArtisanCategory();
+    }
+
     @Test
     void testGetArtisanCategoryById() {
         when(artisanCategoryService.getArtisanCategoryById(categoryId)).thenReturn(categoryResponseDTO);
 
-        ResponseEntity<ArtisanCategoryResponseDTO> response = artisanCategoryController.getArtisanCategoryById(categoryId);
+        ResponseEntity<ArtisanCategoryResponseDTO> response = artisanCategoryController.getArtisanCategoryById(categoryId, null);
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -7,8 +7,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +23,8 @@ import org.springframework.mock.web.MockMultipartFile;
 
 import com.atelierlocal.dto.ArtisanRequestDTO;
 import com.atelierlocal.dto.ArtisanResponseDTO;
+import com.atelierlocal.dto.ArtisanSummaryDTO;
+import com.atelierlocal.dto.PageDTO;
 import com.atelierlocal.dto.RecommendationRequestDTO;
 import com.atelierlocal.dto.RecommendationResponseDTO;
 import com.atelierlocal.dto.UploadedPhotoRequestDTO;
@@ -24,9 +33,14 @@ import com.atelierlocal.model.Artisan;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.UploadedPhoto;
 import com.atelierlocal.model.User;
+import com.atelierlocal.model.UserRole;
+import com.atelierlocal.repository.ArtisanCatalogSort;
+import com.atelierlocal.service.ArtisanCatalogService;
 import com.atelierlocal.service.ArtisanService;
+import com.atelierlocal.service.GeoSearchService;
 import com.atelierlocal.service.PortfolioService;
 import com.atelierlocal.service.RecommendationService;
+import com.atelierlocal.service.TopArtisansFeedService;
 
 class ArtisanControllerTest {
 
@@ -34,6 +48,9 @@ class ArtisanControllerTest {
     private ArtisanService artisanService;
     private RecommendationService recommendationService;
     private PortfolioService portfolioService;
+    private GeoSearchService geoSearchService;
+    private ArtisanCatalogService artisanCatalogService;
+    private TopArtisansFeedService topArtisansFeedService;
 
     private UUID artisanId;
     private Artisan artisan;
@@ -46,8 +63,12 @@ class ArtisanControllerTest {
         artisanService = mock(ArtisanService.class);
         recommendationService = mock(RecommendationService.class);
         portfolioService = mock(PortfolioService.class);
+        geoSearchService = mock(GeoSearchService.class);
+        artisanCatalogService = mock(ArtisanCatalogService.class);
+        topArtisansFeedService = mock(TopArtisansFeedService.class);
 
-        artisanController = new ArtisanController(artisanService, recommendationService, portfolioService);
+        artisanController = new ArtisanController(artisanService, recommendationService, portfolioService,
+            geoSearchService, artisanCatalogService, topArtisansFeedService);
 
         artisanId = UUID.fromString("11111111-1111-1111-1111-111111111111");
 
@@ -183,17 +204,40 @@ class ArtisanControllerTest {
     // GET /api/artisans/random-top
     @Test
     void testGetRandomTopArtisans() {
-        List<Artisan> artisans = List.of(artisan);
-        when(artisanService.getRandomTopArtisans(3)).thenReturn(artisans);
+        when(topArtisansFeedService.getEtag()).thenReturn("\"v1\"");
+        when(topArtisansFeedService.getMaxAgeSeconds()).thenReturn(60L);
+        when(topArtisansFeedService.sample(3))
+            .thenReturn(new TopArtisansFeedService.Sample("[{\"name\":\"Jean Dupont\"}]", "\"v1\""));
 
-        ResponseEntity<List<ArtisanResponseDTO>> response = artisanController.getRandomTopArtisans();
-        List<ArtisanResponseDTO> result = response.getBody();
+        ResponseEntity<String> response = artisanController.getRandomTopArtisans(null);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("Jean Dupont", result.get(0).getName());
         assertEquals(200, response.getStatusCode().value());
-        verify(artisanService).getRandomTopArtisans(3);
+        assertEquals("[{\"name\":\"Jean Dupont\"}]", response.getBody());
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+        verify(topArtisansFeedService).sample(3);
+    }
+
+    @Test
+    void testGetRandomTopArtisansWeakEtagNotModified() {
+        when(topArtisansFeedService.getEtag()).thenReturn("W/\"v1\"");
+        when(topArtisansFeedService.getMaxAgeSeconds()).thenReturn(60L);
+
+        ResponseEntity<String> response = artisanController.getRandomTopArtisans("W/\"v1\"");
+
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals("W/\"v1\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetRandomTopArtisansNotModified() {
+        when(topArtisansFeedService.getEtag()).thenReturn("\"v1\"");
+        when(topArtisansFeedService.getMaxAgeSeconds()).thenReturn(60L);
+
+        ResponseEntity<String> response = artisanController.getRandomTopArtisans("\"v1\"");
+
+        assertEquals(304, response.getStatusCode().value());
+        verify(topArtisansFeedService, never()).sample(anyInt());
     }
 
     // POST /api/artisans/{id}/portfolio/upload
@@ -229,4 +273,54 @@ class ArtisanControllerTest {
         assertEquals(204, response.getStatusCode().value());
         verify(portfolioService).removePhoto(artisanId, photoId, user);
     }
-}
\ No newline at end of file
+
+    // GET /api/artisans/catalog
+    @Test
+    void testGetCatalog() {
+        PageDTO<ArtisanSummaryDTO> catalog = new PageDTO<>(List.of(), 0, 20, 0);
+        when(artisanCatalogService.getCatalog(ArtisanCatalogSort.RECENT, null, null, true, null, null, 0, 20))
+            .thenReturn(catalog);
+
+        ResponseEntity<PageDTO<ArtisanSummaryDTO>> response =
+            artisanController.getCatalog("recent", null, null, true, null, null, 0, 20, null);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(catalog, response.getBody());
+    }
+
+    @Test
+    void testGetCatalogInactiveArtisansIsReservedToAdmins() {
+        Client admin = new Client();
+        admin.setUserRole(UserRole.ADMIN);
+        Client client = new Client();
+        client.setUserRole(UserRole.CLIENT);
+        PageDTO<ArtisanSummaryDTO> banned = new PageDTO<>(List.of(), 0, 20, 0);
+        when(artisanCatalogService.getCatalog(ArtisanCatalogSort.NAME, null, null, false, null, null, 0, 20))
+            .thenReturn(banned);
+
+        assertEquals(403, artisanController.getCatalog("name", null, null, false, null, null, 0, 20, null).getStatusCode().value());
+        assertEquals(403, artisanController.getCatalog("name", null, null, false, null, null, 0, 20, client).getStatusCode().value());
+        assertEquals(banned, artisanController.getCatalog("name", null, null, false, null, null, 0, 20, admin).getBody());
+        verify(artisanCatalogService, times(1)).getCatalog(any(), any(), any(), anyBoolean(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetCatalogWithUnknownSortReturnsBadRequest() {
+        ResponseEntity<PageDTO<ArtisanSummaryDTO>> response =
+            artisanController.getCatalog("price", null, null, true, null, null, 0, 20, null);
+
+        assertEquals(400, response.getStatusCode().value());
+        verify(artisanCatalogService, never()).getCatalog(any(), any(), any(), anyBoolean(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetCatalogWithInvalidParametersReturnsBadRequest() {
+        when(artisanCatalogService.getCatalog(eq(ArtisanCatalogSort.DISTANCE), isNull(), isNull(), eq(true), isNull(), isNull(), eq(0), eq(20)))
+            .thenThrow(new IllegalArgumentException("Le tri par distance nécessite une latitude et une longitude."));
+
+        ResponseEntity<PageDTO<ArtisanSummaryDTO>> response =
+            artisanController.getCatalog("distance", null, null, true, null, null, 0, 20, null);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+}
@@ -2,12 +2,16 @@ package com.atelierlocal.controller;
 
 import com.atelierlocal.dto.AskingRequestDTO;
 import com.atelierlocal.dto.AskingResponseDTO;
+import com.atelierlocal.dto.CursorPageDTO;
+import com.atelierlocal.dto.OpportunityDTO;
+import com.atelierlocal.model.Artisan;
 import com.atelierlocal.model.ArtisanCategory;
 import com.atelierlocal.model.Asking;
 import com.atelierlocal.model.AskingStatus;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.AskingRepo;
+import com.atelierlocal.service.AskingMatchingService;
 import com.atelierlocal.service.AskingService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +33,7 @@ class AskingControllerTest {
 
     private AskingService askingService;
     private AskingRepo askingRepo;
+    private AskingMatchingService askingMatchingService;
     private AskingController askingController;
 
     private UUID askingId;
@@ -43,7 +48,8 @@ class AskingControllerTest {
     void setUp() {
         askingService = mock(AskingService.class);
         askingRepo = mock(AskingRepo.class);
-        askingController = new AskingController(askingService, askingRepo);
+        askingMatchingService = mock(AskingMatchingService.class);
+        askingController = new AskingController(askingService, askingRepo, askingMatchingService);
 
         askingId = UUID.fromString("11111111-1111-1111-1111-111111111111");
         clientId = UUID.fromString("22222222-2222-2222-2222-222222222222");
@@ -172,4 +178,29 @@ class AskingControllerTest {
         assertEquals(200, response.getStatusCode().value());
         verify(askingService).patchAskingStatus(askingId, newStatus, client);
     }
+
+    @Test
+    void testGetOpportunities() {
+        Artisan artisan = new Artisan();
+        artisan.setId(UUID.randomUUID());
+        CursorPageDTO<OpportunityDTO> page = new CursorPageDTO<>(
+            List.of(new OpportunityDTO(askingResponseDTO, 4.2, null)), "next", true);
+        when(askingMatchingService.getInbox(artisan.getId(), null, 10)).thenReturn(page);
+
+        ResponseEntity<CursorPageDTO<OpportunityDTO>> response = askingController.getOpportunities(null, 10, artisan);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void testGetOpportunities_invalidCursor() {
+        Artisan artisan = new Artisan();
+        artisan.setId(UUID.randomUUID());
+        when(askingMatchingService.getInbox(artisan.getId(), "bad", null)).thenThrow(new IllegalArgumentException("Curseur de pagination invalide."));
+
+        ResponseEntity<CursorPageDTO<OpportunityDTO>> response = askingController.getOpportunities("bad", null, artisan);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
 }
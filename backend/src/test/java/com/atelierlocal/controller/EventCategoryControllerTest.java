@@ -31,6 +31,7 @@ class EventCategoryControllerTest {
         controller = new EventCategoryController(service);
 
         eventCategoryId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        when(service.getEtag()).thenReturn("\"abc\"");
 
         eventCategory = new EventCategory();
         eventCategory.setId(eventCategoryId);
@@ -61,7 +62,7 @@ class EventCategoryControllerTest {
     void testGetAllEventCategories() {
         when(service.getAllEventCategories()).thenReturn(List.of(eventCategoryResponseDTO));
 
-        ResponseEntity<List<EventCategoryResponseDTO>> response = controller.getAllEventCategories();
+        ResponseEntity<List<EventCategoryResponseDTO>> response = controller.getAllEventCategories(null);
         assertNotNull(response.getBody());
 
         List<EventCategoryResponseDTO> body = Objects.requireNonNull(response.getBody(), "Response body is null");
@@ -70,11 +71,30 @@ class EventCategoryControllerTest {
         verify(service).getAllEventCategories();
     }
 
+    @Test
+    void testGetAllEventCategories_ReturnsEtag() {
+        when(service.getAllEventCategories()).thenReturn(List.of(eventCategoryResponseDTO));
+
+        ResponseEntity<List<EventCategoryResponseDTO>> response = controller.getAllEventCategories("\"old\"");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testGetEventCategoryById_NotModified() {
+        ResponseEntity<EventCategoryResponseDTO> response = controller.getEventCategoryById(eventCategoryId, "W/\"abc\"");
+
+        assertEquals(304, response.getStatusCode().value());
+        verify(service, never()).getEventCategoryById(eventCategoryId);
+    }
+
     @Test
     void testGetEventCategoryById() {
         when(service.getEventCategoryById(eventCategoryId)).thenReturn(eventCategoryResponseDTO);
 
-        ResponseEntity<EventCategoryResponseDTO> response = controller.getEventCategoryById(eventCategoryId);
+        ResponseEntity<EventCategoryResponseDTO> response = controller.getEventCategoryById(eventCategoryId, null);
         assertNotNull(response.getBody());
 
         EventCategoryResponseDTO body = Objects.requireNonNull(response.getBody(), "Response body is null");
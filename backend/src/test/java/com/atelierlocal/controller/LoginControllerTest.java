@@ -3,6 +3,8 @@ package com.atelierlocal.controller;
 import com.atelierlocal.dto.LoginRequest;
 import com.atelierlocal.security.CustomUserDetailsService;
 import com.atelierlocal.security.JwtService;
+import com.atelierlocal.security.LoginThrottle;
+import com.atelierlocal.security.TokenRevocationService;
 import com.atelierlocal.service.LoginService;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -29,13 +32,20 @@ class LoginControllerTest {
     private LoginService loginService;
     private JwtService jwtService;
     private CustomUserDetailsService userDetailsService;
+    private TokenRevocationService tokenRevocationService;
+    private LoginThrottle loginThrottle;
+    private MockHttpServletRequest httpRequest;
 
     @BeforeEach
     void setUp() {
         loginService = mock(LoginService.class);
         jwtService = mock(JwtService.class);
         userDetailsService = mock(CustomUserDetailsService.class);
-        loginController = new LoginController(loginService, jwtService, userDetailsService);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        loginThrottle = new LoginThrottle(2, 2, 60, 3, 1000, 60_000, 10, 60_000);
+        httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("203.0.113.7");
+        loginController = new LoginController(loginService, jwtService, userDetailsService, tokenRevocationService, loginThrottle);
     }
 
     @Test
@@ -49,7 +59,7 @@ class LoginControllerTest {
         when(userDetailsService.loadUserByUsername(anyString())).thenReturn(mock(UserDetails.class));
         when(jwtService.generateToken(any())).thenReturn(fakeToken);
 
-        ResponseEntity<?> response = loginController.login(request);
+        ResponseEntity<?> response = loginController.login(request, httpRequest);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getHeaders().containsKey("Set-Cookie"));
@@ -66,7 +76,7 @@ class LoginControllerTest {
 
         when(loginService.login(request.getEmail(), request.getPassword())).thenReturn(false);
 
-        ResponseEntity<?> response = loginController.login(request);
+        ResponseEntity<?> response = loginController.login(request, httpRequest);
 
         assertNotNull(response);
         assertEquals(401, response.getStatusCode().value());
@@ -80,17 +90,35 @@ class LoginControllerTest {
 }
 
 
+    @Test
+    void testLoginThrottledBeforePasswordCheck() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("wrong@example.com");
+        request.setPassword("badpass");
+        when(loginService.login(anyString(), anyString())).thenReturn(false);
+
+        loginController.login(request, httpRequest);
+        loginController.login(request, httpRequest);
+        ResponseEntity<?> response = loginController.login(request, httpRequest);
+
+        // La troisième tentative est refusée sans vérification du mot de passe
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst("Retry-After"));
+        verify(loginService, times(2)).login(anyString(), anyString());
+        assertEquals(2L, loginController.loginMetrics().getBody().get("failures"));
+    }
+
     @Test
     void testLogoutSuccess() {
         String token = "fake-token";
 
-        doNothing().when(jwtService).blacklistToken(token);
+        doNothing().when(tokenRevocationService).revoke(token);
 
         // Appel du logout
-        ResponseEntity<Void> response = loginController.logout(token);
+        ResponseEntity<Void> response = loginController.logout(token, null);
 
-        // Vérifie que le token a été blacklister
-        verify(jwtService).blacklistToken(token);
+        // Vérifie que le token a été révoqué
+        verify(tokenRevocationService).revoke(token);
 
         // Vérifie le statut HTTP
         assertNotNull(response);
@@ -103,10 +131,10 @@ class LoginControllerTest {
         String token = null;
 
         // Appel du logout
-        ResponseEntity<Void> response = loginController.logout(token);
+        ResponseEntity<Void> response = loginController.logout(token, null);
 
-        // Aucun token à blacklister
-        verifyNoInteractions(jwtService);
+        // Aucun token à révoquer
+        verifyNoInteractions(jwtService, tokenRevocationService);
 
         // Vérifie le statut HTTP
         assertNotNull(response);
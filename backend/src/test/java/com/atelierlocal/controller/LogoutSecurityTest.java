@@ -0,0 +1,110 @@
+package com.atelierlocal.controller;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.atelierlocal.config.SecurityConfig;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.UserRole;
+import com.atelierlocal.repository.RevokedTokenRepo;
+import com.atelierlocal.repository.UserRepo;
+import com.atelierlocal.security.AccountDetails;
+import com.atelierlocal.security.AuthenticationCache;
+import com.atelierlocal.security.CustomUserDetailsService;
+import com.atelierlocal.security.JwtAuthenticationFilter;
+import com.atelierlocal.security.JwtService;
+import com.atelierlocal.security.LoginThrottle;
+import com.atelierlocal.security.TokenRevocationService;
+import com.atelierlocal.service.LoginService;
+import com.atelierlocal.service.PasswordService;
+
+/**
+ * Déconnexion à travers la vraie chaîne de filtres Spring Security :
+ * le token révoqué doit être refusé par le filtre JWT.
+ */
+@WebMvcTest
+@TestPropertySource(properties = {
+    "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef",
+    "jwt.expiration-ms=3600000"
+})
+class LogoutSecurityTest {
+
+    /**
+     * Configuration restreinte au contrôleur de connexion et à la sécurité
+     * (la configuration de l'application activerait les repositories JPA).
+     */
+    @Configuration
+    @Import({ LoginController.class, SecurityConfig.class, JwtAuthenticationFilter.class,
+              JwtService.class, AuthenticationCache.class, TokenRevocationService.class })
+    static class TestConfig {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserRepo userRepo;
+
+    @MockitoBean
+    private RevokedTokenRepo revokedTokenRepo;
+
+    @MockitoBean
+    private LoginService loginService;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private LoginThrottle loginThrottle;
+
+    @MockitoBean
+    private PasswordService passwordService;
+
+    @Test
+    void logout_revokesTokenSoTheFilterRejectsIt() throws Exception {
+        Client admin = new Client();
+        admin.setId(UUID.randomUUID());
+        admin.setEmail("admin@test.fr");
+        admin.setUserRole(UserRole.ADMIN);
+        admin.setActive(true);
+        when(userRepo.findByEmail("admin@test.fr")).thenReturn(Optional.of(admin));
+        when(loginThrottle.getMetrics()).thenReturn(Map.of());
+        String token = jwtService.generateToken(
+                new AccountDetails(admin.getId(), admin.getEmail(), "hash", true, admin.getAuthorities()));
+
+        mockMvc.perform(get("/api/users/login/metrics").cookie(new Cookie("jwt", token)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/users/logout").cookie(new Cookie("jwt", token)))
+                .andExpect(status().isOk())
+                .andExpect(cookie().maxAge("jwt", 0));
+        verify(revokedTokenRepo).save(any());
+
+        when(revokedTokenRepo.existsById(anyString())).thenReturn(true);
+        mockMvc.perform(get("/api/users/login/metrics").cookie(new Cookie("jwt", token)))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -4,6 +4,7 @@ import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,7 +14,6 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.*;
 import org.mockito.MockitoAnnotations;
@@ -23,6 +23,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.atelierlocal.dto.ConversationSummaryDTO;
+import com.atelierlocal.dto.CursorPageDTO;
 import com.atelierlocal.dto.MessageRequestDTO;
 import com.atelierlocal.dto.MessageResponseDTO;
 import com.atelierlocal.model.Artisan;
@@ -33,6 +34,8 @@ import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.ArtisanRepo;
 import com.atelierlocal.repository.ClientRepo;
 import com.atelierlocal.service.MessageService;
+import com.atelierlocal.service.MessageWriteBehindService;
+import com.atelierlocal.service.UserDirectory;
 
 class MessageControllerTest {
 
@@ -48,7 +51,9 @@ class MessageControllerTest {
     @Mock
     private ClientRepo clientRepo;
 
-    @InjectMocks
+    @Mock
+    private MessageWriteBehindService messageWriteBehindService;
+
     private MessageController messageController;
 
     private UUID authenticatedUserId;
@@ -59,6 +64,9 @@ class MessageControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Annuaire réel, alimenté par les repositories simulés
+        messageController = new MessageController(messagingTemplate, messageService, artisanRepo, clientRepo,
+            new UserDirectory(artisanRepo, clientRepo, 100, 300), messageWriteBehindService);
         authenticatedUserId = UUID.randomUUID();
         mockPrincipal = () -> userEmail;
 
@@ -107,6 +115,57 @@ class MessageControllerTest {
                 .convertAndSendToUser(eq(userEmail), eq("/queue/messages"), eq(response));
     }
 
+    @Test
+    void testProcessMessageWriteBehind_acknowledgesWithoutSynchronousSave() {
+        UUID receiverId = UUID.randomUUID();
+        String receiverEmail = "receiver@mail.com";
+        Client receiverUser = new Client();
+        receiverUser.setId(receiverId);
+        receiverUser.setEmail(receiverEmail);
+        receiverUser.setUserRole(UserRole.CLIENT);
+
+        MessageRequestDTO request = new MessageRequestDTO();
+        request.setReceiverId(receiverId);
+        request.setContent("Hello");
+
+        MessageResponseDTO response = new MessageResponseDTO("Message sent successfully");
+        when(artisanRepo.findById(receiverId)).thenReturn(Optional.empty());
+        when(clientRepo.findById(receiverId)).thenReturn(Optional.of(receiverUser));
+        when(messageWriteBehindService.isEnabled()).thenReturn(true);
+        when(messageWriteBehindService.send(request)).thenReturn(response);
+
+        messageController.processMessage(request, mockPrincipal);
+
+        verify(messageService, never()).sendMessage(any());
+        verify(messagingTemplate).convertAndSendToUser(eq(receiverEmail), eq("/queue/messages"), eq(response));
+        verify(messagingTemplate).convertAndSendToUser(eq(userEmail), eq("/queue/messages"), eq(response));
+    }
+
+    @Test
+    void testProcessMessageReplay_notBroadcastAgain() {
+        UUID receiverId = UUID.randomUUID();
+        Client receiverUser = new Client();
+        receiverUser.setId(receiverId);
+        receiverUser.setEmail("receiver@mail.com");
+        receiverUser.setUserRole(UserRole.CLIENT);
+
+        MessageRequestDTO request = new MessageRequestDTO();
+        request.setReceiverId(receiverId);
+        request.setContent("Hello");
+        request.setTempId("tmp-1");
+
+        MessageResponseDTO response = new MessageResponseDTO("Message sent successfully");
+        response.setTempId("tmp-1");
+
+        when(artisanRepo.findById(receiverId)).thenReturn(Optional.empty());
+        when(clientRepo.findById(receiverId)).thenReturn(Optional.of(receiverUser));
+        when(messageService.sendMessage(any(MessageRequestDTO.class))).thenReturn(response.asReplay());
+
+        messageController.processMessage(request, mockPrincipal);
+
+        verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any());
+    }
+
     @Test
     void testProcessMessageUnauthorizedRole() {
         // Artisan essaie d'envoyer à un autre artisan (non autorisé)
@@ -220,7 +279,7 @@ class MessageControllerTest {
         when(messageService.sendMessage(any(MessageRequestDTO.class))).thenReturn(response);
 
         ResponseEntity<MessageResponseDTO> responseEntity = messageController.sendMessageWithAttachment(
-            receiverId, "Test message", mockFile, mockPrincipal
+            receiverId, "Test message", mockFile, null, mockPrincipal
         );
 
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
@@ -240,6 +299,38 @@ class MessageControllerTest {
         verify(messagingTemplate, times(2)).convertAndSendToUser(any(), eq("/queue/messages"), eq(response));
     }
 
+    @Test
+    void testSendMessageWithAttachmentReplay_notBroadcastAgain() {
+        UUID receiverId = UUID.randomUUID();
+        Client receiverUser = new Client();
+        receiverUser.setId(receiverId);
+        receiverUser.setEmail("receiver@mail.com");
+        receiverUser.setUserRole(UserRole.CLIENT);
+
+        Message savedMessage = new Message();
+        savedMessage.setId(UUID.randomUUID());
+        savedMessage.setContent("Test message");
+        savedMessage.setSender(mockUser);
+        savedMessage.setReceiver(receiverUser);
+        savedMessage.setTempId("tmp-1");
+        MessageResponseDTO replay = new MessageResponseDTO(savedMessage).asReplay();
+
+        when(artisanRepo.findById(receiverId)).thenReturn(Optional.empty());
+        when(clientRepo.findById(receiverId)).thenReturn(Optional.of(receiverUser));
+        when(messageService.sendMessage(any(MessageRequestDTO.class))).thenReturn(replay);
+
+        ResponseEntity<MessageResponseDTO> responseEntity = messageController.sendMessageWithAttachment(
+            receiverId, "Test message", null, "tmp-1", mockPrincipal
+        );
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(savedMessage.getId(), responseEntity.getBody().getId());
+        ArgumentCaptor<MessageRequestDTO> captor = ArgumentCaptor.forClass(MessageRequestDTO.class);
+        verify(messageService).sendMessage(captor.capture());
+        assertEquals("tmp-1", captor.getValue().getTempId());
+        verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any());
+    }
+
     @Test
     void testSendMessageWithAttachmentUnauthorizedRole() {
         // Client essaie d'envoyer à un autre client (non autorisé)
@@ -261,7 +352,7 @@ class MessageControllerTest {
         when(clientRepo.findById(receiverId)).thenReturn(Optional.of(receiverUser));
 
         ResponseEntity<MessageResponseDTO> responseEntity = messageController.sendMessageWithAttachment(
-            receiverId, "Test", null, mockPrincipal
+            receiverId, "Test", null, null, mockPrincipal
         );
 
         assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
@@ -279,7 +370,7 @@ class MessageControllerTest {
         when(clientRepo.findById(receiverId)).thenReturn(Optional.empty());
 
         ResponseEntity<MessageResponseDTO> responseEntity = messageController.sendMessageWithAttachment(
-            receiverId, "Test", null, mockPrincipal
+            receiverId, "Test", null, null, mockPrincipal
         );
 
         assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
@@ -302,7 +393,7 @@ class MessageControllerTest {
         when(messageService.sendMessage(any())).thenThrow(new RuntimeException("DB Error"));
 
         ResponseEntity<MessageResponseDTO> responseEntity = messageController.sendMessageWithAttachment(
-            receiverId, "Test", null, mockPrincipal
+            receiverId, "Test", null, null, mockPrincipal
         );
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
@@ -360,6 +451,35 @@ class MessageControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
     }
 
+    @Test
+    void testGetHistoryPageSuccess() {
+        UUID peerId = UUID.randomUUID();
+        CursorPageDTO<MessageResponseDTO> page =
+            new CursorPageDTO<>(List.of(new MessageResponseDTO("hello")), "curseur", true);
+
+        when(messageService.getConversationPage(authenticatedUserId, peerId, null, 20)).thenReturn(page);
+
+        ResponseEntity<CursorPageDTO<MessageResponseDTO>> responseEntity =
+            messageController.getHistoryPage(peerId, null, 20, mockPrincipal);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("curseur", responseEntity.getBody().getNextCursor());
+        assertEquals(1, responseEntity.getBody().getItems().size());
+    }
+
+    @Test
+    void testGetHistoryPageInvalidCursor() {
+        UUID peerId = UUID.randomUUID();
+
+        when(messageService.getConversationPage(authenticatedUserId, peerId, "bad", null))
+                .thenThrow(new IllegalArgumentException("Curseur de pagination invalide."));
+
+        ResponseEntity<CursorPageDTO<MessageResponseDTO>> responseEntity =
+            messageController.getHistoryPage(peerId, "bad", null, mockPrincipal);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+    }
+
     // ==================== Tests GET /conversations/{userId} ====================
 
     @Test
@@ -373,11 +493,11 @@ class MessageControllerTest {
             "Another message", LocalDateTime.now().minusHours(1), 0L
         );
 
-        when(messageService.getConversationSummaries(authenticatedUserId))
+        when(messageService.getConversationSummaries(authenticatedUserId, 0, null))
                 .thenReturn(Arrays.asList(summary1, summary2));
 
         ResponseEntity<List<ConversationSummaryDTO>> responseEntity = 
-            messageController.getConversations(authenticatedUserId, mockPrincipal);
+            messageController.getConversations(authenticatedUserId, 0, null, mockPrincipal);
 
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         List<ConversationSummaryDTO> conversations = responseEntity.getBody();
@@ -386,7 +506,7 @@ class MessageControllerTest {
         assertEquals("User 1", conversations.get(0).getOtherUserName());
         assertEquals(2L, conversations.get(0).getUnreadCount());
 
-        verify(messageService, times(1)).getConversationSummaries(authenticatedUserId);
+        verify(messageService, times(1)).getConversationSummaries(authenticatedUserId, 0, null);
     }
 
     @Test
@@ -394,32 +514,32 @@ class MessageControllerTest {
         UUID otherUserId = UUID.randomUUID();
 
         ResponseEntity<List<ConversationSummaryDTO>> responseEntity = 
-            messageController.getConversations(otherUserId, mockPrincipal);
+            messageController.getConversations(otherUserId, 0, null, mockPrincipal);
 
         assertEquals(HttpStatus.FORBIDDEN, responseEntity.getStatusCode());
         assertNull(responseEntity.getBody());
 
-        verify(messageService, never()).getConversationSummaries(any());
+        verify(messageService, never()).getConversationSummaries(any(), anyInt(), any());
     }
 
     @Test
     void testGetConversationsIllegalArgumentException() {
-        when(messageService.getConversationSummaries(authenticatedUserId))
+        when(messageService.getConversationSummaries(authenticatedUserId, 0, null))
                 .thenThrow(new IllegalArgumentException("Invalid user"));
 
         ResponseEntity<List<ConversationSummaryDTO>> responseEntity = 
-            messageController.getConversations(authenticatedUserId, mockPrincipal);
+            messageController.getConversations(authenticatedUserId, 0, null, mockPrincipal);
 
         assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
     }
 
     @Test
     void testGetConversationsGeneralException() {
-        when(messageService.getConversationSummaries(authenticatedUserId))
+        when(messageService.getConversationSummaries(authenticatedUserId, 0, null))
                 .thenThrow(new RuntimeException("DB Error"));
 
         ResponseEntity<List<ConversationSummaryDTO>> responseEntity = 
-            messageController.getConversations(authenticatedUserId, mockPrincipal);
+            messageController.getConversations(authenticatedUserId, 0, null, mockPrincipal);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
     }
@@ -523,6 +643,32 @@ class MessageControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
     }
 
+    @Test
+    void testGetUnreadCountSuccess() {
+        when(messageService.getUnreadCount(mockUser)).thenReturn(4L);
+
+        ResponseEntity<Long> responseEntity = messageController.getUnreadCount(mockPrincipal);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(4L, responseEntity.getBody());
+        verify(messageService, never()).getUnreadMessages(any());
+    }
+
+    @Test
+    void testMarkConversationReadSuccess() {
+        UUID peerId = UUID.randomUUID();
+        LocalDateTime upTo = LocalDateTime.now();
+
+        when(messageService.markConversationRead(mockUser, peerId, upTo)).thenReturn(12);
+
+        ResponseEntity<Map<String, Integer>> responseEntity =
+            messageController.markConversationRead(peerId, upTo, mockPrincipal);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(12, responseEntity.getBody().get("updated"));
+        verify(messageService, never()).markMessageAsRead(any(), any());
+    }
+
     // ==================== Tests d'autorisation par rôle ====================
 
     @Test
@@ -550,7 +696,7 @@ class MessageControllerTest {
         Principal clientPrincipal = () -> "client@mail.com";
         
         ResponseEntity<MessageResponseDTO> responseEntity = messageController.sendMessageWithAttachment(
-            artisanId, "Hello", null, clientPrincipal
+            artisanId, "Hello", null, null, clientPrincipal
         );
 
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
@@ -573,7 +719,7 @@ class MessageControllerTest {
         when(messageService.sendMessage(any())).thenReturn(response);
 
         ResponseEntity<MessageResponseDTO> responseEntity = messageController.sendMessageWithAttachment(
-            receiverId, "Hello", null, mockPrincipal
+            receiverId, "Hello", null, null, mockPrincipal
         );
 
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
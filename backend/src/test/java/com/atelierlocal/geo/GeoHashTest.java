@@ -0,0 +1,62 @@
+package com.atelierlocal.geo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class GeoHashTest {
+
+    @Test
+    void testEncodeKnownPositions() {
+        assertEquals("u09tvw0f6", GeoHash.encode(48.8566, 2.3522));
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("s0000", GeoHash.encode(0, 0, 5));
+    }
+
+    @Test
+    void testEncodeRejectsInvalidCoordinates() {
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.encode(91, 0));
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.encode(0, -181));
+    }
+
+    @Test
+    void testUpperBound() {
+        assertEquals("u0b", GeoHash.upperBound("u09"));
+        assertEquals("u1", GeoHash.upperBound("u0z"));
+        assertNull(GeoHash.upperBound("zz"));
+    }
+
+    @Test
+    void testCoveringCellsContainEveryPointOfTheBox() {
+        GeoBoundingBox box = GeoBoundingBox.around(45.764, 4.8357, 10);
+        List<String> cells = GeoHash.coveringCells(box, 16);
+
+        assertTrue(cells.size() <= 16);
+        for (double lat = box.getMinLatitude(); lat <= box.getMaxLatitude(); lat += 0.01) {
+            for (double lng = box.getMinLongitude(); lng <= box.getMaxLongitude(); lng += 0.01) {
+                String hash = GeoHash.encode(lat, lng);
+                assertTrue(cells.stream().anyMatch(hash::startsWith), "Point non couvert: " + lat + ", " + lng);
+            }
+        }
+    }
+
+    @Test
+    void testBoxAcrossAntimeridianCoversAllLongitudes() {
+        GeoBoundingBox box = GeoBoundingBox.around(0, 179.99, 10);
+
+        assertEquals(-180, box.getMinLongitude());
+        assertEquals(180, box.getMaxLongitude());
+    }
+
+    @Test
+    void testDistanceKm() {
+        // Paris - Lyon : environ 392 km
+        double distance = GeoHash.distanceKm(48.8566, 2.3522, 45.764, 4.8357);
+        assertEquals(392, distance, 2);
+        assertEquals(0, GeoHash.distanceKm(45.764, 4.8357, 45.764, 4.8357), 1e-9);
+    }
+}
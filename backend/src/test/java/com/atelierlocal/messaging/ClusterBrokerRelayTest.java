@@ -0,0 +1,121 @@
+package com.atelierlocal.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+
+/**
+ * Deux nœuds reliés par le transport en mémoire : canal du broker synchrone,
+ * résolution des destinations utilisateur par le gestionnaire de Spring.
+ */
+class ClusterBrokerRelayTest {
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node("test_cluster", Map.of("alice", "sessionA"));
+        nodeB = new Node("test_cluster", Map.of("bob", "sessionB"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void userMessage_deliveredToSessionOnOtherNode() {
+        nodeA.template.convertAndSendToUser("bob", "/queue/messages", Map.of("content", "Bonjour"));
+
+        List<Message<?>> delivered = nodeB.deliveredTo("/queue/messages-usersessionB");
+        assertEquals(1, delivered.size());
+        assertTrue(new String((byte[]) delivered.get(0).getPayload(), StandardCharsets.UTF_8).contains("Bonjour"));
+        assertTrue(nodeA.deliveredTo("/queue/messages-usersessionB").isEmpty());
+    }
+
+    @Test
+    void userMessage_deliveredLocallyOnce() {
+        nodeA.template.convertAndSendToUser("alice", "/queue/unread", Map.of("count", 2));
+
+        assertEquals(1, nodeA.deliveredTo("/queue/unread-usersessionA").size());
+        assertTrue(nodeB.deliveredTo("/queue/unread-usersessionA").isEmpty());
+    }
+
+    @Test
+    void topicMessage_relayedToOtherNodesWithoutLoop() {
+        nodeB.template.convertAndSend("/topic/news", Map.of("title", "Nouveauté"));
+
+        assertEquals(1, nodeA.deliveredTo("/topic/news").size());
+        assertEquals(1, nodeB.deliveredTo("/topic/news").size());
+    }
+
+    /**
+     * Un nœud : canal du broker, modèle d'envoi, résolution des destinations utilisateur
+     * et relais ; les messages arrivant au broker simple sont enregistrés.
+     */
+    private static class Node {
+
+        final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        final SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        final List<Message<?>> brokerMessages = new CopyOnWriteArrayList<>();
+        final InProcessClusterTransport transport;
+        final UserDestinationMessageHandler userDestinationHandler;
+
+        Node(String channel, Map<String, String> sessions) {
+            template.setMessageConverter(new MappingJackson2MessageConverter());
+
+            SimpUserRegistry registry = mock(SimpUserRegistry.class);
+            sessions.forEach((name, sessionId) -> {
+                SimpUser user = mock(SimpUser.class);
+                SimpSession session = mock(SimpSession.class);
+                when(session.getId()).thenReturn(sessionId);
+                when(user.getName()).thenReturn(name);
+                when(user.getSessions()).thenReturn(Set.of(session));
+                when(registry.getUser(name)).thenReturn(user);
+            });
+
+            userDestinationHandler = new UserDestinationMessageHandler(new ExecutorSubscribableChannel(), brokerChannel,
+                new DefaultUserDestinationResolver(registry));
+            userDestinationHandler.start();
+
+            transport = new InProcessClusterTransport(channel);
+            ClusterBrokerRelay relay = new ClusterBrokerRelay(transport, () -> brokerChannel, "/user");
+            brokerChannel.addInterceptor(relay);
+            brokerChannel.subscribe(brokerMessages::add);
+            relay.start();
+        }
+
+        List<Message<?>> deliveredTo(String destination) {
+            return brokerMessages.stream()
+                .filter(message -> destination.equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders())))
+                .toList();
+        }
+
+        void close() {
+            userDestinationHandler.stop();
+            transport.close();
+        }
+    }
+}
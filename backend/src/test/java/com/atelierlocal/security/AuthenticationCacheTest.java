@@ -0,0 +1,137 @@
+package com.atelierlocal.security;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.User;
+import com.atelierlocal.model.UserRole;
+import com.atelierlocal.security.AuthenticationCache.AuthenticatedToken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class AuthenticationCacheTest {
+
+    private AuthenticationCache authenticationCache;
+    private Client client;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        authenticationCache = new AuthenticationCache(100, 300);
+        client = new Client();
+        client.setId(UUID.randomUUID());
+        client.setEmail("client@mail.com");
+        client.setUserRole(UserRole.CLIENT);
+        client.setActive(true);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testVerifiedTokenIsServedFromCache() {
+        AuthenticatedToken first = resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS)).get();
+        AuthenticatedToken second = resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS)).get();
+
+        assertSame(first, second);
+        assertEquals(client.getId(), second.getUser().id());
+        assertEquals("client@mail.com", second.getClaims().getSubject());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testPrincipalIsBuiltPerRequestFromSnapshot() {
+        AuthenticatedUser snapshot = resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS)).get().getUser();
+        // L'entité chargée peut être modifiée ensuite sans effet sur l'instantané
+        client.setUserRole(UserRole.ADMIN);
+
+        User first = snapshot.toPrincipal();
+        User second = snapshot.toPrincipal();
+
+        assertNotSame(first, second);
+        assertTrue(first instanceof Client);
+        assertEquals(client.getId(), first.getId());
+        assertEquals(UserRole.CLIENT, first.getUserRole());
+        assertEquals("ROLE_CLIENT", snapshot.authorities().get(0).getAuthority());
+        assertTrue(first.isEnabled());
+    }
+
+    @Test
+    void testRejectedTokenIsNotCached() {
+        authenticationCache.resolve("invalide", () -> { loads.incrementAndGet(); return Optional.empty(); });
+        Optional<AuthenticatedToken> result = authenticationCache.resolve("invalide", () -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertTrue(result.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testExpiredTokenIsNotCached() {
+        resolve("token-a", Instant.now().minusSeconds(1));
+        resolve("token-a", Instant.now().minusSeconds(1));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateUserEvictsAllItsTokens() {
+        resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS));
+        resolve("token-b", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        authenticationCache.invalidateUser(client.getId());
+        resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS));
+        resolve("token-b", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testLoadStartedBeforeInvalidationIsNotCached() {
+        authenticationCache.resolve("token-a", () -> {
+            loads.incrementAndGet();
+            // L'utilisateur est modifié pendant sa lecture : l'état lu est peut-être déjà périmé
+            authenticationCache.invalidateUser(client.getId());
+            return Optional.of(new AuthenticatedToken(claims(Instant.now().plus(1, ChronoUnit.HOURS)), AuthenticatedUser.of(client)));
+        });
+        resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateTokenEvictsOnlyThatToken() {
+        resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS));
+        resolve("token-b", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        authenticationCache.invalidateToken("token-a");
+        resolve("token-a", Instant.now().plus(1, ChronoUnit.HOURS));
+        resolve("token-b", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        assertEquals(3, loads.get());
+    }
+
+    private Optional<AuthenticatedToken> resolve(String token, Instant expiresAt) {
+        return authenticationCache.resolve(token, () -> {
+            loads.incrementAndGet();
+            return Optional.of(new AuthenticatedToken(claims(expiresAt), AuthenticatedUser.of(client)));
+        });
+    }
+
+    private Claims claims(Instant expiresAt) {
+        Claims claims = Jwts.claims();
+        claims.setSubject(client.getEmail());
+        claims.setExpiration(Date.from(expiresAt));
+        return claims;
+    }
+}
@@ -0,0 +1,129 @@
+package com.atelierlocal.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.atelierlocal.security.LoginThrottle.Decision;
+
+class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        // 5 tentatives par IP, 3 par compte sur 60 s ; blocage d'un couple (compte, IP) à partir de 3 échecs,
+        // 1 s puis doublé, 8 s au plus ; blocage du compte à partir de 6 échecs, 4 s au plus
+        loginThrottle = new LoginThrottle(5, 3, 60, 3, 1000, 8000, 6, 4000, now::get);
+    }
+
+    @Test
+    void testAccountLimitOnSlidingWindow() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(loginThrottle.tryAcquire("10.0.0." + i, "client@mail.com").isAllowed());
+        }
+        // Même compte depuis une autre IP : refusé, la casse de l'email est ignorée
+        Decision rejected = loginThrottle.tryAcquire("10.0.0.9", "Client@Mail.com ");
+        assertFalse(rejected.isAllowed());
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+
+        // Une fenêtre plus tard, les tentatives précédentes ne pèsent presque plus
+        now.addAndGet(119_000);
+        assertTrue(loginThrottle.tryAcquire("10.0.0.9", "client@mail.com").isAllowed());
+    }
+
+    @Test
+    void testIpLimitAcrossAccounts() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(loginThrottle.tryAcquire("10.0.0.1", "compte" + i + "@mail.com").isAllowed());
+        }
+
+        assertFalse(loginThrottle.tryAcquire("10.0.0.1", "autre@mail.com").isAllowed());
+        assertTrue(loginThrottle.tryAcquire("10.0.0.2", "autre@mail.com").isAllowed());
+        assertEquals(1L, loginThrottle.getMetrics().get("rejectedByIp"));
+    }
+
+    @Test
+    void testExponentialBackoffAfterConsecutiveFailures() {
+        loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+        loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+        assertTrue(loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").isAllowed());
+
+        loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+        assertEquals(1, loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").getRetryAfterSeconds());
+
+        loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+        assertEquals(2, loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").getRetryAfterSeconds());
+
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+        }
+        // Délai plafonné
+        assertEquals(8, loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").getRetryAfterSeconds());
+        assertEquals(3L, loginThrottle.getMetrics().get("rejectedByBackoff"));
+
+        now.addAndGet(8000);
+        assertTrue(loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").isAllowed());
+    }
+
+    @Test
+    void testBackoffDoesNotBlockAccountFromOtherIps() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+        }
+
+        assertFalse(loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").isAllowed());
+        // Le titulaire du compte, depuis une autre adresse, n'est pas bloqué par l'attaquant
+        assertTrue(loginThrottle.tryAcquire("10.0.0.2", "client@mail.com").isAllowed());
+        assertEquals(1L, loginThrottle.getMetrics().get("blockedAccountIps"));
+        assertEquals(0L, loginThrottle.getMetrics().get("blockedAccounts"));
+    }
+
+    @Test
+    void testSofterAccountBackoffAcrossIps() {
+        // Échecs répartis sur plusieurs adresses : aucun couple (compte, IP) n'atteint son seuil
+        for (int i = 0; i < 6; i++) {
+            loginThrottle.recordFailure("10.0.1." + i, "client@mail.com");
+        }
+        Decision rejected = loginThrottle.tryAcquire("10.0.0.1", "client@mail.com");
+        assertFalse(rejected.isAllowed());
+        assertEquals(1, rejected.getRetryAfterSeconds());
+        assertEquals(1L, loginThrottle.getMetrics().get("rejectedByAccountBackoff"));
+
+        for (int i = 6; i < 12; i++) {
+            loginThrottle.recordFailure("10.0.1." + i, "client@mail.com");
+        }
+        // Délai du compte plafonné plus bas que celui d'un couple
+        assertEquals(4, loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").getRetryAfterSeconds());
+
+        now.addAndGet(4000);
+        assertTrue(loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").isAllowed());
+    }
+
+    @Test
+    void testSuccessResetsFailures() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+        }
+        loginThrottle.recordSuccess("10.0.0.1", "client@mail.com");
+
+        assertTrue(loginThrottle.tryAcquire("10.0.0.1", "client@mail.com").isAllowed());
+    }
+
+    @Test
+    void testPurgeRemovesInactiveEntries() {
+        loginThrottle.tryAcquire("10.0.0.1", "client@mail.com");
+        loginThrottle.recordFailure("10.0.0.1", "client@mail.com");
+
+        now.addAndGet(200_000);
+        loginThrottle.purgeInactive();
+
+        assertEquals(0L, loginThrottle.getMetrics().get("trackedIps"));
+        assertEquals(0L, loginThrottle.getMetrics().get("trackedAccounts"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.atelierlocal.security;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordHashingExecutorTest {
+
+    private static final long GB = 1024L * 1024 * 1024;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testConcurrencyIsBoundedByMemoryProcessorsAndConfiguration() {
+        // 25 % de 1 Go = 256 Mo, soit 4 hachages de 64 Mo
+        assertEquals(4, PasswordHashingExecutor.computeConcurrency(0, 65536, 0.25, GB, 16));
+        assertEquals(2, PasswordHashingExecutor.computeConcurrency(0, 65536, 0.25, GB, 2));
+        assertEquals(3, PasswordHashingExecutor.computeConcurrency(3, 65536, 0.25, GB, 16));
+        // Jamais moins d'un hachage, même avec très peu de mémoire
+        assertEquals(1, PasswordHashingExecutor.computeConcurrency(0, 65536, 0.25, 64L * 1024 * 1024, 16));
+    }
+
+    @Test
+    void testResultIsReturned() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 65536, 1, 1, 1000);
+
+        assertEquals("hash", executor.execute(() -> "hash"));
+        executor.shutdown();
+    }
+
+    @Test
+    void testFullQueueIsRejectedWithRetryHint() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 65536, 1, 1, 2000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Un hachage en cours et un en attente occupent l'exécuteur
+        callers.submit(() -> executor.execute(() -> { started.countDown(); return await(release); }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        callers.submit(() -> executor.execute(() -> "en attente"));
+        Thread.sleep(100);
+
+        PasswordHashingBusyException e = assertThrows(PasswordHashingBusyException.class, () -> executor.execute(() -> "refusé"));
+        assertEquals(2, e.getRetryAfterSeconds());
+
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testWaitTimeoutIsReported() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 65536, 1, 4, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        callers.submit(() -> executor.execute(() -> { started.countDown(); return await(release); }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingBusyException.class, () -> executor.execute(() -> "trop tard"));
+
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testTaskExceptionIsRethrown() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 65536, 1, 1, 1000);
+
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(() -> {
+            throw new IllegalArgumentException("hash invalide");
+        }));
+        executor.shutdown();
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "terminé";
+    }
+}
@@ -0,0 +1,122 @@
+package com.atelierlocal.security;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.atelierlocal.model.RevokedToken;
+import com.atelierlocal.repository.RevokedTokenRepo;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepo revokedTokenRepo;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private AuthenticationCache authenticationCache;
+
+    private TokenRevocationService tokenRevocationService;
+    private Claims claims;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepo, jwtService, authenticationCache, 1000, 0.01, 10_000);
+
+        claims = Jwts.claims();
+        claims.setId("jti-1");
+        claims.setSubject("client@mail.com");
+        claims.setExpiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)));
+        when(jwtService.parseToken("token")).thenReturn(claims);
+    }
+
+    @Test
+    void testRevokeStoresTokenIdUntilExpiration() {
+        tokenRevocationService.revoke("token");
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepo).save(captor.capture());
+        assertEquals("jti-1", captor.getValue().getTokenId());
+        assertEquals(claims.getExpiration().toInstant(), captor.getValue().getExpiresAt());
+        verify(authenticationCache).invalidateToken("token");
+    }
+
+    @Test
+    void testRevokedTokenIsDetected() {
+        tokenRevocationService.revoke("token");
+        when(revokedTokenRepo.existsById("jti-1")).thenReturn(true);
+
+        assertTrue(tokenRevocationService.isRevoked(claims, "token"));
+    }
+
+    @Test
+    void testUnknownTokenIsAcceptedWithoutDatabaseLookup() {
+        assertFalse(tokenRevocationService.isRevoked(claims, "token"));
+
+        verify(revokedTokenRepo, never()).existsById(anyString());
+    }
+
+    @Test
+    void testExpiredTokenIsNotStored() {
+        when(jwtService.parseToken("expiré")).thenThrow(new ExpiredJwtException(null, claims, "expiré"));
+
+        tokenRevocationService.revoke("expiré");
+
+        verify(revokedTokenRepo, never()).save(any());
+        verify(authenticationCache).invalidateToken("expiré");
+    }
+
+    @Test
+    void testTokenWithoutIdIsIdentifiedByItsHash() {
+        claims.setId(null);
+
+        assertEquals(64, TokenRevocationService.tokenId(claims, "token").length());
+        assertEquals(TokenRevocationService.tokenId(claims, "token"), TokenRevocationService.tokenId(claims, "token"));
+    }
+
+    @Test
+    void testRevocationsFromOtherInstancesAreSynced() {
+        when(revokedTokenRepo.findTokenIdsRevokedSince(any(), any())).thenReturn(List.of("jti-1"));
+        when(revokedTokenRepo.existsById("jti-1")).thenReturn(true);
+
+        tokenRevocationService.syncRecentRevocations();
+
+        assertTrue(tokenRevocationService.isRevoked(claims, "token"));
+    }
+
+    @Test
+    void testPurgeRebuildsFilterWithoutExpiredRevocations() {
+        tokenRevocationService.revoke("token");
+        when(revokedTokenRepo.findActiveTokenIds(any())).thenReturn(List.of());
+
+        tokenRevocationService.purgeExpired();
+
+        verify(revokedTokenRepo).deleteExpired(any());
+        assertFalse(tokenRevocationService.isRevoked(claims, "token"));
+        // Seule la vérification faite lors de la révocation a lu la base
+        verify(revokedTokenRepo, times(1)).existsById("jti-1");
+    }
+}
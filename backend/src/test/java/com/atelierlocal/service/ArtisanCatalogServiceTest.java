@@ -0,0 +1,124 @@
+package com.atelierlocal.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.atelierlocal.dto.ArtisanSummaryDTO;
+import com.atelierlocal.dto.PageDTO;
+import com.atelierlocal.repository.ArtisanCatalogSort;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanRepo;
+
+class ArtisanCatalogServiceTest {
+
+    @Mock
+    private ArtisanRepo artisanRepo;
+
+    private ArtisanCatalogService artisanCatalogService;
+
+    // Autour de la place Bellecour, à Lyon
+    private static final double LAT = 45.7578;
+    private static final double LNG = 4.8320;
+
+    private final UUID firstId = UUID.randomUUID();
+    private final UUID secondId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        artisanCatalogService = new ArtisanCatalogService(artisanRepo, 50);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testGetCatalogKeepsDatabaseOrder() {
+        when(artisanRepo.count(any(Specification.class))).thenReturn(3L);
+        when(artisanRepo.findCatalogIds(any(Specification.class), eq(ArtisanCatalogSort.RECOMMENDATIONS), any(), any(), eq(0), eq(2)))
+            .thenReturn(List.of(firstId, secondId));
+        ArtisanListingView first = listingView(firstId, "Ébéniste", 5L, null, null);
+        ArtisanListingView second = listingView(secondId, "Fleuriste", 1L, null, null);
+        // La projection renvoie les artisans dans un ordre quelconque
+        when(artisanRepo.findListingByIds(List.of(firstId, secondId))).thenReturn(List.of(second, first));
+
+        PageDTO<ArtisanSummaryDTO> result = artisanCatalogService.getCatalog(ArtisanCatalogSort.RECOMMENDATIONS,
+            null, null, true, null, null, 0, 2);
+
+        assertEquals(3, result.getTotalElements());
+        assertTrue(result.isHasMore());
+        assertEquals(firstId, result.getItems().get(0).getId());
+        assertEquals(5, result.getItems().get(0).getRecommendationCount());
+        assertEquals(secondId, result.getItems().get(1).getId());
+        assertNull(result.getItems().get(0).getDistanceKm());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testGetCatalogComputesDistanceWhenLocated() {
+        when(artisanRepo.count(any(Specification.class))).thenReturn(1L);
+        when(artisanRepo.findCatalogIds(any(Specification.class), eq(ArtisanCatalogSort.DISTANCE), eq(LAT), eq(LNG), eq(0), eq(20)))
+            .thenReturn(List.of(firstId));
+        ArtisanListingView view = listingView(firstId, "Ébéniste", 0L, 45.7640, 4.8357);   // ~0,8 km
+        when(artisanRepo.findListingByIds(List.of(firstId))).thenReturn(List.of(view));
+
+        PageDTO<ArtisanSummaryDTO> result = artisanCatalogService.getCatalog(ArtisanCatalogSort.DISTANCE,
+            null, null, true, LAT, LNG, 0, 20);
+
+        double distance = result.getItems().get(0).getDistanceKm();
+        assertTrue(distance > 0.5 && distance < 1.0);
+        assertFalse(result.isHasMore());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testGetCatalogBeyondLastPageSkipsPageQueries() {
+        when(artisanRepo.count(any(Specification.class))).thenReturn(3L);
+
+        PageDTO<ArtisanSummaryDTO> result = artisanCatalogService.getCatalog(ArtisanCatalogSort.NAME,
+            null, null, true, null, null, 1, 5);
+
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(3, result.getTotalElements());
+        verify(artisanRepo, never()).findCatalogIds(any(), any(), any(), any(), anyInt(), anyInt());
+        verify(artisanRepo, never()).findListingByIds(any());
+    }
+
+    @Test
+    void testGetCatalogRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> artisanCatalogService.getCatalog(
+            ArtisanCatalogSort.DISTANCE, null, null, true, null, null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> artisanCatalogService.getCatalog(
+            ArtisanCatalogSort.RECENT, null, null, true, null, null, 0, 51));
+        assertThrows(IllegalArgumentException.class, () -> artisanCatalogService.getCatalog(
+            ArtisanCatalogSort.RECENT, null, null, true, null, null, -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> ArtisanCatalogSort.fromParam("price"));
+        assertEquals(ArtisanCatalogSort.RECENT, ArtisanCatalogSort.fromParam("recent"));
+    }
+
+    private ArtisanListingView listingView(UUID id, String name, Long recommendationCount, Double latitude, Double longitude) {
+        ArtisanListingView view = mock(ArtisanListingView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getName()).thenReturn(name);
+        when(view.getRecommendationCount()).thenReturn(recommendationCount);
+        when(view.getLatitude()).thenReturn(latitude);
+        when(view.getLongitude()).thenReturn(longitude);
+        return view;
+    }
+}
@@ -24,6 +24,9 @@ class ArtisanCategoryServiceTest {
     @Mock
     private ArtisanCategoryRepo artisanCategoryRepo;
 
+    @Mock
+    private CategoryCache categoryCache;
+
     @InjectMocks
     private ArtisanCategoryService artisanCategoryService;
 
@@ -131,12 +134,8 @@ class ArtisanCategoryServiceTest {
     // --- GET ALL ---
     @Test
     void getAllArtisanCategory_ShouldReturnList() {
-        ArtisanCategory entity1 = new ArtisanCategory();
-        entity1.setId(UUID.randomUUID());
-        entity1.setName("Cat1");
-        entity1.setDescription("Desc1");
-
-        when(artisanCategoryRepo.findAll()).thenReturn(List.of(entity1));
+        when(categoryCache.getArtisanCategories())
+                .thenReturn(List.of(new ArtisanCategoryResponseDTO(UUID.randomUUID(), "Cat1", "Desc1")));
 
         List<ArtisanCategoryResponseDTO> result = artisanCategoryService.getAllArtisanCategory();
 
@@ -146,7 +145,7 @@ class ArtisanCategoryServiceTest {
 
     @Test
     void getAllArtisanCategory_ShouldThrow_WhenEmpty() {
-        when(artisanCategoryRepo.findAll()).thenReturn(Collections.emptyList());
+        when(categoryCache.getArtisanCategories()).thenReturn(Collections.emptyList());
 
         assertThrows(EntityNotFoundException.class,
                 () -> artisanCategoryService.getAllArtisanCategory());
@@ -156,12 +155,8 @@ class ArtisanCategoryServiceTest {
     @Test
     void getArtisanCategoryById_ShouldReturnDTO_WhenExists() {
         UUID id = UUID.randomUUID();
-        ArtisanCategory entity = new ArtisanCategory();
-        entity.setId(id);
-        entity.setName("Nom");
-        entity.setDescription("Desc");
-
-        when(artisanCategoryRepo.findById(id)).thenReturn(Optional.of(entity));
+        when(categoryCache.findArtisanCategory(id))
+                .thenReturn(Optional.of(new ArtisanCategoryResponseDTO(id, "Nom", "Desc")));
 
         ArtisanCategoryResponseDTO response = artisanCategoryService.getArtisanCategoryById(id);
 
@@ -171,7 +166,7 @@ class ArtisanCategoryServiceTest {
     @Test
     void getArtisanCategoryById_ShouldThrow_WhenNotFound() {
         UUID id = UUID.randomUUID();
-        when(artisanCategoryRepo.findById(id)).thenReturn(Optional.empty());
+        when(categoryCache.findArtisanCategory(id)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> artisanCategoryService.getArtisanCategoryById(id));
@@ -181,13 +176,10 @@ class ArtisanCategoryServiceTest {
     @Test
     void getArtisanCategoriesByEvent_ShouldReturnList() {
         EventCategory event = new EventCategory();
+        event.setId(UUID.randomUUID());
 
-        ArtisanCategory entity = new ArtisanCategory();
-        entity.setId(UUID.randomUUID());
-        entity.setName("EventCat");
-        entity.setDescription("EventDesc");
-
-        when(artisanCategoryRepo.findByEventCategories(event)).thenReturn(List.of(entity));
+        when(categoryCache.findArtisanCategoriesByEvent(event.getId()))
+                .thenReturn(Optional.of(List.of(new ArtisanCategoryResponseDTO(UUID.randomUUID(), "EventCat", "EventDesc"))));
 
         List<ArtisanCategoryResponseDTO> result = artisanCategoryService.getArtisanCategoriesByEvent(event);
 
@@ -9,14 +9,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
 
 import com.atelierlocal.dto.ArtisanRequestDTO;
 import com.atelierlocal.dto.ArtisanResponseDTO;
@@ -25,10 +30,15 @@ import com.atelierlocal.model.ArtisanCategory;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.User;
 import com.atelierlocal.repository.ArtisanCategoryRepo;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanPhotoView;
 import com.atelierlocal.repository.ArtisanRepo;
 import com.atelierlocal.repository.AttachmentRepo;
 import com.atelierlocal.repository.AvatarRepo;
+import com.atelierlocal.repository.ConversationSummaryRepo;
 import com.atelierlocal.repository.MessageRepo;
+import com.atelierlocal.repository.UploadedPhotoRepo;
+import com.atelierlocal.security.AuthenticationCache;
 import com.atelierlocal.security.SecurityService;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -53,12 +63,36 @@ class ArtisanServiceTest {
     @Mock
     private AttachmentRepo attachmentRepo;
 
+    @Mock
+    private ConversationSummaryRepo conversationSummaryRepo;
+
+    @Mock
+    private UploadedPhotoRepo uploadedPhotoRepo;
+
+    @Mock
+    private StoredObjectService storedObjectService;
+
     @Mock
     private ArtisanCategoryRepo artisanCategoryRepo;
 
     @Mock
     private SecurityService sercurityService;
 
+    @Mock
+    private AuthenticationCache authenticationCache;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private ObjectProvider<TopArtisansFeedService> topArtisansFeedProvider;
+
+    @Mock
+    private TopArtisansFeedService topArtisansFeedService;
+
     @InjectMocks
     private ArtisanService artisanService;
 
@@ -75,6 +109,7 @@ class ArtisanServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(topArtisansFeedProvider.getIfAvailable()).thenReturn(topArtisansFeedService);
 
         artisanId = UUID.randomUUID();
         categoryId = UUID.randomUUID();
@@ -105,8 +140,8 @@ class ArtisanServiceTest {
         dto.setLongitude(56.78);
 
         when(artisanRepo.findByEmail(dto.getEmail())).thenReturn(Optional.empty());
-        when(artisanCategoryRepo.findByNameIgnoreCase("Plombier"))
-                .thenReturn(Optional.of(category));
+        when(categoryCache.findArtisanCategoryIdByName("Plombier")).thenReturn(Optional.of(categoryId));
+        when(artisanCategoryRepo.getReferenceById(categoryId)).thenReturn(category);
         when(passwordService.hashPassword("secret")).thenReturn("hashed");
         when(artisanRepo.save(any(Artisan.class))).thenReturn(artisan);
 
@@ -153,7 +188,7 @@ class ArtisanServiceTest {
         dto.setLongitude(34.0);
 
         when(artisanRepo.findByEmail(dto.getEmail())).thenReturn(Optional.empty());
-        when(artisanCategoryRepo.findByNameIgnoreCase("Invalide")).thenReturn(Optional.empty());
+        when(categoryCache.findArtisanCategoryIdByName("Invalide")).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> artisanService.createArtisan(dto));
     }
@@ -164,9 +199,13 @@ class ArtisanServiceTest {
     void testDeleteArtisan_success() {
         when(artisanRepo.findById(artisanId)).thenReturn(Optional.of(artisan));
 
+        when(attachmentRepo.findFileUrlsByUserId(artisanId)).thenReturn(List.of("/api/files/objects/ab/abc.pdf"));
+
         artisanService.deleteArtisan(artisanId, client);
 
         verify(artisanRepo).delete(artisan);
+        verify(storedObjectService).releaseAfterCommit(List.of("/api/files/objects/ab/abc.pdf"));
+        verify(topArtisansFeedService).invalidate();
     }
 
     @Test
@@ -186,7 +225,8 @@ class ArtisanServiceTest {
         dto.setPassword("newpass");
 
         when(artisanRepo.findById(artisanId)).thenReturn(Optional.of(artisan));
-        when(artisanCategoryRepo.findByNameIgnoreCase("Plombier")).thenReturn(Optional.of(category));
+        when(categoryCache.findArtisanCategoryIdByName("Plombier")).thenReturn(Optional.of(categoryId));
+        when(artisanCategoryRepo.getReferenceById(categoryId)).thenReturn(category);
         when(passwordService.hashPassword("newpass")).thenReturn("hashed");
         when(artisanRepo.save(any(Artisan.class))).thenReturn(artisan);
 
@@ -243,21 +283,50 @@ class ArtisanServiceTest {
 
     @Test
     void testGetAllArtisans() {
-        when(artisanRepo.findAll()).thenReturn(List.of(artisan));
+        ArtisanListingView view = listingView(artisanId, 3L);
+        ArtisanPhotoView photo = photoView(artisanId, "/api/files/objects/ab/photo.jpg");
+        when(artisanRepo.findListing()).thenReturn(List.of(view));
+        when(uploadedPhotoRepo.findFirstPhotos(ArtisanService.LISTING_PHOTO_LIMIT)).thenReturn(List.of(photo));
 
         List<ArtisanResponseDTO> artisans = artisanService.getAllArtisans(client);
 
         assertEquals(1, artisans.size());
+        assertEquals(artisanId, artisans.get(0).getId());
+        assertEquals(3, artisans.get(0).getRecommendations());
+        assertEquals("/api/avatar/a.png", artisans.get(0).getAvatar().getThumbnailUrl());
+        assertEquals(1, artisans.get(0).getPhotoGallery().size());
+        assertEquals("/api/files/objects/ab/photo.jpg", artisans.get(0).getPhotoGallery().get(0).getCardUrl());
+        // Aucune entité chargée : les associations ne peuvent pas déclencher de requêtes supplémentaires
+        verify(artisanRepo, never()).findAll();
     }
 
     @Test
     void testGetAllArtisansByCategory_success() {
+        ArtisanListingView view = listingView(artisanId, 0L);
         when(artisanCategoryRepo.findById(categoryId)).thenReturn(Optional.of(category));
-        when(artisanRepo.findAllByCategory(category)).thenReturn(List.of(artisan));
+        when(artisanRepo.findListingByCategory(category.getId())).thenReturn(List.of(view));
+        when(uploadedPhotoRepo.findFirstPhotosByCategory(category.getId(), ArtisanService.LISTING_PHOTO_LIMIT))
+            .thenReturn(List.of());
 
         List<ArtisanResponseDTO> artisans = artisanService.getAllArtisansByCategory(categoryId, client);
 
         assertEquals(1, artisans.size());
+        assertTrue(artisans.get(0).getPhotoGallery().isEmpty());
+    }
+
+    @Test
+    void testGetTopArtisans_success() {
+        ArtisanListingView view = listingView(artisanId, 12L);
+        ArtisanPhotoView photo = photoView(artisanId, "/api/files/objects/ab/photo.jpg");
+        when(artisanRepo.findTopListing(PageRequest.of(0, 10))).thenReturn(List.of(view));
+        when(uploadedPhotoRepo.findFirstPhotosByArtisans(List.of(artisanId), ArtisanService.LISTING_PHOTO_LIMIT))
+            .thenReturn(List.of(photo));
+
+        List<ArtisanResponseDTO> top = artisanService.getTopArtisans(10);
+
+        assertEquals(1, top.size());
+        assertEquals(12, top.get(0).getRecommendations());
+        assertEquals(1, top.get(0).getPhotoGallery().size());
     }
 
     @Test
@@ -278,6 +347,8 @@ class ArtisanServiceTest {
 
         assertFalse(artisan.getActive());
         verify(artisanRepo).save(artisan);
+        verify(authenticationCache).invalidateUser(artisanId);
+        verify(topArtisansFeedService).invalidate();
     }
 
     @Test
@@ -286,4 +357,21 @@ class ArtisanServiceTest {
 
         assertThrows(EntityNotFoundException.class, () -> artisanService.banArtisan(artisanId));
     }
+
+    private ArtisanListingView listingView(UUID id, Long recommendationCount) {
+        ArtisanListingView view = mock(ArtisanListingView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getName()).thenReturn("Artisan");
+        when(view.getAvatarUrl()).thenReturn("/api/avatar/a.png");
+        when(view.getRecommendationCount()).thenReturn(recommendationCount);
+        return view;
+    }
+
+    private ArtisanPhotoView photoView(UUID artisanId, String url) {
+        ArtisanPhotoView photo = mock(ArtisanPhotoView.class);
+        when(photo.getId()).thenReturn(UUID.randomUUID());
+        when(photo.getArtisanId()).thenReturn(artisanId);
+        when(photo.getUploadedPhotoUrl()).thenReturn(url);
+        return photo;
+    }
 }
@@ -0,0 +1,228 @@
+package com.atelierlocal.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.atelierlocal.dto.AskingResponseDTO;
+import com.atelierlocal.dto.CursorPageDTO;
+import com.atelierlocal.dto.KeysetCursor;
+import com.atelierlocal.dto.OpportunityDTO;
+import com.atelierlocal.geo.GeoCoordinates;
+import com.atelierlocal.model.ArtisanCategory;
+import com.atelierlocal.model.Asking;
+import com.atelierlocal.model.AskingMatch;
+import com.atelierlocal.model.AskingStatus;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.repository.ArtisanCatalogSort;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanRepo;
+import com.atelierlocal.repository.AskingMatchRepo;
+import com.atelierlocal.repository.AskingRepo;
+
+class AskingMatchingServiceTest {
+
+    @Mock
+    private AskingMatchRepo askingMatchRepo;
+
+    @Mock
+    private AskingRepo askingRepo;
+
+    @Mock
+    private ArtisanRepo artisanRepo;
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AskingMatchingService askingMatchingService;
+    private Asking asking;
+    private AskingResponseDTO askingDTO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        askingMatchingService = new AskingMatchingService(askingMatchRepo, askingRepo, artisanRepo, geocodingService,
+            messagingTemplate, transactionManager, 50, 200, 16, 1, 10, 60000);
+
+        Client client = new Client();
+        client.setId(UUID.randomUUID());
+        ArtisanCategory category = new ArtisanCategory();
+        category.setId(UUID.randomUUID());
+
+        asking = new Asking();
+        asking.setId(UUID.randomUUID());
+        asking.setClient(client);
+        asking.setArtisanCategory(category);
+        asking.setTitle("Mariage");
+        asking.setStatus(AskingStatus.PENDING);
+        asking.setEventLocalisation("Lyon");
+        askingDTO = new AskingResponseDTO(asking);
+
+        when(askingRepo.markMatched(eq(asking.getId()), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        askingMatchingService.shutdown();
+    }
+
+    @Test
+    void match_locatedAsking_keepsArtisansWithinRadius() {
+        ArtisanListingView near = listingView("near@test.com", 45.76, 4.84);
+        ArtisanListingView far = listingView("far@test.com", 46.30, 4.84);
+        List<UUID> ids = List.of(near.getId(), far.getId());
+        when(geocodingService.geocode("Lyon")).thenReturn(Optional.of(new GeoCoordinates(45.75, 4.85)));
+        when(artisanRepo.findCatalogIds(any(), eq(ArtisanCatalogSort.DISTANCE), eq(45.75), eq(4.85), eq(0), eq(200)))
+            .thenReturn(ids);
+        when(artisanRepo.findListingByIds(ids)).thenReturn(List.of(near, far));
+
+        List<OpportunityDTO> opportunities = askingMatchingService.match(askingDTO);
+
+        assertEquals(1, opportunities.size());
+        assertTrue(opportunities.get(0).getDistanceKm() < 2);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AskingMatch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(askingMatchRepo).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        verify(messagingTemplate).convertAndSendToUser(eq("near@test.com"), eq("/queue/opportunities"), any(OpportunityDTO.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("far@test.com"), any(), any());
+    }
+
+    @Test
+    void match_unknownLocation_matchesCategoryByRecommendations() {
+        ArtisanListingView artisan = listingView("artisan@test.com", null, null);
+        List<UUID> ids = List.of(artisan.getId());
+        when(geocodingService.geocode("Lyon")).thenReturn(Optional.empty());
+        when(artisanRepo.findCatalogIds(any(), eq(ArtisanCatalogSort.RECOMMENDATIONS), isNull(), isNull(), eq(0), eq(200)))
+            .thenReturn(ids);
+        when(artisanRepo.findListingByIds(ids)).thenReturn(List.of(artisan));
+
+        List<OpportunityDTO> opportunities = askingMatchingService.match(askingDTO);
+
+        assertEquals(1, opportunities.size());
+        assertNull(opportunities.get(0).getDistanceKm());
+        verify(messagingTemplate).convertAndSendToUser(eq("artisan@test.com"), eq("/queue/opportunities"), any(OpportunityDTO.class));
+    }
+
+    @Test
+    void match_alreadyMatchedOrClosed_doesNothing() {
+        ArtisanListingView artisan = listingView("artisan@test.com", null, null);
+        List<UUID> ids = List.of(artisan.getId());
+        when(geocodingService.geocode("Lyon")).thenReturn(Optional.empty());
+        when(artisanRepo.findCatalogIds(any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(ids);
+        when(artisanRepo.findListingByIds(ids)).thenReturn(List.of(artisan));
+        when(askingRepo.markMatched(eq(asking.getId()), any())).thenReturn(0);
+
+        List<OpportunityDTO> opportunities = askingMatchingService.match(askingDTO);
+
+        assertTrue(opportunities.isEmpty());
+        verify(askingMatchRepo, never()).saveAll(anyList());
+        verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any());
+    }
+
+    @Test
+    void matchPending_handsAskingsToExecutorWithoutBlockingScheduler() throws Exception {
+        CountDownLatch geocoding = new CountDownLatch(1);
+        when(askingRepo.findUnmatchedPending(any(), any(Pageable.class))).thenReturn(List.of(asking));
+        when(geocodingService.geocode("Lyon")).thenAnswer(invocation -> {
+            geocoding.await(2, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        // Le passage rend la main alors que le géocodage est encore bloqué
+        askingMatchingService.matchPending();
+        askingMatchingService.matchPending();
+        verify(askingRepo, never()).markMatched(any(), any());
+        geocoding.countDown();
+
+        // Une demande déjà en file n'est soumise qu'une fois
+        verify(askingRepo, timeout(2000)).markMatched(eq(asking.getId()), any());
+        verify(geocodingService, times(1)).geocode("Lyon");
+    }
+
+    @Test
+    void getInbox_returnsPageAndCursor() {
+        UUID artisanId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        AskingMatch newest = inboxEntry(now);
+        AskingMatch older = inboxEntry(now.minusMinutes(1));
+        AskingMatch oldest = inboxEntry(now.minusMinutes(2));
+        when(askingMatchRepo.findLatestInboxPage(eq(artisanId), any(Pageable.class))).thenReturn(List.of(newest, older, oldest));
+
+        CursorPageDTO<OpportunityDTO> page = askingMatchingService.getInbox(artisanId, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(older.getId(), cursor.getId());
+
+        when(askingMatchRepo.findInboxPageBefore(eq(artisanId), eq(older.getCreatedAt()), eq(older.getId()), any(Pageable.class)))
+            .thenReturn(List.of(oldest));
+
+        CursorPageDTO<OpportunityDTO> next = askingMatchingService.getInbox(artisanId, page.getNextCursor(), 2);
+
+        assertEquals(1, next.getItems().size());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void withdraw_removesAskingFromInboxes() {
+        askingMatchingService.withdraw(asking.getId());
+
+        verify(askingMatchRepo).deleteByAskingId(asking.getId());
+    }
+
+    private ArtisanListingView listingView(String email, Double latitude, Double longitude) {
+        ArtisanListingView view = mock(ArtisanListingView.class);
+        UUID id = UUID.randomUUID();
+        when(view.getId()).thenReturn(id);
+        when(view.getEmail()).thenReturn(email);
+        when(view.getLatitude()).thenReturn(latitude);
+        when(view.getLongitude()).thenReturn(longitude);
+        return view;
+    }
+
+    private AskingMatch inboxEntry(LocalDateTime createdAt) {
+        AskingMatch match = new AskingMatch(asking, null, 3.5);
+        match.setId(UUID.randomUUID());
+        match.setCreatedAt(createdAt);
+        return match;
+    }
+}
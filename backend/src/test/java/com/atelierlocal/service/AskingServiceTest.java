@@ -26,6 +26,8 @@ class AskingServiceTest {
     private EventCategoryRepo eventCategoryRepo;
     @Mock
     private SecurityService securityService;
+    @Mock
+    private AskingMatchingService askingMatchingService;
 
     @InjectMocks
     private AskingService askingService;
@@ -89,6 +91,7 @@ class AskingServiceTest {
         assertEquals("Titre", response.getTitle());
         verify(securityService).checkClientOnly(client);
         verify(askingRepo).save(any(Asking.class));
+        verify(askingMatchingService).submit(response);
     }
 
     @Test
@@ -130,6 +133,7 @@ class AskingServiceTest {
 
         assertEquals(AskingStatus.DONE, response.getStatus());
         verify(securityService).checkClientOwnershipOrAdmin(client, asking.getClient().getId());
+        verify(askingMatchingService).withdraw(asking.getId());
     }
 
     @Test
@@ -160,6 +164,8 @@ class AskingServiceTest {
         askingService.deleteAsking(asking.getId(), client);
 
         verify(securityService).checkClientOwnershipOrAdmin(client, client.getId());
+        verify(askingMatchingService).withdraw(asking.getId());
+        verify(askingRepo).delete(asking);
     }
 
     @Test
@@ -188,6 +194,29 @@ class AskingServiceTest {
 
         assertEquals("Nouveau titre", response.getTitle());
         assertEquals("Nouveau contenu", response.getContent());
+        verifyNoInteractions(askingMatchingService);
+    }
+
+    @Test
+    void testUpdateAsking_categoryChanged_rematches() {
+        ArtisanCategory otherCategory = new ArtisanCategory();
+        otherCategory.setId(UUID.randomUUID());
+        asking.setMatchedAt(LocalDateTime.now());
+
+        AskingRequestDTO dto = new AskingRequestDTO();
+        dto.setArtisanCategoryId(otherCategory.getId());
+
+        when(askingRepo.findById(asking.getId())).thenReturn(Optional.of(asking));
+        when(artisanCategoryRepo.findById(otherCategory.getId())).thenReturn(Optional.of(otherCategory));
+        when(askingRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        AskingResponseDTO response = askingService.updateAsking(asking.getId(), dto, client);
+
+        assertEquals(otherCategory.getId(), response.getArtisanCategoryId());
+        assertNull(asking.getMatchedAt());
+        InOrder inOrder = inOrder(askingMatchingService);
+        inOrder.verify(askingMatchingService).withdraw(asking.getId());
+        inOrder.verify(askingMatchingService).submit(response);
     }
 
     // -------------------
@@ -0,0 +1,230 @@
+package com.atelierlocal.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.atelierlocal.dto.MessageResponseDTO;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.Message;
+import com.atelierlocal.model.MessageStatus;
+import com.atelierlocal.repository.MessageRepo;
+import com.atelierlocal.storage.ObjectStorageException;
+
+class AttachmentUploadServiceTest {
+
+    @Mock
+    private MessageRepo messageRepo;
+
+    @Mock
+    private StoredObjectService storedObjectService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AttachmentUploadService attachmentUploadService;
+    private Message message;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        attachmentUploadService = new AttachmentUploadService(
+            messageRepo, storedObjectService, messagingTemplate, transactionManager, 2, 10, 600
+        );
+
+        Client sender = new Client();
+        sender.setId(UUID.randomUUID());
+        sender.setEmail("client@test.com");
+
+        Artisan receiver = new Artisan();
+        receiver.setId(UUID.randomUUID());
+        receiver.setEmail("artisan@test.com");
+
+        message = new Message();
+        message.setId(UUID.randomUUID());
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setTempId("temp-1");
+        message.setMessageStatus(MessageStatus.PENDING_UPLOAD);
+
+        when(storedObjectService.store(any(Path.class), any(), any()))
+            .thenReturn("https://my-bucket.s3.eu-west-3.amazonaws.com/objects/03/039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81.png");
+        when(messageRepo.findById(message.getId())).thenReturn(Optional.of(message));
+        when(messageRepo.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        attachmentUploadService.shutdown();
+    }
+
+    @Test
+    void testSubmitUploadsAndMarksMessageAsSent() throws Exception {
+        MultipartFile file = mock(MultipartFile.class);
+        doAnswer(invocation -> Files.write(invocation.getArgument(0), new byte[]{1, 2, 3}))
+            .when(file).transferTo(any(Path.class));
+        when(file.getContentType()).thenReturn("image/png");
+        when(file.getOriginalFilename()).thenReturn("test.png");
+        List<Path> spooled = new ArrayList<>();
+        when(storedObjectService.store(any(Path.class), any(), any())).thenAnswer(invocation -> {
+            Path spool = invocation.getArgument(0);
+            assertEquals(3L, Files.size(spool));
+            spooled.add(spool);
+            return "https://my-bucket.s3.eu-west-3.amazonaws.com/objects/03/039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81.png";
+        });
+
+        attachmentUploadService.submit(message.getId(), file);
+
+        ArgumentCaptor<MessageResponseDTO> captor = ArgumentCaptor.forClass(MessageResponseDTO.class);
+        verify(messagingTemplate, timeout(2000).times(1))
+            .convertAndSendToUser(eq("artisan@test.com"), eq("/queue/messages"), captor.capture());
+        verify(messagingTemplate, timeout(2000).times(1))
+            .convertAndSendToUser(eq("client@test.com"), eq("/queue/messages"), any(MessageResponseDTO.class));
+        verify(storedObjectService, times(1)).store(any(Path.class), eq("image/png"), eq("png"));
+        // Le fichier temporaire est supprimé une fois envoyé
+        assertFalse(Files.exists(spooled.get(0)));
+
+        MessageResponseDTO response = captor.getValue();
+        assertEquals(MessageStatus.SENT, response.getMessageStatus());
+        assertEquals("temp-1", response.getTempId());
+        assertEquals(1, response.getAttachments().size());
+        assertTrue(response.getAttachments().get(0).getFileUrl()
+            .matches("https://my-bucket.s3.eu-west-3.amazonaws.com/objects/03/[0-9a-f]{64}.png"));
+        assertEquals("test.png", response.getAttachments().get(0).getFileName());
+    }
+
+    @Test
+    void testUploadFailureMarksMessageAsFailed() throws Exception {
+        when(storedObjectService.store(any(Path.class), any(), any()))
+            .thenThrow(new ObjectStorageException("S3 indisponible"));
+        Path spool = Files.write(Files.createTempFile("attachment-upload-test-", ".tmp"), new byte[]{1});
+
+        attachmentUploadService.process(new AttachmentUploadService.PendingUpload(
+            message.getId(), spool, "image/png", "test.png"
+        ));
+
+        ArgumentCaptor<MessageResponseDTO> captor = ArgumentCaptor.forClass(MessageResponseDTO.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("client@test.com"), eq("/queue/messages"), captor.capture());
+
+        assertEquals(MessageStatus.FAILED, message.getMessageStatus());
+        assertEquals(MessageStatus.FAILED, captor.getValue().getMessageStatus());
+        assertEquals("temp-1", captor.getValue().getTempId());
+        assertTrue(captor.getValue().getMessageError().contains("S3 indisponible"));
+        assertFalse(Files.exists(spool));
+    }
+
+    @Test
+    void testStaleUploadsAreMarkedAsFailed() {
+        when(messageRepo.findIdsByStatusCreatedBefore(eq(MessageStatus.PENDING_UPLOAD), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(message.getId()));
+
+        attachmentUploadService.failStaleUploads();
+
+        ArgumentCaptor<MessageResponseDTO> captor = ArgumentCaptor.forClass(MessageResponseDTO.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("artisan@test.com"), eq("/queue/messages"), captor.capture());
+        verify(messagingTemplate).convertAndSendToUser(eq("client@test.com"), eq("/queue/messages"), any(MessageResponseDTO.class));
+        assertEquals(MessageStatus.FAILED, message.getMessageStatus());
+        assertEquals(MessageStatus.FAILED, captor.getValue().getMessageStatus());
+        assertEquals("temp-1", captor.getValue().getTempId());
+    }
+
+    @Test
+    void testAlreadyFinalizedMessageIsNotOverwritten() {
+        message.setMessageStatus(MessageStatus.SENT);
+        when(messageRepo.findIdsByStatusCreatedBefore(eq(MessageStatus.PENDING_UPLOAD), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(message.getId()));
+
+        attachmentUploadService.failStaleUploads();
+
+        assertEquals(MessageStatus.SENT, message.getMessageStatus());
+        verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any(Object.class));
+    }
+
+    @Test
+    void testShutdownMarksQueuedUploadsAsFailed() throws Exception {
+        attachmentUploadService.shutdown();
+        attachmentUploadService = new AttachmentUploadService(
+            messageRepo, storedObjectService, messagingTemplate, transactionManager, 1, 10, 600
+        );
+
+        Message queued = new Message();
+        queued.setId(UUID.randomUUID());
+        queued.setSender(message.getSender());
+        queued.setReceiver(message.getReceiver());
+        queued.setTempId("temp-2");
+        queued.setMessageStatus(MessageStatus.PENDING_UPLOAD);
+        when(messageRepo.findById(queued.getId())).thenReturn(Optional.of(queued));
+
+        // Le premier envoi occupe l'unique thread, le second reste en file
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storedObjectService.store(any(Path.class), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "https://my-bucket.s3.eu-west-3.amazonaws.com/objects/03/039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81.png";
+        });
+        attachmentUploadService.submit(message.getId(), attachment());
+        attachmentUploadService.submit(queued.getId(), attachment());
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        Thread shutdown = new Thread(() -> {
+            try {
+                attachmentUploadService.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        shutdown.start();
+        verify(messagingTemplate, timeout(2000))
+            .convertAndSendToUser(eq("client@test.com"), eq("/queue/messages"), any(MessageResponseDTO.class));
+        assertEquals(MessageStatus.FAILED, queued.getMessageStatus());
+
+        // L'envoi en cours est mené à son terme
+        release.countDown();
+        shutdown.join(2000);
+        assertEquals(MessageStatus.SENT, message.getMessageStatus());
+        verify(storedObjectService, times(1)).store(any(Path.class), any(), any());
+    }
+
+    private MultipartFile attachment() throws Exception {
+        MultipartFile file = mock(MultipartFile.class);
+        doAnswer(invocation -> Files.write(invocation.getArgument(0), new byte[]{1}))
+            .when(file).transferTo(any(Path.class));
+        when(file.getContentType()).thenReturn("image/png");
+        when(file.getOriginalFilename()).thenReturn("test.png");
+        return file;
+    }
+}
@@ -1,7 +1,7 @@
 package com.atelierlocal.service;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -12,25 +12,26 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import com.atelierlocal.model.Avatar;
+import com.atelierlocal.storage.StoredImage;
 
 class AvatarServiceTest {
 
-    private S3Client s3Client;
+    private ImageProcessingService imageProcessingService;
+    private StoredObjectService storedObjectService;
     private AvatarService avatarService;
 
     @BeforeEach
     void setUp() {
-        s3Client = mock(S3Client.class);
-        avatarService = new AvatarService(s3Client);
+        imageProcessingService = mock(ImageProcessingService.class);
+        storedObjectService = mock(StoredObjectService.class);
+        avatarService = new AvatarService(imageProcessingService, storedObjectService);
     }
 
     @Test
@@ -83,23 +84,48 @@ class AvatarServiceTest {
         when(file.getContentType()).thenReturn("image/png");
         when(file.getOriginalFilename()).thenReturn("avatar.png");
         when(file.getSize()).thenReturn(1024L);
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[1024]));
 
-        S3Client s3Client = mock(S3Client.class);
-        S3ServiceClientConfiguration mockConfig = mock(S3ServiceClientConfiguration.class);
-        Region mockRegion = mock(Region.class);
+        String baseUrl = "https://bucket.s3.eu-west-1.amazonaws.com/objects/";
+        when(imageProcessingService.store(file))
+                .thenReturn(new StoredImage(baseUrl + "aa.png", baseUrl + "bb.png", baseUrl + "cc.png", "png", "image/png"));
+
+        StoredImage image = avatarService.uploadAvatar(file, userId);
+
+        verify(imageProcessingService).store(file);
+        assertNotNull(image);
+        assertTrue(image.getFullUrl().endsWith("aa.png"));
+
+        Avatar avatar = new Avatar();
+        avatar.setAvatarUrl(baseUrl + "old.png");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            avatarService.applyTo(avatar, image);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(baseUrl + "aa.png", avatar.getAvatarUrl());
+        assertEquals(baseUrl + "bb.png", avatar.getCardUrl());
+        assertEquals(baseUrl + "cc.png", avatar.getThumbnailUrl());
+        assertEquals("png", avatar.getExtension());
+        verify(storedObjectService).releaseAfterCommit(List.of(baseUrl + "old.png"));
+    }
 
-        when(s3Client.serviceClientConfiguration()).thenReturn(mockConfig);
-        when(mockConfig.region()).thenReturn(mockRegion);
-        when(mockRegion.id()).thenReturn("eu-west-1");
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenReturn(mock(PutObjectResponse.class));
+    @Test
+    void testApplyTo_replacingAvatarOutsideTransactionIsRefused() {
+        String baseUrl = "https://bucket.s3.eu-west-1.amazonaws.com/objects/";
+        StoredImage image = new StoredImage(baseUrl + "aa.png", baseUrl + "bb.png", baseUrl + "cc.png", "png", "image/png");
 
-        AvatarService avatarService = new AvatarService(s3Client);
+        Avatar avatar = new Avatar();
+        avatar.setAvatarUrl(baseUrl + "old.png");
 
-        String url = avatarService.uploadAvatar(file, userId);
+        assertThrows(IllegalStateException.class, () -> avatarService.applyTo(avatar, image));
+        assertEquals(baseUrl + "old.png", avatar.getAvatarUrl());
+        verify(storedObjectService, never()).releaseAfterCommit(any());
 
-        assertNotNull(url);
-        assertTrue(url.contains("avatar.png"));
+        // Nouvel avatar : aucun fichier à libérer, pas de transaction requise
+        Avatar fresh = new Avatar();
+        avatarService.applyTo(fresh, image);
+        assertEquals(baseUrl + "aa.png", fresh.getAvatarUrl());
     }
 }
@@ -0,0 +1,105 @@
+package com.atelierlocal.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.atelierlocal.dto.ArtisanCategoryResponseDTO;
+import com.atelierlocal.model.ArtisanCategory;
+import com.atelierlocal.model.EventCategory;
+import com.atelierlocal.repository.ArtisanCategoryRepo;
+import com.atelierlocal.repository.EventCategoryRepo;
+
+class CategoryCacheTest {
+
+    @Mock
+    private ArtisanCategoryRepo artisanCategoryRepo;
+
+    @Mock
+    private EventCategoryRepo eventCategoryRepo;
+
+    @InjectMocks
+    private CategoryCache categoryCache;
+
+    private ArtisanCategory plombier;
+    private EventCategory renovation;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        plombier = new ArtisanCategory();
+        plombier.setId(UUID.randomUUID());
+        plombier.setName("Plombier");
+        plombier.setDescription("Plomberie");
+
+        renovation = new EventCategory();
+        renovation.setId(UUID.randomUUID());
+        renovation.setName("Rénovation");
+        renovation.setArtisanCategoryList(List.of(plombier));
+
+        when(artisanCategoryRepo.findAll()).thenReturn(List.of(plombier));
+        when(eventCategoryRepo.findAllWithArtisanCategories()).thenReturn(List.of(renovation));
+    }
+
+    @Test
+    void findArtisanCategoryIdByName_ignoresCaseAndSpaces() {
+        assertEquals(Optional.of(plombier.getId()), categoryCache.findArtisanCategoryIdByName("  pLOMBIER "));
+        assertTrue(categoryCache.findArtisanCategoryIdByName("Électricien").isEmpty());
+        assertTrue(categoryCache.findArtisanCategoryIdByName(null).isEmpty());
+    }
+
+    @Test
+    void findArtisanCategoriesByEvent_returnsPrecomputedMapping() {
+        List<ArtisanCategoryResponseDTO> categories = categoryCache.findArtisanCategoriesByEvent(renovation.getId()).orElseThrow();
+
+        assertEquals(1, categories.size());
+        assertEquals(plombier.getId(), categories.get(0).getId());
+        assertTrue(categoryCache.findArtisanCategoriesByEvent(UUID.randomUUID()).isEmpty());
+        assertEquals(List.of(plombier.getId()), categoryCache.findEventCategory(renovation.getId()).orElseThrow().getArtisanCategoryIds());
+    }
+
+    @Test
+    void repeatedReads_loadOnce() {
+        categoryCache.getArtisanCategories();
+        categoryCache.findArtisanCategory(plombier.getId());
+        categoryCache.getEventCategories();
+        categoryCache.getEtag();
+
+        verify(artisanCategoryRepo, times(1)).findAll();
+        verify(eventCategoryRepo, times(1)).findAllWithArtisanCategories();
+    }
+
+    @Test
+    void invalidate_reloadsAndChangesEtag() {
+        String etag = categoryCache.getEtag();
+
+        plombier.setName("Plombier chauffagiste");
+        categoryCache.invalidate();
+
+        assertNotEquals(etag, categoryCache.getEtag());
+        assertEquals("Plombier chauffagiste", categoryCache.getArtisanCategories().get(0).getName());
+        verify(artisanCategoryRepo, times(2)).findAll();
+    }
+
+    @Test
+    void clear_withUnchangedContent_keepsEtag() {
+        String etag = categoryCache.getEtag();
+
+        categoryCache.clear();
+
+        assertEquals(etag, categoryCache.getEtag());
+    }
+}
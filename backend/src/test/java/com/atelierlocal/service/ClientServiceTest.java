@@ -1,5 +1,6 @@
 package com.atelierlocal.service;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,10 +20,12 @@ import org.mockito.MockitoAnnotations;
 
 import com.atelierlocal.dto.ClientRequestDTO;
 import com.atelierlocal.dto.ClientResponseDTO;
+import com.atelierlocal.model.Avatar;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.AvatarRepo;
 import com.atelierlocal.repository.ClientRepo;
+import com.atelierlocal.security.AuthenticationCache;
 import com.atelierlocal.security.SecurityService;
 
 public class ClientServiceTest {
@@ -42,6 +45,15 @@ public class ClientServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private AuthenticationCache authenticationCache;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @Mock
+    private StoredObjectService storedObjectService;
+
     @InjectMocks
     private ClientService clientService;
 
@@ -149,6 +161,7 @@ public class ClientServiceTest {
         assertNotNull(response);
         assertEquals("New", response.getFirstName());
         assertEquals("Name", response.getLastName());
+        verify(authenticationCache).invalidateUser(clientId);
     }
 
     @Test
@@ -157,16 +170,21 @@ public class ClientServiceTest {
 
     Client client = new Client();
     client.setId(clientId);
+    Avatar avatar = new Avatar();
+    avatar.setAvatarUrl("https://cdn.test/objects/avatar.png");
+    client.setAvatar(avatar);
 
     Client admin = new Client();
     admin.setId(UUID.randomUUID());
     admin.setUserRole(UserRole.ADMIN);
 
     when(clientRepo.findById(clientId)).thenReturn(Optional.of(client));
+    when(avatarService.getStoredUrls(avatar)).thenReturn(List.of("https://cdn.test/objects/avatar.png"));
     doNothing().when(securityService).checkAdminOnly(admin);
 
     clientService.deleteClient(clientId, admin);
 
     verify(clientRepo, times(1)).delete(client);
+    verify(storedObjectService).releaseAfterCommit(List.of("https://cdn.test/objects/avatar.png"));
     }
 }
@@ -0,0 +1,136 @@
+package com.atelierlocal.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import com.atelierlocal.dto.ConversationSummaryDTO;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.ConversationSummary;
+import com.atelierlocal.model.Message;
+import com.atelierlocal.model.UserRole;
+import com.atelierlocal.repository.ConversationSummaryRepo;
+import com.atelierlocal.repository.MessageRepo;
+
+class ConversationSummaryServiceTest {
+
+    @Mock
+    private ConversationSummaryRepo conversationSummaryRepo;
+
+    @Mock
+    private MessageRepo messageRepo;
+
+    @InjectMocks
+    private ConversationSummaryService conversationSummaryService;
+
+    private Client client;
+    private Artisan artisan;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        client = new Client();
+        client.setId(UUID.randomUUID());
+        client.setFirstName("Jean");
+        client.setLastName("Dupont");
+        client.setUserRole(UserRole.CLIENT);
+
+        artisan = new Artisan();
+        artisan.setId(UUID.randomUUID());
+        artisan.setName("Atelier Bois");
+        artisan.setUserRole(UserRole.ARTISAN);
+    }
+
+    @Test
+    void testRecordMessageUpsertsBothSummaries() {
+        Message message = new Message();
+        message.setSender(client);
+        message.setReceiver(artisan);
+        message.setContent("Bonjour");
+        message.setCreatedAt(LocalDateTime.now());
+
+        conversationSummaryService.recordMessage(message);
+
+        verify(conversationSummaryRepo).upsertActivity(client.getId(), artisan.getId(), "Bonjour", message.getCreatedAt(), 0);
+        verify(conversationSummaryRepo).upsertActivity(artisan.getId(), client.getId(), "Bonjour", message.getCreatedAt(), 1);
+        verify(conversationSummaryRepo, never()).save(any());
+    }
+
+    @Test
+    void testRecordMessageTruncatesPreview() {
+        Message message = new Message();
+        message.setSender(client);
+        message.setReceiver(artisan);
+        message.setContent("x".repeat(400));
+        message.setCreatedAt(LocalDateTime.now());
+
+        conversationSummaryService.recordMessage(message);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(conversationSummaryRepo, times(2)).upsertActivity(any(), any(), captor.capture(), any(), anyLong());
+        assertEquals(ConversationSummary.PREVIEW_MAX_LENGTH, captor.getValue().length());
+    }
+
+    @Test
+    void testMarkRead() {
+        conversationSummaryService.markRead(client.getId(), artisan.getId(), 3);
+        conversationSummaryService.markRead(client.getId(), artisan.getId(), 0);
+
+        verify(conversationSummaryRepo, times(1)).decrementUnread(client.getId(), artisan.getId(), 3);
+        verify(conversationSummaryRepo, times(1)).decrementUnread(any(), any(), anyLong());
+    }
+
+    @Test
+    void testMarkConversationRead() {
+        LocalDateTime readAt = LocalDateTime.now();
+
+        conversationSummaryService.markConversationRead(client.getId(), artisan.getId(), 5, readAt);
+
+        verify(conversationSummaryRepo, times(1)).markReadUpTo(client.getId(), artisan.getId(), 5, readAt);
+    }
+
+    @Test
+    void testGetInbox() {
+        ConversationSummary summary = new ConversationSummary();
+        summary.setOwner(client);
+        summary.setPeer(artisan);
+        summary.setLastMessagePreview("Devis envoyé");
+        summary.setLastMessageAt(LocalDateTime.now());
+        summary.setUnreadCount(2);
+
+        when(conversationSummaryRepo.findInbox(eq(client.getId()), any(Pageable.class))).thenReturn(List.of(summary));
+
+        List<ConversationSummaryDTO> inbox = conversationSummaryService.getInbox(client.getId(), 0, null);
+
+        assertEquals(1, inbox.size());
+        assertEquals(artisan.getId(), inbox.get(0).getOtherUserId());
+        assertEquals("Atelier Bois", inbox.get(0).getOtherUserName());
+        assertEquals("ARTISAN", inbox.get(0).getOtherUserRole());
+        assertEquals("Devis envoyé", inbox.get(0).getLastMessage());
+        assertEquals(2L, inbox.get(0).getUnreadCount());
+    }
+
+    @Test
+    void testGetInboxWithNegativePage() {
+        assertThrows(IllegalArgumentException.class, () -> conversationSummaryService.getInbox(client.getId(), -1, 10));
+    }
+}
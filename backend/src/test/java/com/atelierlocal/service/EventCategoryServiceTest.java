@@ -36,6 +36,9 @@ class EventCategoryServiceTest {
     @Mock
     private ArtisanCategoryRepo artisanCategoryRepo;
 
+    @Mock
+    private CategoryCache categoryCache;
+
     @InjectMocks
     private EventCategoryService eventCategoryService;
 
@@ -85,6 +88,7 @@ class EventCategoryServiceTest {
         assertNotNull(response);
         assertEquals("Rénovation", response.getName()); // valeur mockée par save()
         assertTrue(response.getArtisanCategoryIds().contains(artisanCategoryId));
+        verify(categoryCache).invalidate();
     }
 
     @Test
@@ -132,6 +136,7 @@ class EventCategoryServiceTest {
 
         assertNotNull(response);
         assertEquals("Nouveau nom", response.getName());
+        verify(categoryCache).invalidate();
     }
 
     @Test
@@ -156,6 +161,7 @@ class EventCategoryServiceTest {
         eventCategoryService.deleteEventCategory(id);
 
         verify(eventCategoryRepo).deleteById(id);
+        verify(categoryCache).invalidate();
     }
 
     @Test
@@ -165,6 +171,7 @@ class EventCategoryServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> eventCategoryService.deleteEventCategory(id));
         verify(eventCategoryRepo, never()).deleteById(any());
+        verify(categoryCache, never()).invalidate();
     }
 
     // --- GET BY ID ---
@@ -172,7 +179,7 @@ class EventCategoryServiceTest {
     @Test
     void testGetEventCategoryById_success() {
         UUID id = UUID.randomUUID();
-        when(eventCategoryRepo.findById(id)).thenReturn(Optional.of(eventCategory));
+        when(categoryCache.findEventCategory(id)).thenReturn(Optional.of(new EventCategoryResponseDTO(eventCategory)));
 
         EventCategoryResponseDTO response = eventCategoryService.getEventCategoryById(id);
 
@@ -184,7 +191,7 @@ class EventCategoryServiceTest {
     @Test
     void testGetEventCategoryById_notFound() {
         UUID id = UUID.randomUUID();
-        when(eventCategoryRepo.findById(id)).thenReturn(Optional.empty());
+        when(categoryCache.findEventCategory(id)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> eventCategoryService.getEventCategoryById(id));
     }
@@ -193,11 +200,12 @@ class EventCategoryServiceTest {
 
     @Test
     void testGetAllEventCategories() {
-        when(eventCategoryRepo.findAll()).thenReturn(List.of(eventCategory));
+        when(categoryCache.getEventCategories()).thenReturn(List.of(new EventCategoryResponseDTO(eventCategory)));
 
         List<EventCategoryResponseDTO> response = eventCategoryService.getAllEventCategories();
 
         assertEquals(1, response.size());
         assertEquals("Rénovation", response.get(0).getName());
+        verify(eventCategoryRepo, never()).findAll();
     }
 }
@@ -0,0 +1,187 @@
+package com.atelierlocal.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.atelierlocal.dto.NearbyArtisanDTO;
+import com.atelierlocal.dto.PageDTO;
+import com.atelierlocal.geo.GeoBoundingBox;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.User;
+import com.atelierlocal.repository.ArtisanListingView;
+import com.atelierlocal.repository.ArtisanLocation;
+import com.atelierlocal.repository.ArtisanRepo;
+import com.atelierlocal.repository.UploadedPhotoRepo;
+import com.atelierlocal.repository.UserRepo;
+
+class GeoSearchServiceTest {
+
+    @Mock
+    private ArtisanRepo artisanRepo;
+
+    @Mock
+    private UploadedPhotoRepo uploadedPhotoRepo;
+
+    @Mock
+    private UserRepo userRepo;
+
+    private GeoSearchService geoSearchService;
+
+    // Autour de la place Bellecour, à Lyon
+    private static final double LAT = 45.7578;
+    private static final double LNG = 4.8320;
+
+    private ArtisanLocation nearby;
+    private ArtisanLocation closest;
+    private ArtisanLocation farAway;
+    private final Map<UUID, ArtisanListingView> views = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        geoSearchService = new GeoSearchService(artisanRepo, uploadedPhotoRepo, userRepo, 200, 50, 16);
+
+        nearby = artisan("Ébéniste", 45.7640, 4.8357);    // ~0,8 km
+        closest = artisan("Fleuriste", 45.7580, 4.8325);  // ~0,05 km
+        farAway = artisan("Traiteur", 45.4397, 4.3872);   // Saint-Étienne, ~50 km
+
+        // Seuls les artisans retenus sont chargés par projection
+        when(artisanRepo.findListingByIds(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(views::get).toList();
+        });
+        when(uploadedPhotoRepo.findFirstPhotosByArtisans(any(), anyInt())).thenReturn(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testSearchWithinRadiusSortsByDistanceAndFiltersOutsideCircle() {
+        when(artisanRepo.findLocations(any(Specification.class))).thenReturn(List.of(nearby, farAway, closest));
+
+        PageDTO<NearbyArtisanDTO> result = geoSearchService.searchWithinRadius(LAT, LNG, 5, null, 0, 20);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals("Fleuriste", result.getItems().get(0).getArtisan().getName());
+        assertEquals("Ébéniste", result.getItems().get(1).getArtisan().getName());
+        assertTrue(result.getItems().get(0).getDistanceKm() < result.getItems().get(1).getDistanceKm());
+        assertFalse(result.isHasMore());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testSearchWithinRadiusPaginates() {
+        when(artisanRepo.findLocations(any(Specification.class))).thenReturn(List.of(nearby, closest));
+
+        PageDTO<NearbyArtisanDTO> first = geoSearchService.searchWithinRadius(LAT, LNG, 5, null, 0, 1);
+        PageDTO<NearbyArtisanDTO> second = geoSearchService.searchWithinRadius(LAT, LNG, 5, null, 1, 1);
+        PageDTO<NearbyArtisanDTO> beyond = geoSearchService.searchWithinRadius(LAT, LNG, 5, null, 5, 1);
+
+        assertEquals("Fleuriste", first.getItems().get(0).getArtisan().getName());
+        assertTrue(first.isHasMore());
+        assertEquals("Ébéniste", second.getItems().get(0).getArtisan().getName());
+        assertFalse(second.isHasMore());
+        assertTrue(beyond.getItems().isEmpty());
+        // Seuls les artisans de chaque page sont chargés
+        verify(artisanRepo).findListingByIds(List.of(closest.id()));
+        verify(artisanRepo).findListingByIds(List.of(nearby.id()));
+        verify(artisanRepo, times(2)).findListingByIds(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testSearchWithinBoxKeepsOnlyArtisansInsideTheBox() {
+        when(artisanRepo.findLocations(any(Specification.class))).thenReturn(List.of(nearby, farAway, closest));
+        GeoBoundingBox box = new GeoBoundingBox(45.75, 4.82, 45.77, 4.84);
+
+        PageDTO<NearbyArtisanDTO> result = geoSearchService.searchWithinBox(box, UUID.randomUUID(), 0, 20);
+
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void testInvalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> geoSearchService.searchWithinRadius(LAT, LNG, 500, null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> geoSearchService.searchWithinRadius(LAT, LNG, 5, null, -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> geoSearchService.searchWithinRadius(LAT, LNG, 5, null, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> geoSearchService.searchWithinBox(new GeoBoundingBox(40, -5, 50, 10), null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> geoSearchService.findNearest(LAT, LNG, 0, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testFindNearestWidensRadiusUntilEnoughArtisans() {
+        when(artisanRepo.findLocations(any(Specification.class))).thenReturn(List.of(nearby, farAway, closest));
+
+        List<NearbyArtisanDTO> result = geoSearchService.findNearest(LAT, LNG, 3, null);
+
+        // 5, 10, 20, 40 puis 80 km : Saint-Étienne n'entre dans le cercle qu'à la cinquième recherche
+        assertEquals(3, result.size());
+        assertEquals("Traiteur", result.get(2).getArtisan().getName());
+        verify(artisanRepo, times(5)).findLocations(any(Specification.class));
+        verify(artisanRepo, times(1)).findListingByIds(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testFindNearestReturnsAfterFirstRadiusWhenEnough() {
+        when(artisanRepo.findLocations(any(Specification.class))).thenReturn(List.of(nearby, closest));
+
+        List<NearbyArtisanDTO> result = geoSearchService.findNearest(LAT, LNG, 1, null);
+
+        assertEquals(1, result.size());
+        assertEquals("Fleuriste", result.get(0).getArtisan().getName());
+        verify(artisanRepo, times(1)).findLocations(any(Specification.class));
+    }
+
+    @Test
+    void testBackfillComputesMissingGeohashes() {
+        Client client = new Client();
+        client.setLatitude(LAT);
+        client.setLongitude(LNG);
+        List<User> users = List.of(client);
+        when(userRepo.findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull()).thenReturn(users);
+
+        geoSearchService.backfillGeohashes();
+
+        assertEquals(9, client.getGeohash().length());
+        verify(userRepo).saveAll(users);
+    }
+
+    @Test
+    void testBackfillDoesNothingWhenUpToDate() {
+        when(userRepo.findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull()).thenReturn(List.of());
+
+        geoSearchService.backfillGeohashes();
+
+        verify(userRepo, never()).saveAll(any());
+    }
+
+    private ArtisanLocation artisan(String name, double latitude, double longitude) {
+        ArtisanLocation location = new ArtisanLocation(UUID.randomUUID(), latitude, longitude);
+        ArtisanListingView view = mock(ArtisanListingView.class);
+        when(view.getId()).thenReturn(location.id());
+        when(view.getName()).thenReturn(name);
+        views.put(location.id(), view);
+        return location;
+    }
+}
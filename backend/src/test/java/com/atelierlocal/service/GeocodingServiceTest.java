@@ -0,0 +1,87 @@
+package com.atelierlocal.service;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.MockitoAnnotations;
+
+import com.atelierlocal.geo.GeoAddress;
+import com.atelierlocal.geo.GeoCoordinates;
+import com.atelierlocal.geo.GeocodingException;
+import com.atelierlocal.geo.GeocodingProvider;
+
+class GeocodingServiceTest {
+
+    @Mock
+    private GeocodingProvider geocodingProvider;
+
+    private GeocodingService geocodingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        geocodingService = new GeocodingService(geocodingProvider, 100, 60);
+    }
+
+    @Test
+    void testEquivalentAddressesShareOneLookup() {
+        when(geocodingProvider.geocode("10 rue de la république, lyon"))
+            .thenReturn(Optional.of(new GeoCoordinates(45.76, 4.83)));
+
+        Optional<GeoCoordinates> first = geocodingService.geocode("10 rue de la République, Lyon");
+        Optional<GeoCoordinates> second = geocodingService.geocode("  10 RUE  de la république,   lyon ");
+
+        assertEquals(45.76, first.get().getLatitude());
+        assertEquals(4.83, second.get().getLongitude());
+        verify(geocodingProvider, times(1)).geocode(anyString());
+    }
+
+    @Test
+    void testUnknownAddressIsCachedButErrorsAreNot() {
+        when(geocodingProvider.geocode("nulle part")).thenReturn(Optional.empty());
+        when(geocodingProvider.geocode("panne"))
+            .thenThrow(new GeocodingException("LocationIQ indisponible"))
+            .thenReturn(Optional.of(new GeoCoordinates(1, 2)));
+
+        assertTrue(geocodingService.geocode("Nulle part").isEmpty());
+        assertTrue(geocodingService.geocode("nulle part").isEmpty());
+        verify(geocodingProvider, times(1)).geocode("nulle part");
+
+        assertThrows(GeocodingException.class, () -> geocodingService.geocode("panne"));
+        assertEquals(1, geocodingService.geocode("panne").get().getLatitude());
+    }
+
+    @Test
+    void testReverseGeocodeRoundsCoordinates() {
+        GeoAddress address = new GeoAddress("Place Bellecour, Lyon 69002", "Lyon", "69002", "France");
+        when(geocodingProvider.reverse(45.7578, 4.832)).thenReturn(Optional.of(address));
+
+        assertEquals("Lyon", geocodingService.reverseGeocode(45.75781, 4.83204).get().getCity());
+        assertEquals("69002", geocodingService.reverseGeocode(45.757796, 4.831998).get().getPostcode());
+        verify(geocodingProvider, times(1)).reverse(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void testInvalidInputIsRejectedWithoutLookup() {
+        assertThrows(IllegalArgumentException.class, () -> geocodingService.geocode("  "));
+        assertThrows(IllegalArgumentException.class, () -> geocodingService.reverseGeocode(95, 0));
+        verify(geocodingProvider, never()).geocode(anyString());
+        verify(geocodingProvider, never()).reverse(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void testNormalizeAddress() {
+        assertEquals("1 place bellecour", GeocodingService.normalizeAddress(" 1\tPlace   Bellecour "));
+    }
+}
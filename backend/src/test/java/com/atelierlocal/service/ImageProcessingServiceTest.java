@@ -0,0 +1,212 @@
+package com.atelierlocal.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.atelierlocal.storage.StoredImage;
+
+class ImageProcessingServiceTest {
+
+    private StoredObjectService storedObjectService;
+    private ImageProcessingService imageProcessingService;
+    private Map<String, byte[]> stored;
+    private Map<String, String> storedTypes;
+
+    @BeforeEach
+    void setUp() {
+        storedObjectService = mock(StoredObjectService.class);
+        imageProcessingService = new ImageProcessingService(storedObjectService, 2, 10, 10_000_000, 0.85f, 30);
+        stored = new HashMap<>();
+        storedTypes = new HashMap<>();
+
+        // Chaque contenu enregistré reçoit une URL numérotée, suivie de son extension
+        when(storedObjectService.store(any(), anyLong(), anyString(), anyString())).thenAnswer(invocation -> {
+            InputStream content = invocation.getArgument(0);
+            String url = "/api/files/objects/" + stored.size() + "." + invocation.getArgument(3);
+            stored.put(url, content.readAllBytes());
+            storedTypes.put(url, invocation.getArgument(2));
+            return url;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageProcessingService.shutdown();
+    }
+
+    @Test
+    void testStoreGeneratesResizedJpegRenditions() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.png", "image/png", encode(2000, 1000, false, "png"));
+
+        StoredImage image = imageProcessingService.store(file);
+
+        assertEquals("jpg", image.getExtension());
+        assertEquals("image/jpeg", image.getContentType());
+        assertEquals(3, stored.size());
+
+        assertDimensions(image.getFullUrl(), 1600, 800);
+        assertDimensions(image.getCardUrl(), 480, 240);
+        assertDimensions(image.getThumbnailUrl(), 160, 80);
+        assertEquals("image/jpeg", storedTypes.get(image.getFullUrl()));
+    }
+
+    @Test
+    void testSmallImageIsNotUpscaled() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "small.jpg", "image/jpeg", encode(300, 200, false, "jpg"));
+
+        StoredImage image = imageProcessingService.store(file);
+
+        assertDimensions(image.getFullUrl(), 300, 200);
+        assertDimensions(image.getCardUrl(), 300, 200);
+        assertDimensions(image.getThumbnailUrl(), 160, 107);
+    }
+
+    @Test
+    void testTransparentImageStaysPng() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "logo.png", "image/png", encode(600, 600, true, "png"));
+
+        StoredImage image = imageProcessingService.store(file);
+
+        assertEquals("png", image.getExtension());
+        assertTrue(image.getThumbnailUrl().endsWith(".png"));
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(stored.get(image.getThumbnailUrl())));
+        assertTrue(thumbnail.getColorModel().hasAlpha());
+        assertEquals(160, thumbnail.getWidth());
+    }
+
+    @Test
+    void testInvalidImageIsRejected() {
+        MockMultipartFile file = new MockMultipartFile("file", "fake.png", "image/png", new byte[]{1, 2, 3, 4});
+
+        assertThrows(IllegalArgumentException.class, () -> imageProcessingService.store(file));
+        assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    void testTooLargeImageIsRejectedBeforeDecoding() throws IOException {
+        ImageProcessingService limited = new ImageProcessingService(storedObjectService, 1, 1, 1_000, 0.85f, 30);
+        MockMultipartFile file = new MockMultipartFile("file", "big.png", "image/png", encode(100, 100, false, "png"));
+
+        try {
+            assertThrows(IllegalArgumentException.class, () -> limited.store(file));
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    void testExifOrientationIsAppliedBeforeResizing() throws IOException {
+        // Photo prise en portrait : capteur en paysage (rouge à gauche, bleu à droite), orientation 6
+        BufferedImage landscape = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = landscape.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 200, 200);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(200, 0, 200, 200);
+        graphics.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(landscape, "jpg", jpeg);
+        MockMultipartFile file = new MockMultipartFile("file", "portrait.jpg", "image/jpeg", withOrientation(jpeg.toByteArray(), 6));
+
+        StoredImage image = imageProcessingService.store(file);
+
+        // Rotation d'un quart de tour horaire : le bord gauche (rouge) passe en haut
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(stored.get(image.getFullUrl())));
+        assertEquals(200, full.getWidth());
+        assertEquals(400, full.getHeight());
+        assertTrue(isRed(full.getRGB(100, 100)));
+        assertTrue(isBlue(full.getRGB(100, 300)));
+        assertDimensions(image.getThumbnailUrl(), 80, 160);
+    }
+
+    @Test
+    void testParseOrientationReadsBothByteOrders() {
+        assertEquals(6, ImageProcessingService.parseOrientation(exif(6, false)));
+        assertEquals(8, ImageProcessingService.parseOrientation(exif(8, true)));
+        assertEquals(0, ImageProcessingService.parseOrientation(new byte[]{'X', 'M', 'P', 0}));
+    }
+
+    private byte[] encode(int width, int height, boolean transparent, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height,
+            transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(transparent ? new Color(255, 0, 0, 128) : Color.BLUE);
+        graphics.fillRect(0, 0, width / 2, height / 2);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private void assertDimensions(String url, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(stored.get(url)));
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+
+    /**
+     * Insère un segment APP1 Exif portant l'orientation juste après le marqueur SOI.
+     */
+    private byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = exif(orientation, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write((exif.length + 2) >> 8);
+        out.write((exif.length + 2) & 0xFF);
+        out.write(exif, 0, exif.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    /**
+     * Contenu d'un segment APP1 Exif dont l'IFD0 ne contient que le tag Orientation.
+     */
+    private byte[] exif(int orientation, boolean littleEndian) {
+        ByteBuffer buffer = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+        buffer.put(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        buffer.put(littleEndian ? new byte[]{'I', 'I'} : new byte[]{'M', 'M'});
+        buffer.order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        buffer.putShort((short) 42).putInt(8);
+        buffer.putShort((short) 1);
+        buffer.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        buffer.putInt(0);
+        return buffer.array();
+    }
+
+    private boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+
+    private boolean isBlue(int rgb) {
+        Color color = new Color(rgb);
+        return color.getBlue() > 200 && color.getRed() < 60;
+    }
+}
@@ -1,6 +1,5 @@
 package com.atelierlocal.service;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -14,9 +13,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -24,10 +23,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.atelierlocal.dto.ConversationSummaryDTO;
+import com.atelierlocal.dto.CursorPageDTO;
+import com.atelierlocal.dto.KeysetCursor;
 import com.atelierlocal.dto.MessageRequestDTO;
 import com.atelierlocal.dto.MessageResponseDTO;
 import com.atelierlocal.model.Artisan;
@@ -35,17 +40,12 @@ import com.atelierlocal.model.Attachment;
 import com.atelierlocal.model.Client;
 import com.atelierlocal.model.Message;
 import com.atelierlocal.model.MessageStatus;
-import com.atelierlocal.model.S3Properties;
 import com.atelierlocal.model.UserRole;
 import com.atelierlocal.repository.ArtisanRepo;
 import com.atelierlocal.repository.AttachmentRepo;
 import com.atelierlocal.repository.ClientRepo;
 import com.atelierlocal.repository.MessageRepo;
 
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-
 class MessageServiceTest {
 
     @Mock
@@ -61,20 +61,25 @@ class MessageServiceTest {
     private AttachmentRepo attachmentRepo;
 
     @Mock
-    private S3Client s3Client;
+    private AttachmentUploadService attachmentUploadService;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
 
     @Mock
-    private S3Properties s3Properties;
+    private ConversationSummaryService conversationSummaryService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
     private MessageService messageService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        UserDirectory userDirectory = new UserDirectory(artisanRepo, clientRepo, 100, 300);
+        messageService = new MessageService(messageRepo, artisanRepo, clientRepo, userDirectory, attachmentUploadService,
+            conversationSummaryService, unreadCounterService, transactionManager, 300, 100);
     }
 
     @Test
@@ -93,6 +98,7 @@ class MessageServiceTest {
 
         when(artisanRepo.findById(senderId)).thenReturn(Optional.empty());
         when(clientRepo.findById(senderId)).thenReturn(Optional.of(sender));
+        when(clientRepo.getReferenceById(senderId)).thenReturn(sender);
         when(artisanRepo.findById(receiverId)).thenReturn(Optional.of(receiver));
         when(clientRepo.findById(receiverId)).thenReturn(Optional.empty());
 
@@ -121,9 +127,9 @@ class MessageServiceTest {
         
         verify(messageRepo, times(1)).save(any(Message.class));
         verify(attachmentRepo, never()).save(any(Attachment.class));
-        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
-        verify(messagingTemplate, times(1))
-            .convertAndSendToUser(eq("receiver@test.com"), eq("/queue/unread"), any(Integer.class));
+        verify(attachmentUploadService, never()).submit(any(), any());
+        verify(conversationSummaryService, times(1)).recordMessage(savedMessage);
+        verify(unreadCounterService, times(1)).messageReceived(receiver, senderId);
     }
 
     @Test
@@ -132,7 +138,7 @@ class MessageServiceTest {
         UUID senderId = UUID.randomUUID();
         UUID receiverId = UUID.randomUUID();
         String expectedContent = "Message with file";
-        String fileName = "test.png";
+        String tempId = UUID.randomUUID().toString();
 
         Client sender = new Client();
         sender.setId(senderId);
@@ -143,6 +149,7 @@ class MessageServiceTest {
 
         when(artisanRepo.findById(senderId)).thenReturn(Optional.empty());
         when(clientRepo.findById(senderId)).thenReturn(Optional.of(sender));
+        when(clientRepo.getReferenceById(senderId)).thenReturn(sender);
         when(artisanRepo.findById(receiverId)).thenReturn(Optional.of(receiver));
         when(clientRepo.findById(receiverId)).thenReturn(Optional.empty());
 
@@ -150,51 +157,188 @@ class MessageServiceTest {
         when(file.isEmpty()).thenReturn(false);
         when(file.getContentType()).thenReturn("image/png");
         when(file.getSize()).thenReturn(1024L);
-        when(file.getOriginalFilename()).thenReturn(fileName);
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{1, 2, 3}));
-
-        when(s3Properties.getBucketName()).thenReturn("my-bucket");
-        when(s3Properties.getRegion()).thenReturn("eu-west-3");
-
-        Message savedMessage = new Message();
-        savedMessage.setId(UUID.randomUUID());
-        savedMessage.setContent(expectedContent);
-        savedMessage.setSender(sender);
-        savedMessage.setReceiver(receiver);
-        savedMessage.setMessageStatus(MessageStatus.SENT);
+        when(file.getOriginalFilename()).thenReturn("test.png");
 
-        Attachment attachment = new Attachment();
-        attachment.setFileUrl(String.format("https://my-bucket.s3.eu-west-3.amazonaws.com/messages/%s_%s", 
-            UUID.randomUUID(), fileName));
-        attachment.setFileType("image/png");
-        attachment.setMessage(savedMessage);
-        savedMessage.getAttachments().add(attachment);
-
-        when(messageRepo.save(any(Message.class))).thenReturn(savedMessage);
+        UUID savedId = UUID.randomUUID();
+        when(messageRepo.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            message.setId(savedId);
+            return message;
+        });
 
         MessageRequestDTO dto = new MessageRequestDTO();
         dto.setSenderId(senderId);
         dto.setReceiverId(receiverId);
         dto.setContent(expectedContent);
         dto.setFile(file);
+        dto.setTempId(tempId);
 
         // Act
         MessageResponseDTO response = messageService.sendMessage(dto);
 
-        // Assert
+        // Assert : le message est enregistré sans attendre l'upload
         assertNotNull(response);
         assertEquals(expectedContent, response.getContent());
-        assertEquals(1, response.getAttachments().size());
-
-        String actualUrl = response.getAttachments().get(0).getFileUrl();
-        String expectedUrlPattern = String.format("https://my-bucket.s3.eu-west-3.amazonaws.com/messages/.*_%s", fileName);
-        assertTrue(actualUrl.matches(expectedUrlPattern));
+        assertEquals(MessageStatus.PENDING_UPLOAD, response.getMessageStatus());
+        assertEquals(tempId, response.getTempId());
+        assertTrue(response.getAttachments().isEmpty());
 
         verify(messageRepo, times(1)).save(any(Message.class));
         verify(attachmentRepo, never()).save(any(Attachment.class));
-        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
-        verify(messagingTemplate, times(1))
-            .convertAndSendToUser(eq("receiver@test.com"), eq("/queue/unread"), any(Integer.class));
+        verify(attachmentUploadService, times(1)).submit(savedId, file);
+        verify(unreadCounterService, times(1)).messageReceived(receiver, senderId);
+    }
+
+    @Test
+    void testSendMessageRetryWithSameTempId_returnsOriginalWithoutPersisting() {
+        UUID senderId = UUID.randomUUID();
+        UUID receiverId = UUID.randomUUID();
+        Client sender = new Client();
+        sender.setId(senderId);
+        Artisan receiver = new Artisan();
+        receiver.setId(receiverId);
+
+        when(artisanRepo.findById(senderId)).thenReturn(Optional.empty());
+        when(clientRepo.findById(senderId)).thenReturn(Optional.of(sender));
+        when(clientRepo.getReferenceById(senderId)).thenReturn(sender);
+        when(artisanRepo.findById(receiverId)).thenReturn(Optional.of(receiver));
+
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getContentType()).thenReturn("image/png");
+        when(file.getSize()).thenReturn(1024L);
+
+        UUID savedId = UUID.randomUUID();
+        when(messageRepo.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            message.setId(savedId);
+            return message;
+        });
+
+        MessageRequestDTO dto = new MessageRequestDTO();
+        dto.setSenderId(senderId);
+        dto.setReceiverId(receiverId);
+        dto.setContent("Bonjour");
+        dto.setFile(file);
+        dto.setTempId("tmp-1");
+
+        MessageResponseDTO first = messageService.sendMessage(dto);
+        MessageResponseDTO retry = messageService.sendMessage(dto);
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertEquals(savedId, retry.getId());
+        assertEquals("tmp-1", retry.getTempId());
+        verify(messageRepo, times(1)).save(any(Message.class));
+        verify(attachmentUploadService, times(1)).submit(savedId, file);
+        verify(unreadCounterService, times(1)).messageReceived(receiver, senderId);
+    }
+
+    @Test
+    void testSendMessageRetryAfterWindow_findsOriginalInDatabase() {
+        UUID senderId = UUID.randomUUID();
+        Client sender = new Client();
+        sender.setId(senderId);
+        Artisan receiver = new Artisan();
+        receiver.setId(UUID.randomUUID());
+
+        Message existing = new Message();
+        existing.setId(UUID.randomUUID());
+        existing.setSender(sender);
+        existing.setReceiver(receiver);
+        existing.setContent("Bonjour");
+        existing.setTempId("tmp-1");
+        when(messageRepo.findBySenderIdAndTempId(senderId, "tmp-1")).thenReturn(Optional.of(existing));
+
+        MessageRequestDTO dto = new MessageRequestDTO();
+        dto.setSenderId(senderId);
+        dto.setReceiverId(receiver.getId());
+        dto.setContent("Bonjour");
+        dto.setTempId("tmp-1");
+
+        MessageResponseDTO response = messageService.sendMessage(dto);
+
+        assertTrue(response.isReplayed());
+        assertEquals(existing.getId(), response.getId());
+        verify(messageRepo, never()).save(any(Message.class));
+        verify(conversationSummaryService, never()).recordMessage(any());
+        verify(unreadCounterService, never()).messageReceived(any(), any());
+    }
+
+    @Test
+    void testSendMessageConcurrentDuplicate_returnsOriginalAsReplay() {
+        UUID senderId = UUID.randomUUID();
+        Client sender = new Client();
+        sender.setId(senderId);
+        Artisan receiver = new Artisan();
+        receiver.setId(UUID.randomUUID());
+
+        when(artisanRepo.findById(senderId)).thenReturn(Optional.empty());
+        when(clientRepo.findById(senderId)).thenReturn(Optional.of(sender));
+        when(clientRepo.getReferenceById(senderId)).thenReturn(sender);
+        when(artisanRepo.findById(receiver.getId())).thenReturn(Optional.of(receiver));
+
+        Message existing = new Message();
+        existing.setId(UUID.randomUUID());
+        existing.setSender(sender);
+        existing.setReceiver(receiver);
+        existing.setContent("Bonjour");
+        existing.setTempId("tmp-1");
+        // Le message n'existe pas encore à la vérification, puis est enregistré par une autre instance
+        when(messageRepo.findBySenderIdAndTempId(senderId, "tmp-1"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(existing));
+        when(messageRepo.save(any(Message.class))).thenThrow(new DataIntegrityViolationException(
+            "duplicate key value violates unique constraint \"" + Message.TEMP_ID_CONSTRAINT + "\""));
+
+        MessageRequestDTO dto = new MessageRequestDTO();
+        dto.setSenderId(senderId);
+        dto.setReceiverId(receiver.getId());
+        dto.setContent("Bonjour");
+        dto.setTempId("tmp-1");
+
+        MessageResponseDTO response = messageService.sendMessage(dto);
+
+        assertTrue(response.isReplayed());
+        assertEquals(existing.getId(), response.getId());
+        verify(transactionManager).rollback(any());
+        verify(conversationSummaryService, never()).recordMessage(any());
+        verify(unreadCounterService, never()).messageReceived(any(), any());
+    }
+
+    @Test
+    void testDeduplicate_publishesSendOnlyAfterCommit() {
+        Client sender = new Client();
+        sender.setId(UUID.randomUUID());
+        Message message = new Message();
+        message.setId(UUID.randomUUID());
+        message.setSender(sender);
+        message.setReceiver(new Artisan());
+        message.setMessageStatus(MessageStatus.SENT);
+        MessageResponseDTO sent = new MessageResponseDTO(message);
+
+        MessageRequestDTO dto = new MessageRequestDTO();
+        dto.setSenderId(sender.getId());
+        dto.setTempId("tmp-1");
+        when(messageRepo.findBySenderIdAndTempId(dto.getSenderId(), "tmp-1")).thenReturn(Optional.empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            messageService.deduplicate(dto, () -> sent);
+
+            // Transaction pas encore validée : le renvoi n'est pas servi depuis la mémoire
+            messageService.deduplicate(dto, () -> sent);
+            verify(messageRepo, times(2)).findBySenderIdAndTempId(dto.getSenderId(), "tmp-1");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        MessageResponseDTO retry = messageService.deduplicate(dto, () -> sent);
+        assertTrue(retry.isReplayed());
+        assertEquals(sent.getId(), retry.getId());
+        verify(messageRepo, times(2)).findBySenderIdAndTempId(dto.getSenderId(), "tmp-1");
     }
 
     @Test
@@ -212,6 +356,7 @@ class MessageServiceTest {
 
         when(artisanRepo.findById(senderId)).thenReturn(Optional.empty());
         when(clientRepo.findById(senderId)).thenReturn(Optional.of(sender));
+        when(clientRepo.getReferenceById(senderId)).thenReturn(sender);
         when(artisanRepo.findById(receiverId)).thenReturn(Optional.of(receiver));
 
         MultipartFile file = mock(MultipartFile.class);
@@ -249,6 +394,7 @@ class MessageServiceTest {
 
         when(artisanRepo.findById(senderId)).thenReturn(Optional.empty());
         when(clientRepo.findById(senderId)).thenReturn(Optional.of(sender));
+        when(clientRepo.getReferenceById(senderId)).thenReturn(sender);
         when(artisanRepo.findById(receiverId)).thenReturn(Optional.of(receiver));
 
         MultipartFile file = mock(MultipartFile.class);
@@ -343,6 +489,109 @@ class MessageServiceTest {
         assertEquals("Hi there", conversation.get(1).getContent());
     }
 
+    @Test
+    void testGetConversationPageFirstPage() {
+        // Arrange
+        UUID user1Id = UUID.randomUUID();
+        UUID user2Id = UUID.randomUUID();
+
+        Client user1 = new Client();
+        user1.setId(user1Id);
+        Artisan user2 = new Artisan();
+        user2.setId(user2Id);
+
+        LocalDateTime now = LocalDateTime.now();
+        Message newest = new Message();
+        newest.setId(UUID.randomUUID());
+        newest.setSender(user1);
+        newest.setReceiver(user2);
+        newest.setContent("Troisième");
+        newest.setCreatedAt(now);
+
+        Message middle = new Message();
+        middle.setId(UUID.randomUUID());
+        middle.setSender(user2);
+        middle.setReceiver(user1);
+        middle.setContent("Deuxième");
+        middle.setCreatedAt(now.minusMinutes(1));
+
+        Message oldest = new Message();
+        oldest.setId(UUID.randomUUID());
+        oldest.setSender(user1);
+        oldest.setReceiver(user2);
+        oldest.setContent("Premier");
+        oldest.setCreatedAt(now.minusMinutes(2));
+
+        when(clientRepo.existsById(user1Id)).thenReturn(true);
+        when(artisanRepo.existsById(user2Id)).thenReturn(true);
+        when(messageRepo.findLatestConversationPage(eq(user1Id), eq(user2Id), any(Pageable.class)))
+            .thenReturn(Arrays.asList(newest, middle, oldest));
+
+        // Act
+        CursorPageDTO<MessageResponseDTO> page = messageService.getConversationPage(user1Id, user2Id, null, 2);
+
+        // Assert
+        assertTrue(page.isHasMore());
+        assertEquals(2, page.getItems().size());
+        assertEquals("Deuxième", page.getItems().get(0).getContent());
+        assertEquals("Troisième", page.getItems().get(1).getContent());
+
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(middle.getId(), next.getId());
+        assertEquals(middle.getCreatedAt(), next.getCreatedAt());
+        verify(messageRepo, times(1)).fetchAttachments(any());
+    }
+
+    @Test
+    void testGetConversationPageWithCursor() {
+        // Arrange
+        UUID user1Id = UUID.randomUUID();
+        UUID user2Id = UUID.randomUUID();
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now(), UUID.randomUUID());
+
+        Client user1 = new Client();
+        user1.setId(user1Id);
+        Artisan user2 = new Artisan();
+        user2.setId(user2Id);
+
+        Message older = new Message();
+        older.setId(UUID.randomUUID());
+        older.setSender(user1);
+        older.setReceiver(user2);
+        older.setContent("Ancien");
+        older.setCreatedAt(cursor.getCreatedAt().minusDays(1));
+
+        when(clientRepo.existsById(user1Id)).thenReturn(true);
+        when(artisanRepo.existsById(user2Id)).thenReturn(true);
+        when(messageRepo.findConversationPageBefore(eq(user1Id), eq(user2Id),
+            eq(cursor.getCreatedAt()), eq(cursor.getId()), any(Pageable.class)))
+            .thenReturn(List.of(older));
+
+        // Act
+        CursorPageDTO<MessageResponseDTO> page =
+            messageService.getConversationPage(user1Id, user2Id, cursor.encode(), null);
+
+        // Assert
+        assertFalse(page.isHasMore());
+        assertEquals(1, page.getItems().size());
+        assertEquals(null, page.getNextCursor());
+        verify(messageRepo, never()).findLatestConversationPage(any(), any(), any());
+    }
+
+    @Test
+    void testGetConversationPageWithInvalidCursor() {
+        // Arrange
+        UUID user1Id = UUID.randomUUID();
+        UUID user2Id = UUID.randomUUID();
+        when(clientRepo.existsById(user1Id)).thenReturn(true);
+        when(artisanRepo.existsById(user2Id)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            messageService.getConversationPage(user1Id, user2Id, "pas-un-curseur", 10);
+        });
+    }
+
     @Test
     void testGetConversationWithInvalidUserId() {
         // Arrange
@@ -362,76 +611,20 @@ class MessageServiceTest {
     void testGetConversationSummaries() {
         // Arrange
         UUID userId = UUID.randomUUID();
-        UUID otherUserId1 = UUID.randomUUID();
-        UUID otherUserId2 = UUID.randomUUID();
-
-        Client currentUser = new Client();
-        currentUser.setId(userId);
-        currentUser.setEmail("current@test.com");
-        currentUser.setFirstName("John");
-        currentUser.setLastName("Doe");
-        currentUser.setUserRole(UserRole.CLIENT);
-
-        Artisan otherUser1 = new Artisan();
-        otherUser1.setId(otherUserId1);
-        otherUser1.setName("Artisan 1");
-        otherUser1.setEmail("artisan1@test.com");
-        otherUser1.setUserRole(UserRole.ARTISAN);
-
-        Artisan otherUser2 = new Artisan();
-        otherUser2.setId(otherUserId2);
-        otherUser2.setName("Artisan 2");
-        otherUser2.setEmail("artisan2@test.com");
-        otherUser2.setUserRole(UserRole.ARTISAN);
+        ConversationSummaryDTO summary = new ConversationSummaryDTO(
+            UUID.randomUUID(), "Artisan 1", "ARTISAN", null,
+            "Dernier message", LocalDateTime.now(), 1L
+        );
 
-        Message msg1 = new Message();
-        msg1.setId(UUID.randomUUID());
-        msg1.setSender(currentUser);
-        msg1.setReceiver(otherUser1);
-        msg1.setContent("Message to Artisan 1");
-        msg1.setCreatedAt(LocalDateTime.now().minusHours(2));
-        msg1.setRead(true);
-
-        Message msg2 = new Message();
-        msg2.setId(UUID.randomUUID());
-        msg2.setSender(otherUser1);
-        msg2.setReceiver(currentUser);
-        msg2.setContent("Response from Artisan 1");
-        msg2.setCreatedAt(LocalDateTime.now().minusHours(1));
-        msg2.setRead(false);
-
-        Message msg3 = new Message();
-        msg3.setId(UUID.randomUUID());
-        msg3.setSender(otherUser2);
-        msg3.setReceiver(currentUser);
-        msg3.setContent("Message from Artisan 2");
-        msg3.setCreatedAt(LocalDateTime.now().minusMinutes(30));
-        msg3.setRead(false);
-
-        when(artisanRepo.findById(userId)).thenReturn(Optional.empty());
-        when(clientRepo.findById(userId)).thenReturn(Optional.of(currentUser));
-
-        when(messageRepo.findAllBySenderIdOrReceiverId(userId, userId))
-            .thenReturn(Arrays.asList(msg1, msg2, msg3));
-
-        when(messageRepo.findByReceiverAndIsReadFalse(currentUser))
-            .thenReturn(Arrays.asList(msg2, msg3));
+        when(conversationSummaryService.getInbox(userId, 0, 20)).thenReturn(List.of(summary));
 
         // Act
-        List<ConversationSummaryDTO> summaries = messageService.getConversationSummaries(userId);
+        List<ConversationSummaryDTO> summaries = messageService.getConversationSummaries(userId, 0, 20);
 
         // Assert
-        assertNotNull(summaries);
-        assertEquals(2, summaries.size());
-        
-        // Le plus récent devrait être en premier
-        assertEquals(otherUserId2, summaries.get(0).getOtherUserId());
-        assertEquals("Artisan 2", summaries.get(0).getOtherUserName());
-        assertEquals(1L, summaries.get(0).getUnreadCount());
-
-        assertEquals(otherUserId1, summaries.get(1).getOtherUserId());
-        assertEquals("Artisan 1", summaries.get(1).getOtherUserName());
-        assertEquals(1L, summaries.get(1).getUnreadCount());
+        assertEquals(1, summaries.size());
+        assertEquals("Artisan 1", summaries.get(0).getOtherUserName());
+        verify(messageRepo, never()).findAllBySenderIdOrReceiverId(any(), any());
     }
 
     @Test
@@ -474,8 +667,12 @@ class MessageServiceTest {
         user.setId(userId);
         user.setEmail("user@test.com");
 
+        Artisan sender = new Artisan();
+        sender.setId(UUID.randomUUID());
+
         Message message = new Message();
         message.setId(messageId);
+        message.setSender(sender);
         message.setReceiver(user);
         message.setRead(false);
 
@@ -489,8 +686,61 @@ class MessageServiceTest {
         // Assert
         assertTrue(message.getRead());
         verify(messageRepo, times(1)).save(message);
-        verify(messagingTemplate, times(1))
-            .convertAndSendToUser(eq("user@test.com"), eq("/queue/unread"), eq(0));
+        verify(conversationSummaryService, times(1)).markRead(userId, sender.getId(), 1);
+        verify(unreadCounterService, times(1)).messagesRead(user, sender.getId(), 1);
+    }
+
+    @Test
+    void testMarkConversationRead() {
+        // Arrange
+        Client reader = new Client();
+        reader.setId(UUID.randomUUID());
+        UUID peerId = UUID.randomUUID();
+        LocalDateTime upTo = LocalDateTime.now();
+
+        when(messageRepo.markConversationRead(reader.getId(), peerId, upTo)).thenReturn(200);
+
+        // Act
+        int updated = messageService.markConversationRead(reader, peerId, upTo);
+
+        // Assert
+        assertEquals(200, updated);
+        verify(messageRepo, never()).findById(any());
+        verify(conversationSummaryService, times(1)).markConversationRead(reader.getId(), peerId, 200, upTo);
+        verify(unreadCounterService, times(1)).messagesRead(reader, peerId, 200);
+    }
+
+    @Test
+    void testMarkConversationReadClampsFutureDate() {
+        // Arrange : horloge du client en avance d'une heure
+        Client reader = new Client();
+        reader.setId(UUID.randomUUID());
+        UUID peerId = UUID.randomUUID();
+        LocalDateTime upTo = LocalDateTime.now().plusHours(1);
+
+        when(messageRepo.markConversationRead(eq(reader.getId()), eq(peerId), any(LocalDateTime.class))).thenReturn(3);
+
+        // Act
+        LocalDateTime before = LocalDateTime.now();
+        messageService.markConversationRead(reader, peerId, upTo);
+        LocalDateTime after = LocalDateTime.now();
+
+        // Assert : la lecture est datée de maintenant, pas de la date future
+        ArgumentCaptor<LocalDateTime> readAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(messageRepo, times(1)).markConversationRead(eq(reader.getId()), eq(peerId), readAt.capture());
+        assertFalse(readAt.getValue().isBefore(before));
+        assertFalse(readAt.getValue().isAfter(after));
+        verify(conversationSummaryService, times(1)).markConversationRead(reader.getId(), peerId, 3, readAt.getValue());
+    }
+
+    @Test
+    void testMarkConversationReadWithoutPeer() {
+        Client reader = new Client();
+        reader.setId(UUID.randomUUID());
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            messageService.markConversationRead(reader, null, null);
+        });
     }
 
     @Test
@@ -0,0 +1,199 @@
+package com.atelierlocal.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.atelierlocal.dto.MessageRequestDTO;
+import com.atelierlocal.dto.MessageResponseDTO;
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.Message;
+import com.atelierlocal.model.MessageStatus;
+import com.atelierlocal.repository.UserRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MessageWriteBehindServiceTest {
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private ConversationSummaryService conversationSummaryService;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private MessageWriteBehindService service;
+    private Client sender;
+    private Artisan receiver;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sender = new Client();
+        sender.setId(UUID.randomUUID());
+        receiver = new Artisan();
+        receiver.setId(UUID.randomUUID());
+
+        // La déduplication est testée dans MessageServiceTest : l'envoi est exécuté directement
+        when(messageService.deduplicate(any(), any())).thenAnswer(invocation ->
+            ((Supplier<MessageResponseDTO>) invocation.getArgument(1)).get());
+        // Les utilisateurs sont chargés à l'enregistrement du lot
+        when(userRepo.findById(sender.getId())).thenReturn(Optional.of(sender));
+        when(userRepo.findById(receiver.getId())).thenReturn(Optional.of(receiver));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+            .thenAnswer(invocation -> {
+                int[] counts = new int[((Collection<?>) invocation.getArgument(1)).size()];
+                Arrays.fill(counts, 1);
+                return new int[][] {counts};
+            });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void send_acknowledgesImmediatelyThenPersistsInBatch() throws IOException {
+        service = newService(100);
+
+        MessageResponseDTO first = service.send(request("Bonjour", "tmp-1"));
+        MessageResponseDTO second = service.send(request("Ça va ?", "tmp-2"));
+
+        assertNotNull(first.getId());
+        assertEquals(MessageStatus.SENT, first.getMessageStatus());
+        assertEquals("tmp-1", first.getTempId());
+        assertEquals("Ça va ?", second.getContent());
+
+        verify(conversationSummaryService, timeout(2000).times(2)).recordMessage(any(Message.class));
+        verify(unreadCounterService, timeout(2000).times(2)).messageReceived(receiver, sender.getId());
+
+        service.shutdown();
+        service = null;
+        assertEquals(0, journalFiles().count());
+    }
+
+    @Test
+    void send_queueFull_failsFastSoTheClientCanRetry() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+            .thenAnswer(invocation -> {
+                blocked.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return new int[][] {{1}};
+            });
+        service = newService(1);
+
+        MessageResponseDTO accepted = service.send(request("Premier", "tmp-1"));
+        assertTrue(blocked.await(2, TimeUnit.SECONDS));
+        MessageResponseDTO rejected = service.send(request("Second", "tmp-2"));
+        release.countDown();
+
+        assertEquals(MessageStatus.SENT, accepted.getMessageStatus());
+        assertEquals(MessageStatus.FAILED, rejected.getMessageStatus());
+        assertEquals("tmp-2", rejected.getTempId());
+    }
+
+    @Test
+    void start_replaysJournalLeftByPreviousRun() throws IOException {
+        MessageJournal previous = new MessageJournal(journalDir, objectMapper, false, 1024 * 1024);
+        previous.append(new PendingMessage(UUID.randomUUID(), sender.getId(), receiver.getId(), "Avant l'arrêt", null,
+            LocalDateTime.now()));
+        previous.close();
+
+        service = newService(100);
+
+        verify(conversationSummaryService, timeout(2000)).recordMessage(any(Message.class));
+        verify(unreadCounterService, timeout(2000)).messageReceived(receiver, sender.getId());
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(eq(MessageWriteBehindService.INSERT_SQL), anyCollection(),
+            eq(1), any());
+        service.shutdown();
+        service = null;
+        assertEquals(0, journalFiles().count());
+    }
+
+    @Test
+    void start_refusesMissingOrSharedJournalDirectory() throws IOException {
+        assertThrows(IllegalStateException.class, () -> new MessageWriteBehindService(messageService,
+            conversationSummaryService, unreadCounterService, userRepo, jdbcTemplate, transactionManager, objectMapper,
+            true, 100, 10, 100, 50, "", false));
+
+        MessageJournal other = new MessageJournal(journalDir, objectMapper, false, 1024 * 1024);
+        try {
+            assertThrows(IllegalStateException.class, () -> newService(100));
+        } finally {
+            other.close();
+        }
+    }
+
+    private MessageWriteBehindService newService(int queueCapacity) {
+        return new MessageWriteBehindService(messageService, conversationSummaryService, unreadCounterService, userRepo,
+            jdbcTemplate, transactionManager, objectMapper, true, 100, 10, queueCapacity, 50,
+            journalDir.toString(), false);
+    }
+
+    private MessageRequestDTO request(String content, String tempId) {
+        MessageRequestDTO dto = new MessageRequestDTO();
+        dto.setSenderId(sender.getId());
+        dto.setReceiverId(receiver.getId());
+        dto.setContent(content);
+        dto.setTempId(tempId);
+        return dto;
+    }
+
+    private Stream<Path> journalFiles() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            // Le fichier de verrou reste dans le dossier : seuls les segments sont comptés
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).toList().stream();
+        }
+    }
+}
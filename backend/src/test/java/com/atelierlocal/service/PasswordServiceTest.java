@@ -8,13 +8,16 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.atelierlocal.security.PasswordHashingExecutor;
+
 public class PasswordServiceTest {
 
     private PasswordService passwordService;
 
     @BeforeEach
     void setUp() {
-        passwordService = new PasswordService();
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(2, 65536, 0.5, 8, 10_000);
+        passwordService = new PasswordService(hashingExecutor, 65536, 1, 2, 10, 250, false);
     }
 
     // --- Tests hash & verify ---
@@ -29,6 +32,17 @@ public class PasswordServiceTest {
         assertFalse(passwordService.verifyPassword(hash, "MauvaisMot"), "Un mot de passe incorrect ne doit pas passer la vérification");
     }
 
+    @Test
+    void testNeedsRehash() {
+        String hash = passwordService.hashPassword("MotDePasse123!");
+
+        assertFalse(passwordService.needsRehash(hash), "Un hash aux paramètres actuels ne doit pas être recalculé");
+        assertTrue(passwordService.needsRehash("$argon2i$v=19$m=65536,t=1,p=1$c2Vs$aGFzaA"), "Trop peu d'itérations");
+        assertTrue(passwordService.needsRehash("$argon2i$v=19$m=4096,t=2,p=1$c2Vs$aGFzaA"), "Trop peu de mémoire");
+        assertFalse(passwordService.needsRehash("$argon2i$v=19$m=65536,t=4,p=1$c2Vs$aGFzaA"), "Un hash plus coûteux est conservé");
+        assertTrue(passwordService.needsRehash("$2a$10$bcrypt"), "Un format inconnu doit être recalculé");
+    }
+
     // --- Tests validatePassword ---
 
     @Test
@@ -0,0 +1,169 @@
+package com.atelierlocal.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import com.atelierlocal.dto.PresenceDTO;
+import com.atelierlocal.dto.TypingIndicatorDTO;
+import com.atelierlocal.security.JwtHandshakeInterceptor;
+
+class PresenceServiceTest {
+
+    @Mock
+    private ObjectProvider<SimpMessagingTemplate> messagingTemplateProvider;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private PresenceService service;
+
+    private final UUID aliceId = UUID.randomUUID();
+    private final UUID bobId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(messagingTemplateProvider.getObject()).thenReturn(messagingTemplate);
+        // Expiration 30 s, 2 sessions par utilisateur, refresh 3 s, 3 indicateurs par fenêtre de 10 s
+        service = new PresenceService(messagingTemplateProvider, 30_000, 2, 10, 5, 3_000, 3, 10_000, 100, now::get);
+    }
+
+    @Test
+    void connectAndDisconnect_notifiesWatchersOfTransitionsOnly() {
+        service.connect("alice-1", aliceId, "alice@test.fr");
+        List<PresenceDTO> snapshot = service.watch("alice-1", List.of(bobId));
+        assertFalse(snapshot.get(0).isOnline());
+
+        service.connect("bob-1", bobId, "bob@test.fr");
+        service.connect("bob-2", bobId, "bob@test.fr");
+        service.disconnect("bob-1");
+        assertTrue(service.isOnline(bobId));
+        service.disconnect("bob-2");
+
+        assertFalse(service.isOnline(bobId));
+        ArgumentCaptor<PresenceDTO> captor = ArgumentCaptor.forClass(PresenceDTO.class);
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("alice@test.fr"), eq("/queue/presence"), captor.capture());
+        assertTrue(captor.getAllValues().get(0).isOnline());
+        assertFalse(captor.getAllValues().get(1).isOnline());
+        assertNotNull(service.presenceOf(bobId).getLastSeenAt());
+    }
+
+    @Test
+    void typing_isCoalescedAndOnlyDeliveredToOnlineReceivers() {
+        service.connect("alice-1", aliceId, "alice@test.fr");
+
+        // Destinataire hors ligne : rien n'est transmis
+        assertFalse(service.typing("alice-1", bobId, true));
+
+        service.connect("bob-1", bobId, "bob@test.fr");
+        assertTrue(service.typing("alice-1", bobId, true));
+        now.addAndGet(1_000);
+        assertFalse(service.typing("alice-1", bobId, true));
+        now.addAndGet(3_000);
+        assertTrue(service.typing("alice-1", bobId, true));
+        assertTrue(service.typing("alice-1", bobId, false));
+        assertFalse(service.typing("alice-1", bobId, false));
+
+        ArgumentCaptor<TypingIndicatorDTO> captor = ArgumentCaptor.forClass(TypingIndicatorDTO.class);
+        verify(messagingTemplate, times(3)).convertAndSendToUser(eq("bob@test.fr"), eq("/queue/typing"), captor.capture());
+        assertEquals(aliceId, captor.getValue().getSenderId());
+        assertFalse(captor.getValue().isTyping());
+    }
+
+    @Test
+    void typing_isRateLimitedPerSender() {
+        service.connect("alice-1", aliceId, "alice@test.fr");
+        List<UUID> peers = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (UUID peer : peers) {
+            service.connect("session-" + peer, peer, peer + "@test.fr");
+        }
+
+        int delivered = 0;
+        for (UUID peer : peers) {
+            if (service.typing("alice-1", peer, true)) {
+                delivered++;
+            }
+        }
+
+        assertEquals(3, delivered);
+        // Une nouvelle fenêtre autorise de nouveau la transmission
+        now.addAndGet(10_000);
+        assertTrue(service.typing("alice-1", peers.get(3), true));
+    }
+
+    @Test
+    void expireStaleSessions_keepsSessionsWithRecentHeartbeat() {
+        service.connect("alice-1", aliceId, "alice@test.fr");
+        service.connect("bob-1", bobId, "bob@test.fr");
+
+        now.addAndGet(20_000);
+        SimpMessageHeaderAccessor heartbeat = SimpMessageHeaderAccessor.create(SimpMessageType.HEARTBEAT);
+        heartbeat.setSessionId("bob-1");
+        service.preSend(MessageBuilder.createMessage(new byte[0], heartbeat.getMessageHeaders()), null);
+        now.addAndGet(20_000);
+        service.expireStaleSessions();
+
+        assertFalse(service.isOnline(aliceId));
+        assertTrue(service.isOnline(bobId));
+    }
+
+    @Test
+    void preSend_reregistersExpiredSessionStillSendingMessages() {
+        service.connect("bob-1", bobId, "bob@test.fr");
+        now.addAndGet(40_000);
+        service.expireStaleSessions();
+        assertFalse(service.isOnline(bobId));
+
+        // La connexion a survécu à une coupure : le prochain message réenregistre la session
+        SimpMessageHeaderAccessor send = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        send.setSessionId("bob-1");
+        send.setSessionAttributes(new HashMap<>(Map.of(
+            JwtHandshakeInterceptor.USER_ID_ATTRIBUTE, bobId, "username", "bob@test.fr")));
+        service.preSend(MessageBuilder.createMessage(new byte[0], send.getMessageHeaders()), null);
+
+        assertTrue(service.isOnline(bobId));
+        service.disconnect("bob-1");
+        assertFalse(service.isOnline(bobId));
+    }
+
+    @Test
+    void connect_forgetsOldestSessionsBeyondLimit() {
+        service.connect("bob-1", bobId, "bob@test.fr");
+        service.connect("bob-2", bobId, "bob@test.fr");
+        service.connect("bob-3", bobId, "bob@test.fr");
+
+        // bob-1 n'est plus suivie : sa fermeture ne change rien
+        service.disconnect("bob-1");
+        service.disconnect("bob-2");
+        assertTrue(service.isOnline(bobId));
+        service.disconnect("bob-3");
+        assertFalse(service.isOnline(bobId));
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), eq("/queue/typing"), any());
+    }
+}
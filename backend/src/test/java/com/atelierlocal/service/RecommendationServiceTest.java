@@ -20,6 +20,7 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 class RecommendationServiceTest {
@@ -36,6 +37,9 @@ class RecommendationServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private TopArtisansFeedService topArtisansFeedService;
+
     @InjectMocks
     private RecommendationService recommendationService;
 
@@ -82,6 +86,9 @@ class RecommendationServiceTest {
         assertEquals(recommendationId, response.getId());
         assertEquals(clientId, response.getClientId());
         assertEquals(artisanId, response.getArtisanId());
+        verify(artisanRepo).addToRecommendationCount(artisanId, 1);
+        verify(clientRepo).addToRecommendationCount(clientId, 1);
+        verify(topArtisansFeedService).invalidate();
     }
 
     @Test
@@ -111,27 +118,44 @@ class RecommendationServiceTest {
         );
 
         assertTrue(ex.getMessage().contains("Artisan non trouvé"));
+        verify(artisanRepo, never()).addToRecommendationCount(any(), anyInt());
     }
 
     @Test
     void testDeleteRecommendation_success() {
-        when(recommendationRepo.existsById(recommendationId)).thenReturn(true);
+        when(recommendationRepo.findById(recommendationId)).thenReturn(Optional.of(recommendation));
         doNothing().when(recommendationRepo).deleteById(recommendationId);
 
         recommendationService.deleteRecommendation(recommendationId, client);
 
         verify(recommendationRepo, times(1)).deleteById(recommendationId);
+        verify(artisanRepo).addToRecommendationCount(artisanId, -1);
+        verify(clientRepo).addToRecommendationCount(clientId, -1);
+        verify(topArtisansFeedService).invalidate();
     }
 
     @Test
     void testDeleteRecommendation_notFound() {
-        when(recommendationRepo.existsById(recommendationId)).thenReturn(false);
+        when(recommendationRepo.findById(recommendationId)).thenReturn(Optional.empty());
 
         Exception ex = assertThrows(IllegalArgumentException.class, () ->
             recommendationService.deleteRecommendation(recommendationId, client)
         );
 
         assertTrue(ex.getMessage().contains("Recommendation non trouvée"));
+        verify(recommendationRepo, never()).deleteById(any());
+        verify(artisanRepo, never()).addToRecommendationCount(any(), anyInt());
+    }
+
+    @Test
+    void testReconcileCounts() {
+        when(artisanRepo.reconcileRecommendationCounts()).thenReturn(2);
+        when(clientRepo.reconcileRecommendationCounts()).thenReturn(0);
+
+        recommendationService.reconcileCounts();
+
+        verify(artisanRepo).reconcileRecommendationCounts();
+        verify(clientRepo).reconcileRecommendationCounts();
     }
 
     @Test
@@ -0,0 +1,181 @@
+package com.atelierlocal.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.atelierlocal.model.StoredObject;
+import com.atelierlocal.repository.StoredObjectRepo;
+import com.atelierlocal.storage.ObjectStorage;
+import com.atelierlocal.storage.ObjectStorageException;
+
+class StoredObjectServiceTest {
+
+    // Empreinte SHA-256 de "bonjour"
+    private static final String HASH = "2cb4b1431b84ec15d35ed83bb927e27e8967d75f4bcd9cc4b25c8d879ae23e18";
+    private static final String KEY = "objects/2c/" + HASH + ".txt";
+
+    @Mock
+    private StoredObjectRepo storedObjectRepo;
+
+    @Mock
+    private ObjectStorage objectStorage;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StoredObjectService storedObjectService;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        storedObjectService = new StoredObjectService(storedObjectRepo, objectStorage, transactionManager);
+        content = "bonjour".getBytes(StandardCharsets.UTF_8);
+
+        when(objectStorage.resolveUrl(anyString())).thenAnswer(invocation -> "/api/files/" + invocation.getArgument(0));
+        when(objectStorage.resolveKey(anyString())).thenAnswer(invocation ->
+            ((String) invocation.getArgument(0)).replace("/api/files/", ""));
+    }
+
+    @Test
+    void testStoreNewContentUploadsOnce() {
+        when(storedObjectRepo.findForUpdate(HASH)).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            assertArrayEquals(content, ((InputStream) invocation.getArgument(1)).readAllBytes());
+            return null;
+        }).when(objectStorage).put(eq(KEY), any(), eq(7L), eq("text/plain"));
+
+        String url = storedObjectService.store(new ByteArrayInputStream(content), content.length, "text/plain", "TXT");
+
+        assertEquals("/api/files/" + KEY, url);
+        verify(objectStorage).put(eq(KEY), any(), eq(7L), eq("text/plain"));
+        verify(storedObjectRepo).insertOrIncrement(HASH, KEY, "text/plain", 7L);
+    }
+
+    @Test
+    void testStoreStreamedContentIsSpooledThenUploaded() {
+        when(storedObjectRepo.findForUpdate(HASH)).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            assertArrayEquals(content, ((InputStream) invocation.getArgument(1)).readAllBytes());
+            return null;
+        }).when(objectStorage).put(eq(KEY), any(), eq(7L), eq("text/plain"));
+
+        InputStream streamed = new BufferedInputStream(new ByteArrayInputStream(content));
+        String url = storedObjectService.store(streamed, content.length, "text/plain", "txt");
+
+        assertEquals("/api/files/" + KEY, url);
+        verify(objectStorage).put(eq(KEY), any(), eq(7L), eq("text/plain"));
+    }
+
+    @Test
+    void testStoreFileIsUploadedFromDiskAndKept() throws Exception {
+        when(storedObjectRepo.findForUpdate(HASH)).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            assertArrayEquals(content, ((InputStream) invocation.getArgument(1)).readAllBytes());
+            return null;
+        }).when(objectStorage).put(eq(KEY), any(), eq(7L), eq("text/plain"));
+        Path file = Files.write(Files.createTempFile("stored-object-test-", ".txt"), content);
+
+        try {
+            String url = storedObjectService.store(file, "text/plain", "txt");
+
+            assertEquals("/api/files/" + KEY, url);
+            verify(storedObjectRepo).insertOrIncrement(HASH, KEY, "text/plain", 7L);
+            assertTrue(Files.exists(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testStoreExistingContentSkipsUpload() {
+        StoredObject existing = storedObject(2);
+        when(storedObjectRepo.findForUpdate(HASH)).thenReturn(Optional.of(existing));
+
+        String url = storedObjectService.store(new ByteArrayInputStream(content), content.length, "text/plain", "txt");
+
+        assertEquals("/api/files/" + KEY, url);
+        assertEquals(3, existing.getRefCount());
+        verify(objectStorage, never()).put(anyString(), any(), anyLong(), anyString());
+        verify(storedObjectRepo, never()).insertOrIncrement(anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void testReleaseDecrementsSharedContent() {
+        StoredObject existing = storedObject(2);
+        when(storedObjectRepo.findByStorageKeyForUpdate(KEY)).thenReturn(Optional.of(existing));
+
+        storedObjectService.release("/api/files/" + KEY);
+
+        assertEquals(1, existing.getRefCount());
+        verify(storedObjectRepo).save(existing);
+        verify(objectStorage, never()).delete(anyString());
+    }
+
+    @Test
+    void testReleaseLastReferenceDeletesContent() {
+        StoredObject existing = storedObject(1);
+        when(storedObjectRepo.findByStorageKeyForUpdate(KEY)).thenReturn(Optional.of(existing));
+
+        storedObjectService.release("/api/files/" + KEY);
+
+        verify(storedObjectRepo).delete(existing);
+        verify(objectStorage).delete(KEY);
+    }
+
+    @Test
+    void testReleaseIgnoresUntrackedFiles() {
+        when(objectStorage.resolveKey("https://autre-bucket/placeholder.png")).thenReturn(null);
+        when(storedObjectRepo.findByStorageKeyForUpdate("avatars/u1/old.png")).thenReturn(Optional.empty());
+
+        storedObjectService.releaseAfterCommit(List.of("https://autre-bucket/placeholder.png", "/api/files/avatars/u1/old.png"));
+
+        verify(objectStorage, never()).delete(anyString());
+    }
+
+    @Test
+    void testReleaseFailureIsPropagatedButNotAfterCommit() {
+        when(storedObjectRepo.findByStorageKeyForUpdate(KEY)).thenReturn(Optional.of(storedObject(1)));
+        doThrow(new ObjectStorageException("S3 indisponible")).when(objectStorage).delete(KEY);
+
+        assertThrows(ObjectStorageException.class, () -> storedObjectService.release("/api/files/" + KEY));
+
+        when(storedObjectRepo.findByStorageKeyForUpdate(KEY)).thenReturn(Optional.of(storedObject(1)));
+        storedObjectService.releaseAfterCommit(List.of("/api/files/" + KEY));
+    }
+
+    private StoredObject storedObject(long refCount) {
+        StoredObject storedObject = new StoredObject();
+        storedObject.setHash(HASH);
+        storedObject.setStorageKey(KEY);
+        storedObject.setContentType("text/plain");
+        storedObject.setSize(7);
+        storedObject.setRefCount(refCount);
+        return storedObject;
+    }
+}
@@ -0,0 +1,105 @@
+package com.atelierlocal.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.atelierlocal.dto.ArtisanResponseDTO;
+import com.atelierlocal.model.Artisan;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class TopArtisansFeedServiceTest {
+
+    @Mock
+    private ArtisanService artisanService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private TopArtisansFeedService topArtisansFeedService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        topArtisansFeedService = new TopArtisansFeedService(artisanService, objectMapper, 60);
+    }
+
+    @Test
+    void testSampleReturnsDistinctArtisansFromSnapshot() throws Exception {
+        when(artisanService.getTopArtisans(TopArtisansFeedService.SNAPSHOT_SIZE))
+            .thenReturn(List.of(artisan("A"), artisan("B"), artisan("C"), artisan("D")));
+        topArtisansFeedService.refresh();
+
+        for (int i = 0; i < 20; i++) {
+            JsonNode sample = objectMapper.readTree(topArtisansFeedService.sample(3).json());
+            assertEquals(3, sample.size());
+            assertEquals(3, java.util.stream.StreamSupport.stream(sample.spliterator(), false)
+                .map(node -> node.get("name").asText()).distinct().count());
+        }
+        // Les requêtes ne rechargent pas l'instantané
+        verify(artisanService, times(1)).getTopArtisans(TopArtisansFeedService.SNAPSHOT_SIZE);
+    }
+
+    @Test
+    void testSampleWithFewerArtisansThanRequested() throws Exception {
+        when(artisanService.getTopArtisans(TopArtisansFeedService.SNAPSHOT_SIZE)).thenReturn(List.of(artisan("A")));
+        topArtisansFeedService.refresh();
+
+        assertEquals(1, objectMapper.readTree(topArtisansFeedService.sample(3).json()).size());
+    }
+
+    @Test
+    void testEmptySnapshotReturnsEmptyArray() {
+        assertEquals("[]", topArtisansFeedService.sample(3).json());
+    }
+
+    @Test
+    void testInvalidationTriggersSingleRefreshAndChangesEtag() {
+        when(artisanService.getTopArtisans(TopArtisansFeedService.SNAPSHOT_SIZE))
+            .thenReturn(List.of(artisan("A")))
+            .thenReturn(List.of(artisan("A"), artisan("B")));
+        topArtisansFeedService.refreshIfStale();
+        String before = topArtisansFeedService.getEtag();
+
+        topArtisansFeedService.invalidate();
+        topArtisansFeedService.invalidate();
+        topArtisansFeedService.refreshIfStale();
+        topArtisansFeedService.refreshIfStale();
+
+        verify(artisanService, times(2)).getTopArtisans(TopArtisansFeedService.SNAPSHOT_SIZE);
+        assertNotEquals(before, topArtisansFeedService.getEtag());
+        assertTrue(topArtisansFeedService.getEtag().startsWith("W/\""));
+    }
+
+    @Test
+    void testFailedRefreshKeepsPreviousSnapshot() throws Exception {
+        when(artisanService.getTopArtisans(TopArtisansFeedService.SNAPSHOT_SIZE))
+            .thenReturn(List.of(artisan("A")))
+            .thenThrow(new RuntimeException("DB down"));
+        topArtisansFeedService.refresh();
+        String etag = topArtisansFeedService.getEtag();
+
+        topArtisansFeedService.scheduledRefresh();
+
+        assertEquals(etag, topArtisansFeedService.getEtag());
+        assertEquals(1, objectMapper.readTree(topArtisansFeedService.sample(3).json()).size());
+    }
+
+    private ArtisanResponseDTO artisan(String name) {
+        Artisan artisan = new Artisan();
+        artisan.setId(UUID.randomUUID());
+        artisan.setName(name);
+        return new ArtisanResponseDTO(artisan);
+    }
+}
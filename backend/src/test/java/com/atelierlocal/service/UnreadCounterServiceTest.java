@@ -0,0 +1,136 @@
+package com.atelierlocal.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.atelierlocal.model.Client;
+import com.atelierlocal.repository.MessageRepo;
+
+class UnreadCounterServiceTest {
+
+    @Mock
+    private MessageRepo messageRepo;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private UnreadCounterService unreadCounterService;
+
+    private Client user;
+    private UUID peer1;
+    private UUID peer2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        unreadCounterService = new UnreadCounterService(messageRepo, messagingTemplate, 100, 3600);
+
+        user = new Client();
+        user.setId(UUID.randomUUID());
+        user.setEmail("user@test.com");
+        peer1 = UUID.randomUUID();
+        peer2 = UUID.randomUUID();
+
+        when(messageRepo.countUnreadBySender(user.getId())).thenReturn(List.of(
+            new Object[]{peer1, 2L},
+            new Object[]{peer2, 3L}
+        ));
+    }
+
+    @Test
+    void testTotalIsLoadedOnceFromDatabase() {
+        assertEquals(5L, unreadCounterService.getTotal(user.getId()));
+        assertEquals(5L, unreadCounterService.getTotal(user.getId()));
+
+        verify(messageRepo, times(1)).countUnreadBySender(user.getId());
+    }
+
+    @Test
+    void testMessageReceivedIncrementsAndNotifies() {
+        unreadCounterService.getTotal(user.getId());
+
+        unreadCounterService.messageReceived(user, peer1);
+
+        assertEquals(6L, unreadCounterService.getTotal(user.getId()));
+        assertEquals(3L, unreadCounterService.getByConversation(user.getId()).get(peer1));
+        verify(messagingTemplate, times(1)).convertAndSendToUser("user@test.com", "/queue/unread", 6);
+    }
+
+    @Test
+    void testMessagesReadNeverGoesBelowZero() {
+        unreadCounterService.getTotal(user.getId());
+
+        unreadCounterService.messagesRead(user, peer1, 10);
+
+        Map<UUID, Long> byConversation = unreadCounterService.getByConversation(user.getId());
+        assertFalse(byConversation.containsKey(peer1));
+        assertEquals(3L, unreadCounterService.getTotal(user.getId()));
+        verify(messagingTemplate, times(1)).convertAndSendToUser("user@test.com", "/queue/unread", 3);
+    }
+
+    @Test
+    void testEvictReloadsFromDatabase() {
+        unreadCounterService.getTotal(user.getId());
+        unreadCounterService.evict(user.getId());
+        unreadCounterService.getTotal(user.getId());
+
+        verify(messageRepo, times(2)).countUnreadBySender(user.getId());
+    }
+
+    @Test
+    void testLoadDuringCommitDoesNotCountMessageTwice() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            unreadCounterService.messageReceived(user, peer1);
+
+            // Chargement entre la validation et l'incrément : la base compte déjà le message
+            when(messageRepo.countUnreadBySender(user.getId())).thenReturn(List.<Object[]>of(
+                new Object[]{peer1, 3L},
+                new Object[]{peer2, 3L}
+            ));
+            assertEquals(6L, unreadCounterService.getTotal(user.getId()));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(6L, unreadCounterService.getTotal(user.getId()));
+        assertEquals(3L, unreadCounterService.getByConversation(user.getId()).get(peer1));
+    }
+
+    @Test
+    void testChangeForAnotherUserDoesNotPreventCaching() {
+        Client other = new Client();
+        other.setId(UUID.randomUUID());
+        other.setEmail("other@test.com");
+        when(messageRepo.countUnreadBySender(other.getId())).thenReturn(List.of());
+
+        // Un message reçu par un autre utilisateur pendant le chargement des compteurs de "user"
+        when(messageRepo.countUnreadBySender(user.getId())).thenAnswer(invocation -> {
+            unreadCounterService.messageReceived(other, peer1);
+            return List.<Object[]>of(new Object[]{peer1, 2L}, new Object[]{peer2, 3L});
+        });
+
+        assertEquals(5L, unreadCounterService.getTotal(user.getId()));
+        assertEquals(5L, unreadCounterService.getTotal(user.getId()));
+
+        verify(messageRepo, times(1)).countUnreadBySender(user.getId());
+    }
+}
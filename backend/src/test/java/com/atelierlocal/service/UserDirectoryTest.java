@@ -0,0 +1,97 @@
+package com.atelierlocal.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.atelierlocal.model.Artisan;
+import com.atelierlocal.model.Client;
+import com.atelierlocal.model.UserRole;
+import com.atelierlocal.repository.ArtisanRepo;
+import com.atelierlocal.repository.ClientRepo;
+
+class UserDirectoryTest {
+
+    @Mock
+    private ArtisanRepo artisanRepo;
+
+    @Mock
+    private ClientRepo clientRepo;
+
+    private UserDirectory userDirectory;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDirectory = new UserDirectory(artisanRepo, clientRepo, 100, 300);
+
+        client = new Client();
+        client.setId(UUID.randomUUID());
+        client.setEmail("client@mail.com");
+        client.setFirstName("Jean");
+        client.setLastName("Dupont");
+        client.setUserRole(UserRole.CLIENT);
+    }
+
+    @Test
+    void findById_loadsOnceThenServesByIdAndEmailFromMemory() {
+        when(artisanRepo.findById(client.getId())).thenReturn(Optional.empty());
+        when(clientRepo.findById(client.getId())).thenReturn(Optional.of(client));
+
+        UserDirectory.Entry entry = userDirectory.findById(client.getId()).orElseThrow();
+        userDirectory.findById(client.getId());
+        UserDirectory.Entry byEmail = userDirectory.findByEmail("client@mail.com").orElseThrow();
+
+        assertEquals("client@mail.com", entry.email());
+        assertEquals(UserRole.CLIENT, entry.role());
+        assertFalse(entry.artisan());
+        assertEquals(entry, byEmail);
+        verify(clientRepo, times(1)).findById(client.getId());
+        verify(artisanRepo, never()).findByEmail(any());
+    }
+
+    @Test
+    void invalidate_reloadsUpdatedUser() {
+        Artisan artisan = new Artisan();
+        artisan.setId(UUID.randomUUID());
+        artisan.setEmail("old@mail.com");
+        artisan.setName("Atelier Bois");
+        artisan.setUserRole(UserRole.ARTISAN);
+        when(artisanRepo.findById(artisan.getId())).thenReturn(Optional.of(artisan));
+        assertTrue(userDirectory.findById(artisan.getId()).orElseThrow().artisan());
+
+        artisan.setEmail("new@mail.com");
+        userDirectory.invalidate(artisan.getId());
+        when(artisanRepo.findByEmail("old@mail.com")).thenReturn(Optional.empty());
+        when(clientRepo.findByEmail("old@mail.com")).thenReturn(Optional.empty());
+
+        assertEquals("new@mail.com", userDirectory.findById(artisan.getId()).orElseThrow().email());
+        assertTrue(userDirectory.findByEmail("old@mail.com").isEmpty());
+        verify(artisanRepo, times(2)).findById(artisan.getId());
+    }
+
+    @Test
+    void findById_unknownUserIsNotCached() {
+        UUID unknownId = UUID.randomUUID();
+        when(artisanRepo.findById(unknownId)).thenReturn(Optional.empty());
+        when(clientRepo.findById(unknownId)).thenReturn(Optional.empty());
+
+        assertTrue(userDirectory.findById(unknownId).isEmpty());
+        assertTrue(userDirectory.findById(unknownId).isEmpty());
+
+        verify(clientRepo, times(2)).findById(unknownId);
+    }
+}
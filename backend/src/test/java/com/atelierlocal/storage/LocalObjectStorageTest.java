@@ -0,0 +1,96 @@
+package com.atelierlocal.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalObjectStorageTest {
+
+    @TempDir
+    Path rootDir;
+
+    private LocalObjectStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalObjectStorage(rootDir.toString(), "/api/files");
+    }
+
+    @Test
+    void testPutThenGet() throws IOException {
+        byte[] content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        storage.put("avatars/u1/photo.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        assertTrue(storage.exists("avatars/u1/photo.png"));
+        try (InputStream in = storage.get("avatars/u1/photo.png")) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testPutEmptyFile() throws IOException {
+        storage.put("messages/empty.txt", new ByteArrayInputStream(new byte[0]), 0, "text/plain");
+
+        try (InputStream in = storage.get("messages/empty.txt")) {
+            assertEquals(0, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void testPutWithShortContentFailsWithoutLeavingFile() {
+        assertThrows(ObjectStorageException.class,
+            () -> storage.put("messages/short.bin", new ByteArrayInputStream(new byte[10]), 20, "application/octet-stream"));
+
+        assertFalse(storage.exists("messages/short.bin"));
+        assertFalse(rootDir.resolve("messages").toFile().list().length > 0);
+    }
+
+    @Test
+    void testDelete() {
+        storage.put("portfolio/a/b.jpg", new ByteArrayInputStream(new byte[]{1}), 1, "image/jpeg");
+
+        storage.delete("portfolio/a/b.jpg");
+        storage.delete("portfolio/a/b.jpg");
+
+        assertFalse(storage.exists("portfolio/a/b.jpg"));
+        assertThrows(ObjectStorageException.class, () -> storage.get("portfolio/a/b.jpg"));
+    }
+
+    @Test
+    void testKeyOutsideRootIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> storage.put("../evil.txt", new ByteArrayInputStream(new byte[]{1}), 1, "text/plain"));
+        assertThrows(IllegalArgumentException.class, () -> storage.get("a/../../evil.txt"));
+    }
+
+    @Test
+    void testResolveUrlAndKey() {
+        assertEquals("/api/files/avatars/u1/photo.png", storage.resolveUrl("avatars/u1/photo.png"));
+        assertEquals("avatars/u1/photo.png", storage.resolveKey("/api/files/avatars/u1/photo.png"));
+        assertNull(storage.resolveKey("https://bucket.s3.eu-west-3.amazonaws.com/avatars/u1/photo.png"));
+        assertNull(storage.resolveKey(null));
+    }
+
+    @Test
+    void testResolveUrlEncodesKeySegments() {
+        String url = storage.resolveUrl("avatars/u1/photo d'été #1.png");
+
+        assertEquals("/api/files/avatars/u1/photo%20d'%C3%A9t%C3%A9%20%231.png", url);
+        assertEquals("avatars/u1/photo d'été #1.png", storage.resolveKey(url));
+    }
+}
@@ -0,0 +1,145 @@
+package com.atelierlocal.storage;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.atelierlocal.model.S3Properties;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3ObjectStorageTest {
+
+    private static final long PART_SIZE = S3ObjectStorage.MIN_PART_SIZE;
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3Properties s3Properties;
+
+    private S3ObjectStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(s3Properties.getBucketName()).thenReturn("my-bucket");
+        when(s3Properties.getRegion()).thenReturn("eu-west-3");
+        storage = new S3ObjectStorage(s3Client, s3Properties, PART_SIZE, "");
+    }
+
+    @Test
+    void testSmallFileUsesSinglePut() {
+        storage.put("avatars/u1/photo.png", new ByteArrayInputStream(new byte[10]), 10, "image/png");
+
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals("my-bucket", captor.getValue().bucket());
+        assertEquals("avatars/u1/photo.png", captor.getValue().key());
+        // Aucune ACL par défaut : les buckets en BucketOwnerEnforced refuseraient la requête
+        assertNull(captor.getValue().aclAsString());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testConfiguredAclIsSentOnEveryUpload() {
+        storage = new S3ObjectStorage(s3Client, s3Properties, PART_SIZE, "public-read");
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+            .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+            .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        storage.put("avatars/u1/photo.png", new ByteArrayInputStream(new byte[10]), 10, "image/png");
+        long length = PART_SIZE + 10;
+        storage.put("messages/big.bin", new ByteArrayInputStream(new byte[(int) length]), length, "application/octet-stream");
+
+        ArgumentCaptor<PutObjectRequest> put = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(put.capture(), any(RequestBody.class));
+        assertEquals("public-read", put.getValue().aclAsString());
+        ArgumentCaptor<CreateMultipartUploadRequest> create = ArgumentCaptor.forClass(CreateMultipartUploadRequest.class);
+        verify(s3Client).createMultipartUpload(create.capture());
+        assertEquals("public-read", create.getValue().aclAsString());
+    }
+
+    @Test
+    void testLargeFileUsesMultipartUpload() {
+        long length = PART_SIZE * 2 + 10;
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+            .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+            .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        storage.put("messages/big.bin", new ByteArrayInputStream(new byte[(int) length]), length, "application/octet-stream");
+
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        ArgumentCaptor<CompleteMultipartUploadRequest> captor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(captor.capture());
+        assertEquals("upload-1", captor.getValue().uploadId());
+        assertEquals(3, captor.getValue().multipartUpload().parts().size());
+    }
+
+    @Test
+    void testMultipartFailureAbortsUpload() {
+        long length = PART_SIZE * 2;
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+            .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+            .thenThrow(SdkClientException.create("S3 indisponible"));
+
+        assertThrows(ObjectStorageException.class,
+            () -> storage.put("messages/big.bin", new ByteArrayInputStream(new byte[(int) length]), length, "application/octet-stream"));
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testExists() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+            .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+
+        assertFalse(storage.exists("missing"));
+    }
+
+    @Test
+    void testResolveUrlAndKey() {
+        String url = storage.resolveUrl("avatars/u1/photo.png");
+
+        assertEquals("https://my-bucket.s3.eu-west-3.amazonaws.com/avatars/u1/photo.png", url);
+        assertEquals("avatars/u1/photo.png", storage.resolveKey(url));
+        assertNull(storage.resolveKey("/api/files/avatars/u1/photo.png"));
+        assertTrue(storage.resolveKey(url).startsWith("avatars/"));
+    }
+
+    @Test
+    void testResolveUrlEncodesKeySegments() {
+        String url = storage.resolveUrl("avatars/u1/photo 1?.png");
+
+        assertEquals("https://my-bucket.s3.eu-west-3.amazonaws.com/avatars/u1/photo%201%3F.png", url);
+        assertEquals("avatars/u1/photo 1?.png", storage.resolveKey(url));
+    }
+}
@@ -155,7 +155,7 @@ export default function MessagesList({ initialMessages, user, otherUser, otherUs
                             target="_blank"
                             rel="noopener noreferrer"
                           >
-                            Pièce jointe: {attachment.fileUrl.split("/").pop() || "Fichier"}
+                            Pièce jointe: {attachment.fileName || attachment.fileUrl.split("/").pop() || "Fichier"}
                           </a>
                         </div>
                       ))